@@ -35,6 +35,13 @@ public class Histogram extends BaseMeter {
         super(meterId);
     }
 
+    /**
+     * @param striped count the buckets by striped counters, for the histograms recorded by many threads concurrently
+     */
+    protected Histogram(MeterId meterId, List<Double> steps, boolean striped) {
+        super(meterId);
+    }
+
     /**
      * Add value into the histogram, automatic analyze what bucket count need to be increment [step1, step2)
      */
@@ -44,6 +51,7 @@ public class Histogram extends BaseMeter {
     public static class Builder extends BaseBuilder<Builder, Histogram> {
         private double minValue = 0;
         private List<Double> steps;
+        private boolean striped;
 
         public Builder(String name) {
             super(name);
@@ -69,6 +77,14 @@ public class Histogram extends BaseMeter {
             return this;
         }
 
+        /**
+         * Count the buckets by striped counters, which fits the histograms recorded by many threads concurrently.
+         */
+        public Builder striped() {
+            this.striped = true;
+            return this;
+        }
+
         @Override
         protected MeterId.MeterType getType() {
             return MeterId.MeterType.HISTOGRAM;
@@ -91,7 +107,7 @@ public class Histogram extends BaseMeter {
                 steps.add(0, minValue);
             }
 
-            return new Histogram(meterId, steps);
+            return striped ? new Histogram(meterId, steps, true) : new Histogram(meterId, steps);
         }
     }
 
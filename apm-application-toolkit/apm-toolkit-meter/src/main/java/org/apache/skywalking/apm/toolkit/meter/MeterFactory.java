@@ -64,4 +64,18 @@ public class MeterFactory {
         return new Histogram.Builder(meterId);
     }
 
+    /**
+     * Create a quantile sketch builder by name
+     */
+    public static QuantileSketch.Builder quantileSketch(String name) {
+        return new QuantileSketch.Builder(name);
+    }
+
+    /**
+     * Create a quantile sketch builder by meterId
+     */
+    public static QuantileSketch.Builder quantileSketch(MeterId meterId) {
+        return new QuantileSketch.Builder(meterId);
+    }
+
 }
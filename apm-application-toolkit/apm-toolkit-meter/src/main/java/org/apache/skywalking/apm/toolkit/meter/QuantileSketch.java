@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.toolkit.meter;
+
+/**
+ * QuantileSketch represents the distribution of data with a bounded relative error, so the quantiles are accurate at
+ * any scale without declaring the buckets up front. It is reported as a compact histogram, at most {@code maxBuckets}
+ * buckets.
+ *
+ * The source code of this class doesn't include the implementation, all logic are injected from its activation.
+ */
+public class QuantileSketch extends BaseMeter {
+
+    protected QuantileSketch(MeterId meterId, double relativeAccuracy, double lowestTrackableValue,
+                             double highestTrackableValue, int maxBuckets) {
+        super(meterId);
+    }
+
+    /**
+     * Add value into the sketch, negative values are ignored.
+     */
+    public void addValue(double value) {
+    }
+
+    public static class Builder extends BaseBuilder<Builder, QuantileSketch> {
+        private double relativeAccuracy = 0.01;
+        private double lowestTrackableValue = 0.001;
+        private double highestTrackableValue = 1e9;
+        private int maxBuckets = 32;
+
+        public Builder(String name) {
+            super(name);
+        }
+
+        public Builder(MeterId meterId) {
+            super(meterId);
+        }
+
+        /**
+         * Set the max relative error of the values of the quantiles, default is 1%
+         */
+        public Builder relativeAccuracy(double relativeAccuracy) {
+            this.relativeAccuracy = relativeAccuracy;
+            return this;
+        }
+
+        /**
+         * Set the range of the values counted with the relative accuracy, default is [0.001, 1e9]. The values less than
+         * the lowest are counted in the first bucket starting from 0.
+         */
+        public Builder range(double lowestTrackableValue, double highestTrackableValue) {
+            this.lowestTrackableValue = lowestTrackableValue;
+            this.highestTrackableValue = highestTrackableValue;
+            return this;
+        }
+
+        /**
+         * Set the max count of the reported buckets, default is 32
+         */
+        public Builder maxBuckets(int maxBuckets) {
+            this.maxBuckets = maxBuckets;
+            return this;
+        }
+
+        @Override
+        protected MeterId.MeterType getType() {
+            return MeterId.MeterType.QUANTILE_SKETCH;
+        }
+
+        @Override
+        protected QuantileSketch create() {
+            if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+                throw new IllegalArgumentException("Relative accuracy must be in (0, 1)");
+            }
+            if (!(lowestTrackableValue > 0 && lowestTrackableValue < highestTrackableValue)) {
+                throw new IllegalArgumentException("Trackable values must be positive and the lowest less than the highest");
+            }
+            if (maxBuckets < 2) {
+                throw new IllegalArgumentException("Max buckets must be at least 2");
+            }
+            return new QuantileSketch(meterId, relativeAccuracy, lowestTrackableValue, highestTrackableValue, maxBuckets);
+        }
+    }
+
+}
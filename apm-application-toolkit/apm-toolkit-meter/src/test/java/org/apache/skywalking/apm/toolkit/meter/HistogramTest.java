@@ -30,6 +30,10 @@ public class HistogramTest {
         // normal
         Assert.assertNotNull(MeterFactory.histogram("test_histogram1").steps(Arrays.asList(1d, 5d, 10d)).minValue(-10)
                 .tag("k1", "v1").build());
+
+        // striped
+        Assert.assertNotNull(MeterFactory.histogram("test_histogram2").steps(Arrays.asList(1d, 5d, 10d)).striped()
+                .build());
     }
 
 }
@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.toolkit.meter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class QuantileSketchTest {
+
+    @Test
+    public void testBuild() {
+        // normal
+        Assert.assertNotNull(MeterFactory.quantileSketch("test_sketch1").relativeAccuracy(0.02).range(1, 1e6)
+                .maxBuckets(16).tag("k1", "v1").build());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalAccuracy() {
+        MeterFactory.quantileSketch("test_sketch2").relativeAccuracy(1).build();
+    }
+
+}
@@ -25,6 +25,7 @@ import org.apache.skywalking.apm.toolkit.meter.Counter;
 import org.apache.skywalking.apm.toolkit.meter.Histogram;
 import org.apache.skywalking.apm.toolkit.meter.MeterFactory;
 import org.apache.skywalking.apm.toolkit.meter.MeterId;
+import org.apache.skywalking.apm.toolkit.meter.QuantileSketch;
 
 import java.util.List;
 import java.util.NavigableSet;
@@ -54,22 +55,30 @@ public class MeterBuilder {
     }
 
     /**
-     * Build the histogram
+     * Build the histogram of the service level objectives. The percentile histogram is built by {@link
+     * #buildQuantileSketch(MeterId, DistributionStatisticConfig, boolean)} instead, the service level objectives are
+     * kept in the "_slo_histogram" when both of them are published.
      * @return return histogram if support
      */
     public static Optional<Histogram> buildHistogram(MeterId meterId, boolean supportsAggregablePercentiles,
                                                      DistributionStatisticConfig distributionStatisticConfig,
                                                      boolean useNanoTime) {
-        if (!distributionStatisticConfig.isPublishingHistogram()) {
+        final boolean sketched = isPercentileHistogram(distributionStatisticConfig);
+        final double[] serviceLevelObjectives = distributionStatisticConfig.getServiceLevelObjectiveBoundaries();
+        if (!distributionStatisticConfig.isPublishingHistogram()
+            || sketched && (serviceLevelObjectives == null || serviceLevelObjectives.length == 0)) {
             return Optional.empty();
         }
 
-        final NavigableSet<Double> buckets = distributionStatisticConfig.getHistogramBuckets(supportsAggregablePercentiles);
+        // the percentile buckets are left out when sketched
+        final NavigableSet<Double> buckets = distributionStatisticConfig.getHistogramBuckets(
+            supportsAggregablePercentiles && !sketched);
         final List<Double> steps = buckets.stream().sorted(Double::compare)
             .map(t -> useNanoTime ? TimeUtils.nanosToUnit(t, TimeUnit.MILLISECONDS) : t).collect(Collectors.toList());
 
+        final String name = meterId.getName() + (sketched ? "_slo_histogram" : "_histogram");
         final Histogram.Builder histogramBuilder = MeterFactory.histogram(
-            meterId.copyTo(meterId.getName() + "_histogram", MeterId.MeterType.HISTOGRAM)).steps(steps);
+            meterId.copyTo(name, MeterId.MeterType.HISTOGRAM)).steps(steps);
         final Double minimumExpectedValueAsDouble = distributionStatisticConfig.getMinimumExpectedValueAsDouble();
         if (minimumExpectedValueAsDouble != null) {
             histogramBuilder.minValue(useNanoTime ?
@@ -78,6 +87,38 @@ public class MeterBuilder {
         return Optional.of(histogramBuilder.build());
     }
 
+    /**
+     * Build the quantile sketch for the percentile histogram, rather than a histogram of the hundreds of buckets
+     * micrometer generates. It is reported as the histogram, with the compact buckets.
+     * @return return quantile sketch if the percentile histogram is published
+     */
+    public static Optional<QuantileSketch> buildQuantileSketch(MeterId meterId,
+                                                               DistributionStatisticConfig distributionStatisticConfig,
+                                                               boolean useNanoTime) {
+        if (!isPercentileHistogram(distributionStatisticConfig)) {
+            return Optional.empty();
+        }
+
+        final QuantileSketch.Builder sketchBuilder = MeterFactory.quantileSketch(
+            meterId.copyTo(meterId.getName() + "_histogram", MeterId.MeterType.QUANTILE_SKETCH));
+        final Double minimumExpectedValueAsDouble = distributionStatisticConfig.getMinimumExpectedValueAsDouble();
+        final Double maximumExpectedValueAsDouble = distributionStatisticConfig.getMaximumExpectedValueAsDouble();
+        if (minimumExpectedValueAsDouble != null && maximumExpectedValueAsDouble != null) {
+            final double lowest = useNanoTime ?
+                TimeUtils.nanosToUnit(minimumExpectedValueAsDouble, TimeUnit.MILLISECONDS) : minimumExpectedValueAsDouble;
+            final double highest = useNanoTime ?
+                TimeUtils.nanosToUnit(maximumExpectedValueAsDouble, TimeUnit.MILLISECONDS) : maximumExpectedValueAsDouble;
+            if (lowest > 0 && lowest < highest) {
+                sketchBuilder.range(lowest, highest);
+            }
+        }
+        return Optional.of(sketchBuilder.build());
+    }
+
+    private static boolean isPercentileHistogram(DistributionStatisticConfig distributionStatisticConfig) {
+        return Boolean.TRUE.equals(distributionStatisticConfig.isPercentileHistogram());
+    }
+
     /**
      * Convert micrometer {@link Meter.Id} to skywalking {@link MeterId}
      */
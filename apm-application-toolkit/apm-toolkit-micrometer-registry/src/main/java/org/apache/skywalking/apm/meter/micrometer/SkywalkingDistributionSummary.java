@@ -26,6 +26,7 @@ import org.apache.skywalking.apm.toolkit.meter.Gauge;
 import org.apache.skywalking.apm.toolkit.meter.Histogram;
 import org.apache.skywalking.apm.toolkit.meter.MeterFactory;
 import org.apache.skywalking.apm.toolkit.meter.MeterId;
+import org.apache.skywalking.apm.toolkit.meter.QuantileSketch;
 
 import java.util.Optional;
 import java.util.concurrent.atomic.DoubleAccumulator;
@@ -57,6 +58,11 @@ public class SkywalkingDistributionSummary extends AbstractDistributionSummary {
      */
     private final Optional<Histogram> histogram;
 
+    /**
+     * Quantile sketch of the percentile histogram
+     */
+    private final Optional<QuantileSketch> quantileSketch;
+
     protected SkywalkingDistributionSummary(Id id, MeterId meterId, SkywalkingConfig config, Clock clock,
                                             DistributionStatisticConfig distributionStatisticConfig, double scale,
                                             boolean supportsAggregablePercentiles) {
@@ -72,6 +78,7 @@ public class SkywalkingDistributionSummary extends AbstractDistributionSummary {
             () -> maxAdder.doubleValue()).build();
 
         this.histogram = MeterBuilder.buildHistogram(meterId, supportsAggregablePercentiles, distributionStatisticConfig, false);
+        this.quantileSketch = MeterBuilder.buildQuantileSketch(meterId, distributionStatisticConfig, false);
     }
 
     @Override
@@ -81,6 +88,7 @@ public class SkywalkingDistributionSummary extends AbstractDistributionSummary {
         maxAdder.accumulate(amount);
 
         histogram.ifPresent(h -> h.addValue(amount));
+        quantileSketch.ifPresent(q -> q.addValue(amount));
     }
 
     @Override
@@ -27,6 +27,7 @@ import org.apache.skywalking.apm.toolkit.meter.Gauge;
 import org.apache.skywalking.apm.toolkit.meter.Histogram;
 import org.apache.skywalking.apm.toolkit.meter.MeterFactory;
 import org.apache.skywalking.apm.toolkit.meter.MeterId;
+import org.apache.skywalking.apm.toolkit.meter.QuantileSketch;
 
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
@@ -56,6 +57,11 @@ public class SkywalkingTimer extends AbstractTimer {
      */
     private final Optional<Histogram> histogram;
 
+    /**
+     * Quantile sketch of the percentile histogram
+     */
+    private final Optional<QuantileSketch> quantileSketch;
+
     protected SkywalkingTimer(Id id, MeterId meterId, SkywalkingConfig config, Clock clock,
                               DistributionStatisticConfig distributionStatisticConfig, PauseDetector pauseDetector,
                               TimeUnit baseTimeUnit, boolean supportsAggregablePercentiles) {
@@ -71,6 +77,7 @@ public class SkywalkingTimer extends AbstractTimer {
             () -> maxAdder.doubleValue()).build();
 
         this.histogram = MeterBuilder.buildHistogram(meterId, supportsAggregablePercentiles, distributionStatisticConfig, true);
+        this.quantileSketch = MeterBuilder.buildQuantileSketch(meterId, distributionStatisticConfig, true);
     }
 
     @Override
@@ -81,6 +88,7 @@ public class SkywalkingTimer extends AbstractTimer {
         maxAdder.accumulate(amountToMillisecond);
 
         histogram.ifPresent(h -> h.addValue(amountToMillisecond));
+        quantileSketch.ifPresent(q -> q.addValue(amountToMillisecond));
     }
 
     @Override
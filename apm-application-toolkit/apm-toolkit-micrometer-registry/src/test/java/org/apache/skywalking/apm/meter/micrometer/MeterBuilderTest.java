@@ -52,6 +52,34 @@ public class MeterBuilderTest {
         Assert.assertNull(MeterBuilder.buildHistogram(meterId, true, DistributionStatisticConfig.DEFAULT, true).orElse(null));
     }
 
+    @Test
+    public void testBuildQuantileSketch() {
+        final MeterId meterId = new MeterId("test", MeterId.MeterType.COUNTER,
+            Arrays.asList(new MeterId.Tag("k1", "v1")));
+
+        // Percentile histogram is sketched, instead of the fixed buckets
+        final DistributionStatisticConfig statisticConfig = DistributionStatisticConfig.builder()
+            .percentilesHistogram(true)
+            .minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+            .maximumExpectedValue((double) Duration.ofSeconds(30).toNanos()).build();
+        Assert.assertNotNull(MeterBuilder.buildQuantileSketch(meterId, statisticConfig, true).orElse(null));
+        Assert.assertNull(MeterBuilder.buildHistogram(meterId, true, statisticConfig, true).orElse(null));
+
+        // The service level objectives are kept beside the quantile sketch
+        final DistributionStatisticConfig sloConfig = DistributionStatisticConfig.builder()
+            .percentilesHistogram(true)
+            .serviceLevelObjectives(Duration.ofMillis(5).toNanos(), Duration.ofMillis(10).toNanos())
+            .minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+            .maximumExpectedValue((double) Duration.ofSeconds(30).toNanos()).build();
+        Assert.assertNotNull(MeterBuilder.buildQuantileSketch(meterId, sloConfig, true).orElse(null));
+        final Histogram sloHistogram = MeterBuilder.buildHistogram(meterId, true, sloConfig, true).orElse(null);
+        Assert.assertNotNull(sloHistogram);
+        Assert.assertEquals("test_slo_histogram", sloHistogram.getName());
+
+        // Don't need the quantile sketch
+        Assert.assertNull(MeterBuilder.buildQuantileSketch(meterId, DistributionStatisticConfig.DEFAULT, true).orElse(null));
+    }
+
     @Test
     public void testConvertId() {
         final List<MeterId.Tag> meterTags = Arrays.asList(new MeterId.Tag("k1", "v1"));
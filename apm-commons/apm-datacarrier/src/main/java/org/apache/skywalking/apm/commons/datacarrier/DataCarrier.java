@@ -20,6 +20,7 @@ package org.apache.skywalking.apm.commons.datacarrier;
 
 import java.util.Properties;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferType;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumeDriver;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumerPool;
@@ -49,16 +50,25 @@ public class DataCarrier<T> {
     }
 
     public DataCarrier(String name, String envPrefix, int channelSize, int bufferSize, BufferStrategy strategy) {
+        this(name, envPrefix, channelSize, bufferSize, strategy, BufferType.DEFAULT);
+    }
+
+    public DataCarrier(String name, String envPrefix, int channelSize, int bufferSize, BufferStrategy strategy,
+                       BufferType type) {
         this.name = name;
         bufferSize = EnvUtil.getInt(envPrefix + "_BUFFER_SIZE", bufferSize);
         channelSize = EnvUtil.getInt(envPrefix + "_CHANNEL_SIZE", channelSize);
-        channels = new Channels<>(channelSize, bufferSize, new SimpleRollingPartitioner<T>(), strategy);
+        channels = new Channels<>(channelSize, bufferSize, new SimpleRollingPartitioner<T>(), strategy, type);
     }
 
     public DataCarrier(int channelSize, int bufferSize, BufferStrategy strategy) {
         this("DEFAULT", "DEFAULT", channelSize, bufferSize, strategy);
     }
 
+    public DataCarrier(int channelSize, int bufferSize, BufferStrategy strategy, BufferType type) {
+        this("DEFAULT", "DEFAULT", channelSize, bufferSize, strategy, type);
+    }
+
     /**
      * set a new IDataPartitioner. It will cover the current one or default one.(Default is {@link
      * SimpleRollingPartitioner}
@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.apm.commons.datacarrier.buffer;
 
+import org.apache.skywalking.apm.commons.datacarrier.consumer.AdaptiveWaitStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
 
 /**
@@ -26,29 +27,42 @@ import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
  */
 public class Channels<T> {
     private final QueueBuffer<T>[] bufferChannels;
+    /**
+     * The wait strategies of the consumers, indexed by the channel they consume.
+     */
+    private final AdaptiveWaitStrategy[] waitStrategies;
     private IDataPartitioner<T> dataPartitioner;
     private final BufferStrategy strategy;
     private final long size;
 
     public Channels(int channelSize, int bufferSize, IDataPartitioner<T> partitioner, BufferStrategy strategy) {
+        this(channelSize, bufferSize, partitioner, strategy, BufferType.DEFAULT);
+    }
+
+    public Channels(int channelSize, int bufferSize, IDataPartitioner<T> partitioner, BufferStrategy strategy,
+                    BufferType type) {
         this.dataPartitioner = partitioner;
         this.strategy = strategy;
         bufferChannels = new QueueBuffer[channelSize];
+        waitStrategies = new AdaptiveWaitStrategy[channelSize];
+        long size = 0;
         for (int i = 0; i < channelSize; i++) {
-            if (BufferStrategy.BLOCKING.equals(strategy)) {
+            if (BufferType.MPSC_RING.equals(type)) {
+                bufferChannels[i] = new MpscRingBuffer<>(bufferSize, strategy);
+            } else if (BufferStrategy.BLOCKING.equals(strategy)) {
                 bufferChannels[i] = new ArrayBlockingQueueBuffer<>(bufferSize, strategy);
             } else {
                 bufferChannels[i] = new Buffer<>(bufferSize, strategy);
             }
+            size += bufferChannels[i].getBufferSize();
         }
-        // noinspection PointlessArithmeticExpression
-        size = 1L * channelSize * bufferSize; // it's not pointless, it prevents numeric overflow before assigning an integer to a long
+        this.size = size;
     }
 
     public boolean save(T data) {
         int index = dataPartitioner.partition(bufferChannels.length, data);
         int retryCountDown = 1;
-        if (BufferStrategy.IF_POSSIBLE.equals(strategy)) {
+        if (!BufferStrategy.BLOCKING.equals(strategy)) {
             int maxRetryCount = dataPartitioner.maxRetryCount();
             if (maxRetryCount > 1) {
                 retryCountDown = maxRetryCount;
@@ -56,12 +70,23 @@ public class Channels<T> {
         }
         for (; retryCountDown > 0; retryCountDown--) {
             if (bufferChannels[index].save(data)) {
+                AdaptiveWaitStrategy waitStrategy = waitStrategies[index];
+                if (waitStrategy != null) {
+                    waitStrategy.onProduced();
+                }
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Set the wait strategy of the consumer of the given channel, which is notified when the data is saved into it.
+     */
+    public void setWaitStrategy(int index, AdaptiveWaitStrategy waitStrategy) {
+        this.waitStrategies[index] = waitStrategy;
+    }
+
     public void setPartitioner(IDataPartitioner<T> dataPartitioner) {
         this.dataPartitioner = dataPartitioner;
     }
@@ -83,6 +108,10 @@ public class Channels<T> {
         return this.bufferChannels.length;
     }
 
+    /**
+     * @return the real capacity of all channels, which could be larger than the requested buffer size, as the {@link
+     * BufferType#MPSC_RING} rounds it up to a power of 2.
+     */
     public long size() {
         return size;
     }
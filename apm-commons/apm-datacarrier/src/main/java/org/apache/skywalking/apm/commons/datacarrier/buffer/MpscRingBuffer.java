@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free multi-producer/single-consumer ring queue.
+ * <p>
+ * Every slot carries a sequence number. A producer claims a slot by CAS on the producer cursor, writes the element, and
+ * publishes it by moving the slot sequence forward. The consumer drains from its cursor until it reaches a slot which
+ * has not been published yet, so it never scans empty slots, and a producer never overwrites an element which has not
+ * been consumed. When the ring is full, {@link BufferStrategy#BLOCKING} makes the producer wait for the consumer,
+ * otherwise the data is rejected.
+ * <p>
+ * Only one thread is allowed to call {@link #obtain(List)} at the same time, which is guaranteed by the consumer
+ * drivers, as each channel is assigned to a single consumer thread.
+ */
+public class MpscRingBuffer<T> implements QueueBuffer<T> {
+    /**
+     * The cursors are stored in the middle of an array, padded by 7 longs(56 bytes) on both sides, to make sure they
+     * don't share the cache line with other hot fields.
+     */
+    private static final int CURSOR_OFFSET = 7;
+    private static final int CURSOR_ARRAY_LENGTH = CURSOR_OFFSET * 2 + 1;
+
+    private final Object[] buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLongArray producerCursor;
+    private final AtomicLongArray consumerCursor;
+    private BufferStrategy strategy;
+
+    MpscRingBuffer(int bufferSize, BufferStrategy strategy) {
+        int capacity = roundToPowerOfTwo(bufferSize);
+        this.buffer = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = capacity - 1;
+        this.producerCursor = new AtomicLongArray(CURSOR_ARRAY_LENGTH);
+        this.consumerCursor = new AtomicLongArray(CURSOR_ARRAY_LENGTH);
+        this.strategy = strategy;
+    }
+
+    @Override
+    public boolean save(T data) {
+        long position = producerCursor.get(CURSOR_OFFSET);
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (producerCursor.compareAndSet(CURSOR_OFFSET, position, position + 1)) {
+                    buffer[index] = data;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                // The slot of the last round hasn't been consumed, the ring is full.
+                if (!BufferStrategy.BLOCKING.equals(strategy)) {
+                    return false;
+                }
+                LockSupport.parkNanos(1);
+            }
+            position = producerCursor.get(CURSOR_OFFSET);
+        }
+    }
+
+    @Override
+    public void setStrategy(BufferStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * Drain the slots published before this call in one batch. Slots claimed by producers but not published yet are
+     * left for the next round.
+     */
+    @Override
+    public void obtain(List<T> consumeList) {
+        long position = consumerCursor.get(CURSOR_OFFSET);
+        final long limit = producerCursor.get(CURSOR_OFFSET);
+        while (position < limit) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            consumeList.add((T) buffer[index]);
+            buffer[index] = null;
+            sequences.lazySet(index, position + buffer.length);
+            position++;
+        }
+        consumerCursor.lazySet(CURSOR_OFFSET, position);
+    }
+
+    /**
+     * @return the real capacity of the ring, which is the requested buffer size rounded up to a power of 2.
+     */
+    @Override
+    public int getBufferSize() {
+        return buffer.length;
+    }
+
+    private static int roundToPowerOfTwo(int value) {
+        if (value <= 1) {
+            return 1;
+        }
+        int highestOneBit = Integer.highestOneBit(value);
+        return highestOneBit == value ? value : highestOneBit << 1;
+    }
+}
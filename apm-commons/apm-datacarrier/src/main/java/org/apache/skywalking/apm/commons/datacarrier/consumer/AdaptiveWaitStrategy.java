@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The wait strategy of a consumer thread when there is nothing to consume.
+ * <p>
+ * The consumer checks the buffers again right away for a few rounds, then yields for a few rounds, at last, parks at
+ * most one consume cycle. While the consumer is parked, the producers count the saved data by {@link #onProduced()},
+ * and wake up the consumer once the count reaches the wakeup threshold, rather than letting the data wait for the rest
+ * of the cycle.
+ */
+public class AdaptiveWaitStrategy {
+    public static final int DEFAULT_WAKEUP_THRESHOLD = 100;
+
+    private static final int SPIN_TIMES = 10;
+    private static final int YIELD_TIMES = 20;
+
+    private final long maxParkNanos;
+    /**
+     * The number of saved data to wake up the parked consumer. Non-positive value means the consumer wakes up only
+     * when the consume cycle ends.
+     */
+    private final int wakeupThreshold;
+    private final AtomicInteger producedWhileParked;
+    private volatile Thread parkedThread;
+    private int idleTimes;
+
+    public AdaptiveWaitStrategy(long consumeCycle, int wakeupThreshold) {
+        this.maxParkNanos = TimeUnit.MILLISECONDS.toNanos(consumeCycle);
+        this.wakeupThreshold = wakeupThreshold;
+        this.producedWhileParked = new AtomicInteger(0);
+    }
+
+    /**
+     * Called by the consumer thread when nothing is consumed in this round.
+     */
+    void idle() {
+        if (idleTimes < SPIN_TIMES) {
+            idleTimes++;
+        } else if (idleTimes < SPIN_TIMES + YIELD_TIMES) {
+            idleTimes++;
+            Thread.yield();
+        } else {
+            producedWhileParked.set(0);
+            parkedThread = Thread.currentThread();
+            LockSupport.parkNanos(this, maxParkNanos);
+            parkedThread = null;
+            // Same as the interrupted sleep, the interruption is ignored.
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * Called by the consumer thread when some data is consumed in this round.
+     */
+    void reset() {
+        idleTimes = 0;
+    }
+
+    /**
+     * Called by the producer after the data is saved into a buffer consumed by this consumer.
+     */
+    public void onProduced() {
+        if (wakeupThreshold <= 0) {
+            return;
+        }
+        Thread consumerThread = parkedThread;
+        if (consumerThread != null && producedWhileParked.incrementAndGet() == wakeupThreshold) {
+            LockSupport.unpark(consumerThread);
+        }
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.skywalking.apm.commons.datacarrier.consumer;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Properties;
 import java.util.concurrent.locks.ReentrantLock;
+import org.apache.skywalking.apm.commons.datacarrier.EnvUtil;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
 
 /**
@@ -38,10 +39,11 @@ public class ConsumeDriver<T> implements IDriver {
                          long consumeCycle,
                          Properties properties) {
         this(channels, num);
+        int wakeupThreshold = getWakeupThreshold(name);
         for (int i = 0; i < num; i++) {
             consumerThreads[i] = new ConsumerThread(
                 "DataCarrier." + name + ".Consumer." + i + ".Thread", getNewConsumerInstance(consumerClass, properties),
-                consumeCycle
+                consumeCycle, wakeupThreshold
             );
             consumerThreads[i].setDaemon(true);
         }
@@ -50,9 +52,10 @@ public class ConsumeDriver<T> implements IDriver {
     public ConsumeDriver(String name, Channels<T> channels, IConsumer<T> prototype, int num, long consumeCycle) {
         this(channels, num);
         prototype.init(new Properties());
+        int wakeupThreshold = getWakeupThreshold(name);
         for (int i = 0; i < num; i++) {
             consumerThreads[i] = new ConsumerThread(
-                "DataCarrier." + name + ".Consumer." + i + ".Thread", prototype, consumeCycle);
+                "DataCarrier." + name + ".Consumer." + i + ".Thread", prototype, consumeCycle, wakeupThreshold);
             consumerThreads[i].setDaemon(true);
         }
 
@@ -65,6 +68,10 @@ public class ConsumeDriver<T> implements IDriver {
         lock = new ReentrantLock();
     }
 
+    private static int getWakeupThreshold(String name) {
+        return EnvUtil.getInt(name + "_WAKEUP_THRESHOLD", AdaptiveWaitStrategy.DEFAULT_WAKEUP_THRESHOLD);
+    }
+
     private IConsumer<T> getNewConsumerInstance(Class<? extends IConsumer<T>> consumerClass, Properties properties) {
         try {
             IConsumer<T> inst = consumerClass.getDeclaredConstructor().newInstance();
@@ -121,6 +128,7 @@ public class ConsumeDriver<T> implements IDriver {
         for (int channelIndex = 0; channelIndex < channelSize; channelIndex++) {
             int consumerIndex = channelIndex % consumerThreads.length;
             consumerThreads[consumerIndex].addDataSource(channels.getBuffer(channelIndex));
+            channels.setWaitStrategy(channelIndex, consumerThreads[consumerIndex].getWaitStrategy());
         }
 
     }
@@ -27,14 +27,14 @@ public class ConsumerThread<T> extends Thread {
     private volatile boolean running;
     private IConsumer<T> consumer;
     private List<DataSource> dataSources;
-    private long consumeCycle;
+    private final AdaptiveWaitStrategy waitStrategy;
 
-    ConsumerThread(String threadName, IConsumer<T> consumer, long consumeCycle) {
+    ConsumerThread(String threadName, IConsumer<T> consumer, long consumeCycle, int wakeupThreshold) {
         super(threadName);
         this.consumer = consumer;
         running = false;
         dataSources = new ArrayList<DataSource>(1);
-        this.consumeCycle = consumeCycle;
+        this.waitStrategy = new AdaptiveWaitStrategy(consumeCycle, wakeupThreshold);
     }
 
     /**
@@ -44,17 +44,20 @@ public class ConsumerThread<T> extends Thread {
         this.dataSources.add(new DataSource(sourceBuffer));
     }
 
+    AdaptiveWaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
     @Override
     public void run() {
         running = true;
 
         final List<T> consumeList = new ArrayList<T>(1500);
         while (running) {
-            if (!consume(consumeList)) {
-                try {
-                    Thread.sleep(consumeCycle);
-                } catch (InterruptedException e) {
-                }
+            if (consume(consumeList)) {
+                waitStrategy.reset();
+            } else {
+                waitStrategy.idle();
             }
         }
 
@@ -32,12 +32,16 @@ public class MultipleChannelsConsumer extends Thread {
     private volatile ArrayList<Group> consumeTargets;
     @SuppressWarnings("NonAtomicVolatileUpdate")
     private volatile long size;
-    private final long consumeCycle;
+    private final AdaptiveWaitStrategy waitStrategy;
 
     public MultipleChannelsConsumer(String threadName, long consumeCycle) {
+        this(threadName, consumeCycle, AdaptiveWaitStrategy.DEFAULT_WAKEUP_THRESHOLD);
+    }
+
+    public MultipleChannelsConsumer(String threadName, long consumeCycle, int wakeupThreshold) {
         super(threadName);
         this.consumeTargets = new ArrayList<Group>();
-        this.consumeCycle = consumeCycle;
+        this.waitStrategy = new AdaptiveWaitStrategy(consumeCycle, wakeupThreshold);
     }
 
     @Override
@@ -52,11 +56,10 @@ public class MultipleChannelsConsumer extends Thread {
                 hasData = hasData || consume;
             }
 
-            if (!hasData) {
-                try {
-                    Thread.sleep(consumeCycle);
-                } catch (InterruptedException e) {
-                }
+            if (hasData) {
+                waitStrategy.reset();
+            } else {
+                waitStrategy.idle();
             }
         }
 
@@ -102,6 +105,9 @@ public class MultipleChannelsConsumer extends Thread {
         newList.add(group);
         consumeTargets = newList;
         size += channels.size();
+        for (int i = 0; i < channels.getChannelSize(); i++) {
+            channels.setWaitStrategy(i, waitStrategy);
+        }
     }
 
     public long size() {
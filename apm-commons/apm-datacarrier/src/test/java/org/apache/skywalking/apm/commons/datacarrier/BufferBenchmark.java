@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferType;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.QueueBuffer;
+import org.apache.skywalking.apm.commons.datacarrier.partition.SimpleRollingPartitioner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Compare the buffer implementations with 3 producers and 1 consumer on a single channel.
+ * <p>
+ * {@link BufferType#DEFAULT} uses ArrayBlockingQueueBuffer for {@link BufferStrategy#BLOCKING} and Buffer for {@link
+ * BufferStrategy#IF_POSSIBLE}, {@link BufferType#MPSC_RING} uses MpscRingBuffer for both.
+ */
+@BenchmarkMode({Mode.Throughput})
+public class BufferBenchmark {
+
+    @State(Scope.Group)
+    public static class ChannelState {
+        @Param({
+            "BLOCKING",
+            "IF_POSSIBLE"
+        })
+        public BufferStrategy strategy;
+
+        @Param({
+            "DEFAULT",
+            "MPSC_RING"
+        })
+        public BufferType type;
+
+        private Channels<SampleData> channels;
+        private QueueBuffer<SampleData> buffer;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            channels = new Channels<>(1, 1024, new SimpleRollingPartitioner<>(), strategy, type);
+            buffer = channels.getBuffer(0);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ConsumerState {
+        private final List<SampleData> consumeList = new ArrayList<>(1024);
+    }
+
+    private static final SampleData DATA = new SampleData();
+
+    @Benchmark
+    @Group("mpsc")
+    @GroupThreads(3)
+    public boolean produce(ChannelState state) {
+        return state.channels.save(DATA);
+    }
+
+    @Benchmark
+    @Group("mpsc")
+    @GroupThreads(1)
+    public void consume(ChannelState state, ConsumerState consumerState, Blackhole blackhole) {
+        state.buffer.obtain(consumerState.consumeList);
+        blackhole.consume(consumerState.consumeList.size());
+        consumerState.consumeList.clear();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(BufferBenchmark.class.getName())
+                                          .addProfiler(GCProfiler.class)
+                                          .jvmArgsAppend("-Xmx512m", "-Xms512m")
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          // BLOCKING producers wait in put() once the consumer stops at the end of
+                                          // an iteration, the timeout interrupts them.
+                                          .timeout(TimeValue.seconds(10))
+                                          .build();
+        new Runner(opt).run();
+    }
+}
@@ -22,7 +22,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferType;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.MpscRingBuffer;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.QueueBuffer;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.apm.commons.datacarrier.partition.ProducerThreadPartitioner;
@@ -51,6 +53,18 @@ public class DataCarrierTest {
                                        .getClass(), ProducerThreadPartitioner.class);
     }
 
+    @Test
+    public void testCreateMpscRingDataCarrier() throws IllegalAccessException, NoSuchFieldException {
+        DataCarrier<SampleData> carrier = new DataCarrier<>(2, 100, BufferStrategy.IF_POSSIBLE, BufferType.MPSC_RING);
+
+        Channels<SampleData> channels = FieldGetter.getValue(carrier, "channels");
+        QueueBuffer<SampleData> buffer = channels.getBuffer(0);
+        Assert.assertTrue(buffer instanceof MpscRingBuffer);
+        Assert.assertEquals(FieldGetter.getValue(buffer, "strategy"), BufferStrategy.IF_POSSIBLE);
+        Assert.assertEquals(128, buffer.getBufferSize());
+        Assert.assertEquals(256, channels.size());
+    }
+
     @Test
     public void testProduce() throws IllegalAccessException, NoSuchFieldException {
         DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(2, 100);
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.apache.skywalking.apm.commons.datacarrier.SampleData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MpscRingBufferTest {
+    @Test
+    public void testBufferSizeRoundToPowerOfTwo() {
+        Assert.assertEquals(128, new MpscRingBuffer<SampleData>(100, BufferStrategy.IF_POSSIBLE).getBufferSize());
+        Assert.assertEquals(64, new MpscRingBuffer<SampleData>(64, BufferStrategy.IF_POSSIBLE).getBufferSize());
+        Assert.assertEquals(1, new MpscRingBuffer<SampleData>(0, BufferStrategy.IF_POSSIBLE).getBufferSize());
+    }
+
+    @Test
+    public void testRejectWhenFull() {
+        MpscRingBuffer<SampleData> buffer = new MpscRingBuffer<>(8, BufferStrategy.IF_POSSIBLE);
+        for (int i = 0; i < 8; i++) {
+            Assert.assertTrue(buffer.save(new SampleData().setIntValue(i)));
+        }
+        Assert.assertFalse(buffer.save(new SampleData().setIntValue(8)));
+
+        List<SampleData> result = new ArrayList<>();
+        buffer.obtain(result);
+        Assert.assertEquals(8, result.size());
+        for (int i = 0; i < 8; i++) {
+            Assert.assertEquals(i, result.get(i).getIntValue());
+        }
+
+        Assert.assertTrue(buffer.save(new SampleData().setIntValue(9)));
+        result.clear();
+        buffer.obtain(result);
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals(9, result.get(0).getIntValue());
+
+        result.clear();
+        buffer.obtain(result);
+        Assert.assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void testMultipleProducers() throws InterruptedException {
+        final MpscRingBuffer<SampleData> buffer = new MpscRingBuffer<>(64, BufferStrategy.BLOCKING);
+        final int producerNum = 4;
+        final int dataNum = 10000;
+        final CountDownLatch latch = new CountDownLatch(producerNum);
+        for (int p = 0; p < producerNum; p++) {
+            new Thread(() -> {
+                for (int i = 0; i < dataNum; i++) {
+                    buffer.save(new SampleData().setIntValue(i));
+                }
+                latch.countDown();
+            }).start();
+        }
+
+        List<SampleData> result = new ArrayList<>();
+        while (latch.getCount() > 0 || result.size() < producerNum * dataNum) {
+            buffer.obtain(result);
+        }
+        Assert.assertEquals(producerNum * dataNum, result.size());
+        long sum = 0;
+        for (SampleData data : result) {
+            sum += data.getIntValue();
+        }
+        Assert.assertEquals(producerNum * (long) dataNum * (dataNum - 1) / 2, sum);
+    }
+}
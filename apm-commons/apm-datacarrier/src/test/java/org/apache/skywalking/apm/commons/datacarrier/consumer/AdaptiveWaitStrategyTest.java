@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.SampleData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AdaptiveWaitStrategyTest {
+    @Test
+    public void testWakeupByProducer() throws InterruptedException {
+        final AdaptiveWaitStrategy waitStrategy = new AdaptiveWaitStrategy(60 * 1000, 3);
+        Thread consumer = new Thread(() -> {
+            // spin 10 times and yield 20 times, then park once
+            for (int i = 0; i < 31; i++) {
+                waitStrategy.idle();
+            }
+        });
+        consumer.start();
+        while (consumer.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(10);
+        }
+
+        waitStrategy.onProduced();
+        waitStrategy.onProduced();
+        Thread.sleep(100);
+        Assert.assertEquals(Thread.State.TIMED_WAITING, consumer.getState());
+
+        waitStrategy.onProduced();
+        consumer.join(5000);
+        Assert.assertFalse(consumer.isAlive());
+    }
+
+    @Test
+    public void testConsumeBeforeCycleEnd() throws InterruptedException {
+        DataCarrier<SampleData> carrier = new DataCarrier<>(2, 1000);
+        final AtomicInteger consumed = new AtomicInteger();
+        carrier.consume(new IConsumer<SampleData>() {
+            @Override
+            public void init(final Properties properties) {
+            }
+
+            @Override
+            public void consume(final List<SampleData> data) {
+                consumed.addAndGet(data.size());
+            }
+
+            @Override
+            public void onError(final List<SampleData> data, final Throwable t) {
+            }
+
+            @Override
+            public void onExit() {
+            }
+        }, 1, 60 * 1000);
+        // make sure the consumer is parked
+        Thread.sleep(200);
+
+        for (int i = 0; i < AdaptiveWaitStrategy.DEFAULT_WAKEUP_THRESHOLD; i++) {
+            Assert.assertTrue(carrier.produce(new SampleData().setIntValue(i)));
+        }
+        for (int i = 0; i < 50 && consumed.get() < AdaptiveWaitStrategy.DEFAULT_WAKEUP_THRESHOLD; i++) {
+            Thread.sleep(100);
+        }
+        Assert.assertEquals(AdaptiveWaitStrategy.DEFAULT_WAKEUP_THRESHOLD, consumed.get());
+        carrier.shutdownConsumers();
+    }
+}
@@ -18,10 +18,7 @@
 
 package org.apache.skywalking.apm.agent.core.asyncprofiler;
 
-import com.google.protobuf.ByteString;
 import io.grpc.Channel;
-import io.grpc.stub.ClientCallStreamObserver;
-import io.grpc.stub.ClientResponseObserver;
 import io.grpc.stub.StreamObserver;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
@@ -40,12 +37,13 @@ import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfile
 import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilingStatus;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.concurrent.TimeUnit;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.AsyncProfiler.DATA_CHUNK_SIZE;
+import static org.apache.skywalking.apm.agent.core.conf.Config.AsyncProfiler.UPLOAD_MAX_ATTEMPTS;
 import static org.apache.skywalking.apm.agent.core.conf.Config.Collector.GRPC_UPSTREAM_TIMEOUT;
 
 @DefaultImplementor
@@ -88,70 +86,51 @@ public class AsyncProfilerDataSender implements BootService, GRPCChannelListener
     }
 
     public void sendData(AsyncProfilerTask task, File dumpFile) throws IOException, InterruptedException {
-        if (status != GRPCChannelStatus.CONNECTED) {
-            return;
-        }
-
-        try (FileInputStream fileInputStream = new FileInputStream(dumpFile)) {
-            long fileSize = Files.size(dumpFile.toPath());
-            int size = Math.toIntExact(fileSize);
-            final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
-            StreamObserver<AsyncProfilerData> dataStreamObserver = asyncProfilerTaskStub.withDeadlineAfter(
-                    GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS
-            ).collect(new ClientResponseObserver<AsyncProfilerData, AsyncProfilerCollectionResponse>() {
-                ClientCallStreamObserver<AsyncProfilerData> requestStream;
-                final byte[] buf = new byte[DATA_CHUNK_SIZE];
-
-                @Override
-                public void beforeStart(ClientCallStreamObserver<AsyncProfilerData> requestStream) {
-                    this.requestStream = requestStream;
+        try (FileChannel fileChannel = FileChannel.open(dumpFile.toPath(), StandardOpenOption.READ)) {
+            int size = Math.toIntExact(fileChannel.size());
+            for (int attempt = 1; status == GRPCChannelStatus.CONNECTED; attempt++) {
+                final AsyncProfilerDataUploader uploader = upload(task, fileChannel, size);
+                if (!uploader.isUnavailable() || attempt >= UPLOAD_MAX_ATTEMPTS || !wait4Reconnect()) {
+                    return;
                 }
+                // the collector can't resume a stream, so upload the whole file again
+                LOGGER.warn(
+                    "Upload the JFR of task {} again after reconnected, {} of {} bytes were sent.", task.getTaskId(),
+                    uploader.getOffset(), size
+                );
+            }
+        }
+    }
 
-                @Override
-                public void onNext(AsyncProfilerCollectionResponse value) {
-                    if (AsyncProfilingStatus.TERMINATED_BY_OVERSIZE.equals(value.getType())) {
-                        LOGGER.warn("JFR is too large to be received by the oap server");
-                    } else {
-                        try {
-                            int bytesRead;
-                            while ((bytesRead = fileInputStream.read(buf)) != -1) {
-                                AsyncProfilerData asyncProfilerData = AsyncProfilerData.newBuilder()
-                                        .setContent(ByteString.copyFrom(buf, 0, bytesRead))
-                                        .build();
-                                requestStream.onNext(asyncProfilerData);
-                            }
-                        } catch (IOException e) {
-                            LOGGER.error("Failed to read JFR file and failed to upload to oap", e);
-                        }
-                    }
-
-                    requestStream.onCompleted();
-                }
+    private AsyncProfilerDataUploader upload(AsyncProfilerTask task, FileChannel fileChannel, int size) {
+        final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
+        final AsyncProfilerDataUploader uploader = new AsyncProfilerDataUploader(
+            fileChannel, size, DATA_CHUNK_SIZE, status);
+        StreamObserver<AsyncProfilerData> dataStreamObserver = asyncProfilerTaskStub.withDeadlineAfter(
+                GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS
+        ).collect(uploader);
+        AsyncProfilerMetaData metaData = AsyncProfilerMetaData.newBuilder()
+                .setService(Config.Agent.SERVICE_NAME)
+                .setServiceInstance(Config.Agent.INSTANCE_NAME)
+                .setType(AsyncProfilingStatus.PROFILING_SUCCESS)
+                .setContentSize(size)
+                .setTaskId(task.getTaskId())
+                .build();
+        AsyncProfilerData asyncProfilerData = AsyncProfilerData.newBuilder().setMetaData(metaData).build();
+        dataStreamObserver.onNext(asyncProfilerData);
 
-                @Override
-                public void onError(Throwable t) {
-                    status.finished();
-                    LOGGER.error(t, "Send async profiler task data to collector fail with a grpc internal exception.");
-                    ServiceManager.INSTANCE.findService(GRPCChannelManager.class).reportError(t);
-                }
+        status.wait4Finish();
+        return uploader;
+    }
 
-                @Override
-                public void onCompleted() {
-                    status.finished();
-                }
-            });
-            AsyncProfilerMetaData metaData = AsyncProfilerMetaData.newBuilder()
-                    .setService(Config.Agent.SERVICE_NAME)
-                    .setServiceInstance(Config.Agent.INSTANCE_NAME)
-                    .setType(AsyncProfilingStatus.PROFILING_SUCCESS)
-                    .setContentSize(size)
-                    .setTaskId(task.getTaskId())
-                    .build();
-            AsyncProfilerData asyncProfilerData = AsyncProfilerData.newBuilder().setMetaData(metaData).build();
-            dataStreamObserver.onNext(asyncProfilerData);
-
-            status.wait4Finish();
+    /**
+     * Wait until the channel is reconnected, at most {@link Config.Collector#GRPC_UPSTREAM_TIMEOUT} seconds.
+     */
+    private boolean wait4Reconnect() throws InterruptedException {
+        for (int i = 0; i < GRPC_UPSTREAM_TIMEOUT && status != GRPCChannelStatus.CONNECTED; i++) {
+            TimeUnit.SECONDS.sleep(1);
         }
+        return status == GRPCChannelStatus.CONNECTED;
     }
 
     public void sendError(AsyncProfilerTask task, String errorMessage) {
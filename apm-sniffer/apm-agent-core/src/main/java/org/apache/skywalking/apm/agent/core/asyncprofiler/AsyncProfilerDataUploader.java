@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.asyncprofiler;
+
+import com.google.protobuf.UnsafeByteOperations;
+import io.grpc.Status;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.remote.GRPCChannelManager;
+import org.apache.skywalking.apm.agent.core.remote.GRPCStreamServiceStatus;
+import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilerCollectionResponse;
+import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilerData;
+import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilingStatus;
+
+/**
+ * Streams the JFR file to the collector once it accepts the meta data. The chunks are read from the {@link FileChannel}
+ * only when the request stream is ready, so at most the chunks the transport could buffer are in the memory, and each
+ * chunk is wrapped without copy, as it is never changed after read.
+ * <p>
+ * The callbacks of a gRPC call are serialized, so the chunks are sent by one thread at a time.
+ */
+class AsyncProfilerDataUploader implements ClientResponseObserver<AsyncProfilerData, AsyncProfilerCollectionResponse> {
+    private static final ILog LOGGER = LogManager.getLogger(AsyncProfilerDataUploader.class);
+
+    private final FileChannel fileChannel;
+    private final long fileSize;
+    private final int chunkSize;
+    private final GRPCStreamServiceStatus status;
+
+    private ClientCallStreamObserver<AsyncProfilerData> requestStream;
+    private boolean accepted;
+    private boolean completed;
+    private volatile long offset;
+    private volatile boolean unavailable;
+
+    AsyncProfilerDataUploader(FileChannel fileChannel, long fileSize, int chunkSize, GRPCStreamServiceStatus status) {
+        this.fileChannel = fileChannel;
+        this.fileSize = fileSize;
+        this.chunkSize = chunkSize;
+        this.status = status;
+    }
+
+    @Override
+    public void beforeStart(ClientCallStreamObserver<AsyncProfilerData> requestStream) {
+        this.requestStream = requestStream;
+        requestStream.setOnReadyHandler(this::sendChunks);
+    }
+
+    @Override
+    public void onNext(AsyncProfilerCollectionResponse value) {
+        if (AsyncProfilingStatus.TERMINATED_BY_OVERSIZE.equals(value.getType())) {
+            LOGGER.warn("JFR is too large to be received by the oap server");
+            completed = true;
+            requestStream.onCompleted();
+            return;
+        }
+        accepted = true;
+        sendChunks();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        unavailable = Status.fromThrowable(t).getCode() == Status.Code.UNAVAILABLE;
+        status.finished();
+        LOGGER.error(t, "Send async profiler task data to collector fail with a grpc internal exception.");
+        ServiceManager.INSTANCE.findService(GRPCChannelManager.class).reportError(t);
+    }
+
+    @Override
+    public void onCompleted() {
+        status.finished();
+    }
+
+    /**
+     * @return the bytes of the file sent to the request stream
+     */
+    long getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return true if the upload fails because the collector is unavailable, it could be uploaded again after
+     * reconnected.
+     */
+    boolean isUnavailable() {
+        return unavailable;
+    }
+
+    private void sendChunks() {
+        if (!accepted || completed) {
+            return;
+        }
+        try {
+            while (offset < fileSize && requestStream.isReady()) {
+                final ByteBuffer chunk = ByteBuffer.allocate((int) Math.min(chunkSize, fileSize - offset));
+                while (chunk.hasRemaining()) {
+                    if (fileChannel.read(chunk, offset + chunk.position()) < 0) {
+                        throw new IOException("JFR file is truncated at " + (offset + chunk.position()));
+                    }
+                }
+                chunk.flip();
+                requestStream.onNext(
+                    AsyncProfilerData.newBuilder().setContent(UnsafeByteOperations.unsafeWrap(chunk)).build());
+                offset += chunk.limit();
+            }
+        } catch (IOException e) {
+            LOGGER.error("Failed to read JFR file and failed to upload to oap", e);
+            completed = true;
+            requestStream.cancel("Failed to read JFR file", e);
+            return;
+        }
+        if (offset >= fileSize) {
+            completed = true;
+            requestStream.onCompleted();
+        }
+    }
+}
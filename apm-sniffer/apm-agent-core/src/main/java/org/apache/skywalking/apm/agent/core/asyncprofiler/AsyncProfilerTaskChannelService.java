@@ -21,9 +21,9 @@ package org.apache.skywalking.apm.agent.core.asyncprofiler;
 import io.grpc.Channel;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
+import org.apache.skywalking.apm.agent.core.boot.AgentScheduler;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.commands.CommandService;
 import org.apache.skywalking.apm.agent.core.conf.Config;
@@ -35,10 +35,7 @@ import org.apache.skywalking.apm.agent.core.remote.GRPCChannelStatus;
 import org.apache.skywalking.apm.network.common.v3.Commands;
 import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilerTaskCommandQuery;
 import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilerTaskGrpc;
-import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.Collector.GRPC_UPSTREAM_TIMEOUT;
@@ -52,7 +49,7 @@ public class AsyncProfilerTaskChannelService implements BootService, Runnable, G
     private volatile AsyncProfilerTaskGrpc.AsyncProfilerTaskBlockingStub asyncProfilerTaskBlockingStub;
 
     // query task schedule
-    private volatile ScheduledFuture<?> getTaskFuture;
+    private volatile AgentScheduler.ScheduledTask getTaskFuture;
 
     @Override
     public void run() {
@@ -79,7 +76,7 @@ public class AsyncProfilerTaskChannelService implements BootService, Runnable, G
                 if (Status.Code.UNIMPLEMENTED.equals(statusRuntimeException.getStatus().getCode())) {
                     LOGGER.warn("Backend doesn't support async-profiler, async-profiler will be disabled");
                     if (getTaskFuture != null) {
-                        getTaskFuture.cancel(true);
+                        getTaskFuture.cancel();
                     }
                 }
             }
@@ -106,13 +103,8 @@ public class AsyncProfilerTaskChannelService implements BootService, Runnable, G
     public void boot() throws Throwable {
 
         if (Config.AsyncProfiler.ACTIVE) {
-            getTaskFuture = Executors.newSingleThreadScheduledExecutor(
-                    new DefaultNamedThreadFactory("AsyncProfilerGetTaskService")
-            ).scheduleWithFixedDelay(
-                    new RunnableWithExceptionProtection(
-                            this,
-                            t -> LOGGER.error("Query async profiler task list failure.", t)
-                    ), 0, Config.Collector.GET_PROFILE_TASK_INTERVAL, TimeUnit.SECONDS
+            getTaskFuture = ServiceManager.INSTANCE.findService(AgentScheduler.class).scheduleWithFixedDelay(
+                "AsyncProfilerGetTaskService", this, 0, Config.Collector.GET_PROFILE_TASK_INTERVAL, TimeUnit.SECONDS
             );
         }
     }
@@ -125,7 +117,7 @@ public class AsyncProfilerTaskChannelService implements BootService, Runnable, G
     @Override
     public void shutdown() throws Throwable {
         if (getTaskFuture != null) {
-            getTaskFuture.cancel(true);
+            getTaskFuture.cancel();
         }
     }
 }
@@ -0,0 +1,280 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.boot;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
+
+/**
+ * The <code>AgentScheduler</code> runs the periodic and delayed tasks of the agent services, instead of one thread per
+ * service. A single timer thread fires the tasks and hands them over to a bounded worker pool of {@link
+ * Config.Agent#SCHEDULER_POOL_SIZE} threads, or to virtual threads when {@link Config.Agent#SCHEDULER_VIRTUAL_THREADS}
+ * is enabled on JDK 21+.
+ * <p>
+ * Every task runs at most once at a time, a fixed rate firing is skipped when the last execution of the task has not
+ * finished yet, so a slow task can't pile up in the pool. The exceptions of a task are logged and don't cancel the
+ * following executions. The execution time of every task is reported through {@link AgentSo11y}.
+ * <p>
+ * The tasks blocking for long, e.g. the long-running loops, the profiling uploads and the spill replay waiting for the
+ * collector, keep their own threads, so they can't hold the workers the other tasks need. The log file flusher of
+ * {@code FileWriter} keeps its own thread too, as the logging starts before the services are booted.
+ * <p>
+ * The shared workers still run the tasks calling the collector with a deadline, e.g. the heartbeat and the polls of
+ * the profiling tasks, which could hold all of them while the collector is unreachable. The tasks the recovery depends
+ * on, i.e. the reconnect check of the collector channel, are scheduled by {@link #scheduleAtFixedRateOnOwnWorker} to
+ * run on a worker of their own.
+ */
+@DefaultImplementor
+public class AgentScheduler implements BootService {
+    private static final ILog LOGGER = LogManager.getLogger(AgentScheduler.class);
+
+    private final ScheduledThreadPoolExecutor timer;
+    private final ExecutorService workers;
+    private final boolean virtualThreadWorkers;
+    private final List<ExecutorService> ownWorkers = new CopyOnWriteArrayList<>();
+
+    public AgentScheduler() {
+        // the executors are created in advance, as the services schedule their tasks in the boot stage, and the
+        // threads are only started when the first task is fired.
+        timer = new ScheduledThreadPoolExecutor(1, new DefaultNamedThreadFactory("AgentScheduler"));
+        timer.setRemoveOnCancelPolicy(true);
+        ExecutorService virtualThreadExecutor = Config.Agent.SCHEDULER_VIRTUAL_THREADS ? newVirtualThreadExecutor() : null;
+        virtualThreadWorkers = virtualThreadExecutor != null;
+        if (virtualThreadWorkers) {
+            workers = virtualThreadExecutor;
+        } else {
+            workers = newWorkerPool(Math.max(1, Config.Agent.SCHEDULER_POOL_SIZE), "AgentScheduler-worker");
+        }
+    }
+
+    @Override
+    public void prepare() throws Throwable {
+
+    }
+
+    @Override
+    public void boot() throws Throwable {
+
+    }
+
+    @Override
+    public void onComplete() throws Throwable {
+
+    }
+
+    @Override
+    public void shutdown() throws Throwable {
+        timer.shutdownNow();
+        workers.shutdownNow();
+        for (ExecutorService ownWorker : ownWorkers) {
+            ownWorker.shutdownNow();
+        }
+    }
+
+    /**
+     * Boot before and shut down after all the services, which schedule their tasks here.
+     */
+    @Override
+    public int priority() {
+        return Integer.MIN_VALUE;
+    }
+
+    /**
+     * Run the task periodically, the firings are skipped while the last execution is still running.
+     *
+     * @param name the name of the task, which is used in the logs and the meters.
+     */
+    public ScheduledTask scheduleAtFixedRate(String name, Runnable task, long initialDelay, long period, TimeUnit unit) {
+        ScheduledTask scheduledTask = new ScheduledTask(name, task, -1, workers);
+        scheduledTask.trigger = timer.scheduleAtFixedRate(scheduledTask, initialDelay, period, unit);
+        return scheduledTask;
+    }
+
+    /**
+     * Run the task periodically like {@link #scheduleAtFixedRate}, on a worker of its own rather than the shared ones,
+     * so it runs on time even when the other tasks hold all the shared workers. The virtual threads are not shared, so
+     * the task runs on them when they are enabled.
+     *
+     * @param name the name of the task, which is used in the logs, the meters and the name of the worker thread.
+     */
+    public ScheduledTask scheduleAtFixedRateOnOwnWorker(String name, Runnable task, long initialDelay, long period,
+                                                        TimeUnit unit) {
+        ExecutorService executor = workers;
+        if (!virtualThreadWorkers) {
+            executor = newWorkerPool(1, "AgentScheduler-" + name);
+            ownWorkers.add(executor);
+        }
+        ScheduledTask scheduledTask = new ScheduledTask(name, task, -1, executor);
+        scheduledTask.trigger = timer.scheduleAtFixedRate(scheduledTask, initialDelay, period, unit);
+        return scheduledTask;
+    }
+
+    /**
+     * Run the task periodically, with the given delay between the end of an execution and the start of the next one.
+     *
+     * @param name the name of the task, which is used in the logs and the meters.
+     */
+    public ScheduledTask scheduleWithFixedDelay(String name, Runnable task, long initialDelay, long delay,
+                                                TimeUnit unit) {
+        ScheduledTask scheduledTask = new ScheduledTask(name, task, unit.toNanos(delay), workers);
+        scheduledTask.trigger = timer.schedule(scheduledTask, initialDelay, unit);
+        return scheduledTask;
+    }
+
+    /**
+     * Run the task once after the given delay.
+     *
+     * @param name the name of the task, which is used in the logs and the meters.
+     */
+    public ScheduledTask schedule(String name, Runnable task, long delay, TimeUnit unit) {
+        ScheduledTask scheduledTask = new ScheduledTask(name, task, -1, workers);
+        scheduledTask.trigger = timer.schedule(scheduledTask, delay, unit);
+        return scheduledTask;
+    }
+
+    private static ThreadPoolExecutor newWorkerPool(int poolSize, String name) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+            poolSize, poolSize, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new DefaultNamedThreadFactory(name)
+        );
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * @return an executor starting a virtual thread per task, or null when the virtual threads are not supported by the
+     * current JVM.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class)
+                                  .invoke(builder, "SkywalkingAgent-AgentScheduler-virtual-", 0L);
+            ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) newThreadPerTaskExecutor.invoke(null, threadFactory);
+        } catch (Exception e) {
+            LOGGER.warn("Virtual threads are not supported by the current JVM, the scheduled tasks run in the thread pool.");
+            return null;
+        }
+    }
+
+    /**
+     * The handle of a task scheduled by the {@link AgentScheduler}.
+     */
+    public final class ScheduledTask implements Runnable {
+        private final String name;
+        private final Runnable task;
+        /**
+         * The delay between the executions in nanoseconds for the fixed delay tasks, otherwise -1.
+         */
+        private final long delayInNanos;
+        private final ExecutorService executor;
+        private final AtomicBoolean running = new AtomicBoolean(false);
+        private volatile boolean cancelled = false;
+        private volatile ScheduledFuture<?> trigger;
+
+        private ScheduledTask(String name, Runnable task, long delayInNanos, ExecutorService executor) {
+            this.name = name;
+            this.task = task;
+            this.delayInNanos = delayInNanos;
+            this.executor = executor;
+        }
+
+        /**
+         * Fired in the timer thread, hand the task over to the workers unless the last execution is still running.
+         */
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+            if (!running.compareAndSet(false, true)) {
+                LOGGER.debug("Skip the scheduled task {}, as the last execution is still running.", name);
+                AgentSo11y.measureScheduledTaskOverrun(name);
+                return;
+            }
+            try {
+                executor.execute(this::execute);
+            } catch (RejectedExecutionException e) {
+                // the scheduler is shut down
+                running.set(false);
+            }
+        }
+
+        private void execute() {
+            long startNanos = System.nanoTime();
+            try {
+                if (!cancelled) {
+                    task.run();
+                }
+            } catch (Throwable t) {
+                LOGGER.error(t, "Scheduled task {} failure.", name);
+            } finally {
+                running.set(false);
+            }
+            AgentSo11y.measureScheduledTask(name, System.nanoTime() - startNanos);
+            if (delayInNanos >= 0 && !cancelled) {
+                try {
+                    trigger = timer.schedule(this, delayInNanos, TimeUnit.NANOSECONDS);
+                } catch (RejectedExecutionException e) {
+                    // the scheduler is shut down
+                }
+            }
+        }
+
+        /**
+         * Cancel the following executions of the task, the running execution is not interrupted.
+         */
+        public void cancel() {
+            cancelled = true;
+            ScheduledFuture<?> trigger = this.trigger;
+            if (trigger != null) {
+                trigger.cancel(false);
+            }
+            if (executor != workers) {
+                ownWorkers.remove(executor);
+                executor.shutdown();
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -42,11 +42,21 @@ public enum ServiceManager {
     private volatile boolean isBooted = false;
 
     public void boot() {
+        long startNanos = System.nanoTime();
         bootedServices = loadAllServices();
+        StartupTimer.INSTANCE.record("load_services", startNanos);
 
+        startNanos = System.nanoTime();
         prepare();
+        StartupTimer.INSTANCE.record("prepare_services", startNanos);
+
+        startNanos = System.nanoTime();
         startup();
+        StartupTimer.INSTANCE.record("boot_services", startNanos);
+
+        startNanos = System.nanoTime();
         onComplete();
+        StartupTimer.INSTANCE.record("complete_services", startNanos);
     }
 
     public void shutdown() {
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.boot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+
+/**
+ * The <code>StartupExecutor</code> runs the startup work of the agent. The work runs in the calling thread when {@link
+ * Config.Agent#STARTUP_PARALLELISM} is 1, otherwise across a fork-join pool of that parallelism, which is shut down
+ * once the work is done. The results are always collected in the order of the inputs, so the startup is deterministic
+ * either way.
+ */
+public class StartupExecutor {
+    private static final AtomicInteger WORKER_SEQ = new AtomicInteger(0);
+
+    /**
+     * @return the results of applying the function to the inputs, in the order of the inputs.
+     */
+    public static <T, R> List<R> map(List<T> inputs, Function<? super T, ? extends R> function) {
+        int parallelism = Math.min(Config.Agent.STARTUP_PARALLELISM, inputs.size());
+        List<R> results = new ArrayList<>(inputs.size());
+        if (parallelism <= 1) {
+            for (T input : inputs) {
+                results.add(function.apply(input));
+            }
+            return results;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism, StartupExecutor::newWorker, null, false);
+        try {
+            List<ForkJoinTask<? extends R>> tasks = new ArrayList<>(inputs.size());
+            for (T input : inputs) {
+                tasks.add(pool.submit(() -> function.apply(input)));
+            }
+            for (ForkJoinTask<? extends R> task : tasks) {
+                results.add(task.join());
+            }
+            return results;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        worker.setName("SkywalkingAgent-Startup-" + WORKER_SEQ.incrementAndGet());
+        return worker;
+    }
+}
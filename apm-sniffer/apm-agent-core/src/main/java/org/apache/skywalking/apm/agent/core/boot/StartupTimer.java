@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.boot;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
+
+/**
+ * The <code>StartupTimer</code> records the time cost of every phase of the agent startup, in the order the phases
+ * finish. They are written to the agent log and reported as so11y meters once the agent has started.
+ */
+public enum StartupTimer {
+    INSTANCE;
+
+    private static final ILog LOGGER = LogManager.getLogger(StartupTimer.class);
+
+    private final Map<String, Long> phaseNanos = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    /**
+     * @param phase      name of the finished phase
+     * @param startNanos {@link System#nanoTime()} when the phase started
+     */
+    public void record(String phase, long startNanos) {
+        phaseNanos.put(phase, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * @return the time cost in milliseconds of the recorded phases, in the order they finished.
+     */
+    public Map<String, Long> getPhaseMillis() {
+        Map<String, Long> phaseMillis = new LinkedHashMap<>();
+        synchronized (phaseNanos) {
+            phaseNanos.forEach((phase, nanos) -> phaseMillis.put(phase, TimeUnit.NANOSECONDS.toMillis(nanos)));
+        }
+        return phaseMillis;
+    }
+
+    /**
+     * Log the recorded phases, and report them through the so11y meters.
+     */
+    public void report() {
+        Map<String, Long> phaseMillis = getPhaseMillis();
+        long totalMillis = phaseMillis.values().stream().mapToLong(Long::longValue).sum();
+        LOGGER.info("SkyWalking agent started in {} ms, phases(ms): {}", totalMillis, phaseMillis);
+        AgentSo11y.measureStartupPhases(phaseMillis);
+    }
+}
@@ -20,6 +20,7 @@ import org.apache.skywalking.apm.agent.core.logging.core.LogLevel;
 import org.apache.skywalking.apm.agent.core.logging.core.LogOutput;
 import org.apache.skywalking.apm.agent.core.logging.core.ResolverType;
 import org.apache.skywalking.apm.agent.core.logging.core.WriterFactory;
+import org.apache.skywalking.apm.agent.core.sampling.SamplingMode;
 import org.apache.skywalking.apm.util.Length;
 
 /**
@@ -75,6 +76,16 @@ public class Config {
          */
         public static int SAMPLE_N_PER_3_SECS = -1;
 
+        /**
+         * 采样模式。WINDOW 表示采样每 3 秒窗口内的前 N 个 {@link TraceSegment}；ADAPTIVE 表示通过持续补充的令牌桶采样，预算在端点之间公平分配，并在上报跟不上时自动降低。
+         */
+        public static SamplingMode SAMPLING_MODE = SamplingMode.WINDOW;
+
+        /**
+         * ADAPTIVE 采样模式下，拥有独立采样预算的最大端点数量，最久未活跃的端点会被淘汰。
+         */
+        public static int ADAPTIVE_SAMPLING_MAX_ENDPOINTS = 1000;
+
         /**
          * 如果第一个跨度的操作名称包含在此集合中，则应忽略此段。多个值应用 `,` 分隔。
          */
@@ -95,6 +106,11 @@ public class Config {
          */
         public static int SPAN_LIMIT_PER_SEGMENT = 300;
 
+        /**
+         * 如果为 true，追踪上下文结束后，当前线程会保留其活跃跨度栈的数组，供同一线程中的下一个追踪上下文复用。
+         */
+        public static boolean RECYCLE_SPAN_STACK = false;
+
         /**
          * 如果为 true，SkyWalking 代理将在 `/debugging` 文件夹中保存所有已插桩的类文件。SkyWalking 团队可能会要求这些文件以解决兼容性问题。
          */
@@ -164,6 +180,21 @@ public class Config {
          * 启用代理内核服务和插桩。
          */
         public static boolean ENABLE = true;
+
+        /**
+         * 启动时加载插件定义和生成 bootstrap 插桩模板的并行度。1 表示串行启动。
+         */
+        public static int STARTUP_PARALLELISM = 1;
+
+        /**
+         * 代理服务共享的定时任务执行线程池的大小。
+         */
+        public static int SCHEDULER_POOL_SIZE = 4;
+
+        /**
+         * 在 JDK 21+ 上使用虚拟线程执行代理服务的定时任务，低版本 JDK 上仍然使用线程池。
+         */
+        public static boolean SCHEDULER_VIRTUAL_THREADS = false;
     }
 
     public static class OsInfo {
@@ -194,6 +225,11 @@ public class Config {
          * grpc 客户端向上游发送数据的超时时间。
          */
         public static int GRPC_UPSTREAM_TIMEOUT = 30;
+        /**
+         * 同时在途（已发送但还未收到后端响应）的追踪段上报流的最大数量。
+         * 小于等于 1 时，每批追踪段发送后都要等待后端响应，才会处理下一批。
+         */
+        public static int GRPC_UPSTREAM_MAX_IN_FLIGHT_STREAMS = 1;
         /**
          * 获取性能分析任务列表的间隔
          */
@@ -234,6 +270,16 @@ public class Config {
          */
         public static int DUMP_MAX_STACK_DEPTH = 500;
 
+        /**
+         * 如果为 true，每个周期通过一次 ThreadMXBean 调用批量转储所有被监控线程的栈，只需一次安全点操作。否则逐个线程转储。
+         */
+        public static boolean BATCH_THREAD_DUMP = true;
+
+        /**
+         * 每个剖析任务缓存的栈帧数量上限，缓存的栈帧只构建一次代码签名，快照以与上次栈的差异编码。
+         */
+        public static int FRAME_DICTIONARY_SIZE = 10000;
+
         /**
          * 快照传输到后端的缓冲区大小
          */
@@ -265,6 +311,11 @@ public class Config {
          * 上传 jfr 时的块大小
          */
         public static final int DATA_CHUNK_SIZE = 1024 * 1024;
+
+        /**
+         * 上传 jfr 时收集器不可用的最大尝试次数，重新连接后从头上传
+         */
+        public static int UPLOAD_MAX_ATTEMPTS = 3;
     }
 
     public static class Meter {
@@ -282,6 +333,26 @@ public class Config {
          * 指标计数的最大大小，使用 {@link org.apache.skywalking.apm.agent.core.meter.MeterId} 作为标识
          */
         public static Integer MAX_METER_SIZE = 500;
+
+        /**
+         * 如果为 true，只报告上次报告后发生变化的指标，直方图只报告变化的桶。
+         */
+        public static boolean DELTA_REPORT = false;
+
+        /**
+         * 增量报告模式下，完整报告所有指标的间隔，单位为秒
+         */
+        public static int FULL_REPORT_INTERVAL = 300;
+
+        /**
+         * 每个 gRPC 流报告的最大指标数量，更多的指标分多个流依次报告。非正数表示全部在一个流中报告。
+         */
+        public static int REPORT_BATCH_SIZE = 1000;
+
+        /**
+         * 每 N 次拦截采样一次拦截器耗时，记录到自观测直方图 tracing_context_performance。每个样本计为 N 次，1 表示每次拦截都计时。
+         */
+        public static int INTERCEPTOR_DURATION_SAMPLE_INTERVAL = 1;
     }
 
     public static class Jvm {
@@ -308,6 +379,34 @@ public class Config {
         public static int BUFFER_SIZE = 300;
     }
 
+    public static class Spill {
+        /**
+         * 如果为 true，收集器不可用时，追踪段、日志和指标会写入磁盘上的溢出日志，重新连接后再按速率重放，而不是丢弃。
+         * 追踪在断开连接时也会继续。
+         */
+        public static boolean ACTIVE = false;
+
+        /**
+         * 溢出日志目录。默认为空字符串，表示使用 "{theSkywalkingAgentJarDir}/spill"。
+         */
+        public static String DIR = "";
+
+        /**
+         * 溢出日志的最大大小（MB），超过时丢弃最旧的数据。
+         */
+        public static int MAX_SIZE = 100;
+
+        /**
+         * 溢出数据的最长保留时间（秒），更旧的数据不再重放。
+         */
+        public static int MAX_AGE = 3600;
+
+        /**
+         * 重新连接后每秒最多重放的记录数。
+         */
+        public static int REPLAY_RATE = 1000;
+    }
+
     public static class Logging {
         /**
          * 日志文件名。
@@ -391,6 +490,22 @@ public class Config {
          * 挂载插件的文件夹。文件夹路径相对于 agent.jar。
          */
         public static List<String> MOUNT = Arrays.asList("plugins", "activations");
+
+        /**
+         * 插件匹配缓存文件的路径。为空时禁用缓存。缓存记录类型匹配到的插件及通过的见证检查，在 agent 版本、插件或应用 classpath
+         * 变化时失效。
+         */
+        public static String MATCH_CACHE_PATH = "";
+
+        /**
+         * 插件匹配缓存中记录的最大类型数量
+         */
+        public static int MATCH_CACHE_MAX_TYPES = 100000;
+
+        /**
+         * 保存插件匹配缓存的周期，单位为秒。关闭 agent 时也会保存。
+         */
+        public static long MATCH_CACHE_SAVE_PERIOD = 60;
     }
 
     public static class Correlation {
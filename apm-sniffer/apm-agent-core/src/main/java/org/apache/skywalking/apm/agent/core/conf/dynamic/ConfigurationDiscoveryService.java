@@ -26,15 +26,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.Getter;
+import org.apache.skywalking.apm.agent.core.boot.AgentScheduler;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.commands.CommandService;
 import org.apache.skywalking.apm.agent.core.conf.Config;
@@ -49,7 +47,6 @@ import org.apache.skywalking.apm.network.language.agent.v3.ConfigurationSyncRequ
 import org.apache.skywalking.apm.network.common.v3.Commands;
 import org.apache.skywalking.apm.network.common.v3.KeyStringValuePair;
 import org.apache.skywalking.apm.network.trace.component.command.ConfigurationDiscoveryCommand;
-import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 import org.apache.skywalking.apm.util.StringUtil;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.Collector.GRPC_UPSTREAM_TIMEOUT;
@@ -65,7 +62,7 @@ public class ConfigurationDiscoveryService implements BootService, GRPCChannelLi
 
     private volatile int lastRegisterWatcherSize;
 
-    private volatile ScheduledFuture<?> getDynamicConfigurationFuture;
+    private volatile AgentScheduler.ScheduledTask getDynamicConfigurationFuture;
     private volatile GRPCChannelStatus status = GRPCChannelStatus.DISCONNECT;
     private volatile ConfigurationDiscoveryServiceGrpc.ConfigurationDiscoveryServiceBlockingStub configurationDiscoveryServiceBlockingStub;
 
@@ -89,13 +86,9 @@ public class ConfigurationDiscoveryService implements BootService, GRPCChannelLi
 
     @Override
     public void boot() throws Throwable {
-        getDynamicConfigurationFuture = Executors.newSingleThreadScheduledExecutor(
-            new DefaultNamedThreadFactory("ConfigurationDiscoveryService")
-        ).scheduleAtFixedRate(
-            new RunnableWithExceptionProtection(
-                this::getAgentDynamicConfig,
-                t -> LOGGER.error("Sync config from OAP error.", t)
-            ),
+        getDynamicConfigurationFuture = ServiceManager.INSTANCE.findService(AgentScheduler.class).scheduleAtFixedRate(
+            "ConfigurationDiscoveryService",
+            this::getAgentDynamicConfig,
             Config.Collector.GET_AGENT_DYNAMIC_CONFIG_INTERVAL,
             Config.Collector.GET_AGENT_DYNAMIC_CONFIG_INTERVAL,
             TimeUnit.SECONDS
@@ -110,7 +103,7 @@ public class ConfigurationDiscoveryService implements BootService, GRPCChannelLi
     @Override
     public void shutdown() throws Throwable {
         if (getDynamicConfigurationFuture != null) {
-            getDynamicConfigurationFuture.cancel(true);
+            getDynamicConfigurationFuture.cancel();
         }
     }
 
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
+
+/**
+ * The array-backed 'ActiveSpanStack' of {@link TracingContext}, no node is allocated per pushed span.
+ * <p>
+ * The initial capacity is bounded by the span limit per segment, and doubled when the stack is deeper. When {@link
+ * Config.Agent#RECYCLE_SPAN_STACK} is on, the array is kept by the thread after the context finished, and reused by the
+ * next context created in the same thread.
+ */
+final class ActiveSpanStack {
+    static final int DEFAULT_CAPACITY = 16;
+
+    private static final AbstractSpan[] RECYCLED_ELEMENTS = new AbstractSpan[0];
+    private static final ThreadLocal<AbstractSpan[]> RECYCLED = new ThreadLocal<>();
+
+    private AbstractSpan[] elements;
+    private int size;
+
+    ActiveSpanStack(int spanLimit) {
+        AbstractSpan[] recycled = null;
+        if (Config.Agent.RECYCLE_SPAN_STACK) {
+            recycled = RECYCLED.get();
+            if (recycled != null) {
+                RECYCLED.remove();
+            }
+        }
+        if (recycled == null) {
+            recycled = new AbstractSpan[Math.max(1, Math.min(DEFAULT_CAPACITY, spanLimit))];
+        }
+        this.elements = recycled;
+    }
+
+    void push(AbstractSpan span) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(size << 1, DEFAULT_CAPACITY));
+        }
+        elements[size++] = span;
+    }
+
+    AbstractSpan pop() {
+        AbstractSpan span = elements[--size];
+        elements[size] = null;
+        return span;
+    }
+
+    /**
+     * @return the top element, or null if the stack is empty.
+     */
+    AbstractSpan peek() {
+        return size == 0 ? null : elements[size - 1];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Iterate the spans from the bottom to the top.
+     */
+    void forEach(Consumer<AbstractSpan> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(elements[i]);
+        }
+    }
+
+    /**
+     * Hand the array over to the current thread, if recycling is on, and the stack is empty. A stack used after
+     * recycling allocates a new array rather than sharing the recycled one.
+     */
+    void recycle() {
+        if (Config.Agent.RECYCLE_SPAN_STACK && size == 0 && elements != RECYCLED_ELEMENTS) {
+            RECYCLED.set(elements);
+            elements = RECYCLED_ELEMENTS;
+        }
+    }
+}
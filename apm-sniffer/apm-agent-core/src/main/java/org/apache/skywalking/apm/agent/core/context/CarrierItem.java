@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.apm.agent.core.context;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
 
 public class CarrierItem implements Iterator<CarrierItem> {
@@ -47,6 +48,22 @@ public class CarrierItem implements Iterator<CarrierItem> {
         this.headValue = headValue;
     }
 
+    /**
+     * Set the head value held by a {@link CharSequence}, e.g. a header value of a framework, which is only turned into
+     * a {@link String} by the items keeping it.
+     */
+    public void setHeadValue(CharSequence headValue) {
+        setHeadValue(headValue == null ? null : headValue.toString());
+    }
+
+    /**
+     * Set the head value by its UTF-8 bytes, e.g. a message header, which are only turned into a {@link String} by the
+     * items keeping it.
+     */
+    public void setHeadValue(byte[] headValue) {
+        setHeadValue(headValue == null ? null : new String(headValue, StandardCharsets.UTF_8));
+    }
+
     @Override
     public boolean hasNext() {
         return next != null;
@@ -32,6 +32,7 @@ import org.apache.skywalking.apm.agent.core.conf.dynamic.watcher.SpanLimitWatche
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelListener;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelManager;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelStatus;
+import org.apache.skywalking.apm.agent.core.remote.SpillQueueService;
 import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
 import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
 import org.apache.skywalking.apm.util.StringUtil;
@@ -47,6 +48,8 @@ public class ContextManagerExtendService implements BootService, GRPCChannelList
 
     private SpanLimitWatcher spanLimitWatcher;
 
+    private SpillQueueService spillQueueService;
+
     @Override
     public void prepare() {
         ServiceManager.INSTANCE.findService(GRPCChannelManager.class).addChannelListener(this);
@@ -54,6 +57,7 @@ public class ContextManagerExtendService implements BootService, GRPCChannelList
 
     @Override
     public void boot() {
+        spillQueueService = ServiceManager.INSTANCE.findService(SpillQueueService.class);
         ignoreSuffixSet = Stream.of(Config.Agent.IGNORE_SUFFIX.split(",")).collect(Collectors.toSet());
         ignoreSuffixPatternsWatcher = new IgnoreSuffixPatternsWatcher("agent.ignore_suffix", this);
         spanLimitWatcher = new SpanLimitWatcher("agent.span_limit_per_segment");
@@ -79,9 +83,9 @@ public class ContextManagerExtendService implements BootService, GRPCChannelList
     public AbstractTracerContext createTraceContext(String operationName, boolean forceSampling) {
         AbstractTracerContext context;
         /*
-         * Don't trace anything if the backend is not available.
+         * Don't trace anything if the backend is not available, and the segments can't be spilled either.
          */
-        if (!Config.Agent.KEEP_TRACING && GRPCChannelStatus.DISCONNECT.equals(status)) {
+        if (!Config.Agent.KEEP_TRACING && GRPCChannelStatus.DISCONNECT.equals(status) && !spillQueueService.isActive()) {
             AgentSo11y.measureTracingContextCreation(forceSampling, true);
             return new IgnoredTracerContext();
         }
@@ -20,11 +20,8 @@ package org.apache.skywalking.apm.agent.core.context;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 import org.apache.skywalking.apm.agent.core.base64.Base64;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.tag.StringTag;
@@ -33,10 +30,13 @@ import org.apache.skywalking.apm.util.StringUtil;
 
 /**
  * Correlation context, use to propagation user custom data.
+ * <p>
+ * The data is held by an immutable {@link Entries}, replaced on every change. Most contexts never hold any data, they
+ * share {@link Entries#EMPTY}, and the serialized header value is cached by the entries until the data changes.
  */
 public class CorrelationContext {
 
-    private final Map<String, String> data;
+    private volatile Entries entries = Entries.EMPTY;
 
     private static final List<String> AUTO_TAG_KEYS;
 
@@ -49,7 +49,6 @@ public class CorrelationContext {
     }
 
     public CorrelationContext() {
-        this.data = new ConcurrentHashMap<>(Config.Correlation.ELEMENT_MAX_NUMBER);
     }
 
     /**
@@ -65,32 +64,39 @@ public class CorrelationContext {
             return Optional.empty();
         }
 
-        // remove and return previous value when value is empty
-        if (StringUtil.isEmpty(value)) {
-            return Optional.ofNullable(data.remove(key));
-        }
+        synchronized (this) {
+            // remove and return previous value when value is empty
+            if (StringUtil.isEmpty(value)) {
+                final String previousValue = entries.get(key);
+                if (previousValue != null) {
+                    entries = entries.without(key);
+                }
+                return Optional.ofNullable(previousValue);
+            }
 
-        // check value length
-        if (value.length() > Config.Correlation.VALUE_MAX_LENGTH) {
-            return Optional.empty();
-        }
+            // check value length
+            if (value.length() > Config.Correlation.VALUE_MAX_LENGTH) {
+                return Optional.empty();
+            }
 
-        // already contain key
-        if (data.containsKey(key)) {
-            final String previousValue = data.put(key, value);
-            return Optional.of(previousValue);
-        }
+            // already contain key
+            final String previousValue = entries.get(key);
+            if (previousValue != null) {
+                entries = entries.with(key, value);
+                return Optional.of(previousValue);
+            }
 
-        // check keys count
-        if (data.size() >= Config.Correlation.ELEMENT_MAX_NUMBER) {
+            // check keys count
+            if (entries.size() >= Config.Correlation.ELEMENT_MAX_NUMBER) {
+                return Optional.empty();
+            }
+            if (AUTO_TAG_KEYS.contains(key) && ContextManager.isActive()) {
+                ContextManager.activeSpan().tag(new StringTag(key), value);
+            }
+            // setting
+            entries = entries.with(key, value);
             return Optional.empty();
         }
-        if (AUTO_TAG_KEYS.contains(key) && ContextManager.isActive()) {
-            ContextManager.activeSpan().tag(new StringTag(key), value);
-        }
-        // setting
-        data.put(key, value);
-        return Optional.empty();
     }
 
     /**
@@ -102,7 +108,7 @@ public class CorrelationContext {
             return Optional.empty();
         }
 
-        return Optional.ofNullable(data.get(key));
+        return Optional.ofNullable(entries.get(key));
     }
 
     /**
@@ -111,13 +117,7 @@ public class CorrelationContext {
      * @return the serialization string.
      */
     String serialize() {
-        if (data.isEmpty()) {
-            return "";
-        }
-
-        return data.entrySet().stream()
-                   .map(entry -> Base64.encode(entry.getKey()) + ":" + Base64.encode(entry.getValue()))
-                   .collect(Collectors.joining(","));
+        return entries.serialize();
     }
 
     /**
@@ -128,39 +128,62 @@ public class CorrelationContext {
             return;
         }
 
-        for (String perData : value.split(",")) {
-            // Only data with limited count of elements can be added
-            if (data.size() >= Config.Correlation.ELEMENT_MAX_NUMBER) {
-                break;
-            }
-            final String[] parts = perData.split(":");
-            if (parts.length != 2) {
-                continue;
+        synchronized (this) {
+            Entries result = entries;
+            int start = 0;
+            while (start < value.length()) {
+                int end = value.indexOf(',', start);
+                if (end < 0) {
+                    end = value.length();
+                }
+                // Only data with limited count of elements can be added
+                if (result.size() >= Config.Correlation.ELEMENT_MAX_NUMBER) {
+                    break;
+                }
+                // a key and a non-empty value, separated by the only ':'
+                final int separator = value.indexOf(':', start);
+                if (separator >= 0 && separator < end - 1 && value.lastIndexOf(':', end - 1) == separator) {
+                    result = result.with(
+                        Base64.decode2UTFString(value.substring(start, separator)),
+                        Base64.decode2UTFString(value.substring(separator + 1, end))
+                    );
+                }
+                start = end + 1;
             }
-            data.put(Base64.decode2UTFString(parts[0]), Base64.decode2UTFString(parts[1]));
+            entries = result;
         }
     }
 
     /**
-     * Prepare for the cross-process propagation. Inject the {@link #data} into {@link
+     * Prepare for the cross-process propagation. Inject the {@link #entries} into {@link
      * ContextCarrier#getCorrelationContext()}
      */
     void inject(ContextCarrier carrier) {
-        carrier.getCorrelationContext().data.putAll(this.data);
+        carrier.getCorrelationContext().putAll(this.entries);
     }
 
     /**
      * Extra the {@link ContextCarrier#getCorrelationContext()} into this context.
      */
     void extract(ContextCarrier carrier) {
-        final Map<String, String> carrierCorrelationContext = carrier.getCorrelationContext().data;
-        for (Map.Entry<String, String> entry : carrierCorrelationContext.entrySet()) {
-            // Only data with limited count of elements can be added
-            if (data.size() >= Config.Correlation.ELEMENT_MAX_NUMBER) {
-                break;
+        final Entries carrierEntries = carrier.getCorrelationContext().entries;
+        if (carrierEntries.size() == 0) {
+            return;
+        }
+        synchronized (this) {
+            Entries result = entries;
+            if (result.size() == 0 && carrierEntries.size() <= Config.Correlation.ELEMENT_MAX_NUMBER) {
+                result = carrierEntries;
+            } else {
+                for (int i = 0; i < carrierEntries.size(); i++) {
+                    // Only data with limited count of elements can be added
+                    if (result.size() >= Config.Correlation.ELEMENT_MAX_NUMBER) {
+                        break;
+                    }
+                    result = result.with(carrierEntries.key(i), carrierEntries.value(i));
+                }
             }
-
-            this.data.put(entry.getKey(), entry.getValue());
+            entries = result;
         }
     }
 
@@ -170,6 +193,9 @@ public class CorrelationContext {
      * 1. Inject the tags with auto-tag flag into the span
      */
     void handle(AbstractSpan span) {
+        if (entries.size() == 0) {
+            return;
+        }
         AUTO_TAG_KEYS.forEach(key -> this.get(key).ifPresent(val -> span.tag(new StringTag(key), val)));
     }
 
@@ -179,7 +205,7 @@ public class CorrelationContext {
     @Override
     public CorrelationContext clone() {
         final CorrelationContext context = new CorrelationContext();
-        context.data.putAll(this.data);
+        context.entries = this.entries;
         return context;
     }
 
@@ -189,7 +215,27 @@ public class CorrelationContext {
      * @param snapshot holds the context.
      */
     void continued(ContextSnapshot snapshot) {
-        this.data.putAll(snapshot.getCorrelationContext().data);
+        putAll(snapshot.getCorrelationContext().entries);
+    }
+
+    /**
+     * Put all given entries, override the existing keys, without the element limit check.
+     */
+    private void putAll(Entries other) {
+        if (other.size() == 0) {
+            return;
+        }
+        synchronized (this) {
+            if (entries.size() == 0) {
+                entries = other;
+                return;
+            }
+            Entries result = entries;
+            for (int i = 0; i < other.size(); i++) {
+                result = result.with(other.key(i), other.value(i));
+            }
+            entries = result;
+        }
     }
 
     @Override
@@ -199,11 +245,134 @@ public class CorrelationContext {
         if (o == null || getClass() != o.getClass())
             return false;
         CorrelationContext that = (CorrelationContext) o;
-        return Objects.equals(data, that.data);
+        return entries.equals(that.entries);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(data);
+        return entries.hashCode();
+    }
+
+    /**
+     * An immutable inline array map, keys and values are stored alternately in insertion order. The correlation
+     * context holds only a few elements, limited by {@link Config.Correlation#ELEMENT_MAX_NUMBER}, a linear search is
+     * cheaper than hashing.
+     */
+    private static final class Entries {
+        private static final Entries EMPTY = new Entries(new String[0]);
+
+        private final String[] keyValues;
+        /**
+         * The cached serialization, racy single-check, as the entries are immutable.
+         */
+        private String serialized;
+
+        private Entries(String[] keyValues) {
+            this.keyValues = keyValues;
+        }
+
+        int size() {
+            return keyValues.length >> 1;
+        }
+
+        String key(int index) {
+            return keyValues[index << 1];
+        }
+
+        String value(int index) {
+            return keyValues[(index << 1) + 1];
+        }
+
+        String get(String key) {
+            for (int i = 0; i < keyValues.length; i += 2) {
+                if (keyValues[i].equals(key)) {
+                    return keyValues[i + 1];
+                }
+            }
+            return null;
+        }
+
+        Entries with(String key, String value) {
+            for (int i = 0; i < keyValues.length; i += 2) {
+                if (keyValues[i].equals(key)) {
+                    if (keyValues[i + 1].equals(value)) {
+                        return this;
+                    }
+                    final String[] copy = keyValues.clone();
+                    copy[i + 1] = value;
+                    return new Entries(copy);
+                }
+            }
+            final String[] copy = Arrays.copyOf(keyValues, keyValues.length + 2);
+            copy[keyValues.length] = key;
+            copy[keyValues.length + 1] = value;
+            return new Entries(copy);
+        }
+
+        Entries without(String key) {
+            for (int i = 0; i < keyValues.length; i += 2) {
+                if (keyValues[i].equals(key)) {
+                    if (keyValues.length == 2) {
+                        return EMPTY;
+                    }
+                    final String[] copy = new String[keyValues.length - 2];
+                    System.arraycopy(keyValues, 0, copy, 0, i);
+                    System.arraycopy(keyValues, i + 2, copy, i, keyValues.length - i - 2);
+                    return new Entries(copy);
+                }
+            }
+            return this;
+        }
+
+        String serialize() {
+            String result = serialized;
+            if (result == null) {
+                final StringBuilder builder = new StringBuilder();
+                for (int i = 0; i < keyValues.length; i += 2) {
+                    if (i > 0) {
+                        builder.append(',');
+                    }
+                    builder.append(Base64.encode(keyValues[i])).append(':').append(Base64.encode(keyValues[i + 1]));
+                }
+                result = builder.toString();
+                serialized = result;
+            }
+            return result;
+        }
+
+        /**
+         * Same as {@link java.util.Map#equals(Object)}, both hold the same mappings, regardless of the order.
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Entries)) {
+                return false;
+            }
+            final Entries other = (Entries) o;
+            if (size() != other.size()) {
+                return false;
+            }
+            for (int i = 0; i < keyValues.length; i += 2) {
+                if (!Objects.equals(keyValues[i + 1], other.get(keyValues[i]))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Same as {@link java.util.Map#hashCode()}, independent of the order.
+         */
+        @Override
+        public int hashCode() {
+            int hash = 0;
+            for (int i = 0; i < keyValues.length; i += 2) {
+                hash += keyValues[i].hashCode() ^ keyValues[i + 1].hashCode();
+            }
+            return hash;
+        }
     }
 }
@@ -54,16 +54,22 @@ public class ExtensionContext {
     @Setter
     private Long sendingTimestamp;
 
+    /**
+     * The serialization of the contexts without sending timestamp, which are most of them.
+     */
+    private static final String SERIALIZED_DEFAULT = "0" + SEPARATOR + PLACEHOLDER;
+    private static final String SERIALIZED_SKIP_ANALYSIS = "1" + SEPARATOR + PLACEHOLDER;
+
     /**
      * Serialize this {@link ExtensionContext} to a {@link String}
      *
      * @return the serialization string.
      */
     String serialize() {
-        String res = skipAnalysis ? "1" : "0";
-        res += SEPARATOR;
-        res += Objects.isNull(sendingTimestamp) ? PLACEHOLDER : sendingTimestamp;
-        return res;
+        if (Objects.isNull(sendingTimestamp)) {
+            return skipAnalysis ? SERIALIZED_SKIP_ANALYSIS : SERIALIZED_DEFAULT;
+        }
+        return (skipAnalysis ? "1" : "0") + SEPARATOR + sendingTimestamp;
     }
 
     /**
@@ -73,17 +79,18 @@ public class ExtensionContext {
         if (StringUtil.isEmpty(value)) {
             return;
         }
-        String[] extensionParts = value.split(SEPARATOR);
-        String extensionPart;
         // All parts of the extension header are optional.
         // only try to read it when it exist.
-        if (extensionParts.length > 0) {
-            extensionPart = extensionParts[0];
-            this.skipAnalysis = Objects.equals(extensionPart, "1");
+        int end = value.indexOf(SEPARATOR);
+        if (end < 0) {
+            end = value.length();
         }
+        this.skipAnalysis = end == 1 && value.charAt(0) == '1';
 
-        if (extensionParts.length > 1) {
-            extensionPart = extensionParts[1];
+        if (end < value.length()) {
+            final int start = end + 1;
+            end = value.indexOf(SEPARATOR, start);
+            final String extensionPart = value.substring(start, end < 0 ? value.length() : end);
             if (StringUtil.isNotBlank(extensionPart)) {
                 try {
                     this.sendingTimestamp = Long.parseLong(extensionPart);
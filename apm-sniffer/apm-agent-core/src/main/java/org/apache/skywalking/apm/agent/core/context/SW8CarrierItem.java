@@ -31,4 +31,17 @@ public class SW8CarrierItem extends CarrierItem {
     public void setHeadValue(String headValue) {
         carrier.deserialize(headValue, ContextCarrier.HeaderVersion.v3);
     }
+
+    @Override
+    public void setHeadValue(CharSequence headValue) {
+        carrier.deserialize(headValue, ContextCarrier.HeaderVersion.v3);
+    }
+
+    /**
+     * The header is decoded from the bytes in place, its fields are Base64 and decimal, so the bytes are ASCII.
+     */
+    @Override
+    public void setHeadValue(byte[] headValue) {
+        carrier.deserialize(headValue, ContextCarrier.HeaderVersion.v3);
+    }
 }
\ No newline at end of file
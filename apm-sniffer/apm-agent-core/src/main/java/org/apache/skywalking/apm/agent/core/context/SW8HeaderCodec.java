@@ -0,0 +1,394 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Single pass codec of the {@code sw8} header.
+ * <p>
+ * The header is {@code sample-traceId-segmentId-spanId-service-instance-endpoint-address}, every string field encoded
+ * by the basic Base64 alphabet, which never contains the {@code '-'} delimiter. Encoding writes all fields into one
+ * {@code char[]}, decoding walks the fields one after another and decodes every field into a per-thread scratch
+ * buffer, so neither direction creates the intermediate {@code String[]}, substrings or Base64 strings of the generic
+ * implementation. The header is decoded from a {@link CharSequence} or straight from the bytes of a message header, so
+ * the carriers don't need to build a {@link String} of it.
+ * <p>
+ * The decoder accepts and rejects exactly the inputs {@link java.util.Base64#getDecoder()} does. A header is applied
+ * to the carrier only when every field has been decoded.
+ */
+final class SW8HeaderCodec {
+    private static final char[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+    private static final int[] DECODE_TABLE = new int[256];
+    private static final int PADDING = -2;
+    private static final int ILLEGAL = -1;
+
+    /**
+     * Scratch buffers larger than this are not kept by the thread, an abnormal header should not pin memory.
+     */
+    private static final int MAX_CACHED_SCRATCH = 1024;
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[128]);
+
+    /**
+     * The parent service and instance are the same for every header sent by this agent.
+     */
+    private static final EncodedValueCache PARENT_SERVICE = new EncodedValueCache();
+    private static final EncodedValueCache PARENT_SERVICE_INSTANCE = new EncodedValueCache();
+
+    static {
+        for (int i = 0; i < DECODE_TABLE.length; i++) {
+            DECODE_TABLE[i] = ILLEGAL;
+        }
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE_TABLE[ALPHABET[i]] = i;
+        }
+        DECODE_TABLE['='] = PADDING;
+    }
+
+    private SW8HeaderCodec() {
+    }
+
+    static String encode(ContextCarrier carrier) {
+        final String traceId = carrier.getTraceId();
+        final String segmentId = carrier.getTraceSegmentId();
+        final int spanId = carrier.getSpanId();
+        final String service = PARENT_SERVICE.encode(carrier.getParentService());
+        final String instance = PARENT_SERVICE_INSTANCE.encode(carrier.getParentServiceInstance());
+        final String endpoint = carrier.getParentEndpoint();
+        final String address = carrier.getAddressUsedAtClient();
+
+        final byte[] traceIdBytes = utf8BytesIfNotAscii(traceId);
+        final byte[] segmentIdBytes = utf8BytesIfNotAscii(segmentId);
+        final byte[] endpointBytes = utf8BytesIfNotAscii(endpoint);
+        final byte[] addressBytes = utf8BytesIfNotAscii(address);
+
+        // "1" and the 7 delimiters
+        final int length = 8
+            + base64Length(traceId, traceIdBytes)
+            + base64Length(segmentId, segmentIdBytes)
+            + stringSize(spanId)
+            + service.length()
+            + instance.length()
+            + base64Length(endpoint, endpointBytes)
+            + base64Length(address, addressBytes);
+
+        final char[] out = new char[length];
+        int pos = 0;
+        out[pos++] = '1';
+        out[pos++] = '-';
+        pos = writeBase64(traceId, traceIdBytes, out, pos);
+        out[pos++] = '-';
+        pos = writeBase64(segmentId, segmentIdBytes, out, pos);
+        out[pos++] = '-';
+        pos = writeInt(spanId, out, pos);
+        out[pos++] = '-';
+        service.getChars(0, service.length(), out, pos);
+        pos += service.length();
+        out[pos++] = '-';
+        instance.getChars(0, instance.length(), out, pos);
+        pos += instance.length();
+        out[pos++] = '-';
+        pos = writeBase64(endpoint, endpointBytes, out, pos);
+        out[pos++] = '-';
+        writeBase64(address, addressBytes, out, pos);
+        return new String(out);
+    }
+
+    /**
+     * Decode the header into the carrier. Nothing is changed if the header is malformed.
+     */
+    static void decode(CharSequence text, ContextCarrier carrier) {
+        decode(text, text.length(), carrier);
+    }
+
+    /**
+     * Decode the header from its UTF-8 bytes into the carrier, the same as decoding {@code new String(text, UTF_8)}.
+     * The delimiters, Base64 and decimal fields are ASCII, which a byte of a multi-byte UTF-8 char never is, so the
+     * bytes are walked in place. Nothing is changed if the header is malformed.
+     */
+    static void decode(byte[] text, ContextCarrier carrier) {
+        decode(text, text.length, carrier);
+    }
+
+    /**
+     * @param text either a {@link CharSequence} or a {@code byte[]}, read by {@link #charAt(Object, int)}.
+     */
+    private static void decode(Object text, int length, ContextCarrier carrier) {
+        // the first field is the sample flag, always trace if the header exists.
+        int end = indexOfDelimiter(text, 0, length);
+        if (end < 0) {
+            return;
+        }
+        // no field is longer than the header
+        final byte[] scratch = scratch((length + 3) / 4 * 3);
+        try {
+            int start = end + 1;
+            if ((end = indexOfDelimiter(text, start, length)) < 0) {
+                return;
+            }
+            final String traceId = decodeField(text, start, end, scratch);
+            start = end + 1;
+            if ((end = indexOfDelimiter(text, start, length)) < 0) {
+                return;
+            }
+            final String segmentId = decodeField(text, start, end, scratch);
+            start = end + 1;
+            if ((end = indexOfDelimiter(text, start, length)) < 0) {
+                return;
+            }
+            final int spanId = parseInt(text, start, end);
+            start = end + 1;
+            if ((end = indexOfDelimiter(text, start, length)) < 0) {
+                return;
+            }
+            final String service = decodeField(text, start, end, scratch);
+            start = end + 1;
+            if ((end = indexOfDelimiter(text, start, length)) < 0) {
+                return;
+            }
+            final String instance = decodeField(text, start, end, scratch);
+            start = end + 1;
+            if ((end = indexOfDelimiter(text, start, length)) < 0) {
+                return;
+            }
+            final String endpoint = decodeField(text, start, end, scratch);
+            // the last field takes the rest of the header
+            final String address = decodeField(text, end + 1, length, scratch);
+
+            carrier.setTraceId(traceId);
+            carrier.setTraceSegmentId(segmentId);
+            carrier.setSpanId(spanId);
+            carrier.setParentService(service);
+            carrier.setParentServiceInstance(instance);
+            carrier.setParentEndpoint(endpoint);
+            carrier.setAddressUsedAtClient(address);
+        } catch (IllegalArgumentException ignored) {
+
+        }
+    }
+
+    private static byte[] scratch(int required) {
+        byte[] scratch = SCRATCH.get();
+        if (scratch.length < required) {
+            scratch = new byte[required];
+            if (required <= MAX_CACHED_SCRATCH) {
+                SCRATCH.set(scratch);
+            }
+        }
+        return scratch;
+    }
+
+    private static char charAt(Object text, int index) {
+        return text instanceof byte[] ? (char) (((byte[]) text)[index] & 0xff) : ((CharSequence) text).charAt(index);
+    }
+
+    private static int indexOfDelimiter(Object text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (charAt(text, i) == '-') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String substring(Object text, int start, int end) {
+        return text instanceof byte[]
+            ? new String((byte[]) text, start, end - start, StandardCharsets.UTF_8)
+            : ((CharSequence) text).subSequence(start, end).toString();
+    }
+
+    /**
+     * Same semantics as {@link Integer#parseInt(String)}, plain ASCII digits are parsed in place.
+     */
+    private static int parseInt(Object text, int start, int end) {
+        final int length = end - start;
+        if (length > 0 && length < 10) {
+            int value = 0;
+            for (int i = start; i < end; i++) {
+                final char c = charAt(text, i);
+                if (c < '0' || c > '9') {
+                    return Integer.parseInt(substring(text, start, end));
+                }
+                value = value * 10 + (c - '0');
+            }
+            return value;
+        }
+        return Integer.parseInt(substring(text, start, end));
+    }
+
+    /**
+     * Port of the basic {@link java.util.Base64.Decoder}, working on a region of the header.
+     */
+    private static String decodeField(Object text, int start, int end, byte[] dst) {
+        final int length = end - start;
+        if (length == 0) {
+            return "";
+        }
+        if (length < 2) {
+            throw new IllegalArgumentException("Input byte[] should at least have 2 bytes for base64 bytes");
+        }
+        int dp = 0;
+        int bits = 0;
+        int shiftTo = 18;
+        int sp = start;
+        while (sp < end) {
+            final char c = charAt(text, sp++);
+            final int b = c < DECODE_TABLE.length ? DECODE_TABLE[c] : ILLEGAL;
+            if (b < 0) {
+                if (b == PADDING) {
+                    if (shiftTo == 6 && (sp == end || charAt(text, sp++) != '=') || shiftTo == 18) {
+                        throw new IllegalArgumentException("Input byte array has wrong 4-byte ending unit");
+                    }
+                    break;
+                }
+                throw new IllegalArgumentException("Illegal base64 character " + Integer.toString(c, 16));
+            }
+            bits |= b << shiftTo;
+            shiftTo -= 6;
+            if (shiftTo < 0) {
+                dst[dp++] = (byte) (bits >> 16);
+                dst[dp++] = (byte) (bits >> 8);
+                dst[dp++] = (byte) bits;
+                shiftTo = 18;
+                bits = 0;
+            }
+        }
+        if (shiftTo == 6) {
+            dst[dp++] = (byte) (bits >> 16);
+        } else if (shiftTo == 0) {
+            dst[dp++] = (byte) (bits >> 16);
+            dst[dp++] = (byte) (bits >> 8);
+        } else if (shiftTo == 12) {
+            throw new IllegalArgumentException("Last unit does not have enough valid bits");
+        }
+        if (sp < end) {
+            throw new IllegalArgumentException("Input byte array has incorrect ending byte at " + sp);
+        }
+        return new String(dst, 0, dp, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return null if every char of the text is ASCII, so the chars are the UTF-8 bytes, otherwise the UTF-8 bytes.
+     */
+    private static byte[] utf8BytesIfNotAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return text.getBytes(StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static int base64Length(String text, byte[] utf8Bytes) {
+        final int length = utf8Bytes == null ? text.length() : utf8Bytes.length;
+        return (length + 2) / 3 * 4;
+    }
+
+    private static int writeBase64(String text, byte[] utf8Bytes, char[] out, int pos) {
+        final int length = utf8Bytes == null ? text.length() : utf8Bytes.length;
+        final int fullUnits = length / 3 * 3;
+        int i = 0;
+        while (i < fullUnits) {
+            final int bits = byteAt(text, utf8Bytes, i++) << 16
+                | byteAt(text, utf8Bytes, i++) << 8
+                | byteAt(text, utf8Bytes, i++);
+            out[pos++] = ALPHABET[(bits >>> 18) & 0x3f];
+            out[pos++] = ALPHABET[(bits >>> 12) & 0x3f];
+            out[pos++] = ALPHABET[(bits >>> 6) & 0x3f];
+            out[pos++] = ALPHABET[bits & 0x3f];
+        }
+        final int remaining = length - fullUnits;
+        if (remaining > 0) {
+            final int b0 = byteAt(text, utf8Bytes, i++);
+            out[pos++] = ALPHABET[b0 >> 2];
+            if (remaining == 1) {
+                out[pos++] = ALPHABET[(b0 << 4) & 0x3f];
+                out[pos++] = '=';
+            } else {
+                final int b1 = byteAt(text, utf8Bytes, i);
+                out[pos++] = ALPHABET[(b0 << 4) & 0x3f | (b1 >> 4)];
+                out[pos++] = ALPHABET[(b1 << 2) & 0x3f];
+            }
+            out[pos++] = '=';
+        }
+        return pos;
+    }
+
+    private static int byteAt(String text, byte[] utf8Bytes, int index) {
+        return utf8Bytes == null ? text.charAt(index) : utf8Bytes[index] & 0xff;
+    }
+
+    private static int stringSize(int value) {
+        if (value < 0) {
+            return Integer.toString(value).length();
+        }
+        int size = 1;
+        while (value >= 10) {
+            value /= 10;
+            size++;
+        }
+        return size;
+    }
+
+    private static int writeInt(int value, char[] out, int pos) {
+        if (value < 0) {
+            final String text = Integer.toString(value);
+            text.getChars(0, text.length(), out, pos);
+            return pos + text.length();
+        }
+        final int end = pos + stringSize(value);
+        int i = end;
+        do {
+            out[--i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        while (value != 0);
+        return end;
+    }
+
+    /**
+     * Remember the Base64 form of the last encoded value. The race between two threads only costs one more encoding.
+     */
+    private static final class EncodedValueCache {
+        private volatile Entry last = new Entry("", "");
+
+        String encode(String value) {
+            final Entry entry = last;
+            if (entry.value.equals(value)) {
+                return entry.encoded;
+            }
+            final byte[] utf8Bytes = utf8BytesIfNotAscii(value);
+            final char[] out = new char[base64Length(value, utf8Bytes)];
+            writeBase64(value, utf8Bytes, out, 0);
+            final String encoded = new String(out);
+            last = new Entry(value, encoded);
+            return encoded;
+        }
+    }
+
+    private static final class Entry {
+        private final String value;
+        private final String encoded;
+
+        private Entry(String value, String encoded) {
+            this.value = value;
+            this.encoded = encoded;
+        }
+    }
+}
@@ -74,11 +74,10 @@ public class TracingContext implements AbstractTracerContext {
     private TraceSegment segment;
 
     /**
-     * Active spans stored in a Stack, usually called 'ActiveSpanStack'. This {@link LinkedList} is the in-memory
-     * storage-structure. <p> I use {@link LinkedList#removeLast()}, {@link LinkedList#addLast(Object)} and {@link
-     * LinkedList#getLast()} instead of {@link #pop()}, {@link #push(AbstractSpan)}, {@link #peek()}
+     * Active spans stored in a Stack, usually called 'ActiveSpanStack'. See {@link #pop()}, {@link
+     * #push(AbstractSpan)}, {@link #peek()}
      */
-    private LinkedList<AbstractSpan> activeSpanStack = new LinkedList<>();
+    private final ActiveSpanStack activeSpanStack;
 
     /**
      * @since 8.10.0 replace the removed "firstSpan"(before 8.10.0) reference. see {@link PrimaryEndpoint} for more details.
@@ -121,6 +120,7 @@ public class TracingContext implements AbstractTracerContext {
      */
     TracingContext(String firstOPName, SpanLimitWatcher spanLimitWatcher) {
         this.segment = new TraceSegment();
+        this.activeSpanStack = new ActiveSpanStack(spanLimitWatcher.getSpanLimit());
         this.spanIdGenerator = 0;
         isRunningInAsyncMode = false;
         createTime = System.currentTimeMillis();
@@ -130,8 +130,7 @@ public class TracingContext implements AbstractTracerContext {
         if (PROFILE_TASK_EXECUTION_SERVICE == null) {
             PROFILE_TASK_EXECUTION_SERVICE = ServiceManager.INSTANCE.findService(ProfileTaskExecutionService.class);
         }
-        this.profileStatus = PROFILE_TASK_EXECUTION_SERVICE.addProfiling(
-            this, segment.getTraceSegmentId(), firstOPName);
+        this.profileStatus = PROFILE_TASK_EXECUTION_SERVICE.addProfiling(this, firstOPName);
 
         this.correlationContext = new CorrelationContext();
         this.extensionContext = new ExtensionContext();
@@ -237,7 +236,7 @@ public class TracingContext implements AbstractTracerContext {
             this.extensionContext.continued(snapshot);
             this.extensionContext.handle(this.activeSpan());
             if (this.profileStatus.continued(snapshot)) {
-                PROFILE_TASK_EXECUTION_SERVICE.continueProfiling(this, this.segment.getTraceSegmentId());
+                PROFILE_TASK_EXECUTION_SERVICE.continueProfiling(this);
             }
         }
     }
@@ -386,7 +385,11 @@ public class TracingContext implements AbstractTracerContext {
 
         finish();
 
-        return activeSpanStack.isEmpty();
+        if (activeSpanStack.isEmpty()) {
+            activeSpanStack.recycle();
+            return true;
+        }
+        return false;
     }
 
     @Override
@@ -422,9 +425,7 @@ public class TracingContext implements AbstractTracerContext {
 
     @Override
     public AbstractTracerContext forceIgnoring() {
-        for (AbstractSpan span: activeSpanStack) {
-            span.forceIgnoring();
-        }
+        activeSpanStack.forEach(AbstractSpan::forceIgnoring);
         return new IgnoredTracerContext(activeSpanStack.size());
     }
 
@@ -440,7 +441,7 @@ public class TracingContext implements AbstractTracerContext {
             return;
         }
 
-        PROFILE_TASK_EXECUTION_SERVICE.profilingRecheck(this, segment.getTraceSegmentId(), operationName);
+        PROFILE_TASK_EXECUTION_SERVICE.profilingRecheck(this, operationName);
     }
 
     /**
@@ -540,7 +541,7 @@ public class TracingContext implements AbstractTracerContext {
      * @return the top element of 'ActiveSpanStack', and remove it.
      */
     private AbstractSpan pop() {
-        return activeSpanStack.removeLast();
+        return activeSpanStack.pop();
     }
 
     /**
@@ -554,7 +555,7 @@ public class TracingContext implements AbstractTracerContext {
         } else {
             primaryEndpoint.set(span);
         }
-        activeSpanStack.addLast(span);
+        activeSpanStack.push(span);
         this.extensionContext.handle(span);
         return span;
     }
@@ -563,10 +564,7 @@ public class TracingContext implements AbstractTracerContext {
      * @return the top element of 'ActiveSpanStack' only.
      */
     private AbstractSpan peek() {
-        if (activeSpanStack.isEmpty()) {
-            return null;
-        }
-        return activeSpanStack.getLast();
+        return activeSpanStack.peek();
     }
 
     private boolean isLimitMechanismWorking() {
@@ -18,10 +18,7 @@
 
 package org.apache.skywalking.apm.agent.core.context.ids;
 
-import lombok.EqualsAndHashCode;
-import lombok.Getter;
-import lombok.RequiredArgsConstructor;
-import lombok.ToString;
+import java.util.Objects;
 
 /**
  * The <code>DistributedTraceId</code> presents a distributed call chain.
@@ -31,13 +28,50 @@ import lombok.ToString;
  * such as: Service : http://www.skywalking.com/cust/query, all the remote, called behind this service, rest remote, db
  * executions, are using the same <code>DistributedTraceId</code> even in different JVM.
  * <p>
- * The <code>DistributedTraceId</code> contains only one string, and can NOT be reset, creating a new instance is the
- * only option.
+ * The <code>DistributedTraceId</code> contains only one id, and can NOT be reset, creating a new instance is the
+ * only option. A locally generated id is kept as {@link GlobalId} and only rendered as string when it is read.
  */
-@RequiredArgsConstructor
-@ToString
-@EqualsAndHashCode
 public abstract class DistributedTraceId {
-    @Getter
-    private final String id;
+    private final GlobalId globalId;
+    private String id;
+
+    protected DistributedTraceId(String id) {
+        this.globalId = null;
+        this.id = id;
+    }
+
+    protected DistributedTraceId(GlobalId globalId) {
+        this.globalId = globalId;
+    }
+
+    public String getId() {
+        String result = id;
+        if (result == null && globalId != null) {
+            result = globalId.toString();
+            id = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DistributedTraceId)) {
+            return false;
+        }
+        return Objects.equals(getId(), ((DistributedTraceId) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        String id = getId();
+        return id == null ? 43 : id.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "DistributedTraceId(id=" + getId() + ")";
+    }
 }
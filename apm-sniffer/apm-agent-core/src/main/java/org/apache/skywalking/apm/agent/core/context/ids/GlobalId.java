@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.ids;
+
+/**
+ * The <code>GlobalId</code> is the compact form of an id generated by {@link GlobalIdGenerator}. It only keeps the
+ * thread id and the sequence as <code>long</code>s, the readable text, <code>{processId}.{threadId}.{sequence}</code>,
+ * is rendered at the first {@link #toString()} and cached, which usually happens when writing the sw8 header or the
+ * segment protobuf.
+ */
+public final class GlobalId {
+    private final String processId;
+    private final long threadId;
+    private final long sequence;
+
+    /**
+     * The rendered text, racy single-check, rendering twice is harmless as the result is always equal.
+     */
+    private String text;
+
+    GlobalId(String processId, long threadId, long sequence) {
+        this.processId = processId;
+        this.threadId = threadId;
+        this.sequence = sequence;
+    }
+
+    public long getThreadId() {
+        return threadId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public String toString() {
+        String result = text;
+        if (result == null) {
+            // process id + 2 dots + max length of two longs
+            result = new StringBuilder(processId.length() + 2 + 40)
+                .append(processId).append('.')
+                .append(threadId).append('.')
+                .append(sequence)
+                .toString();
+            text = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GlobalId)) {
+            return false;
+        }
+        GlobalId that = (GlobalId) o;
+        return threadId == that.threadId && sequence == that.sequence && processId.equals(that.processId);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = processId.hashCode();
+        result = 31 * result + Long.hashCode(threadId);
+        result = 31 * result + Long.hashCode(sequence);
+        return result;
+    }
+}
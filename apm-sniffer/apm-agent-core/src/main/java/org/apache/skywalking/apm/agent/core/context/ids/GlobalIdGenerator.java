@@ -20,8 +20,6 @@ package org.apache.skywalking.apm.agent.core.context.ids;
 
 import java.util.UUID;
 
-import org.apache.skywalking.apm.util.StringUtil;
-
 public final class GlobalIdGenerator {
     private static final String PROCESS_ID = UUID.randomUUID().toString().replaceAll("-", "");
     private static final ThreadLocal<IDContext> THREAD_ID_SEQUENCE = ThreadLocal.withInitial(
@@ -43,12 +41,17 @@ public final class GlobalIdGenerator {
      * @return unique id to represent a trace or segment
      */
     public static String generate() {
-        return StringUtil.join(
-            '.',
-            PROCESS_ID,
-            String.valueOf(Thread.currentThread().getId()),
-            String.valueOf(THREAD_ID_SEQUENCE.get().nextSeq())
-        );
+        return generateId().toString();
+    }
+
+    /**
+     * Generate a new id in the compact form, see {@link #generate()} for the parts. No string is built until the id is
+     * rendered by {@link GlobalId#toString()}.
+     *
+     * @return unique id to represent a trace or segment
+     */
+    public static GlobalId generateId() {
+        return new GlobalId(PROCESS_ID, Thread.currentThread().getId(), THREAD_ID_SEQUENCE.get().nextSeq());
     }
 
     private static class IDContext {
@@ -0,0 +1,340 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.trace;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import java.io.IOException;
+import java.util.List;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.conf.Constants;
+import org.apache.skywalking.apm.agent.core.context.util.KeyValuePair;
+import org.apache.skywalking.apm.agent.core.context.util.TagValuePair;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.util.StringUtil;
+
+/**
+ * The <code>SegmentObjectEncoder</code> writes the wire format of {@link SegmentObject} straight from a finished {@link
+ * TraceSegment}, without building the {@link SegmentObject} tree through the protobuf builders. The bytes are exactly
+ * the same as <code>segment.transform().toByteArray()</code>.
+ * <p>
+ * The sizes of the spans are calculated once at construction, the encoder is bound to one segment and can be written
+ * many times, e.g. retried, but it is not thread safe.
+ */
+public final class SegmentObjectEncoder {
+    // SegmentObject
+    private static final int SEGMENT_TRACE_ID = 1;
+    private static final int SEGMENT_TRACE_SEGMENT_ID = 2;
+    private static final int SEGMENT_SPANS = 3;
+    private static final int SEGMENT_SERVICE = 4;
+    private static final int SEGMENT_SERVICE_INSTANCE = 5;
+    private static final int SEGMENT_IS_SIZE_LIMITED = 6;
+
+    // SpanObject
+    private static final int SPAN_SPAN_ID = 1;
+    private static final int SPAN_PARENT_SPAN_ID = 2;
+    private static final int SPAN_START_TIME = 3;
+    private static final int SPAN_END_TIME = 4;
+    private static final int SPAN_REFS = 5;
+    private static final int SPAN_OPERATION_NAME = 6;
+    private static final int SPAN_PEER = 7;
+    private static final int SPAN_SPAN_TYPE = 8;
+    private static final int SPAN_SPAN_LAYER = 9;
+    private static final int SPAN_COMPONENT_ID = 10;
+    private static final int SPAN_IS_ERROR = 11;
+    private static final int SPAN_TAGS = 12;
+    private static final int SPAN_LOGS = 13;
+    private static final int SPAN_SKIP_ANALYSIS = 14;
+
+    // SegmentReference
+    private static final int REF_REF_TYPE = 1;
+    private static final int REF_TRACE_ID = 2;
+    private static final int REF_PARENT_TRACE_SEGMENT_ID = 3;
+    private static final int REF_PARENT_SPAN_ID = 4;
+    private static final int REF_PARENT_SERVICE = 5;
+    private static final int REF_PARENT_SERVICE_INSTANCE = 6;
+    private static final int REF_PARENT_ENDPOINT = 7;
+    private static final int REF_NETWORK_ADDRESS_USED_AT_PEER = 8;
+
+    // Log and KeyStringValuePair
+    private static final int LOG_TIME = 1;
+    private static final int LOG_DATA = 2;
+    private static final int PAIR_KEY = 1;
+    private static final int PAIR_VALUE = 2;
+
+    // SpanType and RefType
+    private static final int SPAN_TYPE_EXIT = 1;
+    private static final int SPAN_TYPE_LOCAL = 2;
+    private static final int REF_TYPE_CROSS_THREAD = 1;
+
+    private final TraceSegment segment;
+    private final String traceId;
+    private final String traceSegmentId;
+    private final String service;
+    private final String serviceInstance;
+    private final int[] spanSizes;
+    private final int serializedSize;
+
+    public SegmentObjectEncoder(TraceSegment segment) {
+        this.segment = segment;
+        this.traceId = segment.getRelatedGlobalTrace().getId();
+        this.traceSegmentId = segment.getTraceSegmentId();
+        this.service = Config.Agent.SERVICE_NAME;
+        this.serviceInstance = Config.Agent.INSTANCE_NAME;
+
+        final List<AbstractTracingSpan> spans = segment.spans();
+        this.spanSizes = new int[spans.size()];
+        int size = stringSize(SEGMENT_TRACE_ID, traceId) + stringSize(SEGMENT_TRACE_SEGMENT_ID, traceSegmentId);
+        int i = 0;
+        for (AbstractTracingSpan span : spans) {
+            int spanSize = spanSize(span);
+            spanSizes[i++] = spanSize;
+            size += messageSize(SEGMENT_SPANS, spanSize);
+        }
+        size += stringSize(SEGMENT_SERVICE, service) + stringSize(SEGMENT_SERVICE_INSTANCE, serviceInstance);
+        size += boolSize(SEGMENT_IS_SIZE_LIMITED, segment.isSizeLimited());
+        this.serializedSize = size;
+    }
+
+    /**
+     * @return the length of the encoded {@link SegmentObject}, without the length prefix.
+     */
+    public int getSerializedSize() {
+        return serializedSize;
+    }
+
+    public String getTraceSegmentId() {
+        return traceSegmentId;
+    }
+
+    public byte[] toByteArray() {
+        final byte[] result = new byte[serializedSize];
+        final CodedOutputStream output = CodedOutputStream.newInstance(result);
+        try {
+            writeTo(output);
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to a byte array should never throw an IOException.", e);
+        }
+        output.checkNoSpaceLeft();
+        return result;
+    }
+
+    public void writeTo(CodedOutputStream output) throws IOException {
+        writeString(output, SEGMENT_TRACE_ID, traceId);
+        writeString(output, SEGMENT_TRACE_SEGMENT_ID, traceSegmentId);
+        int i = 0;
+        for (AbstractTracingSpan span : segment.spans()) {
+            writeMessageHeader(output, SEGMENT_SPANS, spanSizes[i++]);
+            writeSpan(output, span);
+        }
+        writeString(output, SEGMENT_SERVICE, service);
+        writeString(output, SEGMENT_SERVICE_INSTANCE, serviceInstance);
+        if (segment.isSizeLimited()) {
+            output.writeBool(SEGMENT_IS_SIZE_LIMITED, true);
+        }
+    }
+
+    private static int spanSize(AbstractTracingSpan span) {
+        int size = int32Size(SPAN_SPAN_ID, span.spanId)
+            + int32Size(SPAN_PARENT_SPAN_ID, span.parentSpanId)
+            + int64Size(SPAN_START_TIME, span.startTime)
+            + int64Size(SPAN_END_TIME, span.endTime);
+        if (span.refs != null) {
+            for (TraceSegmentRef ref : span.refs) {
+                size += messageSize(SPAN_REFS, refSize(ref));
+            }
+        }
+        size += stringSize(SPAN_OPERATION_NAME, span.operationName);
+        size += stringSize(SPAN_PEER, peerOf(span));
+        size += enumSize(SPAN_SPAN_TYPE, spanTypeOf(span));
+        size += enumSize(SPAN_SPAN_LAYER, span.layer == null ? 0 : span.layer.getCode());
+        size += int32Size(SPAN_COMPONENT_ID, componentIdOf(span));
+        size += boolSize(SPAN_IS_ERROR, span.errorOccurred);
+        if (span.tags != null) {
+            for (TagValuePair tag : span.tags) {
+                size += messageSize(SPAN_TAGS, pairSize(tag.getKey().key(), tag.getValue()));
+            }
+        }
+        if (span.logs != null) {
+            for (LogDataEntity log : span.logs) {
+                size += messageSize(SPAN_LOGS, logSize(log));
+            }
+        }
+        size += boolSize(SPAN_SKIP_ANALYSIS, span.skipAnalysis);
+        return size;
+    }
+
+    private static void writeSpan(CodedOutputStream output, AbstractTracingSpan span) throws IOException {
+        writeInt32(output, SPAN_SPAN_ID, span.spanId);
+        writeInt32(output, SPAN_PARENT_SPAN_ID, span.parentSpanId);
+        writeInt64(output, SPAN_START_TIME, span.startTime);
+        writeInt64(output, SPAN_END_TIME, span.endTime);
+        if (span.refs != null) {
+            for (TraceSegmentRef ref : span.refs) {
+                writeMessageHeader(output, SPAN_REFS, refSize(ref));
+                writeRef(output, ref);
+            }
+        }
+        writeString(output, SPAN_OPERATION_NAME, span.operationName);
+        writeString(output, SPAN_PEER, peerOf(span));
+        writeEnum(output, SPAN_SPAN_TYPE, spanTypeOf(span));
+        writeEnum(output, SPAN_SPAN_LAYER, span.layer == null ? 0 : span.layer.getCode());
+        writeInt32(output, SPAN_COMPONENT_ID, componentIdOf(span));
+        if (span.errorOccurred) {
+            output.writeBool(SPAN_IS_ERROR, true);
+        }
+        if (span.tags != null) {
+            for (TagValuePair tag : span.tags) {
+                final String key = tag.getKey().key();
+                writeMessageHeader(output, SPAN_TAGS, pairSize(key, tag.getValue()));
+                writePair(output, key, tag.getValue());
+            }
+        }
+        if (span.logs != null) {
+            for (LogDataEntity log : span.logs) {
+                writeMessageHeader(output, SPAN_LOGS, logSize(log));
+                writeInt64(output, LOG_TIME, log.getTimestamp());
+                for (KeyValuePair pair : log.getLogs()) {
+                    writeMessageHeader(output, LOG_DATA, pairSize(pair.getKey(), pair.getValue()));
+                    writePair(output, pair.getKey(), pair.getValue());
+                }
+            }
+        }
+        if (span.skipAnalysis) {
+            output.writeBool(SPAN_SKIP_ANALYSIS, true);
+        }
+    }
+
+    private static int refSize(TraceSegmentRef ref) {
+        return enumSize(REF_REF_TYPE, refTypeOf(ref))
+            + stringSize(REF_TRACE_ID, ref.getTraceId())
+            + stringSize(REF_PARENT_TRACE_SEGMENT_ID, ref.getTraceSegmentId())
+            + int32Size(REF_PARENT_SPAN_ID, ref.getSpanId())
+            + stringSize(REF_PARENT_SERVICE, ref.getParentService())
+            + stringSize(REF_PARENT_SERVICE_INSTANCE, ref.getParentServiceInstance())
+            + stringSize(REF_PARENT_ENDPOINT, ref.getParentEndpoint())
+            + stringSize(REF_NETWORK_ADDRESS_USED_AT_PEER, ref.getAddressUsedAtClient());
+    }
+
+    private static void writeRef(CodedOutputStream output, TraceSegmentRef ref) throws IOException {
+        writeEnum(output, REF_REF_TYPE, refTypeOf(ref));
+        writeString(output, REF_TRACE_ID, ref.getTraceId());
+        writeString(output, REF_PARENT_TRACE_SEGMENT_ID, ref.getTraceSegmentId());
+        writeInt32(output, REF_PARENT_SPAN_ID, ref.getSpanId());
+        writeString(output, REF_PARENT_SERVICE, ref.getParentService());
+        writeString(output, REF_PARENT_SERVICE_INSTANCE, ref.getParentServiceInstance());
+        writeString(output, REF_PARENT_ENDPOINT, ref.getParentEndpoint());
+        writeString(output, REF_NETWORK_ADDRESS_USED_AT_PEER, ref.getAddressUsedAtClient());
+    }
+
+    private static int logSize(LogDataEntity log) {
+        int size = int64Size(LOG_TIME, log.getTimestamp());
+        for (KeyValuePair pair : log.getLogs()) {
+            size += messageSize(LOG_DATA, pairSize(pair.getKey(), pair.getValue()));
+        }
+        return size;
+    }
+
+    private static int pairSize(String key, String value) {
+        return stringSize(PAIR_KEY, key) + stringSize(PAIR_VALUE, value);
+    }
+
+    private static void writePair(CodedOutputStream output, String key, String value) throws IOException {
+        writeString(output, PAIR_KEY, key);
+        writeString(output, PAIR_VALUE, value);
+    }
+
+    private static String peerOf(AbstractTracingSpan span) {
+        return span instanceof StackBasedTracingSpan ? ((StackBasedTracingSpan) span).peer : null;
+    }
+
+    private static int spanTypeOf(AbstractTracingSpan span) {
+        if (span.isEntry()) {
+            return 0;
+        } else if (span.isExit()) {
+            return SPAN_TYPE_EXIT;
+        }
+        return SPAN_TYPE_LOCAL;
+    }
+
+    private static int refTypeOf(TraceSegmentRef ref) {
+        return TraceSegmentRef.SegmentRefType.CROSS_PROCESS.equals(ref.getType()) ? 0 : REF_TYPE_CROSS_THREAD;
+    }
+
+    private static int componentIdOf(AbstractTracingSpan span) {
+        return span.componentId == Constants.NULL_VALUE ? 0 : span.componentId;
+    }
+
+    /*
+     * proto3 doesn't write the fields holding the default value, the empty string, 0 and false.
+     */
+
+    private static int stringSize(int field, String value) {
+        return StringUtil.isEmpty(value) ? 0 : CodedOutputStream.computeStringSize(field, value);
+    }
+
+    private static int int32Size(int field, int value) {
+        return value == 0 ? 0 : CodedOutputStream.computeInt32Size(field, value);
+    }
+
+    private static int int64Size(int field, long value) {
+        return value == 0 ? 0 : CodedOutputStream.computeInt64Size(field, value);
+    }
+
+    private static int enumSize(int field, int value) {
+        return value == 0 ? 0 : CodedOutputStream.computeEnumSize(field, value);
+    }
+
+    private static int boolSize(int field, boolean value) {
+        return value ? CodedOutputStream.computeBoolSize(field, true) : 0;
+    }
+
+    private static int messageSize(int field, int size) {
+        return CodedOutputStream.computeTagSize(field) + CodedOutputStream.computeUInt32SizeNoTag(size) + size;
+    }
+
+    private static void writeString(CodedOutputStream output, int field, String value) throws IOException {
+        if (StringUtil.isNotEmpty(value)) {
+            output.writeString(field, value);
+        }
+    }
+
+    private static void writeInt32(CodedOutputStream output, int field, int value) throws IOException {
+        if (value != 0) {
+            output.writeInt32(field, value);
+        }
+    }
+
+    private static void writeInt64(CodedOutputStream output, int field, long value) throws IOException {
+        if (value != 0) {
+            output.writeInt64(field, value);
+        }
+    }
+
+    private static void writeEnum(CodedOutputStream output, int field, int value) throws IOException {
+        if (value != 0) {
+            output.writeEnum(field, value);
+        }
+    }
+
+    private static void writeMessageHeader(CodedOutputStream output, int field, int size) throws IOException {
+        output.writeTag(field, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(size);
+    }
+}
@@ -18,12 +18,10 @@
 
 package org.apache.skywalking.apm.agent.core.jvm;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.boot.AgentScheduler;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.jvm.clazz.ClassProvider;
@@ -36,7 +34,6 @@ import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelManager;
 import org.apache.skywalking.apm.network.language.agent.v3.JVMMetric;
-import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 
 /**
  * The <code>JVMService</code> represents a timer, which collectors JVM cpu, memory, memorypool, gc, thread and class info,
@@ -45,8 +42,8 @@ import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 @DefaultImplementor
 public class JVMService implements BootService, Runnable {
     private static final ILog LOGGER = LogManager.getLogger(JVMService.class);
-    private volatile ScheduledFuture<?> collectMetricFuture;
-    private volatile ScheduledFuture<?> sendMetricFuture;
+    private volatile AgentScheduler.ScheduledTask collectMetricFuture;
+    private volatile AgentScheduler.ScheduledTask sendMetricFuture;
     private JVMMetricsSender sender;
     private volatile double cpuUsagePercent;
 
@@ -57,28 +54,10 @@ public class JVMService implements BootService, Runnable {
 
     @Override
     public void boot() throws Throwable {
-        collectMetricFuture = Executors.newSingleThreadScheduledExecutor(
-            new DefaultNamedThreadFactory("JVMService-produce"))
-                                       .scheduleAtFixedRate(new RunnableWithExceptionProtection(
-                                           this,
-                                           new RunnableWithExceptionProtection.CallbackWhenException() {
-                                               @Override
-                                               public void handle(Throwable t) {
-                                                   LOGGER.error("JVMService produces metrics failure.", t);
-                                               }
-                                           }
-                                       ), 0, Config.Jvm.METRICS_COLLECT_PERIOD, TimeUnit.SECONDS);
-        sendMetricFuture = Executors.newSingleThreadScheduledExecutor(
-            new DefaultNamedThreadFactory("JVMService-consume"))
-                                    .scheduleAtFixedRate(new RunnableWithExceptionProtection(
-                                        sender,
-                                        new RunnableWithExceptionProtection.CallbackWhenException() {
-                                            @Override
-                                            public void handle(Throwable t) {
-                                                LOGGER.error("JVMService consumes and upload failure.", t);
-                                            }
-                                        }
-                                    ), 0, 1, TimeUnit.SECONDS);
+        AgentScheduler scheduler = ServiceManager.INSTANCE.findService(AgentScheduler.class);
+        collectMetricFuture = scheduler.scheduleAtFixedRate(
+            "JVMService-produce", this, 0, Config.Jvm.METRICS_COLLECT_PERIOD, TimeUnit.SECONDS);
+        sendMetricFuture = scheduler.scheduleAtFixedRate("JVMService-consume", sender, 0, 1, TimeUnit.SECONDS);
     }
 
     @Override
@@ -88,8 +67,8 @@ public class JVMService implements BootService, Runnable {
 
     @Override
     public void shutdown() throws Throwable {
-        collectMetricFuture.cancel(true);
-        sendMetricFuture.cancel(true);
+        collectMetricFuture.cancel();
+        sendMetricFuture.cancel();
     }
 
     @Override
@@ -62,6 +62,7 @@ public class FileWriter implements IWriter {
     private FileWriter() {
         logBuffer = new ArrayBlockingQueue(1024);
         final ArrayList<String> outputLogs = new ArrayList<String>(200);
+        // not run by the AgentScheduler, the logs are written before the services are booted
         Thread logFlusherThread = new Thread(new RunnableWithExceptionProtection(new Runnable() {
 
             @Override
@@ -45,6 +45,15 @@ public class Histogram extends BaseMeter {
         this.buckets = initBuckets(steps);
     }
 
+    /**
+     * @param meterId as the unique id of this meter instance
+     * @param buckets of every step, in the ascending order
+     */
+    protected Histogram(MeterId meterId, Bucket[] buckets) {
+        super(meterId);
+        this.buckets = buckets;
+    }
+
     /**
      * Add value into the histogram, automatic analyze what bucket count need to be increment [step1, step2)
      */
@@ -102,6 +111,7 @@ public class Histogram extends BaseMeter {
     public static class Builder extends AbstractBuilder<Builder, Histogram> {
         private double minValue = 0;
         private List<Double> steps;
+        private boolean striped;
 
         /**
          * Build a new meter build, meter name is required
@@ -126,6 +136,15 @@ public class Histogram extends BaseMeter {
             return this;
         }
 
+        /**
+         * Count the buckets by striped counters, see {@link StripedHistogram}. It fits the histograms recorded by many
+         * threads concurrently.
+         */
+        public Builder striped() {
+            this.striped = true;
+            return this;
+        }
+
         @Override
         protected MeterType getType() {
             return MeterType.HISTOGRAM;
@@ -148,7 +167,7 @@ public class Histogram extends BaseMeter {
                 steps.add(0, minValue);
             }
 
-            return new Histogram(meterId, steps);
+            return striped ? new StripedHistogram(meterId, steps) : new Histogram(meterId, steps);
         }
     }
 
@@ -21,8 +21,8 @@ package org.apache.skywalking.apm.agent.core.meter;
 import java.util.function.Supplier;
 
 /**
- * The main entrance API of the plugin meter system. {@link Counter}, {@link Gauge}, and {@link Histogram} are created
- * through the MeterFactory.
+ * The main entrance API of the plugin meter system. {@link Counter}, {@link Gauge}, {@link Histogram}, and {@link
+ * QuantileSketch} are created through the MeterFactory.
  */
 public class MeterFactory {
 
@@ -51,4 +51,12 @@ public class MeterFactory {
         return new Histogram.Builder(name);
     }
 
+    /**
+     * Create a quantile sketch builder by given meter name
+     * @param name meter name
+     */
+    public static QuantileSketch.Builder quantileSketch(String name) {
+        return new QuantileSketch.Builder(name);
+    }
+
 }
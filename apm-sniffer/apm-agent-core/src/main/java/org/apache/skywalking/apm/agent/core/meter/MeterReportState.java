@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterBucketValue;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterHistogram;
+
+/**
+ * The last reported values of the meters. In the {@link Config.Meter#DELTA_REPORT} mode, the meters not changed since
+ * the last report are skipped, and the histograms only carry the changed buckets. All of the meters are reported again
+ * every {@link Config.Meter#FULL_REPORT_INTERVAL} seconds, and after a failed report, in case the backend missed any
+ * change.
+ * <p>
+ * Only accessed by the meter report thread.
+ */
+class MeterReportState {
+    private final Map<MeterId, Object> reportedValues = new HashMap<>();
+
+    private long lastFullReportTime;
+    private boolean fullReport;
+    private volatile boolean lastReportFailed;
+
+    private int reportedCount;
+    private int skippedCount;
+
+    /**
+     * Start a new report cycle
+     *
+     * @return true if all of the meters are reported in this cycle
+     */
+    boolean startReport(long currentTimeMillis) {
+        reportedCount = 0;
+        skippedCount = 0;
+        fullReport = !Config.Meter.DELTA_REPORT || lastReportFailed
+            || currentTimeMillis - lastFullReportTime >= TimeUnit.SECONDS.toMillis(Config.Meter.FULL_REPORT_INTERVAL);
+        if (fullReport) {
+            lastFullReportTime = currentTimeMillis;
+            lastReportFailed = false;
+            reportedValues.clear();
+        }
+        return fullReport;
+    }
+
+    /**
+     * Report all of the meters in the next cycle, as the changes of this cycle may not reach the backend.
+     */
+    void reportFailed() {
+        lastReportFailed = true;
+    }
+
+    /**
+     * Filter the transformed meter data by the last reported value
+     *
+     * @return the meter data to report, or null to skip the not changed meter
+     */
+    MeterData.Builder filter(BaseMeter meter, MeterData.Builder dataBuilder) {
+        if (!Config.Meter.DELTA_REPORT) {
+            reportedCount++;
+            return dataBuilder;
+        }
+
+        final MeterData.Builder filtered;
+        switch (dataBuilder.getMetricCase()) {
+            case SINGLEVALUE:
+                filtered = filterSingleValue(meter, dataBuilder);
+                break;
+            case HISTOGRAM:
+                filtered = filterHistogram(meter, dataBuilder);
+                break;
+            default:
+                filtered = dataBuilder;
+        }
+
+        if (filtered == null) {
+            skippedCount++;
+        } else {
+            reportedCount++;
+        }
+        return filtered;
+    }
+
+    private MeterData.Builder filterSingleValue(BaseMeter meter, MeterData.Builder dataBuilder) {
+        final double value = dataBuilder.getSingleValue().getValue();
+        final Object previous = reportedValues.put(meter.getId(), value);
+        if (fullReport || !(previous instanceof Double) || Double.compare((Double) previous, value) != 0) {
+            return dataBuilder;
+        }
+        // the rate counter reports the increment, only the idle ones could be skipped
+        if (meter instanceof Counter && Objects.equals(((Counter) meter).mode, CounterMode.RATE) && value != 0) {
+            return dataBuilder;
+        }
+        return null;
+    }
+
+    private MeterData.Builder filterHistogram(BaseMeter meter, MeterData.Builder dataBuilder) {
+        final List<MeterBucketValue> values = dataBuilder.getHistogram().getValuesList();
+        final HistogramValues current = new HistogramValues(values);
+        final Object previous = reportedValues.put(meter.getId(), current);
+        if (fullReport || !(previous instanceof HistogramValues)) {
+            return dataBuilder;
+        }
+
+        final HistogramValues last = (HistogramValues) previous;
+        final List<MeterBucketValue> changed = new ArrayList<>();
+        for (int i = 0; i < current.buckets.length; i++) {
+            if (!last.contains(i, current.buckets[i], current.counts[i])) {
+                changed.add(values.get(i));
+            }
+        }
+        if (changed.isEmpty()) {
+            return null;
+        }
+        if (changed.size() < values.size()) {
+            final MeterHistogram.Builder histogramBuilder = dataBuilder.getHistogramBuilder();
+            histogramBuilder.clearValues().addAllValues(changed);
+        }
+        return dataBuilder;
+    }
+
+    int getReportedCount() {
+        return reportedCount;
+    }
+
+    int getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * Reported buckets and counts of a histogram, the buckets are ascending.
+     */
+    private static class HistogramValues {
+        private final double[] buckets;
+        private final long[] counts;
+
+        private HistogramValues(List<MeterBucketValue> values) {
+            buckets = new double[values.size()];
+            counts = new long[values.size()];
+            for (int i = 0; i < buckets.length; i++) {
+                final MeterBucketValue value = values.get(i);
+                buckets[i] = value.getBucket();
+                counts[i] = value.getCount();
+            }
+        }
+
+        /**
+         * @param index the index of the bucket in the current histogram, the buckets of a sketch could be shifted
+         */
+        private boolean contains(int index, double bucket, long count) {
+            int found = index < buckets.length && Double.compare(buckets[index], bucket) == 0 ? index : -1;
+            if (found < 0) {
+                found = Arrays.binarySearch(buckets, bucket);
+            }
+            return found >= 0 && counts[found] == count;
+        }
+    }
+}
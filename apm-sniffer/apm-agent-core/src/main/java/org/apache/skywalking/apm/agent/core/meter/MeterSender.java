@@ -22,6 +22,10 @@ import io.grpc.Channel;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import io.grpc.stub.StreamObserver;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
@@ -35,6 +39,8 @@ import org.apache.skywalking.apm.agent.core.remote.GRPCChannelListener;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelManager;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelStatus;
 import org.apache.skywalking.apm.agent.core.remote.GRPCStreamServiceStatus;
+import org.apache.skywalking.apm.agent.core.remote.SpillQueueService;
+import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
 import org.apache.skywalking.apm.network.common.v3.Commands;
 import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
 import org.apache.skywalking.apm.network.language.agent.v3.MeterReportServiceGrpc;
@@ -51,6 +57,10 @@ public class MeterSender implements BootService, GRPCChannelListener {
     private volatile GRPCChannelStatus status = GRPCChannelStatus.DISCONNECT;
     private volatile MeterReportServiceGrpc.MeterReportServiceStub meterReportServiceStub;
 
+    private final MeterReportState reportState = new MeterReportState();
+
+    private SpillQueueService spillQueueService;
+
     @Override
     public void prepare() {
         ServiceManager.INSTANCE.findService(GRPCChannelManager.class).addChannelListener(this);
@@ -58,39 +68,17 @@ public class MeterSender implements BootService, GRPCChannelListener {
 
     @Override
     public void boot() {
-
+        spillQueueService = ServiceManager.INSTANCE.findService(SpillQueueService.class);
     }
 
     public void send(Map<MeterId, BaseMeter> meterMap, MeterService meterService) {
         if (status == GRPCChannelStatus.CONNECTED) {
-            StreamObserver<MeterData> reportStreamObserver = null;
-            final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
+            final long startCpuTime = currentThreadCpuTime();
+            final BatchReporter reporter = new BatchReporter();
             try {
-                reportStreamObserver = meterReportServiceStub.withDeadlineAfter(
-                    GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS
-                ).collect(new StreamObserver<Commands>() {
-                    @Override
-                    public void onNext(Commands commands) {
-                    }
-
-                    @Override
-                    public void onError(Throwable throwable) {
-                        status.finished();
-                        if (LOGGER.isErrorEnable()) {
-                            LOGGER.error(throwable, "Send meters to collector fail with a grpc internal exception.");
-                        }
-                        ServiceManager.INSTANCE.findService(GRPCChannelManager.class).reportError(throwable);
-                    }
-
-                    @Override
-                    public void onCompleted() {
-                        status.finished();
-                    }
-                });
-
-                final StreamObserver<MeterData> reporter = reportStreamObserver;
-                transform(meterMap, meterData -> reporter.onNext(meterData));
+                transform(meterMap, Config.Meter.REPORT_BATCH_SIZE, reporter::report);
             } catch (Throwable e) {
+                reportState.reportFailed();
                 if (!(e instanceof StatusRuntimeException)) {
                     LOGGER.error(e, "Report meters to backend fail.");
                     return;
@@ -102,36 +90,67 @@ public class MeterSender implements BootService, GRPCChannelListener {
                     meterService.shutdown();
                 }
             } finally {
-                if (reportStreamObserver != null) {
-                    reportStreamObserver.onCompleted();
-                }
-                status.wait4Finish();
+                reporter.finishBatch();
             }
+
+            AgentSo11y.measureMeterReport(
+                reporter.bytes, currentThreadCpuTime() - startCpuTime,
+                reportState.getReportedCount(), reportState.getSkippedCount()
+            );
+        } else if (spillQueueService != null && spillQueueService.isActive()) {
+            // every meter carries the service info and timestamp, as it may be replayed in any stream
+            final List<MeterData> meters = new ArrayList<>(meterMap.size());
+            transform(meterMap, 1, meters::add);
+            spillQueueService.spillMeters(meters);
         }
     }
 
     protected void transform(final Map<MeterId, BaseMeter> meterMap,
                              final Consumer<MeterData> consumer) {
+        transform(meterMap, 0, consumer);
+    }
+
+    /**
+     * Transform the meters to report, the meters not changed are skipped in the {@link Config.Meter#DELTA_REPORT} mode.
+     *
+     * @param batchSize the service base info is sent at the first data of every batch of this size, non-positive means
+     *                  all of the meters are in one batch
+     */
+    protected void transform(final Map<MeterId, BaseMeter> meterMap,
+                             final int batchSize,
+                             final Consumer<MeterData> consumer) {
+        final long currentTimeMillis = System.currentTimeMillis();
+        reportState.startReport(currentTimeMillis);
+
         // build and report meters
-        boolean hasSendMachineInfo = false;
+        int count = 0;
         for (BaseMeter meter : meterMap.values()) {
-            final MeterData.Builder dataBuilder = meter.transform();
+            MeterData.Builder dataBuilder = meter.transform();
+            if (dataBuilder == null) {
+                continue;
+            }
+            dataBuilder = reportState.filter(meter, dataBuilder);
             if (dataBuilder == null) {
                 continue;
             }
 
-            // only send the service base info at the first data
-            if (!hasSendMachineInfo) {
+            // only send the service base info at the first data of the batch
+            if (count == 0 || batchSize > 0 && count % batchSize == 0) {
                 dataBuilder.setService(Config.Agent.SERVICE_NAME);
                 dataBuilder.setServiceInstance(Config.Agent.INSTANCE_NAME);
-                dataBuilder.setTimestamp(System.currentTimeMillis());
-                hasSendMachineInfo = true;
+                dataBuilder.setTimestamp(currentTimeMillis);
             }
+            count++;
 
             consumer.accept(dataBuilder.build());
         }
     }
 
+    private static long currentThreadCpuTime() {
+        final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        return threadMXBean.isCurrentThreadCpuTimeSupported() ? threadMXBean.getCurrentThreadCpuTime() : 0;
+    }
+
     @Override
     public void onComplete() {
 
@@ -152,4 +171,68 @@ public class MeterSender implements BootService, GRPCChannelListener {
         }
         this.status = status;
     }
+
+    /**
+     * Report the meters by the streams of {@link Config.Meter#REPORT_BATCH_SIZE} meters at most, one stream after
+     * another.
+     */
+    private class BatchReporter {
+        private StreamObserver<MeterData> reportStreamObserver;
+        private GRPCStreamServiceStatus streamStatus;
+        private int batchCount;
+        private long bytes;
+
+        private void report(MeterData meterData) {
+            if (reportStreamObserver != null && Config.Meter.REPORT_BATCH_SIZE > 0
+                && batchCount >= Config.Meter.REPORT_BATCH_SIZE) {
+                finishBatch();
+            }
+            if (reportStreamObserver == null) {
+                startBatch();
+            }
+            reportStreamObserver.onNext(meterData);
+            batchCount++;
+            bytes += meterData.getSerializedSize();
+        }
+
+        private void startBatch() {
+            final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
+            reportStreamObserver = meterReportServiceStub.withDeadlineAfter(
+                GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS
+            ).collect(new StreamObserver<Commands>() {
+                @Override
+                public void onNext(Commands commands) {
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    status.finished();
+                    reportState.reportFailed();
+                    if (LOGGER.isErrorEnable()) {
+                        LOGGER.error(throwable, "Send meters to collector fail with a grpc internal exception.");
+                    }
+                    ServiceManager.INSTANCE.findService(GRPCChannelManager.class).reportError(throwable);
+                }
+
+                @Override
+                public void onCompleted() {
+                    status.finished();
+                }
+            });
+            streamStatus = status;
+            batchCount = 0;
+        }
+
+        private void finishBatch() {
+            if (reportStreamObserver == null) {
+                return;
+            }
+            try {
+                reportStreamObserver.onCompleted();
+                streamStatus.wait4Finish();
+            } finally {
+                reportStreamObserver = null;
+            }
+        }
+    }
 }
@@ -19,17 +19,15 @@
 package org.apache.skywalking.apm.agent.core.meter;
 
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.boot.AgentScheduler;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
-import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
+import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
 
 /**
  * Agent core level service. It provides the register map for all available {@link BaseMeter} instances and schedules
@@ -43,7 +41,7 @@ public class MeterService implements BootService, Runnable {
     private final ConcurrentHashMap<MeterId, BaseMeter> meterMap = new ConcurrentHashMap<>();
 
     // report meters
-    private volatile ScheduledFuture<?> reportMeterFuture;
+    private volatile AgentScheduler.ScheduledTask reportMeterFuture;
 
     private MeterSender sender;
 
@@ -72,13 +70,11 @@ public class MeterService implements BootService, Runnable {
 
     @Override
     public void boot() {
+        AgentSo11y.bootInterceptorDuration(this);
         if (Config.Meter.ACTIVE) {
-            reportMeterFuture = Executors.newSingleThreadScheduledExecutor(
-                new DefaultNamedThreadFactory("MeterReportService")
-            ).scheduleWithFixedDelay(new RunnableWithExceptionProtection(
-                this,
-                t -> LOGGER.error("Report meters failure.", t)
-            ), 0, Config.Meter.REPORT_INTERVAL, TimeUnit.SECONDS);
+            reportMeterFuture = ServiceManager.INSTANCE.findService(AgentScheduler.class).scheduleWithFixedDelay(
+                "MeterReportService", this, 0, Config.Meter.REPORT_INTERVAL, TimeUnit.SECONDS
+            );
         }
     }
 
@@ -88,8 +84,9 @@ public class MeterService implements BootService, Runnable {
 
     @Override
     public void shutdown() {
+        AgentSo11y.shutdownInterceptorDuration();
         if (reportMeterFuture != null) {
-            reportMeterFuture.cancel(true);
+            reportMeterFuture.cancel();
         }
         // clear all of the meter report
         meterMap.clear();
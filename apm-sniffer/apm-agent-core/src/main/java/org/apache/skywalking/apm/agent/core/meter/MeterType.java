@@ -33,5 +33,9 @@ public enum MeterType {
     /**
      * For {@link Histogram}
      */
-    HISTOGRAM
+    HISTOGRAM,
+    /**
+     * For {@link QuantileSketch}
+     */
+    QUANTILE_SKETCH
 }
@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterBucketValue;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterHistogram;
+
+/**
+ * QuantileSketch represents the distribution of data with a bounded relative error, so the quantiles are accurate at
+ * any scale without declaring the buckets up front. The values are counted in logarithmically sized bins, the value of
+ * a bin is at most {@code relativeAccuracy} away from the values counted in it. The bins between the lowest and the
+ * highest trackable values are allocated once, recording a value doesn't allocate.
+ * <p>
+ * It is reported as a histogram of a fixed bucket layout, computed once from the trackable range and
+ * {@code maxBuckets}: the adjacent bins are merged, 2, 4, 8... into one, until the bins of the whole range fit. Every
+ * report carries the same bucket boundaries, the empty buckets included, as the backend aggregates the histograms by
+ * bucket. The first bucket starts from 0 and counts the values less than the lowest trackable value. The reported
+ * buckets are coarser than the bins, {@link #getValueAtQuantile(double)} keeps the relative accuracy.
+ * <p>
+ * The sketches of the same accuracy and range are mergeable.
+ */
+public class QuantileSketch extends BaseMeter {
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    public static final double DEFAULT_LOWEST_TRACKABLE_VALUE = 0.001;
+    public static final double DEFAULT_HIGHEST_TRACKABLE_VALUE = 1e9;
+    public static final int DEFAULT_MAX_BUCKETS = 32;
+
+    private final double relativeAccuracy;
+    private final double lowestTrackableValue;
+    private final double highestTrackableValue;
+    private final int maxBuckets;
+
+    private final double gamma;
+    private final double indexScale;
+    private final int minIndex;
+    private final int maxIndex;
+
+    /**
+     * 2^shift adjacent bins are reported as one bucket, the bin {@code index} is reported in the bucket
+     * {@code (index >> shift) - (minIndex >> shift) + 1}, the bucket 0 counts the values under the range.
+     */
+    private final int shift;
+    private final double[] bucketBoundaries;
+
+    /**
+     * The count of the bin {@code index} is at {@code index - minIndex}.
+     */
+    private final AtomicLongArray counts;
+    private final LongAdder lowCount = new LongAdder();
+
+    /**
+     * @param meterId               as the unique id of this meter instance
+     * @param relativeAccuracy      the max relative error of the values of the quantiles, in (0, 1)
+     * @param lowestTrackableValue  the values less than it are counted in the first bucket, must be positive
+     * @param highestTrackableValue the values greater than it are counted in the last bin
+     * @param maxBuckets            the max count of the reported buckets
+     */
+    public QuantileSketch(MeterId meterId, double relativeAccuracy, double lowestTrackableValue,
+                          double highestTrackableValue, int maxBuckets) {
+        super(meterId);
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("Relative accuracy must be in (0, 1)");
+        }
+        if (!(lowestTrackableValue > 0 && lowestTrackableValue < highestTrackableValue)) {
+            throw new IllegalArgumentException("Trackable values must be positive and the lowest less than the highest");
+        }
+        if (maxBuckets < 2) {
+            throw new IllegalArgumentException("Max buckets must be at least 2");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.lowestTrackableValue = lowestTrackableValue;
+        this.highestTrackableValue = highestTrackableValue;
+        this.maxBuckets = maxBuckets;
+
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.indexScale = 1 / Math.log(gamma);
+        this.minIndex = index(lowestTrackableValue);
+        this.maxIndex = index(highestTrackableValue);
+        this.counts = new AtomicLongArray(maxIndex - minIndex + 1);
+
+        int shift = 0;
+        while ((maxIndex >> shift) - (minIndex >> shift) + 1 > maxBuckets - 1) {
+            shift++;
+        }
+        this.shift = shift;
+        this.bucketBoundaries = new double[(maxIndex >> shift) - (minIndex >> shift) + 2];
+        for (int i = 1; i < bucketBoundaries.length; i++) {
+            bucketBoundaries[i] = lowerBoundOf((minIndex >> shift) + i - 1);
+        }
+    }
+
+    /**
+     * Add value into the sketch. Negative values are ignored.
+     */
+    public void addValue(double value) {
+        if (value >= lowestTrackableValue) {
+            counts.incrementAndGet(Math.min(index(value), maxIndex) - minIndex);
+        } else if (value >= 0) {
+            lowCount.increment();
+        }
+    }
+
+    /**
+     * Add all values of the other sketch into this one.
+     *
+     * @throws IllegalArgumentException if the accuracy or the range of the sketches are different
+     */
+    public void merge(QuantileSketch other) {
+        if (relativeAccuracy != other.relativeAccuracy
+            || lowestTrackableValue != other.lowestTrackableValue
+            || highestTrackableValue != other.highestTrackableValue) {
+            throw new IllegalArgumentException("Only the sketches of the same accuracy and range could be merged");
+        }
+        lowCount.add(other.lowCount.sum());
+        for (int i = 0; i < counts.length(); i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+    }
+
+    /**
+     * @param quantile in [0, 1]
+     * @return the estimated value at the quantile, 0 if no value is recorded or it is less than the lowest trackable
+     * value.
+     */
+    public double getValueAtQuantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be in [0, 1]");
+        }
+        long total = getCount();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = lowCount.sum();
+        if (rank <= seen) {
+            return 0;
+        }
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return 2 * Math.pow(gamma, minIndex + i) / (gamma + 1);
+            }
+        }
+        return highestTrackableValue;
+    }
+
+    /**
+     * @return the count of the recorded values.
+     */
+    public long getCount() {
+        long total = lowCount.sum();
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    @Override
+    public MeterData.Builder transform() {
+        long[] bucketCounts = new long[bucketBoundaries.length];
+        bucketCounts[0] = lowCount.sum();
+        int firstBucket = minIndex >> shift;
+        for (int i = 0; i < counts.length(); i++) {
+            bucketCounts[((minIndex + i) >> shift) - firstBucket + 1] += counts.get(i);
+        }
+
+        MeterHistogram.Builder histogram = MeterHistogram.newBuilder()
+                                                         .setName(getName())
+                                                         .addAllLabels(transformTags());
+        for (int i = 0; i < bucketBoundaries.length; i++) {
+            histogram.addValues(MeterBucketValue.newBuilder().setBucket(bucketBoundaries[i]).setCount(bucketCounts[i]));
+        }
+        return MeterData.newBuilder().setHistogram(histogram);
+    }
+
+    /**
+     * The bin {@code index} counts the values in [gamma^(index-1), gamma^index), the merged bin starts from the lower
+     * bound of its first bin. It never goes lower than the lowest trackable value, so the first bucket stays apart.
+     */
+    private double lowerBoundOf(int mergedIndex) {
+        return Math.max(Math.pow(gamma, (mergedIndex << shift) - 1), lowestTrackableValue);
+    }
+
+    private int index(double value) {
+        return (int) Math.floor(Math.log(value) * indexScale) + 1;
+    }
+
+    public static class Builder extends AbstractBuilder<Builder, QuantileSketch> {
+        private double relativeAccuracy = DEFAULT_RELATIVE_ACCURACY;
+        private double lowestTrackableValue = DEFAULT_LOWEST_TRACKABLE_VALUE;
+        private double highestTrackableValue = DEFAULT_HIGHEST_TRACKABLE_VALUE;
+        private int maxBuckets = DEFAULT_MAX_BUCKETS;
+
+        /**
+         * Build a new meter build, meter name is required
+         */
+        public Builder(String name) {
+            super(name);
+        }
+
+        /**
+         * Set the max relative error of the values of the quantiles, default is 1%
+         */
+        public Builder relativeAccuracy(double relativeAccuracy) {
+            this.relativeAccuracy = relativeAccuracy;
+            return this;
+        }
+
+        /**
+         * Set the range of the values counted in their own bins, default is [0.001, 1e9]. The memory of the sketch
+         * grows with the logarithm of highest / lowest.
+         */
+        public Builder range(double lowestTrackableValue, double highestTrackableValue) {
+            this.lowestTrackableValue = lowestTrackableValue;
+            this.highestTrackableValue = highestTrackableValue;
+            return this;
+        }
+
+        /**
+         * Set the max count of the reported buckets, default is 32
+         */
+        public Builder maxBuckets(int maxBuckets) {
+            this.maxBuckets = maxBuckets;
+            return this;
+        }
+
+        @Override
+        protected MeterType getType() {
+            return MeterType.QUANTILE_SKETCH;
+        }
+
+        @Override
+        protected QuantileSketch create(MeterId meterId) {
+            return new QuantileSketch(meterId, relativeAccuracy, lowestTrackableValue, highestTrackableValue, maxBuckets);
+        }
+    }
+}
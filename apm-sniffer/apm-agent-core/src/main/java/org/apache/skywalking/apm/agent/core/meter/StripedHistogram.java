@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterBucketValue;
+
+/**
+ * A {@link Histogram} for the hot meters recorded by many threads. The count of every bucket is a {@link LongAdder},
+ * the threads recording into the same bucket don't contend on one atomic, and the counts are summed when the meter is
+ * transformed for reporting.
+ * <p>
+ * When the steps are uniformly or exponentially spaced, the bucket of a value is calculated rather than binary
+ * searched.
+ */
+public class StripedHistogram extends Histogram {
+    /**
+     * The relative error tolerated when the spacing of the steps is detected.
+     */
+    private static final double SPACING_TOLERANCE = 1e-9;
+
+    private final double[] steps;
+    private final Spacing spacing;
+    /**
+     * The first step of the spacing.
+     */
+    private final int origin;
+    /**
+     * The reciprocal of the uniform width, or of the base 2 logarithm of the exponential factor.
+     */
+    private final double scale;
+
+    /**
+     * @param meterId as the unique id of this meter instance
+     * @param steps   presents the minimal value of every step, in the ascending order
+     */
+    public StripedHistogram(MeterId meterId, List<Double> steps) {
+        super(meterId, steps.stream().map(StripedBucket::new).toArray(Bucket[]::new));
+        this.steps = steps.stream().mapToDouble(Double::doubleValue).toArray();
+
+        if (isUniform(this.steps)) {
+            this.spacing = Spacing.UNIFORM;
+            this.origin = 0;
+            this.scale = 1 / (this.steps[1] - this.steps[0]);
+        } else if (isExponential(this.steps, 0)) {
+            this.spacing = Spacing.EXPONENTIAL;
+            this.origin = 0;
+            this.scale = Math.log(2) / Math.log(this.steps[1] / this.steps[0]);
+        } else if (isExponential(this.steps, 1)) {
+            // the min value, usually 0, followed by the exponential steps
+            this.spacing = Spacing.EXPONENTIAL;
+            this.origin = 1;
+            this.scale = Math.log(2) / Math.log(this.steps[2] / this.steps[1]);
+        } else {
+            this.spacing = Spacing.IRREGULAR;
+            this.origin = 0;
+            this.scale = 0;
+        }
+    }
+
+    /**
+     * Add value into the histogram, automatic analyze what bucket count need to be increment [step1, step2)
+     */
+    @Override
+    public void addValue(double value) {
+        addValue(value, 1L);
+    }
+
+    /**
+     * Add the value {@code count} times into the histogram, values less than the min value are ignored.
+     */
+    public void addValue(double value, long count) {
+        int index = bucketIndex(value);
+        if (index >= 0) {
+            buckets[index].increment(count);
+        }
+    }
+
+    /**
+     * @return the index of the last step not greater than the value, -1 if the value is less than the min value.
+     */
+    int bucketIndex(double value) {
+        if (!(value >= steps[0])) {
+            return -1;
+        }
+        int index;
+        switch (spacing) {
+            case UNIFORM:
+                index = (int) ((value - steps[0]) * scale);
+                break;
+            case EXPONENTIAL:
+                // the binary exponent is the floor of the base 2 logarithm, the guess is corrected below
+                index = value < steps[origin]
+                    ? origin - 1
+                    : origin + (int) (Math.getExponent(value / steps[origin]) * scale);
+                break;
+            default:
+                return binarySearch(value);
+        }
+
+        // correct the rounding of the floating point calculation at the edge of the buckets
+        index = Math.min(Math.max(index, 0), steps.length - 1);
+        while (index + 1 < steps.length && steps[index + 1] <= value) {
+            index++;
+        }
+        while (index > 0 && steps[index] > value) {
+            index--;
+        }
+        return index;
+    }
+
+    Spacing getSpacing() {
+        return spacing;
+    }
+
+    private int binarySearch(double value) {
+        int low = 0;
+        int high = steps.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (steps[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low - 1;
+    }
+
+    private static boolean isUniform(double[] steps) {
+        if (steps.length < 3) {
+            return false;
+        }
+        double width = steps[1] - steps[0];
+        for (int i = 2; i < steps.length; i++) {
+            double expected = steps[0] + i * width;
+            if (Math.abs(steps[i] - expected) > SPACING_TOLERANCE * Math.max(Math.abs(expected), width)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isExponential(double[] steps, int origin) {
+        if (steps.length - origin < 3 || steps[origin] <= 0) {
+            return false;
+        }
+        double factor = steps[origin + 1] / steps[origin];
+        for (int i = origin + 2; i < steps.length; i++) {
+            double expected = steps[origin] * Math.pow(factor, i - origin);
+            if (Math.abs(steps[i] - expected) > SPACING_TOLERANCE * expected) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    enum Spacing {
+        UNIFORM, EXPONENTIAL, IRREGULAR
+    }
+
+    /**
+     * Histogram bucket counting by a {@link LongAdder}
+     */
+    protected static class StripedBucket extends Bucket {
+        private final LongAdder adder = new LongAdder();
+
+        public StripedBucket(double bucket) {
+            super(bucket);
+        }
+
+        @Override
+        public void increment(long count) {
+            adder.add(count);
+        }
+
+        @Override
+        public MeterBucketValue transform() {
+            return MeterBucketValue.newBuilder()
+                                   .setBucket(bucket)
+                                   .setCount(adder.sum())
+                                   .build();
+        }
+    }
+}
@@ -18,6 +18,7 @@ import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.dynamic.DynamicType;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.plugin.cache.PluginMatchCache;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.StaticMethodsInterceptPoint;
@@ -77,25 +78,33 @@ public abstract class AbstractClassEnhancePluginDefine {
         LOGGER.debug("prepare to enhance class {} by {}.", transformClassName, interceptorDefineClassName);
         WitnessFinder finder = WitnessFinder.INSTANCE;
         /**
-         * 查找用于增强类的见证类
+         * 查找用于增强类的见证类，可缓存的类在插件匹配缓存中已通过检查的跳过查找
          */
         String[] witnessClasses = witnessClasses();
-        if (witnessClasses != null) {
-            for (String witnessClass : witnessClasses) {
-                if (!finder.exist(witnessClass, classLoader)) {
-                    LOGGER.warn("enhance class {} by plugin {} is not activated. Witness class {} does not exist.", transformClassName, interceptorDefineClassName, witnessClass);
-                    return null;
+        List<WitnessMethod> witnessMethods = witnessMethods();
+        boolean hasWitness = witnessClasses != null && witnessClasses.length > 0 || !CollectionUtil.isEmpty(witnessMethods);
+        PluginMatchCache matchCache = PluginMatchCache.INSTANCE;
+        String matchCacheKey = context.getMatchCacheKey();
+        if (hasWitness && !(matchCacheKey != null && matchCache.isWitnessPassed(interceptorDefineClassName, matchCacheKey))) {
+            if (witnessClasses != null) {
+                for (String witnessClass : witnessClasses) {
+                    if (!finder.exist(witnessClass, classLoader)) {
+                        LOGGER.warn("enhance class {} by plugin {} is not activated. Witness class {} does not exist.", transformClassName, interceptorDefineClassName, witnessClass);
+                        return null;
+                    }
                 }
             }
-        }
-        List<WitnessMethod> witnessMethods = witnessMethods();
-        if (!CollectionUtil.isEmpty(witnessMethods)) {
-            for (WitnessMethod witnessMethod : witnessMethods) {
-                if (!finder.exist(witnessMethod, classLoader)) {
-                    LOGGER.warn("enhance class {} by plugin {} is not activated. Witness method {} does not exist.", transformClassName, interceptorDefineClassName, witnessMethod);
-                    return null;
+            if (!CollectionUtil.isEmpty(witnessMethods)) {
+                for (WitnessMethod witnessMethod : witnessMethods) {
+                    if (!finder.exist(witnessMethod, classLoader)) {
+                        LOGGER.warn("enhance class {} by plugin {} is not activated. Witness method {} does not exist.", transformClassName, interceptorDefineClassName, witnessMethod);
+                        return null;
+                    }
                 }
             }
+            if (matchCacheKey != null) {
+                matchCache.recordWitnessPassed(interceptorDefineClassName, matchCacheKey);
+            }
         }
 
         /**
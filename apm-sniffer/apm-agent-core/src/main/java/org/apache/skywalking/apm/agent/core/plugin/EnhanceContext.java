@@ -32,6 +32,11 @@ public class EnhanceContext {
      * The object has already been enhanced or extended. e.g. added the new field, or implemented the new interface
      */
     private boolean objectExtended = false;
+    /**
+     * The key of the class in {@link org.apache.skywalking.apm.agent.core.plugin.cache.PluginMatchCache}, the passed
+     * witness checks of it are read from and recorded in the cache under it. Null if the class is not cacheable.
+     */
+    private String matchCacheKey = null;
 
     public boolean isEnhanced() {
         return isEnhanced;
@@ -48,4 +53,12 @@ public class EnhanceContext {
     public void extendObjectCompleted() {
         objectExtended = true;
     }
+
+    public String getMatchCacheKey() {
+        return matchCacheKey;
+    }
+
+    public void setMatchCacheKey(String matchCacheKey) {
+        this.matchCacheKey = matchCacheKey;
+    }
 }
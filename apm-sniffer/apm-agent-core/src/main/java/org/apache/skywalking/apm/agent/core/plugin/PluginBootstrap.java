@@ -22,6 +22,7 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.skywalking.apm.agent.core.boot.AgentPackageNotFoundException;
+import org.apache.skywalking.apm.agent.core.boot.StartupExecutor;
 import org.apache.skywalking.apm.agent.core.plugin.loader.AgentClassLoader;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
@@ -67,16 +68,11 @@ public class PluginBootstrap {
         // 获取实际激活的插件列表
         List<PluginDefine> pluginClassList = PluginCfg.INSTANCE.getPluginClassList();
 
+        // 按声明顺序收集插件实例，并行启动时也保持确定的顺序
         List<AbstractClassEnhancePluginDefine> plugins = new ArrayList<AbstractClassEnhancePluginDefine>();
-        for (PluginDefine pluginDefine : pluginClassList) {
-            try {
-                LOGGER.debug("loading plugin class {}.", pluginDefine.getDefineClass());
-                AbstractClassEnhancePluginDefine plugin = (AbstractClassEnhancePluginDefine) Class.forName(pluginDefine.getDefineClass(), true, AgentClassLoader
-                    .getDefault()).newInstance();
-                plugin.setPluginName(pluginDefine.getName());
+        for (AbstractClassEnhancePluginDefine plugin : StartupExecutor.map(pluginClassList, PluginBootstrap::newPlugin)) {
+            if (plugin != null) {
                 plugins.add(plugin);
-            } catch (Throwable t) {
-                LOGGER.error(t, "load plugin [{}] failure.", pluginDefine.getDefineClass());
             }
         }
 
@@ -86,4 +82,21 @@ public class PluginBootstrap {
 
     }
 
+    /**
+     * 实例化插件定义。
+     * @return 插件定义实例，加载失败时返回 null。
+     */
+    private static AbstractClassEnhancePluginDefine newPlugin(PluginDefine pluginDefine) {
+        try {
+            LOGGER.debug("loading plugin class {}.", pluginDefine.getDefineClass());
+            AbstractClassEnhancePluginDefine plugin = (AbstractClassEnhancePluginDefine) Class.forName(pluginDefine.getDefineClass(), true, AgentClassLoader
+                .getDefault()).newInstance();
+            plugin.setPluginName(pluginDefine.getName());
+            return plugin;
+        } catch (Throwable t) {
+            LOGGER.error(t, "load plugin [{}] failure.", pluginDefine.getDefineClass());
+            return null;
+        }
+    }
+
 }
@@ -18,21 +18,25 @@
 
 package org.apache.skywalking.apm.agent.core.plugin;
 
+import java.security.ProtectionDomain;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import net.bytebuddy.agent.builder.AgentBuilder;
 import net.bytebuddy.description.NamedElement;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.matcher.ElementMatcher;
 import org.apache.skywalking.apm.agent.core.plugin.bytebuddy.AbstractJunction;
+import org.apache.skywalking.apm.agent.core.plugin.cache.PluginMatchCache;
 import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
-import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
 import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
 import org.apache.skywalking.apm.agent.core.plugin.match.ProtectiveShieldMatcher;
 
 import static net.bytebuddy.matcher.ElementMatchers.isInterface;
+import static net.bytebuddy.matcher.ElementMatchers.none;
 import static net.bytebuddy.matcher.ElementMatchers.not;
 
 /**
@@ -41,7 +45,9 @@ import static net.bytebuddy.matcher.ElementMatchers.not;
 public class PluginFinder {
     private final Map<String, LinkedList<AbstractClassEnhancePluginDefine>> nameMatchDefine = new HashMap<String, LinkedList<AbstractClassEnhancePluginDefine>>();
     private final List<AbstractClassEnhancePluginDefine> signatureMatchDefine = new ArrayList<AbstractClassEnhancePluginDefine>();
+    private final Map<String, AbstractClassEnhancePluginDefine> signatureMatchDefineByName = new HashMap<String, AbstractClassEnhancePluginDefine>();
     private final List<AbstractClassEnhancePluginDefine> bootstrapClassMatchDefine = new ArrayList<AbstractClassEnhancePluginDefine>();
+    private final SignatureMatchIndex signatureMatchIndex;
     private static boolean IS_PLUGIN_INIT_COMPLETED = false;
 
     /**
@@ -52,6 +58,7 @@ public class PluginFinder {
      *  3.1 NameMatch类型：按类名存入nameMatchDefine映射表
      *  3.2 其他类型：存入signatureMatchDefine列表
      * 4. 如果插件需要Bootstrap类增强，则额外添加到bootstrapClassMatchDefine列表中
+     * 5. 按匹配规则的类型为signatureMatchDefine建立索引，见 SignatureMatchIndex
      */
     public PluginFinder(List<AbstractClassEnhancePluginDefine> plugins) {
         for (AbstractClassEnhancePluginDefine plugin : plugins) {
@@ -71,43 +78,98 @@ public class PluginFinder {
                 pluginDefines.add(plugin);
             } else {
                 signatureMatchDefine.add(plugin);
+                signatureMatchDefineByName.put(plugin.getClass().getName(), plugin);
             }
 
             if (plugin.isBootstrapInstrumentation()) {
                 bootstrapClassMatchDefine.add(plugin);
             }
         }
+        signatureMatchIndex = new SignatureMatchIndex(signatureMatchDefine);
     }
 
     public List<AbstractClassEnhancePluginDefine> find(TypeDescription typeDescription) {
+        return find(typeDescription, null);
+    }
+
+    /**
+     * @param matchCacheKey the key of the type by {@link PluginMatchCache#cacheKeyOf(ProtectionDomain, String)}, the
+     *                      signature matched defines are read from and recorded in the cache under it. Null if the
+     *                      type is not cacheable.
+     */
+    public List<AbstractClassEnhancePluginDefine> find(TypeDescription typeDescription, String matchCacheKey) {
         List<AbstractClassEnhancePluginDefine> matchedPlugins = new LinkedList<AbstractClassEnhancePluginDefine>();
         String typeName = typeDescription.getTypeName();
         if (nameMatchDefine.containsKey(typeName)) {
             matchedPlugins.addAll(nameMatchDefine.get(typeName));
         }
 
-        for (AbstractClassEnhancePluginDefine pluginDefine : signatureMatchDefine) {
-            IndirectMatch match = (IndirectMatch) pluginDefine.enhanceClass();
-            if (match.isMatch(typeDescription)) {
-                matchedPlugins.add(pluginDefine);
+        PluginMatchCache matchCache = PluginMatchCache.INSTANCE;
+        String[] cachedDefines = matchCacheKey != null ? matchCache.signatureMatchOf(matchCacheKey) : null;
+        if (cachedDefines != null) {
+            for (String defineClassName : cachedDefines) {
+                AbstractClassEnhancePluginDefine pluginDefine = signatureMatchDefineByName.get(defineClassName);
+                if (pluginDefine != null) {
+                    matchedPlugins.add(pluginDefine);
+                }
+            }
+            return matchedPlugins;
+        }
+
+        List<String> matchedDefines = matchCacheKey != null ? new ArrayList<String>() : null;
+        for (AbstractClassEnhancePluginDefine pluginDefine : signatureMatchIndex.find(typeDescription)) {
+            matchedPlugins.add(pluginDefine);
+            if (matchedDefines != null) {
+                matchedDefines.add(pluginDefine.getClass().getName());
             }
         }
+        if (matchedDefines != null) {
+            matchCache.recordSignatureMatch(matchCacheKey, matchedDefines);
+        }
 
         return matchedPlugins;
     }
 
     public ElementMatcher<? super TypeDescription> buildMatch() {
+        return buildMatch(signatureMatchIndex::matches);
+    }
+
+    /**
+     * Build the matcher of {@link #buildMatch()}, which skips the signature matchers of the types cached by {@link
+     * PluginMatchCache}, and records the types matching none of them. The matched types are recorded with their plugin
+     * defines in {@link #find(TypeDescription, String)}. The cache is only used for the types cacheable by {@link
+     * PluginMatchCache#cacheKeyOf(ProtectionDomain, String)}.
+     */
+    public AgentBuilder.RawMatcher buildCachedMatch() {
+        final ElementMatcher<? super TypeDescription> match = buildMatch();
+        final ElementMatcher<? super TypeDescription> nameMatch = buildMatch(none());
+        return (typeDescription, classLoader, module, classBeingRedefined, protectionDomain) -> {
+            PluginMatchCache matchCache = PluginMatchCache.INSTANCE;
+            String matchCacheKey = matchCache.cacheKeyOf(protectionDomain, typeDescription.getTypeName());
+            if (matchCacheKey == null) {
+                return match.matches(typeDescription);
+            }
+            String[] cachedDefines = matchCache.signatureMatchOf(matchCacheKey);
+            if (cachedDefines != null) {
+                return cachedDefines.length > 0 || nameMatch.matches(typeDescription);
+            }
+            boolean matched = match.matches(typeDescription);
+            if (!matched) {
+                matchCache.recordSignatureMatch(matchCacheKey, Collections.<String>emptyList());
+            }
+            return matched;
+        };
+    }
+
+    private ElementMatcher<? super TypeDescription> buildMatch(ElementMatcher<? super TypeDescription> signatureJudge) {
         ElementMatcher.Junction judge = new AbstractJunction<NamedElement>() {
             @Override
             public boolean matches(NamedElement target) {
                 return nameMatchDefine.containsKey(target.getActualName());
             }
         };
-        for (AbstractClassEnhancePluginDefine define : signatureMatchDefine) {
-            ClassMatch match = define.enhanceClass();
-            if (match instanceof IndirectMatch) {
-                judge = judge.or(((IndirectMatch) match).buildJunction());
-            }
+        if (!signatureMatchDefine.isEmpty()) {
+            judge = judge.or(signatureJudge);
         }
         // Filter out all matchers returns to exclude pure interface types.
         judge = not(isInterface()).and(judge);
@@ -0,0 +1,268 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MethodAnnotationMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch;
+
+/**
+ * Index of the plugin defines matching types by {@link IndirectMatch}, dispatched by the kind of the match. A type is
+ * only checked by the {@link IndirectMatch#isMatch(TypeDescription)} of the defines hit by one of the indexes:
+ * <p>
+ * 1. {@link MultiClassNameMatch} by the class names in a hash map.
+ * <p>
+ * 2. {@link PrefixMatch} by the prefixes in a trie, walked by the characters of the type name.
+ * <p>
+ * 3. {@link HierarchyMatch} by its first parent type, looked up by the names of the super classes and interfaces of the
+ * type.
+ * <p>
+ * 4. {@link ClassAnnotationMatch} and {@link MethodAnnotationMatch} by their first annotation, looked up by the names
+ * of the annotations declared on the type and its methods.
+ * <p>
+ * The other kinds, such as {@link org.apache.skywalking.apm.agent.core.plugin.match.RegexMatch} and the logical
+ * operations, are checked for every type.
+ */
+class SignatureMatchIndex {
+    private final AbstractClassEnhancePluginDefine[] defines;
+    private final IndirectMatch[] matches;
+    private final Map<String, int[]> byClassName;
+    private final PrefixTrie byPrefix = new PrefixTrie();
+    private final Map<String, int[]> bySuperType;
+    private final Map<String, int[]> byClassAnnotation;
+    private final Map<String, int[]> byMethodAnnotation;
+    private final int[] unindexed;
+    /**
+     * The junctions of the un-indexed matches, which decide whether a type should be transformed as they did before
+     * the index.
+     */
+    private final ElementMatcher.Junction unindexedJunction;
+
+    SignatureMatchIndex(List<AbstractClassEnhancePluginDefine> signatureMatchDefine) {
+        defines = signatureMatchDefine.toArray(new AbstractClassEnhancePluginDefine[0]);
+        matches = new IndirectMatch[defines.length];
+
+        Map<String, List<Integer>> classNames = new HashMap<String, List<Integer>>();
+        Map<String, List<Integer>> superTypes = new HashMap<String, List<Integer>>();
+        Map<String, List<Integer>> classAnnotations = new HashMap<String, List<Integer>>();
+        Map<String, List<Integer>> methodAnnotations = new HashMap<String, List<Integer>>();
+        List<Integer> others = new ArrayList<Integer>();
+        ElementMatcher.Junction othersJunction = null;
+        for (int i = 0; i < defines.length; i++) {
+            ClassMatch classMatch = defines[i].enhanceClass();
+            if (!(classMatch instanceof IndirectMatch)) {
+                // never matched by PluginFinder#buildMatch
+                continue;
+            }
+            IndirectMatch match = (IndirectMatch) classMatch;
+            matches[i] = match;
+            if (match instanceof MultiClassNameMatch) {
+                for (String className : ((MultiClassNameMatch) match).getMatchClassNames()) {
+                    add(classNames, className, i);
+                }
+            } else if (match instanceof PrefixMatch) {
+                for (String prefix : ((PrefixMatch) match).getPrefixes()) {
+                    byPrefix.add(prefix, i);
+                }
+            } else if (match instanceof HierarchyMatch) {
+                add(superTypes, ((HierarchyMatch) match).getParentTypes()[0], i);
+            } else if (match instanceof ClassAnnotationMatch) {
+                add(classAnnotations, ((ClassAnnotationMatch) match).getAnnotations()[0], i);
+            } else if (match instanceof MethodAnnotationMatch) {
+                add(methodAnnotations, ((MethodAnnotationMatch) match).getAnnotations()[0], i);
+            } else {
+                others.add(i);
+                ElementMatcher.Junction junction = match.buildJunction();
+                othersJunction = othersJunction == null ? junction : othersJunction.or(junction);
+            }
+        }
+        byClassName = toIndex(classNames);
+        bySuperType = toIndex(superTypes);
+        byClassAnnotation = toIndex(classAnnotations);
+        byMethodAnnotation = toIndex(methodAnnotations);
+        unindexed = toArray(others);
+        unindexedJunction = othersJunction;
+    }
+
+    /**
+     * @return the matched plugin defines in the order of the given list.
+     */
+    List<AbstractClassEnhancePluginDefine> find(TypeDescription typeDescription) {
+        List<AbstractClassEnhancePluginDefine> matched = new LinkedList<AbstractClassEnhancePluginDefine>();
+        BitSet candidates = candidatesOf(typeDescription);
+        for (int i : unindexed) {
+            candidates.set(i);
+        }
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (matches[i].isMatch(typeDescription)) {
+                matched.add(defines[i]);
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * @return true if the type could be matched by any of the plugin defines.
+     */
+    boolean matches(TypeDescription typeDescription) {
+        BitSet candidates = candidatesOf(typeDescription);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (matches[i].isMatch(typeDescription)) {
+                return true;
+            }
+        }
+        return unindexedJunction != null && unindexedJunction.matches(typeDescription);
+    }
+
+    private BitSet candidatesOf(TypeDescription typeDescription) {
+        BitSet candidates = new BitSet(defines.length);
+        mark(byClassName.get(typeDescription.getTypeName()), candidates);
+        byPrefix.mark(typeDescription.getName(), candidates);
+        if (!bySuperType.isEmpty()) {
+            Set<String> visited = new HashSet<String>();
+            for (TypeDescription.Generic implInterface : typeDescription.getInterfaces()) {
+                markSuperTypes(implInterface, visited, candidates);
+            }
+            if (typeDescription.getSuperClass() != null) {
+                markSuperTypes(typeDescription.getSuperClass(), visited, candidates);
+            }
+        }
+        if (!byClassAnnotation.isEmpty()) {
+            for (AnnotationDescription annotation : typeDescription.getDeclaredAnnotations()) {
+                mark(byClassAnnotation.get(annotation.getAnnotationType().getActualName()), candidates);
+            }
+        }
+        if (!byMethodAnnotation.isEmpty()) {
+            for (MethodDescription.InDefinedShape method : typeDescription.getDeclaredMethods()) {
+                for (AnnotationDescription annotation : method.getDeclaredAnnotations()) {
+                    mark(byMethodAnnotation.get(annotation.getAnnotationType().getActualName()), candidates);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Walk the super types the same way as {@link HierarchyMatch#isMatch(TypeDescription)}, each type once.
+     */
+    private void markSuperTypes(TypeDescription.Generic type, Set<String> visited, BitSet candidates) {
+        String typeName = type.asRawType().getTypeName();
+        if (!visited.add(typeName)) {
+            return;
+        }
+        mark(bySuperType.get(typeName), candidates);
+        for (TypeDescription.Generic implInterface : type.getInterfaces()) {
+            markSuperTypes(implInterface, visited, candidates);
+        }
+        TypeDescription.Generic superClass = type.getSuperClass();
+        if (superClass != null && !"java.lang.Object".equals(typeName)) {
+            markSuperTypes(superClass, visited, candidates);
+        }
+    }
+
+    private static void mark(int[] indexes, BitSet candidates) {
+        if (indexes != null) {
+            for (int i : indexes) {
+                candidates.set(i);
+            }
+        }
+    }
+
+    private static void add(Map<String, List<Integer>> index, String key, int define) {
+        List<Integer> defines = index.get(key);
+        if (defines == null) {
+            defines = new ArrayList<Integer>();
+            index.put(key, defines);
+        }
+        defines.add(define);
+    }
+
+    private static Map<String, int[]> toIndex(Map<String, List<Integer>> index) {
+        Map<String, int[]> result = new HashMap<String, int[]>(index.size() * 2);
+        for (Map.Entry<String, List<Integer>> entry : index.entrySet()) {
+            result.put(entry.getKey(), toArray(entry.getValue()));
+        }
+        return result;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * A character trie of the prefixes, every node holds the defines whose prefix ends there.
+     */
+    private static class PrefixTrie {
+        private final Node root = new Node();
+
+        private void add(String prefix, int define) {
+            Node node = root;
+            for (int i = 0; i < prefix.length(); i++) {
+                Node child = node.children.get(prefix.charAt(i));
+                if (child == null) {
+                    child = new Node();
+                    node.children.put(prefix.charAt(i), child);
+                }
+                node = child;
+            }
+            node.defines.add(define);
+        }
+
+        private void mark(String name, BitSet candidates) {
+            Node node = root;
+            for (int i = 0; ; i++) {
+                for (int define : node.defines) {
+                    candidates.set(define);
+                }
+                if (i == name.length() || node.children.isEmpty()) {
+                    return;
+                }
+                node = node.children.get(name.charAt(i));
+                if (node == null) {
+                    return;
+                }
+            }
+        }
+
+        private static class Node {
+            private final Map<Character, Node> children = new HashMap<Character, Node>();
+            private final List<Integer> defines = new ArrayList<Integer>(1);
+        }
+    }
+}
@@ -18,66 +18,175 @@
 
 package org.apache.skywalking.apm.agent.core.plugin;
 
-import net.bytebuddy.pool.TypePool;
-
-import java.util.HashMap;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import net.bytebuddy.pool.TypePool;
 
 /**
- * The <code>WitnessFinder</code> represents a pool of {@link TypePool}s, each {@link TypePool} matches a {@link
+ * The <code>WitnessFinder</code> resolves the witness classes and methods through a {@link TypePool} of the {@link
  * ClassLoader}, which helps to find the class declaration existed or not.
+ * <p>
+ * The results, positive and negative, are cached per class loader. The class loaders are weakly referenced, their
+ * results are released once they are unreachable, and at most {@link #MAX_CACHED_CLASS_LOADERS} class loaders are
+ * cached. The {@link TypePool}s are not cached, as they hold the class loader and the class descriptions they parsed.
+ * Reading a cached result takes no lock.
  */
 public enum WitnessFinder {
     INSTANCE;
 
-    private final Map<ClassLoader, TypePool> poolMap = new HashMap<ClassLoader, TypePool>();
+    static final int MAX_CACHED_CLASS_LOADERS = 1024;
+    static final int MAX_CACHED_WITNESSES_PER_CLASS_LOADER = 1024;
+
+    private final Map<Object, Witnesses> witnessesOfClassLoaders = new ConcurrentHashMap<Object, Witnesses>();
+    private final ReferenceQueue<ClassLoader> collectedClassLoaders = new ReferenceQueue<ClassLoader>();
+    private final Witnesses witnessesOfBootLoader = new Witnesses();
 
     /**
      * @param classLoader for finding the witnessClass
      * @return true, if the given witnessClass exists, through the given classLoader.
      */
     public boolean exist(String witnessClass, ClassLoader classLoader) {
-        return getResolution(witnessClass, classLoader)
-                .isResolved();
+        Witnesses witnesses = witnessesOf(classLoader);
+        Boolean exist = witnesses.classes.get(witnessClass);
+        if (exist == null) {
+            exist = typePoolOf(classLoader).describe(witnessClass).isResolved();
+            witnesses.put(witnesses.classes, witnessClass, exist);
+        }
+        return exist;
+    }
+
+    /**
+     * @param classLoader for finding the witness method
+     * @return true, if the given witness method exists, through the given classLoader.
+     */
+    public boolean exist(WitnessMethod witnessMethod, ClassLoader classLoader) {
+        Witnesses witnesses = witnessesOf(classLoader);
+        Boolean exist = witnesses.methods.get(witnessMethod);
+        if (exist == null) {
+            TypePool.Resolution resolution = typePoolOf(classLoader).describe(witnessMethod.getDeclaringClassName());
+            exist = resolution.isResolved() && !resolution.resolve()
+                                                          .getDeclaredMethods()
+                                                          .filter(witnessMethod.getElementMatcher())
+                                                          .isEmpty();
+            witnesses.put(witnesses.classes, witnessMethod.getDeclaringClassName(), resolution.isResolved());
+            witnesses.put(witnesses.methods, witnessMethod, exist);
+        }
+        return exist;
     }
 
     /**
-     * get TypePool.Resolution of the witness class
-     * @param witnessClass class name
-     * @param classLoader classLoader for finding the witnessClass
-     * @return TypePool.Resolution
+     * @return the number of the class loaders holding cached results, after releasing the collected ones.
      */
-    private TypePool.Resolution getResolution(String witnessClass, ClassLoader classLoader) {
-        ClassLoader mappingKey = classLoader == null ? NullClassLoader.INSTANCE : classLoader;
-        if (!poolMap.containsKey(mappingKey)) {
-            synchronized (poolMap) {
-                if (!poolMap.containsKey(mappingKey)) {
-                    TypePool classTypePool = classLoader == null ? TypePool.Default.ofBootLoader() : TypePool.Default.of(classLoader);
-                    poolMap.put(mappingKey, classTypePool);
-                }
+    int cachedClassLoaders() {
+        expungeCollectedClassLoaders();
+        return witnessesOfClassLoaders.size();
+    }
+
+    private static TypePool typePoolOf(ClassLoader classLoader) {
+        return classLoader == null ? TypePool.Default.ofBootLoader() : TypePool.Default.of(classLoader);
+    }
+
+    private Witnesses witnessesOf(ClassLoader classLoader) {
+        if (classLoader == null) {
+            return witnessesOfBootLoader;
+        }
+        expungeCollectedClassLoaders();
+        Witnesses witnesses = witnessesOfClassLoaders.get(new LookupKey(classLoader));
+        if (witnesses != null) {
+            return witnesses;
+        }
+        if (witnessesOfClassLoaders.size() >= MAX_CACHED_CLASS_LOADERS) {
+            // Evicting an arbitrary class loader only costs the resolutions again
+            Iterator<Object> iterator = witnessesOfClassLoaders.keySet().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        witnesses = new Witnesses();
+        Witnesses existing = witnessesOfClassLoaders.putIfAbsent(new WeakKey(classLoader, collectedClassLoaders), witnesses);
+        return existing == null ? witnesses : existing;
+    }
+
+    private void expungeCollectedClassLoaders() {
+        Reference<? extends ClassLoader> collected;
+        while ((collected = collectedClassLoaders.poll()) != null) {
+            witnessesOfClassLoaders.remove(collected);
+        }
+    }
+
+    private static class Witnesses {
+        private final Map<String, Boolean> classes = new ConcurrentHashMap<String, Boolean>();
+        private final Map<WitnessMethod, Boolean> methods = new ConcurrentHashMap<WitnessMethod, Boolean>();
+
+        private <K> void put(Map<K, Boolean> results, K witness, Boolean exist) {
+            if (results.size() < MAX_CACHED_WITNESSES_PER_CLASS_LOADER) {
+                results.put(witness, exist);
             }
         }
-        TypePool typePool = poolMap.get(mappingKey);
-        return typePool.describe(witnessClass);
     }
 
     /**
-     * @param classLoader for finding the witness method
-     * @return true, if the given witness method exists, through the given classLoader.
+     * The key of a class loader in the cache, equal to the {@link LookupKey} of the same class loader until the class
+     * loader is collected.
      */
-    public boolean exist(WitnessMethod witnessMethod, ClassLoader classLoader) {
-        TypePool.Resolution resolution = getResolution(witnessMethod.getDeclaringClassName(), classLoader);
-        if (!resolution.isResolved()) {
-            return false;
+    private static class WeakKey extends WeakReference<ClassLoader> {
+        private final int hashCode;
+
+        private WeakKey(ClassLoader classLoader, ReferenceQueue<ClassLoader> queue) {
+            super(classLoader, queue);
+            this.hashCode = System.identityHashCode(classLoader);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            ClassLoader classLoader = get();
+            if (classLoader == null) {
+                return false;
+            }
+            if (o instanceof LookupKey) {
+                return ((LookupKey) o).classLoader == classLoader;
+            }
+            return o instanceof WeakKey && ((WeakKey) o).get() == classLoader;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
         }
-        return !resolution.resolve()
-                .getDeclaredMethods()
-                .filter(witnessMethod.getElementMatcher())
-                .isEmpty();
     }
 
-}
+    /**
+     * The short-lived key to read the cache without creating a {@link WeakReference}.
+     */
+    private static class LookupKey {
+        private final ClassLoader classLoader;
+
+        private LookupKey(ClassLoader classLoader) {
+            this.classLoader = classLoader;
+        }
 
-final class NullClassLoader extends ClassLoader {
-    static NullClassLoader INSTANCE = new NullClassLoader();
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o instanceof WeakKey) {
+                return ((WeakKey) o).get() == classLoader;
+            }
+            return o instanceof LookupKey && ((LookupKey) o).classLoader == classLoader;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(classLoader);
+        }
+    }
 }
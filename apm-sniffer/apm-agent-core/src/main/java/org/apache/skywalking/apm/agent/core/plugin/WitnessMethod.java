@@ -19,6 +19,7 @@
 package org.apache.skywalking.apm.agent.core.plugin;
 
 import com.google.common.base.Preconditions;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 import net.bytebuddy.description.method.MethodDescription;
@@ -31,6 +32,7 @@ import static net.bytebuddy.matcher.ElementMatchers.not;
  * Witness Method for plugin activation
  */
 @ToString
+@EqualsAndHashCode
 public class WitnessMethod {
 
     /**
@@ -22,6 +22,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.instrument.Instrumentation;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,6 +34,7 @@ import net.bytebuddy.dynamic.ClassFileLocator;
 import net.bytebuddy.dynamic.DynamicType;
 import net.bytebuddy.dynamic.loading.ClassInjector;
 import net.bytebuddy.pool.TypePool;
+import org.apache.skywalking.apm.agent.core.boot.StartupExecutor;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.plugin.AbstractClassEnhancePluginDefine;
@@ -90,15 +92,26 @@ public class BootstrapInstrumentBoost {
     public static AgentBuilder inject(PluginFinder pluginFinder, Instrumentation instrumentation,
         AgentBuilder agentBuilder, JDK9ModuleExporter.EdgeClasses edgeClasses) throws PluginException {
         Map<String, byte[]> classesTypeMap = new LinkedHashMap<>();
+        List<Delegator> delegators = new ArrayList<>();
 
-        if (!prepareJREInstrumentation(pluginFinder, classesTypeMap)) {
+        if (!prepareJREInstrumentation(pluginFinder, delegators)) {
             return agentBuilder;
         }
 
-        if (!prepareJREInstrumentationV2(pluginFinder, classesTypeMap)) {
+        if (!prepareJREInstrumentationV2(pluginFinder, delegators)) {
             return agentBuilder;
         }
 
+        /**
+         * The delegates are generated in parallel when the startup is, and put in the declaration order.
+         */
+        TypePool typePool = TypePool.Default.of(BootstrapInstrumentBoost.class.getClassLoader());
+        List<byte[]> delegatorBinaries = StartupExecutor.map(
+            delegators, delegator -> generateDelegator(typePool, delegator));
+        for (int i = 0; i < delegators.size(); i++) {
+            classesTypeMap.put(delegators.get(i).getInternalDelegateName(), delegatorBinaries.get(i));
+        }
+
         for (String highPriorityClass : HIGH_PRIORITY_CLASSES) {
             loadHighPriorityClass(classesTypeMap, highPriorityClass);
         }
@@ -149,55 +162,39 @@ public class BootstrapInstrumentBoost {
     }
 
     /**
-     * Generate dynamic delegate for ByteBuddy
+     * Collect the dynamic delegates to generate for ByteBuddy
      *
-     * @param pluginFinder   gets the whole plugin list.
-     * @param classesTypeMap hosts the class binary.
+     * @param pluginFinder gets the whole plugin list.
+     * @param delegators   hosts the delegates to generate.
      * @return true if have JRE instrumentation requirement.
      * @throws PluginException when generate failure.
      */
     private static boolean prepareJREInstrumentation(PluginFinder pluginFinder,
-        Map<String, byte[]> classesTypeMap) throws PluginException {
-        TypePool typePool = TypePool.Default.of(BootstrapInstrumentBoost.class.getClassLoader());
+        List<Delegator> delegators) throws PluginException {
         List<AbstractClassEnhancePluginDefine> bootstrapClassMatchDefines = pluginFinder.getBootstrapClassMatchDefine();
         for (AbstractClassEnhancePluginDefine define : bootstrapClassMatchDefines) {
             if (Objects.nonNull(define.getInstanceMethodsInterceptPoints())) {
                 for (InstanceMethodsInterceptPoint point : define.getInstanceMethodsInterceptPoints()) {
                     if (point.isOverrideArgs()) {
-                        generateDelegator(
-                            classesTypeMap, typePool, define.getPluginName(),
-                            INSTANCE_METHOD_WITH_OVERRIDE_ARGS_DELEGATE_TEMPLATE, point.getMethodsInterceptor()
-                        );
+                        delegators.add(new Delegator(define.getPluginName(), INSTANCE_METHOD_WITH_OVERRIDE_ARGS_DELEGATE_TEMPLATE, point.getMethodsInterceptor()));
                     } else {
-                        generateDelegator(
-                            classesTypeMap, typePool, define.getPluginName(),
-                            INSTANCE_METHOD_DELEGATE_TEMPLATE, point.getMethodsInterceptor()
-                        );
+                        delegators.add(new Delegator(define.getPluginName(), INSTANCE_METHOD_DELEGATE_TEMPLATE, point.getMethodsInterceptor()));
                     }
                 }
             }
 
             if (Objects.nonNull(define.getConstructorsInterceptPoints())) {
                 for (ConstructorInterceptPoint point : define.getConstructorsInterceptPoints()) {
-                    generateDelegator(
-                        classesTypeMap, typePool, define.getPluginName(),
-                        CONSTRUCTOR_DELEGATE_TEMPLATE, point.getConstructorInterceptor()
-                    );
+                    delegators.add(new Delegator(define.getPluginName(), CONSTRUCTOR_DELEGATE_TEMPLATE, point.getConstructorInterceptor()));
                 }
             }
 
             if (Objects.nonNull(define.getStaticMethodsInterceptPoints())) {
                 for (StaticMethodsInterceptPoint point : define.getStaticMethodsInterceptPoints()) {
                     if (point.isOverrideArgs()) {
-                        generateDelegator(
-                            classesTypeMap, typePool, define.getPluginName(),
-                            STATIC_METHOD_WITH_OVERRIDE_ARGS_DELEGATE_TEMPLATE, point.getMethodsInterceptor()
-                        );
+                        delegators.add(new Delegator(define.getPluginName(), STATIC_METHOD_WITH_OVERRIDE_ARGS_DELEGATE_TEMPLATE, point.getMethodsInterceptor()));
                     } else {
-                        generateDelegator(
-                            classesTypeMap, typePool, define.getPluginName(),
-                            STATIC_METHOD_DELEGATE_TEMPLATE, point.getMethodsInterceptor()
-                        );
+                        delegators.add(new Delegator(define.getPluginName(), STATIC_METHOD_DELEGATE_TEMPLATE, point.getMethodsInterceptor()));
                     }
                 }
             }
@@ -206,22 +203,15 @@ public class BootstrapInstrumentBoost {
     }
 
     private static boolean prepareJREInstrumentationV2(PluginFinder pluginFinder,
-                                                       Map<String, byte[]> classesTypeMap) throws PluginException {
-        TypePool typePool = TypePool.Default.of(BootstrapInstrumentBoost.class.getClassLoader());
+                                                       List<Delegator> delegators) throws PluginException {
         List<AbstractClassEnhancePluginDefine> bootstrapClassMatchDefines = pluginFinder.getBootstrapClassMatchDefine();
         for (AbstractClassEnhancePluginDefine define : bootstrapClassMatchDefines) {
             if (Objects.nonNull(define.getInstanceMethodsInterceptV2Points())) {
                 for (InstanceMethodsInterceptV2Point point : define.getInstanceMethodsInterceptV2Points()) {
                     if (point.isOverrideArgs()) {
-                        generateDelegator(
-                            classesTypeMap, typePool, define.getPluginName(),
-                            INSTANCE_METHOD_V2_WITH_OVERRIDE_ARGS_DELEGATE_TEMPLATE, point.getMethodsInterceptorV2()
-                        );
+                        delegators.add(new Delegator(define.getPluginName(), INSTANCE_METHOD_V2_WITH_OVERRIDE_ARGS_DELEGATE_TEMPLATE, point.getMethodsInterceptorV2()));
                     } else {
-                        generateDelegator(
-                            classesTypeMap, typePool, define.getPluginName(),
-                            INSTANCE_METHOD_V2_DELEGATE_TEMPLATE, point.getMethodsInterceptorV2()
-                        );
+                        delegators.add(new Delegator(define.getPluginName(), INSTANCE_METHOD_V2_DELEGATE_TEMPLATE, point.getMethodsInterceptorV2()));
                     }
                 }
             }
@@ -229,15 +219,9 @@ public class BootstrapInstrumentBoost {
             if (Objects.nonNull(define.getStaticMethodsInterceptV2Points())) {
                 for (StaticMethodsInterceptV2Point point : define.getStaticMethodsInterceptV2Points()) {
                     if (point.isOverrideArgs()) {
-                        generateDelegator(
-                            classesTypeMap, typePool, define.getPluginName(),
-                            STATIC_METHOD_V2_WITH_OVERRIDE_ARGS_DELEGATE_TEMPLATE, point.getMethodsInterceptorV2()
-                        );
+                        delegators.add(new Delegator(define.getPluginName(), STATIC_METHOD_V2_WITH_OVERRIDE_ARGS_DELEGATE_TEMPLATE, point.getMethodsInterceptorV2()));
                     } else {
-                        generateDelegator(
-                            classesTypeMap, typePool, define.getPluginName(),
-                            STATIC_METHOD_V2_DELEGATE_TEMPLATE, point.getMethodsInterceptorV2()
-                        );
+                        delegators.add(new Delegator(define.getPluginName(), STATIC_METHOD_V2_DELEGATE_TEMPLATE, point.getMethodsInterceptorV2()));
                     }
                 }
             }
@@ -250,29 +234,27 @@ public class BootstrapInstrumentBoost {
      * <p>
      * One key step to avoid class confliction between AppClassLoader and BootstrapClassLoader
      *
-     * @param classesTypeMap    hosts injected binary of generated class
-     * @param typePool          to generate new class
-     * @param templateClassName represents the class as template in this generation process. The templates are
-     *                          pre-defined in SkyWalking agent core.
+     * @param typePool  to generate new class
+     * @param delegator the template class and the interceptor of the delegator. The templates are pre-defined in
+     *                  SkyWalking agent core.
+     * @return the binary of the generated class
      */
-    private static void generateDelegator(Map<String, byte[]> classesTypeMap, TypePool typePool,
-        String pluginName, String templateClassName, String methodsInterceptor) {
-        String internalInterceptorName = internalDelegate(methodsInterceptor);
+    private static byte[] generateDelegator(TypePool typePool, Delegator delegator) {
         try {
-            TypeDescription templateTypeDescription = typePool.describe(templateClassName).resolve();
+            TypeDescription templateTypeDescription = typePool.describe(delegator.templateClassName).resolve();
 
             DynamicType.Unloaded interceptorType = new ByteBuddy().redefine(templateTypeDescription, ClassFileLocator.ForClassLoader
                 .of(BootstrapInstrumentBoost.class.getClassLoader()))
-                                                                  .name(internalInterceptorName)
+                                                                  .name(delegator.getInternalDelegateName())
                                                                   .field(named("PLUGIN_NAME"))
-                                                                  .value(pluginName)
+                                                                  .value(delegator.pluginName)
                                                                   .field(named("TARGET_INTERCEPTOR"))
-                                                                  .value(methodsInterceptor)
+                                                                  .value(delegator.methodsInterceptor)
                                                                   .make();
 
-            classesTypeMap.put(internalInterceptorName, interceptorType.getBytes());
-
             InstrumentDebuggingClass.INSTANCE.log(interceptorType);
+
+            return interceptorType.getBytes();
         } catch (Exception e) {
             throw new PluginException("Generate Dynamic plugin failure", e);
         }
@@ -314,4 +296,23 @@ public class BootstrapInstrumentBoost {
 
         loadedTypeMap.put(className, enhancedInstanceClassFile);
     }
+
+    /**
+     * The delegator to generate for an interceptor of the bootstrap instrumentation.
+     */
+    private static class Delegator {
+        private final String pluginName;
+        private final String templateClassName;
+        private final String methodsInterceptor;
+
+        private Delegator(String pluginName, String templateClassName, String methodsInterceptor) {
+            this.pluginName = pluginName;
+            this.templateClassName = templateClassName;
+            this.methodsInterceptor = methodsInterceptor;
+        }
+
+        private String getInternalDelegateName() {
+            return internalDelegate(methodsInterceptor);
+        }
+    }
 }
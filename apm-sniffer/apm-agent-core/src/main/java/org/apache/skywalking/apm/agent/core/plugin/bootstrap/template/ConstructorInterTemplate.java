@@ -62,6 +62,7 @@ public class ConstructorInterTemplate {
     @RuntimeType
     public static void intercept(@This Object obj, @AllArguments Object[] allArguments) {
         long interceptorTimeCost = 0L;
+        // the so11y bridge is ready after the preparation, so the start time is always taken
         long startTime = System.nanoTime();
         try {
             prepare();
@@ -76,8 +77,10 @@ public class ConstructorInterTemplate {
             LOGGER.error("ConstructorInter failure.", t);
             PLUGIN_SO11Y.error(PLUGIN_NAME, INTERCEPTOR_TYPE);
         }
-        interceptorTimeCost += System.nanoTime() - startTime;
-        PLUGIN_SO11Y.duration(interceptorTimeCost);
+        if (PLUGIN_SO11Y.sampleDuration()) {
+            interceptorTimeCost += System.nanoTime() - startTime;
+            PLUGIN_SO11Y.duration(interceptorTimeCost);
+        }
     }
 
     /**
@@ -76,8 +76,9 @@ public class InstanceMethodInterWithOverrideArgsTemplate {
 
         prepare();
 
+        boolean sampled = PLUGIN_SO11Y.sampleDuration();
         long interceptorTimeCost = 0L;
-        long startTimeOfMethodBeforeInter = System.nanoTime();
+        long startTimeOfMethodBeforeInter = sampled ? System.nanoTime() : 0L;
         MethodInterceptResult result = new MethodInterceptResult();
         try {
             if (INTERCEPTOR != null) {
@@ -89,7 +90,7 @@ public class InstanceMethodInterWithOverrideArgsTemplate {
             }
             PLUGIN_SO11Y.error(PLUGIN_NAME, INTERCEPTOR_TYPE);
         }
-        interceptorTimeCost += System.nanoTime() - startTimeOfMethodBeforeInter;
+        interceptorTimeCost += sampled ? System.nanoTime() - startTimeOfMethodBeforeInter : 0L;
 
         Object ret = null;
         try {
@@ -99,7 +100,7 @@ public class InstanceMethodInterWithOverrideArgsTemplate {
                 ret = zuper.call(allArguments);
             }
         } catch (Throwable t) {
-            long startTimeOfMethodHandleExceptionInter = System.nanoTime();
+            long startTimeOfMethodHandleExceptionInter = sampled ? System.nanoTime() : 0L;
             try {
                 if (INTERCEPTOR != null) {
                     INTERCEPTOR.handleMethodException(targetObject, method, allArguments, method.getParameterTypes(), t);
@@ -110,10 +111,10 @@ public class InstanceMethodInterWithOverrideArgsTemplate {
                 }
                 PLUGIN_SO11Y.error(PLUGIN_NAME, INTERCEPTOR_TYPE);
             }
-            interceptorTimeCost += System.nanoTime() - startTimeOfMethodHandleExceptionInter;
+            interceptorTimeCost += sampled ? System.nanoTime() - startTimeOfMethodHandleExceptionInter : 0L;
             throw t;
         } finally {
-            long startTimeOfMethodAfterInter = System.nanoTime();
+            long startTimeOfMethodAfterInter = sampled ? System.nanoTime() : 0L;
             try {
                 if (INTERCEPTOR != null) {
                     ret = INTERCEPTOR.afterMethod(targetObject, method, allArguments, method.getParameterTypes(), ret);
@@ -124,9 +125,11 @@ public class InstanceMethodInterWithOverrideArgsTemplate {
                 }
                 PLUGIN_SO11Y.error(PLUGIN_NAME, INTERCEPTOR_TYPE);
             }
-            interceptorTimeCost += System.nanoTime() - startTimeOfMethodAfterInter;
+            interceptorTimeCost += sampled ? System.nanoTime() - startTimeOfMethodAfterInter : 0L;
+        }
+        if (sampled) {
+            PLUGIN_SO11Y.duration(interceptorTimeCost);
         }
-        PLUGIN_SO11Y.duration(interceptorTimeCost);
 
         return ret;
     }
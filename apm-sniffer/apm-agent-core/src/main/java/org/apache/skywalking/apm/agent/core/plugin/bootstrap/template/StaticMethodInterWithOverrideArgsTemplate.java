@@ -72,8 +72,9 @@ public class StaticMethodInterWithOverrideArgsTemplate {
         @Morph OverrideCallable zuper) throws Throwable {
         prepare();
 
+        boolean sampled = PLUGIN_SO11Y.sampleDuration();
         long interceptorTimeCost = 0L;
-        long startTimeOfMethodBeforeInter = System.nanoTime();
+        long startTimeOfMethodBeforeInter = sampled ? System.nanoTime() : 0L;
         MethodInterceptResult result = new MethodInterceptResult();
         try {
             if (INTERCEPTOR != null) {
@@ -83,7 +84,7 @@ public class StaticMethodInterWithOverrideArgsTemplate {
             LOGGER.error(t, "class[{}] before static method[{}] intercept failure", clazz, method.getName());
             PLUGIN_SO11Y.error(PLUGIN_NAME, INTERCEPTOR_TYPE);
         }
-        interceptorTimeCost += System.nanoTime() - startTimeOfMethodBeforeInter;
+        interceptorTimeCost += sampled ? System.nanoTime() - startTimeOfMethodBeforeInter : 0L;
 
         Object ret = null;
         try {
@@ -93,7 +94,7 @@ public class StaticMethodInterWithOverrideArgsTemplate {
                 ret = zuper.call(allArguments);
             }
         } catch (Throwable t) {
-            long startTimeOfMethodHandleExceptionInter = System.nanoTime();
+            long startTimeOfMethodHandleExceptionInter = sampled ? System.nanoTime() : 0L;
             try {
                 if (INTERCEPTOR != null) {
                     INTERCEPTOR.handleMethodException(clazz, method, allArguments, method.getParameterTypes(), t);
@@ -102,10 +103,10 @@ public class StaticMethodInterWithOverrideArgsTemplate {
                 LOGGER.error(t2, "class[{}] handle static method[{}] exception failure", clazz, method.getName(), t2.getMessage());
                 PLUGIN_SO11Y.error(PLUGIN_NAME, INTERCEPTOR_TYPE);
             }
-            interceptorTimeCost += System.nanoTime() - startTimeOfMethodHandleExceptionInter;
+            interceptorTimeCost += sampled ? System.nanoTime() - startTimeOfMethodHandleExceptionInter : 0L;
             throw t;
         } finally {
-            long startTimeOfMethodAfterInter = System.nanoTime();
+            long startTimeOfMethodAfterInter = sampled ? System.nanoTime() : 0L;
             try {
                 if (INTERCEPTOR != null) {
                     ret = INTERCEPTOR.afterMethod(clazz, method, allArguments, method.getParameterTypes(), ret);
@@ -114,9 +115,11 @@ public class StaticMethodInterWithOverrideArgsTemplate {
                 LOGGER.error(t, "class[{}] after static method[{}] intercept failure:{}", clazz, method.getName(), t.getMessage());
                 PLUGIN_SO11Y.error(PLUGIN_NAME, INTERCEPTOR_TYPE);
             }
-            interceptorTimeCost += System.nanoTime() - startTimeOfMethodAfterInter;
+            interceptorTimeCost += sampled ? System.nanoTime() - startTimeOfMethodAfterInter : 0L;
+        }
+        if (sampled) {
+            PLUGIN_SO11Y.duration(interceptorTimeCost);
         }
-        PLUGIN_SO11Y.duration(interceptorTimeCost);
 
         return ret;
     }
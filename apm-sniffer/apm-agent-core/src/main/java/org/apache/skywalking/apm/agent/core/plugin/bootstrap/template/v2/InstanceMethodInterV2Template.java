@@ -68,8 +68,9 @@ public class InstanceMethodInterV2Template {
 
         prepare();
 
+        boolean sampled = PLUGIN_SO11Y.sampleDuration();
         long interceptorTimeCost = 0L;
-        long startTimeOfMethodBeforeInter = System.nanoTime();
+        long startTimeOfMethodBeforeInter = sampled ? System.nanoTime() : 0L;
         MethodInvocationContext context = new MethodInvocationContext();
         try {
             if (INTERCEPTOR != null) {
@@ -81,7 +82,7 @@ public class InstanceMethodInterV2Template {
             }
             PLUGIN_SO11Y.error(PLUGIN_NAME, INTERCEPTOR_TYPE);
         }
-        interceptorTimeCost += System.nanoTime() - startTimeOfMethodBeforeInter;
+        interceptorTimeCost += sampled ? System.nanoTime() - startTimeOfMethodBeforeInter : 0L;
 
         Object ret = null;
         try {
@@ -91,7 +92,7 @@ public class InstanceMethodInterV2Template {
                 ret = zuper.call();
             }
         } catch (Throwable t) {
-            long startTimeOfMethodHandleExceptionInter = System.nanoTime();
+            long startTimeOfMethodHandleExceptionInter = sampled ? System.nanoTime() : 0L;
             try {
                 if (INTERCEPTOR != null) {
                     INTERCEPTOR.handleMethodException(targetObject, method, allArguments, method.getParameterTypes(), t, context);
@@ -102,10 +103,10 @@ public class InstanceMethodInterV2Template {
                 }
                 PLUGIN_SO11Y.error(PLUGIN_NAME, INTERCEPTOR_TYPE);
             }
-            interceptorTimeCost += System.nanoTime() - startTimeOfMethodHandleExceptionInter;
+            interceptorTimeCost += sampled ? System.nanoTime() - startTimeOfMethodHandleExceptionInter : 0L;
             throw t;
         } finally {
-            long startTimeOfMethodAfterInter = System.nanoTime();
+            long startTimeOfMethodAfterInter = sampled ? System.nanoTime() : 0L;
             try {
                 if (INTERCEPTOR != null) {
                     ret = INTERCEPTOR.afterMethod(targetObject, method, allArguments, method.getParameterTypes(), ret, context);
@@ -116,9 +117,11 @@ public class InstanceMethodInterV2Template {
                 }
                 PLUGIN_SO11Y.error(PLUGIN_NAME, INTERCEPTOR_TYPE);
             }
-            interceptorTimeCost += System.nanoTime() - startTimeOfMethodAfterInter;
+            interceptorTimeCost += sampled ? System.nanoTime() - startTimeOfMethodAfterInter : 0L;
+        }
+        if (sampled) {
+            PLUGIN_SO11Y.duration(interceptorTimeCost);
         }
-        PLUGIN_SO11Y.duration(interceptorTimeCost);
 
         return ret;
     }
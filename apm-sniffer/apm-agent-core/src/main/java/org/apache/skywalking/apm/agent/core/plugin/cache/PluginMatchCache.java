@@ -0,0 +1,342 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.cache;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.plugin.AbstractClassEnhancePluginDefine;
+import org.apache.skywalking.apm.util.StringUtil;
+
+/**
+ * The on-disk cache of the plugin matching results, to speed up the agent start when the application restarts. It
+ * records two kinds of results:
+ * <p>
+ * 1. The types checked by the signature matchers (HierarchyMatch, ClassAnnotationMatch, RegexMatch...), with the
+ * plugin defines matching them. The types matching no define are recorded with none.
+ * <p>
+ * 2. The plugin defines and the enhanced types passing the witness class and witness method checks.
+ * <p>
+ * The first line of the cache file is the format version and the fingerprint, which is calculated from the agent
+ * version, the JVM version, the active plugin defines, and the path, size and last modified time of every entry of the
+ * application classpath. The whole cache is invalidated when the fingerprint changes, and rewritten at the next save.
+ * <p>
+ * The results are keyed by the code source location of the type plus the type name, see {@link #cacheKeyOf
+ * (ProtectionDomain, String)}. Only the types loaded from a classpath entry, or from an archive nested in one, are
+ * cached, as the fingerprint covers their content, e.g. the {@code BOOT-INF/lib} jars and {@code BOOT-INF/classes} of a
+ * Spring Boot fat jar loaded by its {@code LaunchedURLClassLoader}. The types loaded from the other locations, e.g. the
+ * web applications deployed into a container, are not cached.
+ */
+public enum PluginMatchCache {
+    INSTANCE;
+
+    private static final ILog LOGGER = LogManager.getLogger(PluginMatchCache.class);
+    private static final String FORMAT_VERSION = "v2";
+    private static final String SIGNATURE_MATCH = "S";
+    private static final String WITNESS_PASSED = "W";
+    private static final String[] NO_DEFINES = new String[0];
+
+    private volatile Store store;
+
+    /**
+     * Load the cache from plugin.match_cache_path, the cache is disabled when the path is empty.
+     */
+    public void load(List<AbstractClassEnhancePluginDefine> plugins) {
+        if (StringUtil.isEmpty(Config.Plugin.MATCH_CACHE_PATH)) {
+            store = null;
+            return;
+        }
+        String classpath = System.getProperty("java.class.path", "");
+        load(new File(Config.Plugin.MATCH_CACHE_PATH), fingerprint(plugins, classpath), classpathEntries(classpath));
+    }
+
+    void load(File file, String fingerprint, Set<String> classpathEntries) {
+        Store loaded = new Store(file, fingerprint, classpathEntries);
+        if (file.exists()) {
+            try {
+                loaded.read();
+            } catch (Exception e) {
+                LOGGER.warn(e, "Plugin match cache {} can't be read, rebuild it.", file);
+                loaded = new Store(file, fingerprint, classpathEntries);
+            }
+        }
+        store = loaded;
+    }
+
+    void disable() {
+        store = null;
+    }
+
+    public boolean isEnabled() {
+        return store != null;
+    }
+
+    /**
+     * The results are keyed by the code source location rather than the class loader, as the same type name could be
+     * loaded from different locations, e.g. a different library version in every web application, while the types of
+     * the nested jars of a fat jar are loaded by its own class loader rather than the system one. The location is only
+     * cached when it is, or is nested in, a classpath entry covered by the fingerprint, as its content can't change
+     * without invalidating the cache.
+     *
+     * @return the key of the type in the cache, null if the matching results of it can't be read from or recorded in
+     * the cache.
+     */
+    public String cacheKeyOf(ProtectionDomain protectionDomain, String typeName) {
+        Store current = store;
+        if (current == null || protectionDomain == null) {
+            return null;
+        }
+        CodeSource codeSource = protectionDomain.getCodeSource();
+        if (codeSource == null || codeSource.getLocation() == null) {
+            return null;
+        }
+        return current.isOnClasspath(codeSource.getLocation())
+            ? codeSource.getLocation().toString() + '|' + typeName : null;
+    }
+
+    /**
+     * @return the class names of the signature matched plugin defines of the type, empty if no define matched, null if
+     * the type is not cached.
+     */
+    public String[] signatureMatchOf(String cacheKey) {
+        Store current = store;
+        return current == null ? null : current.signatureMatches.get(cacheKey);
+    }
+
+    public void recordSignatureMatch(String cacheKey, List<String> defineClassNames) {
+        Store current = store;
+        if (current == null || current.signatureMatches.size() >= Config.Plugin.MATCH_CACHE_MAX_TYPES) {
+            return;
+        }
+        String[] defines = defineClassNames.isEmpty() ? NO_DEFINES : defineClassNames.toArray(NO_DEFINES);
+        if (current.signatureMatches.putIfAbsent(cacheKey, defines) == null) {
+            current.dirty.set(true);
+        }
+    }
+
+    public boolean isWitnessPassed(String defineClassName, String cacheKey) {
+        Store current = store;
+        return current != null && current.witnessPassed.contains(witnessKey(defineClassName, cacheKey));
+    }
+
+    public void recordWitnessPassed(String defineClassName, String cacheKey) {
+        Store current = store;
+        if (current != null && current.witnessPassed.add(witnessKey(defineClassName, cacheKey))) {
+            current.dirty.set(true);
+        }
+    }
+
+    /**
+     * Write the cache file when there are new results since the last save.
+     */
+    public void save() {
+        Store current = store;
+        if (current == null || !current.dirty.compareAndSet(true, false)) {
+            return;
+        }
+        try {
+            current.write();
+        } catch (IOException e) {
+            current.dirty.set(true);
+            LOGGER.warn(e, "Plugin match cache {} can't be saved.", current.file);
+        }
+    }
+
+    private static String witnessKey(String defineClassName, String cacheKey) {
+        return defineClassName + '\t' + cacheKey;
+    }
+
+    /**
+     * @param location the code source location, e.g. {@code file:/app/lib/a.jar}, {@code
+     *                 jar:file:/app.jar!/BOOT-INF/lib/a.jar!/} of the Spring Boot loader before 3.2, or {@code
+     *                 jar:nested:/app.jar/!BOOT-INF/lib/a.jar!/} of the later ones.
+     * @return the {@code file:} URI of the outermost archive containing the location, null if it is not a local file.
+     */
+    static String outermostArchiveOf(String location) {
+        String archive = location;
+        while (archive.startsWith("jar:")) {
+            archive = archive.substring("jar:".length());
+            int separator = archive.indexOf("!/");
+            if (separator >= 0) {
+                archive = archive.substring(0, separator);
+            }
+        }
+        if (archive.startsWith("nested:")) {
+            int separator = archive.indexOf("/!");
+            archive = "file:" + archive.substring("nested:".length(), separator >= 0 ? separator : archive.length());
+        }
+        return archive.startsWith("file:") ? archive : null;
+    }
+
+    static Set<String> classpathEntries(String classpath) {
+        Set<String> entries = new HashSet<>();
+        for (String entry : classpath.split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                entries.add(new File(entry).getAbsolutePath());
+            }
+        }
+        return entries;
+    }
+
+    static String fingerprint(List<AbstractClassEnhancePluginDefine> plugins, String classpath) {
+        List<String> defines = new ArrayList<>(plugins.size());
+        for (AbstractClassEnhancePluginDefine plugin : plugins) {
+            defines.add(plugin.getClass().getName());
+        }
+        Collections.sort(defines);
+
+        StringBuilder source = new StringBuilder();
+        source.append(FORMAT_VERSION).append('\n')
+              .append(Config.Agent.VERSION).append('\n')
+              .append(System.getProperty("java.vm.version")).append('\n');
+        for (String define : defines) {
+            source.append(define).append('\n');
+        }
+        for (String entry : classpath.split(File.pathSeparator)) {
+            if (entry.isEmpty()) {
+                continue;
+            }
+            File file = new File(entry);
+            source.append(file.getAbsolutePath()).append('|')
+                  .append(file.length()).append('|')
+                  .append(file.lastModified()).append('\n');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                                         .digest(source.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Store {
+        private final File file;
+        private final String fingerprint;
+        private final Map<String, String[]> signatureMatches = new ConcurrentHashMap<>();
+        private final Set<String> witnessPassed = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean dirty = new AtomicBoolean(false);
+        private final Set<String> classpathEntries;
+        private final Map<String, Boolean> onClasspathLocations = new ConcurrentHashMap<>();
+
+        private Store(File file, String fingerprint, Set<String> classpathEntries) {
+            this.file = file;
+            this.fingerprint = fingerprint;
+            this.classpathEntries = classpathEntries;
+        }
+
+        private boolean isOnClasspath(URL location) {
+            return onClasspathLocations.computeIfAbsent(location.toString(), key -> {
+                String archive = outermostArchiveOf(key);
+                if (archive == null) {
+                    return false;
+                }
+                try {
+                    return classpathEntries.contains(new File(new URI(archive)).getAbsolutePath());
+                } catch (URISyntaxException | IllegalArgumentException e) {
+                    return false;
+                }
+            });
+        }
+
+        private void read() throws IOException {
+            try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                String header = reader.readLine();
+                if (!(FORMAT_VERSION + ' ' + fingerprint).equals(header)) {
+                    LOGGER.info("Plugin match cache {} is invalidated by the changed agent, plugins or classpath.", file);
+                    dirty.set(true);
+                    return;
+                }
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] fields = line.split("\t", -1);
+                    if (fields.length != 3) {
+                        throw new IOException("Illegal line: " + line);
+                    }
+                    if (SIGNATURE_MATCH.equals(fields[0])) {
+                        signatureMatches.put(fields[1], fields[2].isEmpty() ? NO_DEFINES : fields[2].split(","));
+                    } else if (WITNESS_PASSED.equals(fields[0])) {
+                        witnessPassed.add(witnessKey(fields[1], fields[2]));
+                    } else {
+                        throw new IOException("Illegal line: " + line);
+                    }
+                }
+            }
+            LOGGER.info(
+                "Plugin match cache {} loaded, {} types and {} witness checks.", file, signatureMatches.size(),
+                witnessPassed.size()
+            );
+        }
+
+        private void write() throws IOException {
+            Path target = file.getAbsoluteFile().toPath();
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), file.getName(), ".tmp");
+            try {
+                try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    writer.write(FORMAT_VERSION + ' ' + fingerprint);
+                    writer.newLine();
+                    for (Map.Entry<String, String[]> entry : signatureMatches.entrySet()) {
+                        writer.write(SIGNATURE_MATCH + '\t' + entry.getKey() + '\t' + String.join(",", entry.getValue()));
+                        writer.newLine();
+                    }
+                    for (String key : witnessPassed) {
+                        writer.write(WITNESS_PASSED + '\t' + key);
+                        writer.newLine();
+                    }
+                }
+                try {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+}
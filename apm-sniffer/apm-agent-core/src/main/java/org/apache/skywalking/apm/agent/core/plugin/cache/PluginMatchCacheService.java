@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.cache;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.boot.AgentScheduler;
+import org.apache.skywalking.apm.agent.core.boot.BootService;
+import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+
+/**
+ * Save the {@link PluginMatchCache} periodically and at shutdown, as the classes keep loading after the agent
+ * started.
+ */
+@DefaultImplementor
+public class PluginMatchCacheService implements BootService {
+    private static final ILog LOGGER = LogManager.getLogger(PluginMatchCacheService.class);
+    private volatile AgentScheduler.ScheduledTask saveFuture;
+
+    @Override
+    public void prepare() throws Throwable {
+
+    }
+
+    @Override
+    public void boot() throws Throwable {
+        if (!PluginMatchCache.INSTANCE.isEnabled()) {
+            return;
+        }
+        saveFuture = ServiceManager.INSTANCE.findService(AgentScheduler.class).scheduleWithFixedDelay(
+            "PluginMatchCacheService", PluginMatchCache.INSTANCE::save,
+            Config.Plugin.MATCH_CACHE_SAVE_PERIOD, Config.Plugin.MATCH_CACHE_SAVE_PERIOD, TimeUnit.SECONDS
+        );
+    }
+
+    @Override
+    public void onComplete() throws Throwable {
+
+    }
+
+    @Override
+    public void shutdown() throws Throwable {
+        if (saveFuture != null) {
+            saveFuture.cancel();
+        }
+        PluginMatchCache.INSTANCE.save();
+    }
+}
@@ -64,8 +64,9 @@ public class ConstructorInter {
      */
     @RuntimeType
     public void intercept(@This Object obj, @AllArguments Object[] allArguments) {
+        boolean sampled = AgentSo11y.sampleInterceptorDuration();
         long interceptorTimeCost = 0L;
-        long startTime = System.nanoTime();
+        long startTime = sampled ? System.nanoTime() : 0L;
         try {
             EnhancedInstance targetObject = (EnhancedInstance) obj;
 
@@ -74,7 +75,9 @@ public class ConstructorInter {
             LOGGER.error("ConstructorInter failure.", t);
             AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
         }
-        interceptorTimeCost += System.nanoTime() - startTime;
-        AgentSo11y.durationOfInterceptor(interceptorTimeCost);
+        interceptorTimeCost += sampled ? System.nanoTime() - startTime : 0L;
+        if (sampled) {
+            AgentSo11y.durationOfInterceptor(interceptorTimeCost);
+        }
     }
 }
@@ -22,6 +22,7 @@ import net.bytebuddy.description.modifier.Visibility;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.dynamic.DynamicType;
 import net.bytebuddy.implementation.FieldAccessor;
+import net.bytebuddy.implementation.LoadedTypeInitializer;
 import net.bytebuddy.implementation.MethodDelegation;
 import net.bytebuddy.implementation.SuperMethodCall;
 import net.bytebuddy.implementation.bind.annotation.Morph;
@@ -39,10 +40,13 @@ import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.Construct
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.DelegateNamingResolver;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.OverrideCallable;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v3.InstMethodsAdviceBinder;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v3.InstMethodsInterV3;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.ConstructorInterceptV2Point;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.DeclaredInstanceMethodsInterceptV2Point;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.InstanceMethodsInterceptV2Point;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.StaticMethodsInterceptV2Point;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.v3.InstanceMethodsInterceptV3Point;
 import org.apache.skywalking.apm.util.StringUtil;
 
 import static net.bytebuddy.jar.asm.Opcodes.ACC_PRIVATE;
@@ -173,7 +177,16 @@ public abstract class ClassEnhancePluginDefineV2 extends AbstractClassEnhancePlu
                 if (instanceMethodsInterceptV2Point instanceof DeclaredInstanceMethodsInterceptV2Point) {
                     junction = junction.and(ElementMatchers.<MethodDescription>isDeclaredBy(typeDescription));
                 }
-                if (instanceMethodsInterceptV2Point.isOverrideArgs()) {
+                if (instanceMethodsInterceptV2Point instanceof InstanceMethodsInterceptV3Point && !isBootstrapInstrumentation()) {
+                    String interceptorFieldName = fieldNamingResolver.resolve(instanceMethodsInterceptV2Point);
+                    newClassBuilder = newClassBuilder.defineField(
+                        interceptorFieldName, InstMethodsInterV3.class, InstMethodsAdviceBinder.INTERCEPTOR_FIELD_MODIFIERS)
+                                                     .initializer(new LoadedTypeInitializer.ForStaticField(
+                                                         interceptorFieldName, new InstMethodsInterV3(getPluginName(), interceptor, classLoader)))
+                                                     .method(junction)
+                                                     .intercept(InstMethodsAdviceBinder.of(
+                                                         typeDescription, interceptorFieldName, instanceMethodsInterceptV2Point.isOverrideArgs()));
+                } else if (instanceMethodsInterceptV2Point.isOverrideArgs()) {
                     if (isBootstrapInstrumentation()) {
                         newClassBuilder = newClassBuilder.method(junction)
                                                          .intercept(MethodDelegation.withDefaultConfiguration()
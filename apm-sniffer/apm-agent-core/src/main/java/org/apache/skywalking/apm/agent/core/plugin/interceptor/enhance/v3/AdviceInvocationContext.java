@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v3;
+
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2.MethodInvocationContext;
+
+/**
+ * The {@link MethodInvocationContext} of an advice dispatched invocation, it also carries the arguments and the time
+ * cost of the interceptor from the enter advice to the exit advice. One is created per call.
+ */
+public class AdviceInvocationContext extends MethodInvocationContext {
+    final Object[] allArguments;
+    final boolean sampled;
+    long interceptorTimeCost;
+
+    AdviceInvocationContext(Object[] allArguments, boolean sampled) {
+        this.allArguments = allArguments;
+        this.sampled = sampled;
+    }
+}
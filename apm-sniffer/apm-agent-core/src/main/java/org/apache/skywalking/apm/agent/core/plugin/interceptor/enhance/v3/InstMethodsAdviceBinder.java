@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v3;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.field.FieldDescription;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.method.ParameterDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.SuperMethodCall;
+import net.bytebuddy.implementation.bytecode.StackManipulation;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
+import net.bytebuddy.implementation.bytecode.constant.MethodConstant;
+import net.bytebuddy.implementation.bytecode.member.FieldAccess;
+import net.bytebuddy.implementation.bytecode.member.MethodInvocation;
+import net.bytebuddy.jar.asm.MethodVisitor;
+
+import static net.bytebuddy.jar.asm.Opcodes.ACC_PRIVATE;
+import static net.bytebuddy.jar.asm.Opcodes.ACC_STATIC;
+import static net.bytebuddy.jar.asm.Opcodes.ACC_VOLATILE;
+
+/**
+ * Binds the parameters of {@link InstMethodsAdviceV3} and {@link InstMethodsAdviceV3WithOverrideArgs} for one intercept
+ * point of one enhanced class.
+ * <ul>
+ * <li>{@link Interceptor} reads the static field holding the {@link InstMethodsInterV3} of the intercept point.</li>
+ * <li>{@link OriginMethod} and {@link ArgumentTypes} read static fields of the enhanced class, which are initialized
+ * once by its type initializer, instead of the reflection of every invocation.</li>
+ * </ul>
+ */
+public final class InstMethodsAdviceBinder {
+    /**
+     * The modifiers of the field holding the {@link InstMethodsInterV3}.
+     */
+    public static final int INTERCEPTOR_FIELD_MODIFIERS = ACC_PRIVATE | ACC_STATIC | ACC_VOLATILE;
+
+    private static final MethodDescription.InDefinedShape GET_PARAMETER_TYPES;
+
+    static {
+        try {
+            GET_PARAMETER_TYPES = new MethodDescription.ForLoadedMethod(Method.class.getMethod("getParameterTypes"));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private InstMethodsAdviceBinder() {
+    }
+
+    /**
+     * @param enhancedType         the class being enhanced.
+     * @param interceptorFieldName the static field of the enhanced class holding the {@link InstMethodsInterV3}.
+     * @return the implementation of the intercepted methods, the advice wrapping the call of the origin method.
+     */
+    public static Implementation of(TypeDescription enhancedType, String interceptorFieldName, boolean isOverrideArgs) {
+        FieldDescription interceptorField = new FieldDescription.Latent(
+            enhancedType, interceptorFieldName, INTERCEPTOR_FIELD_MODIFIERS,
+            TypeDescription.Generic.OfNonGenericType.ForLoadedType.of(InstMethodsInterV3.class),
+            Collections.<AnnotationDescription>emptyList()
+        );
+        return Advice.withCustomMapping()
+                     .bind(Interceptor.class, interceptorField)
+                     .bind(new CachedConstantFactory<>(OriginMethod.class, Method.class))
+                     .bind(new CachedConstantFactory<>(ArgumentTypes.class, Class[].class))
+                     .to(isOverrideArgs ? InstMethodsAdviceV3WithOverrideArgs.class : InstMethodsAdviceV3.class, InstMethodsAdviceV3.class)
+                     .wrap(SuperMethodCall.INSTANCE);
+    }
+
+    /**
+     * The {@link InstMethodsInterV3} of the intercept point.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.PARAMETER)
+    public @interface Interceptor {
+    }
+
+    /**
+     * The intercepted {@link Method}.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.PARAMETER)
+    public @interface OriginMethod {
+    }
+
+    /**
+     * The parameter types of the intercepted method.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.PARAMETER)
+    public @interface ArgumentTypes {
+    }
+
+    /**
+     * Binds the annotated parameter to a static field of the enhanced class, holding the {@link Method} or its
+     * parameter types.
+     */
+    private static class CachedConstantFactory<T extends java.lang.annotation.Annotation> implements Advice.OffsetMapping.Factory<T> {
+        private final Class<T> annotationType;
+        private final Class<?> constantType;
+
+        private CachedConstantFactory(Class<T> annotationType, Class<?> constantType) {
+            this.annotationType = annotationType;
+            this.constantType = constantType;
+        }
+
+        @Override
+        public Class<T> getAnnotationType() {
+            return annotationType;
+        }
+
+        @Override
+        public Advice.OffsetMapping make(ParameterDescription.InDefinedShape target,
+                                         AnnotationDescription.Loadable<T> annotation,
+                                         AdviceType adviceType) {
+            if (!target.getType().asErasure().represents(constantType)) {
+                throw new IllegalStateException("Cannot bind " + annotationType.getSimpleName() + " to " + target);
+            }
+            return new Advice.OffsetMapping() {
+                @Override
+                public Target resolve(TypeDescription instrumentedType, MethodDescription instrumentedMethod,
+                                      Assigner assigner, Advice.ArgumentHandler argumentHandler, Sort sort) {
+                    StackManipulation value = constantType == Method.class
+                        ? MethodConstant.of(instrumentedMethod.asDefined())
+                        : new StackManipulation.Compound(
+                            MethodConstant.of(instrumentedMethod.asDefined()),
+                            MethodInvocation.invoke(GET_PARAMETER_TYPES)
+                        );
+                    return new Target.ForStackManipulation(new CachedValue(value, TypeDescription.ForLoadedType.of(constantType)));
+                }
+            };
+        }
+    }
+
+    /**
+     * Reads a value computed once by the type initializer of the enhanced class.
+     */
+    private static class CachedValue extends StackManipulation.AbstractBase {
+        private final StackManipulation value;
+        private final TypeDescription type;
+
+        private CachedValue(StackManipulation value, TypeDescription type) {
+            this.value = value;
+            this.type = type;
+        }
+
+        @Override
+        public Size apply(MethodVisitor methodVisitor, Implementation.Context implementationContext) {
+            return FieldAccess.forField(implementationContext.cache(value, type)).read().apply(methodVisitor, implementationContext);
+        }
+    }
+}
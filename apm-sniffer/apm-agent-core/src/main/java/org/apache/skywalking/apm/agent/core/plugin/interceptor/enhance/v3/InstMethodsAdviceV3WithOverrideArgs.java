@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v3;
+
+import java.lang.reflect.Method;
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v3.InstMethodsAdviceBinder.ArgumentTypes;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v3.InstMethodsAdviceBinder.Interceptor;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v3.InstMethodsAdviceBinder.OriginMethod;
+
+/**
+ * The enter advice of the intercept points overriding the arguments, the arguments changed by the interceptor are
+ * written back to the parameters of the origin method. The exit advice is {@link InstMethodsAdviceV3#exit}.
+ */
+public class InstMethodsAdviceV3WithOverrideArgs {
+    private InstMethodsAdviceV3WithOverrideArgs() {
+    }
+
+    @Advice.OnMethodEnter(skipOn = SkippedInvocation.class)
+    public static Object enter(@Advice.This Object obj,
+                               @Advice.AllArguments(readOnly = false, typing = Assigner.Typing.DYNAMIC) Object[] allArguments,
+                               @OriginMethod Method method,
+                               @ArgumentTypes Class<?>[] argumentsTypes,
+                               @Interceptor InstMethodsInterV3 interceptor) {
+        Object invocation = interceptor.beforeMethod(obj, method, allArguments, argumentsTypes);
+        allArguments = InstMethodsInterV3.argumentsOf(invocation);
+        return invocation;
+    }
+}
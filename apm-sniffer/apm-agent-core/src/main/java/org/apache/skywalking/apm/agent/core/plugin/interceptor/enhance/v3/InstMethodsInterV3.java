@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v3;
+
+import java.lang.reflect.Method;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.plugin.PluginException;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2.InstanceMethodsAroundInterceptorV2;
+import org.apache.skywalking.apm.agent.core.plugin.loader.InterceptorInstanceLoader;
+import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
+
+/**
+ * The bridge between the advice inlined into the enhanced methods, {@link InstMethodsAdviceV3}, and the plugin's
+ * {@link InstanceMethodsAroundInterceptorV2}. One instance is kept in a static field of the enhanced class for every
+ * intercept point. The methods are public, as they are called by the code of the enhanced class.
+ */
+public class InstMethodsInterV3 {
+    private static final ILog LOGGER = LogManager.getLogger(InstMethodsInterV3.class);
+
+    private static final String INTERCEPTOR_TYPE = "inst";
+
+    private final String pluginName;
+    private final InstanceMethodsAroundInterceptorV2 interceptor;
+
+    public InstMethodsInterV3(String pluginName, String instanceMethodsAroundInterceptorClassName, ClassLoader classLoader) {
+        this.pluginName = pluginName;
+        try {
+            interceptor = InterceptorInstanceLoader.load(instanceMethodsAroundInterceptorClassName, classLoader);
+        } catch (Throwable t) {
+            throw new PluginException("Can't create InstanceMethodsAroundInterceptor.", t);
+        }
+    }
+
+    /**
+     * @return the invocation passed to {@link #afterMethod}, a {@link SkippedInvocation} if the origin method should
+     * not be executed.
+     */
+    public Object beforeMethod(Object obj, Method method, Object[] allArguments, Class<?>[] argumentsTypes) {
+        boolean sampled = AgentSo11y.sampleInterceptorDuration();
+        long startTimeOfMethodBeforeInter = sampled ? System.nanoTime() : 0L;
+        AdviceInvocationContext context = new AdviceInvocationContext(allArguments, sampled);
+        try {
+            interceptor.beforeMethod((EnhancedInstance) obj, method, allArguments, argumentsTypes, context);
+        } catch (Throwable t) {
+            LOGGER.error(t, "class[{}] before method[{}] intercept failure", obj.getClass(), method.getName());
+            AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
+        }
+        context.interceptorTimeCost = sampled ? System.nanoTime() - startTimeOfMethodBeforeInter : 0L;
+        return context.isContinue() ? context : new SkippedInvocation(context);
+    }
+
+    /**
+     * @param invocation the value returned by {@link #beforeMethod}
+     * @param ret        the return value of the origin method
+     * @param throwable  the exception thrown by the origin method, null if it returned normally.
+     * @return the method's actual return value, ignored if the origin method threw an exception.
+     */
+    public Object afterMethod(Object obj, Method method, Class<?>[] argumentsTypes, Object invocation, Object ret,
+                              Throwable throwable) {
+        EnhancedInstance targetObject = (EnhancedInstance) obj;
+        AdviceInvocationContext context;
+        if (invocation instanceof SkippedInvocation) {
+            context = ((SkippedInvocation) invocation).context;
+            ret = context._ret();
+        } else {
+            context = (AdviceInvocationContext) invocation;
+        }
+
+        if (throwable != null) {
+            ret = null;
+            long startTimeOfMethodHandleExceptionInter = context.sampled ? System.nanoTime() : 0L;
+            try {
+                interceptor.handleMethodException(
+                    targetObject, method, context.allArguments, argumentsTypes, throwable, context);
+            } catch (Throwable t) {
+                LOGGER.error(t, "class[{}] handle method[{}] exception failure", obj.getClass(), method.getName());
+                AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
+            }
+            context.interceptorTimeCost += context.sampled ? System.nanoTime() - startTimeOfMethodHandleExceptionInter : 0L;
+        }
+
+        long startTimeOfMethodAfterInter = context.sampled ? System.nanoTime() : 0L;
+        try {
+            ret = interceptor.afterMethod(targetObject, method, context.allArguments, argumentsTypes, ret, context);
+        } catch (Throwable t) {
+            LOGGER.error(t, "class[{}] after method[{}] intercept failure", obj.getClass(), method.getName());
+            AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
+        }
+        context.interceptorTimeCost += context.sampled ? System.nanoTime() - startTimeOfMethodAfterInter : 0L;
+        if (context.sampled) {
+            AgentSo11y.durationOfInterceptor(context.interceptorTimeCost);
+        }
+
+        return ret;
+    }
+
+    /**
+     * @return the arguments of the invocation, which may have been overridden by the interceptor.
+     */
+    public static Object[] argumentsOf(Object invocation) {
+        if (invocation instanceof SkippedInvocation) {
+            return ((SkippedInvocation) invocation).context.allArguments;
+        }
+        return ((AdviceInvocationContext) invocation).allArguments;
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.v3;
+
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2.InstanceMethodsAroundInterceptorV2;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.InstanceMethodsInterceptV2Point;
+
+/**
+ * An {@link InstanceMethodsInterceptV2Point} whose {@link InstanceMethodsAroundInterceptorV2} is dispatched by advice
+ * code inlined into the intercepted methods, instead of delegating to an interceptor object through a {@code Callable}
+ * of the origin method. The parameter types and the {@link java.lang.reflect.Method} are resolved once per method,
+ * when the enhanced class is initialized. The arguments array and the {@link
+ * org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2.MethodInvocationContext} are still created per
+ * call, as the v2 interceptor takes them.
+ * <p>
+ * The interceptor is the same as a v2 one, so a plugin opts in by implementing this interface instead of {@link
+ * InstanceMethodsInterceptV2Point}. Bootstrap instrumentation keeps the v2 delegation.
+ */
+public interface InstanceMethodsInterceptV3Point extends InstanceMethodsInterceptV2Point {
+}
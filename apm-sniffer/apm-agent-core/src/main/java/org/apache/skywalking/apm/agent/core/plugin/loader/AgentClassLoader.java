@@ -18,20 +18,24 @@
 
 package org.apache.skywalking.apm.agent.core.plugin.loader;
 
-import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
-import java.util.Iterator;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
-import lombok.RequiredArgsConstructor;
 import org.apache.skywalking.apm.agent.core.boot.AgentPackageNotFoundException;
 import org.apache.skywalking.apm.agent.core.boot.AgentPackagePath;
 import org.apache.skywalking.apm.agent.core.boot.PluginConfig;
@@ -60,8 +64,9 @@ public class AgentClassLoader extends ClassLoader {
     private static AgentClassLoader DEFAULT_LOADER;
 
     private List<File> classpath;
-    private List<Jar> allJars;
+    private volatile JarIndex jarIndex;
     private ReentrantLock jarScanLock = new ReentrantLock();
+    private final Map<String, List<URL>> resourcesCache = new ConcurrentHashMap<>();
 
     public static AgentClassLoader getDefault() {
         return DEFAULT_LOADER;
@@ -94,26 +99,24 @@ public class AgentClassLoader extends ClassLoader {
         Config.Plugin.MOUNT.forEach(mountFolder -> classpath.add(new File(agentDictionary, mountFolder)));
     }
 
+    /**
+     * 从指定的文件夹加载 jar，用于测试及基准测试
+     */
+    AgentClassLoader(ClassLoader parent, List<File> classpath) {
+        super(parent);
+        this.classpath = new LinkedList<>(classpath);
+    }
+
     @Override
     protected Class<?> findClass(String name) throws ClassNotFoundException {
-        List<Jar> allJars = getAllJars();
         String path = name.replace('.', '/').concat(".class");
-        for (Jar jar : allJars) {
+        for (Jar jar : getJarIndex().jarsOf(path)) {
             JarEntry entry = jar.jarFile.getJarEntry(path);
             if (entry == null) {
                 continue;
             }
             try {
-                URL classFileUrl = new URL("jar:file:" + jar.sourceFile.getAbsolutePath() + "!/" + path);
-                byte[] data;
-                try (final BufferedInputStream is = new BufferedInputStream(
-                    classFileUrl.openStream()); final ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-                    int ch;
-                    while ((ch = is.read()) != -1) {
-                        baos.write(ch);
-                    }
-                    data = baos.toByteArray();
-                }
+                byte[] data = jar.read(entry);
                 return processLoadedClass(defineClass(name, data, 0, data.length));
             } catch (IOException e) {
                 LOGGER.error(e, "find class fail.");
@@ -124,12 +127,11 @@ public class AgentClassLoader extends ClassLoader {
 
     @Override
     protected URL findResource(String name) {
-        List<Jar> allJars = getAllJars();
-        for (Jar jar : allJars) {
+        for (Jar jar : getJarIndex().jarsOf(name)) {
             JarEntry entry = jar.jarFile.getJarEntry(name);
             if (entry != null) {
                 try {
-                    return new URL("jar:file:" + jar.sourceFile.getAbsolutePath() + "!/" + name);
+                    return jar.urlOf(name);
                 } catch (MalformedURLException ignored) {
                 }
             }
@@ -137,29 +139,35 @@ public class AgentClassLoader extends ClassLoader {
         return null;
     }
 
+    /**
+     * 插件 jar 在运行期间不会变化，同名资源的查找结果会被缓存，例如每个插件 jar 中的 skywalking-plugin.def
+     */
     @Override
     protected Enumeration<URL> findResources(String name) throws IOException {
-        List<URL> allResources = new LinkedList<>();
-        List<Jar> allJars = getAllJars();
-        for (Jar jar : allJars) {
-            JarEntry entry = jar.jarFile.getJarEntry(name);
-            if (entry != null) {
-                allResources.add(new URL("jar:file:" + jar.sourceFile.getAbsolutePath() + "!/" + name));
+        List<URL> allResources = resourcesCache.get(name);
+        if (allResources == null) {
+            allResources = new ArrayList<>();
+            for (Jar jar : getJarIndex().jarsOf(name)) {
+                JarEntry entry = jar.jarFile.getJarEntry(name);
+                if (entry != null) {
+                    allResources.add(jar.urlOf(name));
+                }
             }
+            allResources = Collections.unmodifiableList(allResources);
+            resourcesCache.putIfAbsent(name, allResources);
         }
+        return Collections.enumeration(allResources);
+    }
 
-        final Iterator<URL> iterator = allResources.iterator();
-        return new Enumeration<URL>() {
-            @Override
-            public boolean hasMoreElements() {
-                return iterator.hasNext();
-            }
-
-            @Override
-            public URL nextElement() {
-                return iterator.next();
+    /**
+     * 关闭已扫描的 jar，用于测试及基准测试
+     */
+    void closeJars() throws IOException {
+        if (jarIndex != null) {
+            for (Jar jar : jarIndex.jars) {
+                jar.jarFile.close();
             }
-        };
+        }
     }
 
     private Class<?> processLoadedClass(Class<?> loadedClass) {
@@ -174,19 +182,19 @@ public class AgentClassLoader extends ClassLoader {
         return loadedClass;
     }
 
-    private List<Jar> getAllJars() {
-        if (allJars == null) {
+    private JarIndex getJarIndex() {
+        if (jarIndex == null) {
             jarScanLock.lock();
             try {
-                if (allJars == null) {
-                    allJars = doGetJars();
+                if (jarIndex == null) {
+                    jarIndex = new JarIndex(doGetJars());
                 }
             } finally {
                 jarScanLock.unlock();
             }
         }
 
-        return allJars;
+        return jarIndex;
     }
 
     private LinkedList<Jar> doGetJars() {
@@ -209,9 +217,79 @@ public class AgentClassLoader extends ClassLoader {
         return jars;
     }
 
-    @RequiredArgsConstructor
+    /**
+     * 包路径到 jar 的索引，在扫描 jar 时一次性建立。查找类或资源时只需检查包含该包路径的 jar，而不是依次检查所有 jar。
+     * 每个包路径对应的 jar 保持扫描顺序。
+     */
+    private static class JarIndex {
+        private final List<Jar> jars;
+        private final Map<String, List<Jar>> jarsByPackage = new HashMap<>();
+
+        private JarIndex(List<Jar> jars) {
+            this.jars = jars;
+            for (Jar jar : jars) {
+                Enumeration<JarEntry> entries = jar.jarFile.entries();
+                while (entries.hasMoreElements()) {
+                    List<Jar> packageJars = jarsByPackage.computeIfAbsent(
+                        packageOf(entries.nextElement().getName()), key -> new ArrayList<>(1));
+                    if (packageJars.isEmpty() || packageJars.get(packageJars.size() - 1) != jar) {
+                        packageJars.add(jar);
+                    }
+                }
+            }
+        }
+
+        private List<Jar> jarsOf(String entryName) {
+            return jarsByPackage.getOrDefault(packageOf(entryName), Collections.emptyList());
+        }
+
+        private static String packageOf(String entryName) {
+            int index = entryName.lastIndexOf('/');
+            return index < 0 ? "" : entryName.substring(0, index);
+        }
+    }
+
     private static class Jar {
         private final JarFile jarFile;
         private final File sourceFile;
+        private final String urlPrefix;
+
+        private Jar(JarFile jarFile, File sourceFile) {
+            this.jarFile = jarFile;
+            this.sourceFile = sourceFile;
+            this.urlPrefix = "jar:file:" + sourceFile.getAbsolutePath() + "!/";
+        }
+
+        private URL urlOf(String name) throws MalformedURLException {
+            return new URL(urlPrefix + name);
+        }
+
+        /**
+         * 直接从已打开的 JarFile 中按块读取条目内容，条目大小已知时一次分配完整的数组
+         */
+        private byte[] read(JarEntry entry) throws IOException {
+            try (InputStream is = jarFile.getInputStream(entry)) {
+                long size = entry.getSize();
+                if (size >= 0 && size < Integer.MAX_VALUE) {
+                    byte[] data = new byte[(int) size];
+                    int offset = 0;
+                    while (offset < data.length) {
+                        int read = is.read(data, offset, data.length - offset);
+                        if (read < 0) {
+                            throw new EOFException(entry.getName() + " in " + sourceFile + " is truncated");
+                        }
+                        offset += read;
+                    }
+                    return data;
+                }
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = is.read(buffer)) != -1) {
+                    baos.write(buffer, 0, read);
+                }
+                return baos.toByteArray();
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -81,6 +81,10 @@ public class MethodAnnotationMatch implements IndirectMatch {
         return isAnnotatedWith(named(annotationName));
     }
 
+    public String[] getAnnotations() {
+        return annotations;
+    }
+
     public static IndirectMatch byMethodAnnotationMatch(String... annotations) {
         return new MethodAnnotationMatch(annotations);
     }
@@ -20,7 +20,9 @@ package org.apache.skywalking.apm.agent.core.profile;
 
 import io.grpc.Channel;
 import io.grpc.stub.StreamObserver;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
@@ -101,8 +103,9 @@ public class ProfileSnapshotSender implements BootService, GRPCChannelListener {
                         }
                     }
                 );
+                final Map<String, ThreadSnapshot> lastSnapshots = new HashMap<>();
                 for (TracingThreadSnapshot snapshot : buffer) {
-                    final ThreadSnapshot transformSnapshot = snapshot.transform();
+                    final ThreadSnapshot transformSnapshot = snapshot.transform(lastSnapshots);
                     snapshotStreamObserver.onNext(transformSnapshot);
                 }
 
@@ -24,13 +24,11 @@ import io.grpc.StatusRuntimeException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.boot.AgentScheduler;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.commands.CommandService;
 import org.apache.skywalking.apm.agent.core.conf.Config;
@@ -43,7 +41,6 @@ import org.apache.skywalking.apm.network.common.v3.Commands;
 import org.apache.skywalking.apm.network.language.profile.v3.ProfileTaskCommandQuery;
 import org.apache.skywalking.apm.network.language.profile.v3.ProfileTaskFinishReport;
 import org.apache.skywalking.apm.network.language.profile.v3.ProfileTaskGrpc;
-import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.Collector.GRPC_UPSTREAM_TIMEOUT;
 
@@ -66,10 +63,10 @@ public class ProfileTaskChannelService implements BootService, Runnable, GRPCCha
     // segment snapshot sender
     private final BlockingQueue<TracingThreadSnapshot> snapshotQueue = new LinkedBlockingQueue<>(
         Config.Profile.SNAPSHOT_TRANSPORT_BUFFER_SIZE);
-    private volatile ScheduledFuture<?> sendSnapshotFuture;
+    private volatile AgentScheduler.ScheduledTask sendSnapshotFuture;
 
     // query task list schedule
-    private volatile ScheduledFuture<?> getTaskListFuture;
+    private volatile AgentScheduler.ScheduledTask getTaskListFuture;
 
     private ProfileSnapshotSender sender;
 
@@ -99,12 +96,12 @@ public class ProfileTaskChannelService implements BootService, Runnable, GRPCCha
                 if (statusRuntimeException.getStatus().getCode() == Status.Code.UNIMPLEMENTED) {
                     LOGGER.warn("Backend doesn't support profiling, profiling will be disabled");
                     if (getTaskListFuture != null) {
-                        getTaskListFuture.cancel(true);
+                        getTaskListFuture.cancel();
                     }
 
                     // stop snapshot sender
                     if (sendSnapshotFuture != null) {
-                        sendSnapshotFuture.cancel(true);
+                        sendSnapshotFuture.cancel();
                     }
                 }
             }
@@ -122,28 +119,18 @@ public class ProfileTaskChannelService implements BootService, Runnable, GRPCCha
 
         if (Config.Profile.ACTIVE) {
             // query task list
-            getTaskListFuture = Executors.newSingleThreadScheduledExecutor(
-                new DefaultNamedThreadFactory("ProfileGetTaskService")
-            ).scheduleWithFixedDelay(
-                new RunnableWithExceptionProtection(
-                    this,
-                    t -> LOGGER.error("Query profile task list failure.", t)
-                ), 0, Config.Collector.GET_PROFILE_TASK_INTERVAL, TimeUnit.SECONDS
+            getTaskListFuture = ServiceManager.INSTANCE.findService(AgentScheduler.class).scheduleWithFixedDelay(
+                "ProfileGetTaskService", this, 0, Config.Collector.GET_PROFILE_TASK_INTERVAL, TimeUnit.SECONDS
             );
 
-            sendSnapshotFuture = Executors.newSingleThreadScheduledExecutor(
-                new DefaultNamedThreadFactory("ProfileSendSnapshotService")
-            ).scheduleWithFixedDelay(
-                new RunnableWithExceptionProtection(
-                    () -> {
-                        List<TracingThreadSnapshot> buffer = new ArrayList<>(Config.Profile.SNAPSHOT_TRANSPORT_BUFFER_SIZE);
-                        snapshotQueue.drainTo(buffer);
-                        if (!buffer.isEmpty()) {
-                            sender.send(buffer);
-                        }
-                    },
-                    t -> LOGGER.error("Profile segment snapshot upload failure.", t)
-                ), 0, 500, TimeUnit.MILLISECONDS
+            sendSnapshotFuture = ServiceManager.INSTANCE.findService(AgentScheduler.class).scheduleWithFixedDelay(
+                "ProfileSendSnapshotService", () -> {
+                    List<TracingThreadSnapshot> buffer = new ArrayList<>(Config.Profile.SNAPSHOT_TRANSPORT_BUFFER_SIZE);
+                    snapshotQueue.drainTo(buffer);
+                    if (!buffer.isEmpty()) {
+                        sender.send(buffer);
+                    }
+                }, 0, 500, TimeUnit.MILLISECONDS
             );
         }
     }
@@ -155,11 +142,11 @@ public class ProfileTaskChannelService implements BootService, Runnable, GRPCCha
     @Override
     public void shutdown() {
         if (getTaskListFuture != null) {
-            getTaskListFuture.cancel(true);
+            getTaskListFuture.cancel();
         }
 
         if (sendSnapshotFuture != null) {
-            sendSnapshotFuture.cancel(true);
+            sendSnapshotFuture.cancel();
         }
     }
 
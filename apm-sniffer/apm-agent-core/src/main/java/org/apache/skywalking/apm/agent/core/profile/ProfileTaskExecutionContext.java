@@ -46,6 +46,9 @@ public class ProfileTaskExecutionContext {
     // total started profiling tracing context count
     private final AtomicInteger totalStartedProfilingCount = new AtomicInteger(0);
 
+    // interned stack frames of the dumped threads
+    private final StackFrameDictionary frameDictionary = new StackFrameDictionary(Config.Profile.FRAME_DICTIONARY_SIZE);
+
     public ProfileTaskExecutionContext(ProfileTask task) {
         this.task = task;
         profilingSegmentSlots = new AtomicReferenceArray<>(Config.Profile.MAX_PARALLEL * (Config.Profile.MAX_ACCEPT_SUB_PARALLEL + 1));
@@ -163,6 +166,10 @@ public class ProfileTaskExecutionContext {
         return profilingSegmentSlots;
     }
 
+    public StackFrameDictionary frameDictionary() {
+        return frameDictionary;
+    }
+
     public boolean isStartProfileable() {
         // check is out of max sampling count check
         return totalStartedProfilingCount.incrementAndGet() <= task.getMaxSamplingCount();
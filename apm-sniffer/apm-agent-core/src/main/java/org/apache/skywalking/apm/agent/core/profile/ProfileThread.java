@@ -19,9 +19,15 @@
 package org.apache.skywalking.apm.agent.core.profile;
 
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
@@ -60,6 +66,59 @@ public class ProfileThread implements Runnable {
 
     }
 
+    /**
+     * Dump the stacks of all the profiling threads in one safepoint operation, fallback to dump them one by one if the
+     * {@link ThreadMXBean} fails.
+     */
+    private void dumpInBatch(ProfileTaskExecutionContext executionContext, List<ThreadProfiler> profilingProfilers) {
+        final long[] threadIds = new long[profilingProfilers.size()];
+        for (int i = 0; i < threadIds.length; i++) {
+            threadIds[i] = profilingProfilers.get(i).profilingThreadId();
+        }
+
+        StackTraceElement[][] stackTraces;
+        try {
+            stackTraces = dumpStackTraces(ManagementFactory.getThreadMXBean(), threadIds, Config.Profile.DUMP_MAX_STACK_DEPTH);
+        } catch (Exception e) {
+            LOGGER.warn(e, "Dump the profiling threads in batch fail, dump them one by one.");
+            stackTraces = null;
+        }
+
+        for (int i = 0; i < threadIds.length; i++) {
+            final ThreadProfiler profiler = profilingProfilers.get(i);
+            addSnapshot(
+                executionContext, profiler,
+                stackTraces == null ? profiler.buildSnapshot() : profiler.buildSnapshot(stackTraces[i])
+            );
+        }
+    }
+
+    private void addSnapshot(ProfileTaskExecutionContext executionContext, ThreadProfiler profiler,
+                             TracingThreadSnapshot snapshot) {
+        if (snapshot != null) {
+            profileTaskChannelService.addProfilingSnapshot(snapshot);
+        } else {
+            // tell execution context current tracing thread dump failed, stop it
+            executionContext.stopTracingProfile(profiler.tracingContext());
+        }
+    }
+
+    /**
+     * Dump the stacks of the threads by one {@link ThreadMXBean#getThreadInfo(long[], int)} call, which is a single
+     * safepoint operation rather than one per thread.
+     *
+     * @return the stacks in the order of the thread ids, empty for the finished threads
+     */
+    static StackTraceElement[][] dumpStackTraces(ThreadMXBean threadMXBean, long[] threadIds, int maxDepth) {
+        final ThreadInfo[] threadInfos = threadMXBean.getThreadInfo(threadIds, maxDepth);
+        final StackTraceElement[][] stackTraces = new StackTraceElement[threadIds.length][];
+        for (int i = 0; i < threadIds.length; i++) {
+            final ThreadInfo threadInfo = threadInfos[i];
+            stackTraces[i] = threadInfo == null ? new StackTraceElement[0] : threadInfo.getStackTrace();
+        }
+        return stackTraces;
+    }
+
     /**
      * start profiling
      */
@@ -75,6 +134,7 @@ public class ProfileThread implements Runnable {
             // each all slot
             AtomicReferenceArray<ThreadProfiler> profilers = executionContext.threadProfilerSlots();
             int profilerCount = profilers.length();
+            List<ThreadProfiler> profilingProfilers = new ArrayList<>(profilerCount);
             for (int slot = 0; slot < profilerCount; slot++) {
                 ThreadProfiler currentProfiler = profilers.get(slot);
                 if (currentProfiler == null) {
@@ -89,19 +149,22 @@ public class ProfileThread implements Runnable {
                         break;
 
                     case PROFILING:
-                        // dump stack
-                        TracingThreadSnapshot snapshot = currentProfiler.buildSnapshot();
-                        if (snapshot != null) {
-                            profileTaskChannelService.addProfilingSnapshot(snapshot);
+                        if (Config.Profile.BATCH_THREAD_DUMP) {
+                            // dump stack with the other profiling threads
+                            profilingProfilers.add(currentProfiler);
                         } else {
-                            // tell execution context current tracing thread dump failed, stop it
-                            executionContext.stopTracingProfile(currentProfiler.tracingContext());
+                            // dump stack
+                            addSnapshot(executionContext, currentProfiler, currentProfiler.buildSnapshot());
                         }
                         break;
 
                 }
             }
 
+            if (!profilingProfilers.isEmpty()) {
+                dumpInBatch(executionContext, profilingProfilers);
+            }
+
             // sleep to next period
             // if out of period, sleep one period
             long needToSleep = (currentLoopStartTime + maxSleepPeriod) - System.currentTimeMillis();
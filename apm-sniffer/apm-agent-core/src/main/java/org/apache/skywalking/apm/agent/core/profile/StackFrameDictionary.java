@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.profile;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+
+/**
+ * Interns the dumped stack frames of a profile task, each distinct {@link StackTraceElement} gets an int id and its
+ * code signature is built only once. Only the profile thread of the task encodes the stacks, the code signatures are
+ * read by the sender after the snapshots are published through the snapshot queue.
+ * <p>
+ * The dictionary is bounded, once it is full, it starts over with a new generation, the snapshots encoded in the
+ * former generation keep referring to their own {@link #signatures() signatures}.
+ */
+public class StackFrameDictionary {
+    private final int capacity;
+
+    private Map<StackTraceElement, Integer> frameIds;
+    private String[] signatures;
+    private int size;
+    private int generation;
+
+    public StackFrameDictionary(int capacity) {
+        this.capacity = Math.max(capacity, Config.Profile.DUMP_MAX_STACK_DEPTH);
+        startGeneration();
+    }
+
+    /**
+     * Encode the top frames of the stack, in the inverted order as the thread dump starts with the bottom.
+     *
+     * @param stackTrace the dumped stack
+     * @param count      the number of the top frames to encode
+     * @param ids        filled with the ids of the frames, from the bottom to the top
+     * @return the code signatures of the ids, indexed by the id
+     */
+    public String[] encode(StackTraceElement[] stackTrace, int count, int[] ids) {
+        if (size + count > capacity) {
+            // the stack may not fit in, start over rather than mixing the ids of two generations
+            startGeneration();
+        }
+        for (int i = 0; i < count; i++) {
+            ids[i] = intern(stackTrace[count - 1 - i]);
+        }
+        return signatures;
+    }
+
+    /**
+     * @return the code signatures of the current generation, indexed by the id
+     */
+    public String[] signatures() {
+        return signatures;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the generation of the ids, the ids of different generations can't be compared
+     */
+    public int generation() {
+        return generation;
+    }
+
+    private int intern(StackTraceElement element) {
+        final Integer id = frameIds.get(element);
+        if (id != null) {
+            return id;
+        }
+        if (size == signatures.length) {
+            // the snapshots encoded before keep the former array, which has all the ids they use
+            signatures = Arrays.copyOf(signatures, Math.min(signatures.length * 2, capacity));
+        }
+        signatures[size] = buildStackElementCodeSignature(element);
+        frameIds.put(element, size);
+        return size++;
+    }
+
+    private void startGeneration() {
+        frameIds = new HashMap<>();
+        signatures = new String[Math.min(256, capacity)];
+        size = 0;
+        generation++;
+    }
+
+    /**
+     * build thread stack element code signature
+     *
+     * @return code sign: className.methodName:lineNumber
+     */
+    private static String buildStackElementCodeSignature(StackTraceElement element) {
+        return element.getClassName() + "." + element.getMethodName() + ":" + element.getLineNumber();
+    }
+}
@@ -19,7 +19,7 @@
 package org.apache.skywalking.apm.agent.core.profile;
 
 import com.google.common.base.Objects;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.TracingContext;
@@ -43,6 +43,9 @@ public class ThreadProfiler {
     private final ProfileStatusContext profilingStatus;
     // thread dump sequence
     private int dumpSequence = 0;
+    // frame ids of the last dumped stack, and the generation of the frame dictionary they belong to
+    private int[] lastFrames;
+    private int lastFramesGeneration;
 
     public ThreadProfiler(TracingContext tracingContext, String traceSegmentId, Thread profilingThread,
         ProfileTaskExecutionContext executionContext) {
@@ -87,20 +90,33 @@ public class ThreadProfiler {
             return null;
         }
 
-        long currentTime = System.currentTimeMillis();
         // dump thread
         StackTraceElement[] stackTrace;
         try {
             stackTrace = profilingThread.getStackTrace();
-
-            // stack depth is zero, means thread is already run finished
-            if (stackTrace.length == 0) {
-                return null;
-            }
         } catch (Exception e) {
             // dump error ignore and make this profiler stop
             return null;
         }
+        return buildSnapshot(stackTrace);
+    }
+
+    /**
+     * build thread snapshot from the stack dumped in batch with the other profiling threads
+     *
+     * @param stackTrace the dumped stack of {@link #profilingThreadId()}, empty if the thread is finished
+     * @return snapshot, if null means dump snapshot error, should stop it
+     */
+    public TracingThreadSnapshot buildSnapshot(StackTraceElement[] stackTrace) {
+        if (!isProfilingContinuable()) {
+            return null;
+        }
+
+        long currentTime = System.currentTimeMillis();
+        // stack depth is zero, means thread is already run finished
+        if (stackTrace == null || stackTrace.length == 0) {
+            return null;
+        }
 
         // if is first dump, check is can start profiling
         if (dumpSequence == 0 && !executionContext.isStartProfileable()) {
@@ -110,22 +126,42 @@ public class ThreadProfiler {
         int dumpElementCount = Math.min(stackTrace.length, Config.Profile.DUMP_MAX_STACK_DEPTH);
 
         // use inverted order, because thread dump is start with bottom
-        final ArrayList<String> stackList = new ArrayList<>(dumpElementCount);
-        for (int i = dumpElementCount - 1; i >= 0; i--) {
-            stackList.add(buildStackElementCodeSignature(stackTrace[i]));
+        final StackFrameDictionary frameDictionary = executionContext.frameDictionary();
+        final int[] frames = new int[dumpElementCount];
+        final String[] signatures = frameDictionary.encode(stackTrace, dumpElementCount, frames);
+
+        // encode as a delta from the last stack, when their ids are from the same generation
+        final int[] previousFrames = lastFrames != null && lastFramesGeneration == frameDictionary.generation()
+            ? lastFrames : null;
+        final int commonFrames = commonFrames(previousFrames, frames);
+        final int[] newFrames;
+        if (previousFrames != null && commonFrames == previousFrames.length && commonFrames == frames.length) {
+            // same stack, keep the last frames to share them with the next snapshot
+            newFrames = null;
+        } else {
+            newFrames = Arrays.copyOfRange(frames, commonFrames, frames.length);
+            lastFrames = frames;
+            lastFramesGeneration = frameDictionary.generation();
         }
 
         String taskId = executionContext.getTask().getTaskId();
-        return new TracingThreadSnapshot(taskId, traceSegmentId, dumpSequence++, currentTime, stackList);
+        return new TracingThreadSnapshot(
+            taskId, traceSegmentId, dumpSequence++, currentTime, signatures, previousFrames, commonFrames, newFrames);
     }
 
     /**
-     * build thread stack element code signature
-     *
-     * @return code sign: className.methodName:lineNumber
+     * @return the number of the frames in common from the bottom
      */
-    private String buildStackElementCodeSignature(StackTraceElement element) {
-        return element.getClassName() + "." + element.getMethodName() + ":" + element.getLineNumber();
+    private static int commonFrames(int[] previousFrames, int[] frames) {
+        if (previousFrames == null) {
+            return 0;
+        }
+        final int length = Math.min(previousFrames.length, frames.length);
+        int common = 0;
+        while (common < length && previousFrames[common] == frames[common]) {
+            common++;
+        }
+        return common;
     }
 
     /**
@@ -145,6 +181,10 @@ public class ThreadProfiler {
         return System.currentTimeMillis() - profilingStartTime < profilingMaxTimeMills;
     }
 
+    public long profilingThreadId() {
+        return profilingThread.getId();
+    }
+
     public TracingContext tracingContext() {
         return tracingContext;
     }
@@ -18,11 +18,17 @@
 
 package org.apache.skywalking.apm.agent.core.profile;
 
-import java.util.List;
+import java.util.Map;
 import org.apache.skywalking.apm.network.language.profile.v3.ThreadSnapshot;
 import org.apache.skywalking.apm.network.language.profile.v3.ThreadStack;
 
+/**
+ * The stack is encoded as a delta from the former snapshot of the same thread, the frames in common from the bottom are
+ * shared with the former stack, and only the new top frames are kept, as the frame ids of the {@link
+ * StackFrameDictionary}.
+ */
 public class TracingThreadSnapshot {
+    private static final int[] NO_FRAMES = new int[0];
 
     // thread profiler
     private final String taskId;
@@ -31,24 +37,72 @@ public class TracingThreadSnapshot {
     // dump info
     private final int sequence;
     private final long time;
-    private final List<String> stackList;
 
+    // stack, bottom first
+    private final String[] signatures;
+    private final int[] previousFrames;
+    private final int commonFrames;
+    private final int[] newFrames;
+
+    /**
+     * @param signatures     the code signatures of the frame ids
+     * @param previousFrames the frame ids of the former stack of the same thread, null if it is the first one
+     * @param commonFrames   the number of the bottom frames in common with the former stack
+     * @param newFrames      the frame ids above the common frames
+     */
     public TracingThreadSnapshot(String taskId,
                                  String traceSegmentId,
                                  int sequence,
                                  long time,
-                                 List<String> stackList) {
+                                 String[] signatures,
+                                 int[] previousFrames,
+                                 int commonFrames,
+                                 int[] newFrames) {
         this.taskId = taskId;
         this.traceSegmentId = traceSegmentId;
         this.sequence = sequence;
         this.time = time;
-        this.stackList = stackList;
+        this.signatures = signatures;
+        this.previousFrames = previousFrames;
+        this.commonFrames = commonFrames;
+        this.newFrames = newFrames == null ? NO_FRAMES : newFrames;
+    }
+
+    /**
+     * @return true if the stack is the same as the former snapshot of the same thread
+     */
+    public boolean isStackUnchanged() {
+        return previousFrames != null && commonFrames == previousFrames.length && newFrames.length == 0;
     }
 
     /**
      * transform to gRPC data
      */
     public ThreadSnapshot transform() {
+        return transform(transformStack());
+    }
+
+    /**
+     * transform to gRPC data, reuse the stack transformed for the former snapshot of the same thread in the batch if
+     * it is unchanged. The stack is only reused when the former snapshot is the dump right before this one, as the
+     * snapshots in between could be dropped when the transport buffer is full.
+     *
+     * @param lastSnapshots the last transformed snapshot of the trace segments in the batch
+     */
+    public ThreadSnapshot transform(Map<String, ThreadSnapshot> lastSnapshots) {
+        final ThreadSnapshot lastSnapshot = lastSnapshots.get(traceSegmentId);
+        final ThreadStack stack;
+        if (isStackUnchanged() && lastSnapshot != null && lastSnapshot.getSequence() == sequence - 1) {
+            stack = lastSnapshot.getStack();
+        } else {
+            stack = transformStack();
+        }
+        final ThreadSnapshot snapshot = transform(stack);
+        lastSnapshots.put(traceSegmentId, snapshot);
+        return snapshot;
+    }
+
+    private ThreadSnapshot transform(ThreadStack stack) {
         final ThreadSnapshot.Builder builder = ThreadSnapshot.newBuilder();
         // task id
         builder.setTaskId(taskId);
@@ -59,13 +113,20 @@ public class TracingThreadSnapshot {
         // snapshot dump sequence
         builder.setSequence(sequence);
         // snapshot stack
-        final ThreadStack.Builder stackBuilder = ThreadStack.newBuilder();
-        for (String codeSign : stackList) {
-            stackBuilder.addCodeSignatures(codeSign);
-        }
-        builder.setStack(stackBuilder);
+        builder.setStack(stack);
 
         return builder.build();
     }
 
+    private ThreadStack transformStack() {
+        final ThreadStack.Builder stackBuilder = ThreadStack.newBuilder();
+        for (int i = 0; i < commonFrames; i++) {
+            stackBuilder.addCodeSignatures(signatures[previousFrames[i]]);
+        }
+        for (int frame : newFrames) {
+            stackBuilder.addCodeSignatures(signatures[frame]);
+        }
+        return stackBuilder.build();
+    }
+
 }
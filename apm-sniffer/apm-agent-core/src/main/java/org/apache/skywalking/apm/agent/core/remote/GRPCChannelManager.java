@@ -28,19 +28,17 @@ import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.apache.skywalking.apm.agent.core.boot.AgentScheduler;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
-import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 import org.apache.skywalking.apm.util.StringUtil;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.Collector.IS_RESOLVE_DNS_PERIODICALLY;
@@ -50,7 +48,7 @@ public class GRPCChannelManager implements BootService, Runnable {
     private static final ILog LOGGER = LogManager.getLogger(GRPCChannelManager.class);
 
     private volatile GRPCChannel managedChannel = null;
-    private volatile ScheduledFuture<?> connectCheckFuture;
+    private volatile AgentScheduler.ScheduledTask connectCheckFuture;
     private volatile boolean reconnect = true;
     private final Random random = new Random();
     private final List<GRPCChannelListener> listeners = Collections.synchronizedList(new LinkedList<>());
@@ -71,13 +69,9 @@ public class GRPCChannelManager implements BootService, Runnable {
             return;
         }
         grpcServers = Arrays.asList(Config.Collector.BACKEND_SERVICE.split(","));
-        connectCheckFuture = Executors.newSingleThreadScheduledExecutor(
-            new DefaultNamedThreadFactory("GRPCChannelManager")
-        ).scheduleAtFixedRate(
-            new RunnableWithExceptionProtection(
-                this,
-                t -> LOGGER.error("unexpected exception.", t)
-            ), 0, Config.Collector.GRPC_CHANNEL_CHECK_INTERVAL, TimeUnit.SECONDS
+        // on its own worker, as the tasks calling the collector could hold all the shared workers while it's unreachable
+        connectCheckFuture = ServiceManager.INSTANCE.findService(AgentScheduler.class).scheduleAtFixedRateOnOwnWorker(
+            "GRPCChannelManager", this, 0, Config.Collector.GRPC_CHANNEL_CHECK_INTERVAL, TimeUnit.SECONDS
         );
     }
 
@@ -89,7 +83,7 @@ public class GRPCChannelManager implements BootService, Runnable {
     @Override
     public void shutdown() {
         if (connectCheckFuture != null) {
-            connectCheckFuture.cancel(true);
+            connectCheckFuture.cancel();
         }
         if (managedChannel != null) {
             managedChannel.shutdownNow();
@@ -49,6 +49,8 @@ public class LogReportServiceClient implements BootService, GRPCChannelListener,
 
     private volatile LogReportServiceGrpc.LogReportServiceStub logReportServiceStub;
 
+    private SpillQueueService spillQueueService;
+
     @Override
     public void prepare() throws Throwable {
         ServiceManager.INSTANCE.findService(GRPCChannelManager.class).addChannelListener(this);
@@ -56,6 +58,7 @@ public class LogReportServiceClient implements BootService, GRPCChannelListener,
 
     @Override
     public void boot() throws Throwable {
+        spillQueueService = ServiceManager.INSTANCE.findService(SpillQueueService.class);
         carrier = new DataCarrier<>("gRPC-log", "gRPC-log",
                                     Config.Buffer.CHANNEL_SIZE,
                                     Config.Buffer.BUFFER_SIZE,
@@ -130,6 +133,8 @@ public class LogReportServiceClient implements BootService, GRPCChannelListener,
             }
             logDataStreamObserver.onCompleted();
             status.wait4Finish();
+        } else if (spillQueueService != null && spillQueueService.isActive()) {
+            spillQueueService.spillLogs(dataList);
         }
     }
 
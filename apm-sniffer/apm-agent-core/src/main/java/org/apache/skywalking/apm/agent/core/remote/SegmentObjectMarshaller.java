@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import com.google.protobuf.CodedOutputStream;
+import io.grpc.Drainable;
+import io.grpc.KnownLength;
+import io.grpc.MethodDescriptor;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.apache.skywalking.apm.agent.core.context.trace.SegmentObjectEncoder;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.network.common.v3.Commands;
+import org.apache.skywalking.apm.network.language.agent.v3.TraceSegmentReportServiceGrpc;
+
+/**
+ * Marshal the {@link TraceSegment} as <code>SegmentObject</code> by {@link SegmentObjectEncoder}, the segment is
+ * encoded into the transport buffer when gRPC drains the stream, no intermediate message or byte array is created.
+ */
+public class SegmentObjectMarshaller implements MethodDescriptor.Marshaller<TraceSegment> {
+    /**
+     * Same as {@link TraceSegmentReportServiceGrpc#getCollectMethod()}, but takes the {@link TraceSegment} directly.
+     */
+    public static final MethodDescriptor<TraceSegment, Commands> COLLECT_METHOD =
+        TraceSegmentReportServiceGrpc.getCollectMethod().toBuilder(
+            new SegmentObjectMarshaller(),
+            TraceSegmentReportServiceGrpc.getCollectMethod().getResponseMarshaller()
+        ).build();
+
+    @Override
+    public InputStream stream(TraceSegment segment) {
+        return new SegmentInputStream(new SegmentObjectEncoder(segment));
+    }
+
+    @Override
+    public TraceSegment parse(InputStream stream) {
+        throw new UnsupportedOperationException("TraceSegment is only sent from agent to OAP.");
+    }
+
+    /**
+     * Like the protobuf stream of gRPC, it is drained to the transport in most cases, and the bytes are only
+     * materialized when it is read as a normal stream, e.g. by the in-process transport.
+     */
+    static class SegmentInputStream extends InputStream implements Drainable, KnownLength {
+        private SegmentObjectEncoder encoder;
+        private ByteArrayInputStream partial;
+
+        SegmentInputStream(SegmentObjectEncoder encoder) {
+            this.encoder = encoder;
+        }
+
+        @Override
+        public int drainTo(OutputStream target) throws IOException {
+            int written;
+            if (encoder != null) {
+                written = encoder.getSerializedSize();
+                CodedOutputStream output = CodedOutputStream.newInstance(
+                    target, Math.min(CodedOutputStream.DEFAULT_BUFFER_SIZE, written));
+                encoder.writeTo(output);
+                output.flush();
+                encoder = null;
+            } else if (partial != null) {
+                written = partial.available();
+                byte[] remaining = new byte[written];
+                partial.read(remaining, 0, written);
+                target.write(remaining);
+                partial = null;
+            } else {
+                written = 0;
+            }
+            return written;
+        }
+
+        @Override
+        public int read() {
+            materialize();
+            return partial == null ? -1 : partial.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            materialize();
+            return partial == null ? -1 : partial.read(b, off, len);
+        }
+
+        @Override
+        public int available() {
+            if (encoder != null) {
+                return encoder.getSerializedSize();
+            }
+            return partial == null ? 0 : partial.available();
+        }
+
+        private void materialize() {
+            if (encoder != null) {
+                partial = new ByteArrayInputStream(encoder.toByteArray());
+                encoder = null;
+            }
+        }
+    }
+}
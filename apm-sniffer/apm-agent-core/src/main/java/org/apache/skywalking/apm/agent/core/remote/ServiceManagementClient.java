@@ -20,13 +20,11 @@ package org.apache.skywalking.apm.agent.core.remote;
 
 import io.grpc.Channel;
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.apm.agent.core.boot.AgentScheduler;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.commands.CommandService;
 import org.apache.skywalking.apm.agent.core.conf.Config;
@@ -40,7 +38,6 @@ import org.apache.skywalking.apm.network.common.v3.KeyStringValuePair;
 import org.apache.skywalking.apm.network.management.v3.InstancePingPkg;
 import org.apache.skywalking.apm.network.management.v3.InstanceProperties;
 import org.apache.skywalking.apm.network.management.v3.ManagementServiceGrpc;
-import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.Collector.GRPC_UPSTREAM_TIMEOUT;
 
@@ -51,7 +48,7 @@ public class ServiceManagementClient implements BootService, Runnable, GRPCChann
 
     private volatile GRPCChannelStatus status = GRPCChannelStatus.DISCONNECT;
     private volatile ManagementServiceGrpc.ManagementServiceBlockingStub managementServiceBlockingStub;
-    private volatile ScheduledFuture<?> heartbeatFuture;
+    private volatile AgentScheduler.ScheduledTask heartbeatFuture;
     private volatile AtomicInteger sendPropertiesCounter = new AtomicInteger(0);
 
     @Override
@@ -74,14 +71,8 @@ public class ServiceManagementClient implements BootService, Runnable, GRPCChann
 
     @Override
     public void boot() {
-        heartbeatFuture = Executors.newSingleThreadScheduledExecutor(
-            new DefaultNamedThreadFactory("ServiceManagementClient")
-        ).scheduleAtFixedRate(
-            new RunnableWithExceptionProtection(
-                this,
-                t -> LOGGER.error("unexpected exception.", t)
-            ), 0, Config.Collector.HEARTBEAT_PERIOD,
-            TimeUnit.SECONDS
+        heartbeatFuture = ServiceManager.INSTANCE.findService(AgentScheduler.class).scheduleAtFixedRate(
+            "ServiceManagementClient", this, 0, Config.Collector.HEARTBEAT_PERIOD, TimeUnit.SECONDS
         );
     }
 
@@ -91,7 +82,7 @@ public class ServiceManagementClient implements BootService, Runnable, GRPCChann
 
     @Override
     public void shutdown() {
-        heartbeatFuture.cancel(true);
+        heartbeatFuture.cancel();
     }
 
     @Override
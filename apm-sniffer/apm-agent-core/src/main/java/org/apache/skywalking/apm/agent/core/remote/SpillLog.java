@@ -0,0 +1,389 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+
+/**
+ * A bounded, append-only log of the encoded records which can't be sent to the collector. The records are appended to
+ * the newest file of the directory, and read from the oldest one, the files are rolled at {@code maxSize / 8}.
+ * <p>
+ * A record is <code>[length:int][type:byte][time:long][payload]</code>. The oldest files are deleted once the total
+ * size is more than {@code maxSize}, or they are older than {@code maxAge}. The records older than {@code maxAge} are
+ * skipped when read.
+ * <p>
+ * The directory is locked by the process using it. The read position is persisted in the offset file when committed,
+ * so the files left by the former process are read from the last committed record.
+ */
+public class SpillLog {
+    private static final ILog LOGGER = LogManager.getLogger(SpillLog.class);
+
+    static final String FILE_PREFIX = "spill-";
+    static final String FILE_SUFFIX = ".log";
+    static final String LOCK_FILE = "spill.lock";
+    static final String OFFSET_FILE = "spill.offset";
+    private static final int HEADER_SIZE = 4 + 1 + 8;
+
+    private final File dir;
+    private final long maxSize;
+    private final long maxAgeMillis;
+    private final long fileSize;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    // [sequence of the oldest file:long][read position:long]
+    private final FileChannel offsetChannel;
+
+    // oldest first, the last one is being written
+    private final Deque<File> files = new ArrayDeque<>();
+    private long totalSize;
+    private long nextSequence;
+    private FileChannel writer;
+    // position of the next record in the oldest file
+    private long readPosition;
+
+    /**
+     * @throws LockedException if the directory is used by another process
+     */
+    public SpillLog(File dir, long maxSize, long maxAgeMillis) throws IOException {
+        this.dir = dir;
+        this.maxSize = maxSize;
+        this.maxAgeMillis = maxAgeMillis;
+        this.fileSize = Math.max(maxSize / 8, 64 * 1024);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Can't create the spill directory " + dir);
+        }
+
+        lockChannel = FileChannel.open(
+            new File(dir, LOCK_FILE).toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock acquired = null;
+        try {
+            acquired = lockChannel.tryLock();
+        } catch (OverlappingFileLockException ignored) {
+            // locked by this process
+        } finally {
+            if (acquired == null) {
+                lockChannel.close();
+            }
+        }
+        if (acquired == null) {
+            throw new LockedException(dir);
+        }
+        lock = acquired;
+
+        try {
+            offsetChannel = FileChannel.open(
+                new File(dir, OFFSET_FILE).toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+            );
+            long committedSequence = -1;
+            long committedPosition = 0;
+            if (offsetChannel.size() >= 16) {
+                final ByteBuffer offset = ByteBuffer.allocate(16);
+                readFully(offsetChannel, offset, 0);
+                offset.flip();
+                committedSequence = offset.getLong();
+                committedPosition = offset.getLong();
+            }
+
+            final File[] existingFiles = dir.listFiles((d, name) -> sequence(name) >= 0);
+            if (existingFiles != null) {
+                Arrays.sort(existingFiles, (f1, f2) -> Long.compare(sequence(f1.getName()), sequence(f2.getName())));
+                for (File file : existingFiles) {
+                    nextSequence = sequence(file.getName()) + 1;
+                    if (sequence(file.getName()) < committedSequence) {
+                        // fully read, but not deleted before the former process stopped
+                        if (!file.delete()) {
+                            LOGGER.warn("Fail to delete the spill file {}.", file);
+                        }
+                        continue;
+                    }
+                    files.addLast(file);
+                    totalSize += file.length();
+                }
+            }
+            if (!files.isEmpty() && sequence(files.peekFirst().getName()) == committedSequence) {
+                readPosition = Math.min(committedPosition, files.peekFirst().length());
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Append the records of the type, and evict the oldest files if the log is too large.
+     */
+    public synchronized void append(byte type, List<byte[]> records, long now) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        int size = 0;
+        for (byte[] record : records) {
+            size += HEADER_SIZE + record.length;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (byte[] record : records) {
+            buffer.putInt(record.length).put(type).putLong(now).put(record);
+        }
+        buffer.flip();
+
+        if (writer == null || writer.size() >= fileSize) {
+            roll();
+        }
+        while (buffer.hasRemaining()) {
+            writer.write(buffer);
+        }
+        totalSize += size;
+
+        while (totalSize > maxSize && files.size() > 1) {
+            LOGGER.warn("Spill log is more than {} bytes, discard the oldest records.", maxSize);
+            deleteOldest();
+        }
+    }
+
+    /**
+     * Read the records from the oldest file without consuming them, {@link #commit(Batch)} the batch once the records
+     * are sent.
+     *
+     * @return the batch of the records, empty if there is nothing to read
+     */
+    public synchronized Batch read(int maxRecords, long now) throws IOException {
+        expire(now);
+        while (!files.isEmpty()) {
+            final File oldest = files.peekFirst();
+            final boolean writing = files.size() == 1 && writer != null;
+            final List<Record> records = new ArrayList<>();
+            long position = readPosition;
+            try (FileChannel reader = FileChannel.open(oldest.toPath(), StandardOpenOption.READ)) {
+                final long size = reader.size();
+                final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                while (records.size() < maxRecords && position + HEADER_SIZE <= size) {
+                    header.clear();
+                    readFully(reader, header, position);
+                    header.flip();
+                    final int length = header.getInt();
+                    final byte type = header.get();
+                    final long time = header.getLong();
+                    if (length < 0 || position + HEADER_SIZE + length > size) {
+                        // the record isn't fully written, the rest of the file is broken if the process crashed
+                        position = writing ? position : size;
+                        break;
+                    }
+                    if (now - time <= maxAgeMillis) {
+                        final ByteBuffer payload = ByteBuffer.allocate(length);
+                        readFully(reader, payload, position + HEADER_SIZE);
+                        records.add(new Record(type, payload.array(), position + HEADER_SIZE + length));
+                    }
+                    position += HEADER_SIZE + length;
+                }
+                if (records.isEmpty() && position + HEADER_SIZE > size && !writing) {
+                    // fully read
+                    deleteOldest();
+                    continue;
+                }
+            }
+            return new Batch(oldest, position, records);
+        }
+        return new Batch(null, 0, Collections.emptyList());
+    }
+
+    /**
+     * Consume the records of the batch.
+     */
+    public void commit(Batch batch) {
+        commit(batch, batch.records.size());
+    }
+
+    /**
+     * Consume the first records of the batch, the rest of them are read again by the next {@link #read(int, long)}.
+     */
+    public synchronized void commit(Batch batch, int sentRecords) {
+        if (batch.file == null || !batch.file.equals(files.peekFirst())) {
+            return;
+        }
+        final long endPosition;
+        if (sentRecords >= batch.records.size()) {
+            endPosition = batch.endPosition;
+        } else if (sentRecords > 0) {
+            endPosition = batch.records.get(sentRecords - 1).endPosition;
+        } else {
+            return;
+        }
+        if (endPosition <= readPosition) {
+            return;
+        }
+        readPosition = endPosition;
+        final ByteBuffer offset = ByteBuffer.allocate(16);
+        offset.putLong(sequence(batch.file.getName())).putLong(readPosition).flip();
+        try {
+            while (offset.hasRemaining()) {
+                offsetChannel.write(offset, offset.position());
+            }
+        } catch (IOException e) {
+            LOGGER.warn(e, "Fail to persist the read position of the spill log, the records may be replayed again.");
+        }
+    }
+
+    public synchronized long size() {
+        return totalSize;
+    }
+
+    /**
+     * Close the files and release the directory.
+     */
+    public synchronized void close() {
+        closeWriter();
+        try {
+            if (offsetChannel != null) {
+                offsetChannel.close();
+            }
+            lock.release();
+            lockChannel.close();
+        } catch (IOException e) {
+            LOGGER.warn(e, "Fail to release the spill directory {}.", dir);
+        }
+    }
+
+    private void roll() throws IOException {
+        closeWriter();
+        final File file = new File(dir, FILE_PREFIX + nextSequence++ + FILE_SUFFIX);
+        writer = FileChannel.open(
+            file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        files.addLast(file);
+    }
+
+    private void expire(long now) {
+        while (files.size() > 1 && now - files.peekFirst().lastModified() > maxAgeMillis) {
+            deleteOldest();
+        }
+    }
+
+    private void deleteOldest() {
+        final File oldest = files.pollFirst();
+        if (oldest == null) {
+            return;
+        }
+        if (files.isEmpty()) {
+            closeWriter();
+        }
+        totalSize -= oldest.length();
+        readPosition = 0;
+        if (!oldest.delete()) {
+            LOGGER.warn("Fail to delete the spill file {}.", oldest);
+        }
+    }
+
+    private void closeWriter() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                LOGGER.warn(e, "Fail to close the spill file.");
+            }
+            writer = null;
+        }
+    }
+
+    private static void readFully(FileChannel reader, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (reader.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Spill file is truncated.");
+            }
+        }
+    }
+
+    private static long sequence(String fileName) {
+        if (!fileName.startsWith(FILE_PREFIX) || !fileName.endsWith(FILE_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(fileName.substring(FILE_PREFIX.length(), fileName.length() - FILE_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public static class Record {
+        private final byte type;
+        private final byte[] payload;
+        // position after the record
+        private final long endPosition;
+
+        Record(byte type, byte[] payload, long endPosition) {
+            this.type = type;
+            this.payload = payload;
+            this.endPosition = endPosition;
+        }
+
+        public byte getType() {
+            return type;
+        }
+
+        public byte[] getPayload() {
+            return payload;
+        }
+    }
+
+    public static class Batch {
+        private final File file;
+        private final long endPosition;
+        private final List<Record> records;
+
+        Batch(File file, long endPosition, List<Record> records) {
+            this.file = file;
+            this.endPosition = endPosition;
+            this.records = records;
+        }
+
+        public List<Record> getRecords() {
+            return records;
+        }
+
+        /**
+         * @return true if there is nothing read, the records of an empty batch may be all expired, it still should be
+         * committed.
+         */
+        public boolean isEmpty() {
+            return records.isEmpty();
+        }
+    }
+
+    /**
+     * The spill directory is locked by another process, or another {@link SpillLog} of this process.
+     */
+    public static class LockedException extends IOException {
+        LockedException(File dir) {
+            super("The spill directory " + dir + " is used by another process.");
+        }
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.MethodDescriptor;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.StreamObserver;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.boot.AgentPackageNotFoundException;
+import org.apache.skywalking.apm.agent.core.boot.AgentPackagePath;
+import org.apache.skywalking.apm.agent.core.boot.BootService;
+import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
+import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.trace.SegmentObjectEncoder;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.network.common.v3.Commands;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterReportServiceGrpc;
+import org.apache.skywalking.apm.network.language.agent.v3.TraceSegmentReportServiceGrpc;
+import org.apache.skywalking.apm.network.logging.v3.LogData;
+import org.apache.skywalking.apm.network.logging.v3.LogReportServiceGrpc;
+import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
+
+import static org.apache.skywalking.apm.agent.core.conf.Config.Collector.GRPC_UPSTREAM_TIMEOUT;
+import static org.apache.skywalking.apm.agent.core.remote.GRPCChannelStatus.CONNECTED;
+
+/**
+ * Spills the segments, logs and meters to the {@link SpillLog} when the collector is disconnected, and replays them at
+ * most {@link Config.Spill#REPLAY_RATE} records per second after reconnected. The records are stored encoded, and
+ * replayed through the collect methods which take the encoded bytes directly.
+ * <p>
+ * The JVMs sharing the spill directory use their own subdirectories {@code {service}/{index}}, each locked by the
+ * {@link SpillLog} using it. A restarted JVM takes the first unlocked one, and replays the records left in it.
+ */
+@DefaultImplementor
+public class SpillQueueService implements BootService, GRPCChannelListener {
+    private static final ILog LOGGER = LogManager.getLogger(SpillQueueService.class);
+
+    static final byte SEGMENT = 1;
+    static final byte LOG = 2;
+    static final byte METER = 3;
+
+    /**
+     * The max number of the JVMs of the same service spilling to the same directory at the same time.
+     */
+    private static final int MAX_SPILL_LOGS = 16;
+
+    private static final MethodDescriptor<byte[], Commands> SEGMENT_COLLECT_METHOD = encodedCollectMethod(
+        TraceSegmentReportServiceGrpc.getCollectMethod());
+    private static final MethodDescriptor<byte[], Commands> LOG_COLLECT_METHOD = encodedCollectMethod(
+        LogReportServiceGrpc.getCollectMethod());
+    private static final MethodDescriptor<byte[], Commands> METER_COLLECT_METHOD = encodedCollectMethod(
+        MeterReportServiceGrpc.getCollectMethod());
+
+    private volatile SpillLog spillLog;
+    private volatile Channel channel;
+    private volatile GRPCChannelStatus status = GRPCChannelStatus.DISCONNECT;
+    private volatile ScheduledFuture<?> replayFuture;
+
+    @Override
+    public void prepare() {
+        if (Config.Spill.ACTIVE) {
+            ServiceManager.INSTANCE.findService(GRPCChannelManager.class).addChannelListener(this);
+        }
+    }
+
+    @Override
+    public void boot() {
+        if (!Config.Spill.ACTIVE) {
+            return;
+        }
+        try {
+            final File dir = Config.Spill.DIR.isEmpty() ? new File(AgentPackagePath.getPath(), "spill") : new File(
+                Config.Spill.DIR);
+            spillLog = openSpillLog(new File(dir, Config.Agent.SERVICE_NAME.replaceAll("[^\\w.-]", "_")));
+        } catch (IOException | AgentPackageNotFoundException e) {
+            LOGGER.error(e, "Fail to open the spill log, the data will be abandoned when the collector is unavailable.");
+            return;
+        }
+        if (spillLog == null) {
+            LOGGER.error(
+                "All the " + MAX_SPILL_LOGS + " spill logs are used by other processes, the data will be abandoned when "
+                    + "the collector is unavailable.");
+            return;
+        }
+
+        // not run by the AgentScheduler, as every stream of the replay blocks until the collector responds or the
+        // deadline is reached, which would hold a shared worker.
+        replayFuture = Executors.newSingleThreadScheduledExecutor(
+            new DefaultNamedThreadFactory("SpillReplayService")
+        ).scheduleWithFixedDelay(
+            new RunnableWithExceptionProtection(
+                this::replay,
+                t -> LOGGER.error("Replay the spilled data failure.", t)
+            ), 1, 1, TimeUnit.SECONDS
+        );
+    }
+
+    /**
+     * @return the first spill log not used by other processes, null if all of them are used.
+     */
+    static SpillLog openSpillLog(File serviceDir) throws IOException {
+        for (int i = 0; i < MAX_SPILL_LOGS; i++) {
+            try {
+                return new SpillLog(
+                    new File(serviceDir, String.valueOf(i)), Config.Spill.MAX_SIZE * 1024L * 1024L,
+                    TimeUnit.SECONDS.toMillis(Config.Spill.MAX_AGE)
+                );
+            } catch (SpillLog.LockedException e) {
+                LOGGER.debug("Spill log {} is used by another process.", i);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void onComplete() {
+
+    }
+
+    @Override
+    public void shutdown() {
+        if (replayFuture != null) {
+            replayFuture.cancel(true);
+        }
+        if (spillLog != null) {
+            spillLog.close();
+        }
+    }
+
+    @Override
+    public void statusChanged(GRPCChannelStatus status) {
+        if (CONNECTED.equals(status)) {
+            channel = ServiceManager.INSTANCE.findService(GRPCChannelManager.class).getChannel();
+        }
+        this.status = status;
+    }
+
+    /**
+     * @return true if the data could be spilled rather than abandoned when the collector is unavailable
+     */
+    public boolean isActive() {
+        return spillLog != null;
+    }
+
+    public void spillSegments(List<TraceSegment> segments) {
+        final List<byte[]> records = new ArrayList<>(segments.size());
+        for (TraceSegment segment : segments) {
+            records.add(new SegmentObjectEncoder(segment).toByteArray());
+        }
+        spill(SEGMENT, records);
+    }
+
+    /**
+     * The service is set to each log, as the logs may be replayed in any stream.
+     */
+    public void spillLogs(List<LogData.Builder> logs) {
+        final List<byte[]> records = new ArrayList<>(logs.size());
+        for (LogData.Builder log : logs) {
+            records.add(log.setService(Config.Agent.SERVICE_NAME).build().toByteArray());
+        }
+        spill(LOG, records);
+    }
+
+    /**
+     * The meters should carry the service, instance and timestamp each, as they may be replayed in any stream.
+     */
+    public void spillMeters(List<MeterData> meters) {
+        final List<byte[]> records = new ArrayList<>(meters.size());
+        for (MeterData meter : meters) {
+            records.add(meter.toByteArray());
+        }
+        spill(METER, records);
+    }
+
+    private void spill(byte type, List<byte[]> records) {
+        final SpillLog log = spillLog;
+        if (log == null) {
+            return;
+        }
+        try {
+            log.append(type, records, System.currentTimeMillis());
+        } catch (IOException e) {
+            LOGGER.error(e, "Fail to spill {} records, they are abandoned.", records.size());
+        }
+    }
+
+    /**
+     * Send a batch of the spilled records, the records of each stream are consumed once the stream is completed.
+     */
+    void replay() {
+        final SpillLog log = spillLog;
+        if (log == null || !CONNECTED.equals(status)) {
+            return;
+        }
+        final SpillLog.Batch batch;
+        try {
+            batch = log.read(Config.Spill.REPLAY_RATE, System.currentTimeMillis());
+        } catch (IOException e) {
+            LOGGER.error(e, "Fail to read the spill log.");
+            return;
+        }
+        final List<SpillLog.Record> records = batch.getRecords();
+        int from = 0;
+        while (from < records.size()) {
+            // the records of the same type in a row are sent in one stream
+            final byte type = records.get(from).getType();
+            int to = from + 1;
+            while (to < records.size() && records.get(to).getType() == type) {
+                to++;
+            }
+            if (!send(type, records.subList(from, to))) {
+                return;
+            }
+            log.commit(batch, to);
+            from = to;
+        }
+        log.commit(batch);
+        if (!records.isEmpty() && LOGGER.isDebugEnable()) {
+            LOGGER.debug("{} spilled records have been replayed to collector.", records.size());
+        }
+    }
+
+    private boolean send(byte type, List<SpillLog.Record> records) {
+        final MethodDescriptor<byte[], Commands> method;
+        switch (type) {
+            case SEGMENT:
+                method = SEGMENT_COLLECT_METHOD;
+                break;
+            case LOG:
+                method = LOG_COLLECT_METHOD;
+                break;
+            case METER:
+                method = METER_COLLECT_METHOD;
+                break;
+            default:
+                LOGGER.warn("Skip {} spilled records of unknown type {}.", records.size(), type);
+                return true;
+        }
+
+        final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
+        final boolean[] failed = new boolean[1];
+        final StreamObserver<byte[]> requestObserver = ClientCalls.asyncClientStreamingCall(
+            channel.newCall(method, CallOptions.DEFAULT.withDeadlineAfter(GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS)),
+            new StreamObserver<Commands>() {
+                @Override
+                public void onNext(Commands commands) {
+
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    failed[0] = true;
+                    status.finished();
+                    LOGGER.error(throwable, "Replay the spilled data to collector fail with a grpc internal exception.");
+                    ServiceManager.INSTANCE.findService(GRPCChannelManager.class).reportError(throwable);
+                }
+
+                @Override
+                public void onCompleted() {
+                    status.finished();
+                }
+            }
+        );
+        for (SpillLog.Record record : records) {
+            requestObserver.onNext(record.getPayload());
+        }
+        requestObserver.onCompleted();
+        status.wait4Finish();
+        return !failed[0];
+    }
+
+    /**
+     * Same as the collect method, but takes the encoded request directly.
+     */
+    private static MethodDescriptor<byte[], Commands> encodedCollectMethod(MethodDescriptor<?, Commands> method) {
+        return method.toBuilder(EncodedMarshaller.INSTANCE, method.getResponseMarshaller()).build();
+    }
+
+    private static class EncodedMarshaller implements MethodDescriptor.Marshaller<byte[]> {
+        private static final EncodedMarshaller INSTANCE = new EncodedMarshaller();
+
+        @Override
+        public InputStream stream(byte[] value) {
+            return new ByteArrayInputStream(value);
+        }
+
+        @Override
+        public byte[] parse(InputStream stream) {
+            try {
+                final ByteArrayOutputStream output = new ByteArrayOutputStream();
+                final byte[] buffer = new byte[4096];
+                int read;
+                while ((read = stream.read(buffer)) != -1) {
+                    output.write(buffer, 0, read);
+                }
+                return output.toByteArray();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
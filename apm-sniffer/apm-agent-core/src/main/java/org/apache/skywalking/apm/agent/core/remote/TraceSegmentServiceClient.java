@@ -19,10 +19,16 @@
 package org.apache.skywalking.apm.agent.core.remote;
 
 import io.grpc.Channel;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.ClientResponseObserver;
 import io.grpc.stub.StreamObserver;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
@@ -33,11 +39,11 @@ import org.apache.skywalking.apm.agent.core.context.TracingContextListener;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.apm.network.common.v3.Commands;
-import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 import org.apache.skywalking.apm.network.language.agent.v3.TraceSegmentReportServiceGrpc;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.BUFFER_SIZE;
@@ -54,6 +60,13 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
     private volatile DataCarrier<TraceSegment> carrier;
     private volatile TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub serviceStub;
     private volatile GRPCChannelStatus status = GRPCChannelStatus.DISCONNECT;
+    /**
+     * Permits of the in-flight streams, only used when {@link Config.Collector#GRPC_UPSTREAM_MAX_IN_FLIGHT_STREAMS} is
+     * greater than 1.
+     */
+    private Semaphore streamPermits;
+    private final AtomicInteger inFlightStreams = new AtomicInteger(0);
+    private SpillQueueService spillQueueService;
 
     @Override
     public void prepare() {
@@ -65,6 +78,7 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
         lastLogTime = System.currentTimeMillis();
         segmentUplinkedCounter = 0;
         segmentAbandonedCounter = 0;
+        spillQueueService = ServiceManager.INSTANCE.findService(SpillQueueService.class);
         carrier = new DataCarrier<>(CHANNEL_SIZE, BUFFER_SIZE, BufferStrategy.IF_POSSIBLE);
         carrier.consume(this, 1);
     }
@@ -87,11 +101,11 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
 
     @Override
     public void consume(List<TraceSegment> data) {
-        if (CONNECTED.equals(status)) {
+        if (CONNECTED.equals(status) && Config.Collector.GRPC_UPSTREAM_MAX_IN_FLIGHT_STREAMS > 1) {
+            consumeInPipeline(data);
+        } else if (CONNECTED.equals(status)) {
             final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
-            StreamObserver<SegmentObject> upstreamSegmentStreamObserver = serviceStub.withDeadlineAfter(
-                Config.Collector.GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS
-            ).collect(new StreamObserver<Commands>() {
+            StreamObserver<TraceSegment> upstreamSegmentStreamObserver = collect(new StreamObserver<Commands>() {
                 @Override
                 public void onNext(Commands commands) {
                     ServiceManager.INSTANCE.findService(CommandService.class)
@@ -121,8 +135,7 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
 
             try {
                 for (TraceSegment segment : data) {
-                    SegmentObject upstreamSegment = segment.transform();
-                    upstreamSegmentStreamObserver.onNext(upstreamSegment);
+                    upstreamSegmentStreamObserver.onNext(segment);
                 }
             } catch (Throwable t) {
                 LOGGER.error(t, "Transform and send UpstreamSegment to collector fail.");
@@ -132,13 +145,134 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
 
             status.wait4Finish();
             segmentUplinkedCounter += data.size();
+        } else if (spillQueueService != null && spillQueueService.isActive()) {
+            spillQueueService.spillSegments(data);
         } else {
             segmentAbandonedCounter += data.size();
+            AgentSo11y.measureSegmentUplinkAbandoned(data.size());
         }
 
         printUplinkStatus();
     }
 
+    /**
+     * Send the segments through a new stream without waiting for the response, as long as the number of in-flight
+     * streams doesn't reach the limit. The next batch is transformed while the previous ones are still being sent and
+     * responded.
+     */
+    private void consumeInPipeline(List<TraceSegment> data) {
+        if (streamPermits == null) {
+            streamPermits = new Semaphore(Config.Collector.GRPC_UPSTREAM_MAX_IN_FLIGHT_STREAMS);
+        }
+        AgentSo11y.measureSegmentUplinkInFlight(() -> (double) inFlightStreams.get());
+
+        final Semaphore permits = streamPermits;
+        try {
+            // The in-flight streams are finished at the latest when their deadline is reached.
+            if (!permits.tryAcquire(Config.Collector.GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS)) {
+                LOGGER.warn(
+                    "Collector traceSegment service doesn't response in {} seconds.",
+                    Config.Collector.GRPC_UPSTREAM_TIMEOUT
+                );
+                segmentAbandonedCounter += data.size();
+                AgentSo11y.measureSegmentUplinkAbandoned(data.size());
+                printUplinkStatus();
+                return;
+            }
+        } catch (InterruptedException e) {
+            segmentAbandonedCounter += data.size();
+            AgentSo11y.measureSegmentUplinkAbandoned(data.size());
+            printUplinkStatus();
+            return;
+        }
+        inFlightStreams.incrementAndGet();
+
+        final Thread consumerThread = Thread.currentThread();
+        final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
+        ClientCallStreamObserver<TraceSegment> upstreamSegmentStreamObserver =
+            (ClientCallStreamObserver<TraceSegment>) collect(new ClientResponseObserver<TraceSegment, Commands>() {
+            @Override
+            public void beforeStart(ClientCallStreamObserver<TraceSegment> requestStream) {
+                requestStream.setOnReadyHandler(() -> LockSupport.unpark(consumerThread));
+            }
+
+            @Override
+            public void onNext(Commands commands) {
+                ServiceManager.INSTANCE.findService(CommandService.class)
+                                       .receiveCommand(commands);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                finished();
+                if (LOGGER.isErrorEnable()) {
+                    LOGGER.error(
+                        throwable,
+                        "Send UpstreamSegment to collector fail with a grpc internal exception."
+                    );
+                }
+                ServiceManager.INSTANCE
+                    .findService(GRPCChannelManager.class)
+                    .reportError(throwable);
+            }
+
+            @Override
+            public void onCompleted() {
+                finished();
+            }
+
+            private void finished() {
+                status.finished();
+                inFlightStreams.decrementAndGet();
+                permits.release();
+                LockSupport.unpark(consumerThread);
+            }
+        });
+
+        try {
+            for (TraceSegment segment : data) {
+                waitUntilReady(upstreamSegmentStreamObserver, status);
+                upstreamSegmentStreamObserver.onNext(segment);
+            }
+        } catch (Throwable t) {
+            LOGGER.error(t, "Transform and send UpstreamSegment to collector fail.");
+        }
+
+        upstreamSegmentStreamObserver.onCompleted();
+        segmentUplinkedCounter += data.size();
+
+        printUplinkStatus();
+    }
+
+    /**
+     * Open a collect stream on the channel of the stub, the segments are encoded by {@link SegmentObjectMarshaller}
+     * straight to the wire rather than transformed to <code>SegmentObject</code> first.
+     */
+    private StreamObserver<TraceSegment> collect(StreamObserver<Commands> responseObserver) {
+        final TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub stub = serviceStub.withDeadlineAfter(
+            Config.Collector.GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS
+        );
+        return ClientCalls.asyncClientStreamingCall(
+            stub.getChannel().newCall(SegmentObjectMarshaller.COLLECT_METHOD, stub.getCallOptions()),
+            responseObserver
+        );
+    }
+
+    /**
+     * Follow the gRPC flow control, don't put more segments into the outbound buffer until the stream is ready again.
+     */
+    private void waitUntilReady(ClientCallStreamObserver<TraceSegment> upstreamSegmentStreamObserver,
+                                GRPCStreamServiceStatus status) {
+        if (upstreamSegmentStreamObserver.isReady()) {
+            return;
+        }
+        AgentSo11y.measureSegmentUplinkBackpressure();
+        // Woken up by the onReady handler or the end of the stream, recheck periodically in case of the lost wakeup.
+        while (!upstreamSegmentStreamObserver.isReady() && !status.isStatus()) {
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(100));
+        }
+    }
+
     private void printUplinkStatus() {
         long currentTimeMillis = System.currentTimeMillis();
         if (currentTimeMillis - lastLogTime > 30 * 1000) {
@@ -171,6 +305,7 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
             return;
         }
         if (!carrier.produce(traceSegment)) {
+            AgentSo11y.measureSegmentUplinkAbandoned(1);
             if (LOGGER.isDebugEnable()) {
                 LOGGER.debug("One trace segment has been abandoned, cause by buffer is full.");
             }
@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
+
+/**
+ * The sampler of {@link SamplingMode#ADAPTIVE}. The budget of N traces per 3 seconds is refilled continuously rather
+ * than reset per window, so the sampled traces don't bunch at the start of every window.
+ * <p>
+ * Every endpoint(the first operation name) owns a token bucket, which guarantees it a fair share of the budget. The
+ * shares are recalculated by {@link #adjust()} from the observed throughput of the endpoints, the endpoints using less
+ * than the fair share leave the rest to the busy ones. The tokens of the endpoints are charged to the global buckets,
+ * which sample the traces beyond the shares as long as the budget is not used up. The shares are not granted once the
+ * debt of the global buckets reaches one window, so the sampled traces don't go beyond the budget when the shares of the
+ * idle endpoints are used at once. The global budget is striped by threads, to spread the CAS of the sampled traces.
+ * <p>
+ * The budget is halved when the reporter abandons segments, lowered when it waits for the flow control, and recovers
+ * step by step once the reporter keeps up. Both are read from the {@link AgentSo11y} meters of the segment uplink.
+ */
+class AdaptiveSampler {
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(3);
+    private static final double MIN_RATE_FACTOR = 0.1;
+    private static final double RATE_FACTOR_STEP = 0.1;
+
+    private final IntSupplier samplingRate;
+    private final int maxEndpoints;
+    private final TokenBucket[] stripes;
+    private final int stripeMask;
+    private final Map<String, EndpointBudget> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Rate(per second) of the endpoints not seen by {@link #adjust()} yet
+     */
+    private volatile double initialEndpointRate;
+
+    private volatile long period;
+
+    // accessed in adjust only
+    private double rateFactor = 1;
+    private long lastAdjustNanos;
+    private long lastDroppedSegments;
+    private long lastBackpressureWaits;
+
+    /**
+     * @param samplingRate the traces sampled in 3 seconds
+     * @param maxEndpoints the max endpoints owning a share, the least recently active ones are evicted
+     */
+    AdaptiveSampler(IntSupplier samplingRate, int maxEndpoints) {
+        this.samplingRate = samplingRate;
+        this.maxEndpoints = Math.max(1, maxEndpoints);
+
+        int stripeCount = 1;
+        while (stripeCount < Math.min(16, Runtime.getRuntime().availableProcessors())) {
+            stripeCount <<= 1;
+        }
+        final long now = System.nanoTime();
+        this.stripes = new TokenBucket[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new TokenBucket(now);
+        }
+        this.stripeMask = stripeCount - 1;
+
+        this.lastAdjustNanos = now;
+        this.lastDroppedSegments = AgentSo11y.getSegmentUplinkAbandoned();
+        this.lastBackpressureWaits = AgentSo11y.getSegmentUplinkBackpressure();
+        adjust(now);
+    }
+
+    boolean trySampling(String operationName) {
+        return trySampling(operationName, System.nanoTime());
+    }
+
+    boolean trySampling(String operationName, long nowNanos) {
+        final EndpointBudget endpoint = endpoint(operationName == null ? "" : operationName);
+        endpoint.requests.increment();
+        final int index = (int) Thread.currentThread().getId();
+        if (endpoint.bucket.tryAcquire(nowNanos)) {
+            // charged to the global budget, denied if it is deep in debt
+            for (int i = 0; i < stripes.length; i++) {
+                if (stripes[(index + i) & stripeMask].charge(nowNanos, WINDOW_NANOS)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // beyond the share, try the global budget left
+        for (int i = 0; i < stripes.length; i++) {
+            if (stripes[(index + i) & stripeMask].tryAcquire(nowNanos)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The trace is sampled by the upstream, it takes the budget of the local traces.
+     */
+    void forceSampled() {
+        stripe().charge(System.nanoTime(), WINDOW_NANOS);
+    }
+
+    void adjust() {
+        adjust(System.nanoTime());
+    }
+
+    /**
+     * Recalculate the budget by the reporter pressure, and the shares of the endpoints by their throughput since the
+     * last adjustment.
+     */
+    synchronized void adjust(long nowNanos) {
+        period++;
+        final double elapsedSeconds = Math.max(1L, nowNanos - lastAdjustNanos) / 1_000_000_000d;
+        lastAdjustNanos = nowNanos;
+
+        final long droppedSegments = AgentSo11y.getSegmentUplinkAbandoned();
+        final long backpressureWaits = AgentSo11y.getSegmentUplinkBackpressure();
+        if (droppedSegments > lastDroppedSegments) {
+            rateFactor = Math.max(MIN_RATE_FACTOR, rateFactor / 2);
+        } else if (backpressureWaits > lastBackpressureWaits) {
+            rateFactor = Math.max(MIN_RATE_FACTOR, rateFactor - RATE_FACTOR_STEP);
+        } else {
+            rateFactor = Math.min(1, rateFactor + RATE_FACTOR_STEP);
+        }
+        lastDroppedSegments = droppedSegments;
+        lastBackpressureWaits = backpressureWaits;
+
+        // per second
+        final double budget = Math.max(0, samplingRate.getAsInt()) / 3d * rateFactor;
+        for (TokenBucket stripe : stripes) {
+            final double stripeRate = budget / stripes.length;
+            stripe.setRate(stripeRate, stripeRate);
+        }
+
+        // share the budget by max-min fairness of the observed throughput
+        final List<EndpointBudget> budgets = new ArrayList<>(endpoints.values());
+        for (EndpointBudget endpoint : budgets) {
+            endpoint.throughput = endpoint.requests.sumThenReset() / elapsedSeconds;
+            if (endpoint.throughput > 0) {
+                endpoint.lastActivePeriod = period;
+            }
+        }
+        budgets.sort(Comparator.comparingDouble(endpoint -> endpoint.throughput));
+        final double fairShare = budget / Math.max(1, budgets.size());
+        double remaining = budget;
+        for (int i = 0; i < budgets.size(); i++) {
+            final EndpointBudget endpoint = budgets.get(i);
+            final double share = Math.min(endpoint.throughput, remaining / (budgets.size() - i));
+            remaining -= share;
+            final double rate = Math.max(share, fairShare);
+            endpoint.bucket.setRate(rate, rate);
+        }
+        initialEndpointRate = fairShare;
+    }
+
+    int endpointCount() {
+        return endpoints.size();
+    }
+
+    double getRateFactor() {
+        return rateFactor;
+    }
+
+    private TokenBucket stripe() {
+        return stripes[(int) Thread.currentThread().getId() & stripeMask];
+    }
+
+    private EndpointBudget endpoint(String operationName) {
+        EndpointBudget endpoint = endpoints.get(operationName);
+        if (endpoint == null) {
+            endpoint = endpoints.computeIfAbsent(operationName, key -> new EndpointBudget(initialEndpointRate, period));
+            if (endpoints.size() > maxEndpoints) {
+                evictEndpoints();
+            }
+        }
+        return endpoint;
+    }
+
+    /**
+     * Evict the least recently active endpoints, a tenth of the max at once to amortize the sorting.
+     */
+    private synchronized void evictEndpoints() {
+        if (endpoints.size() <= maxEndpoints) {
+            return;
+        }
+        final List<Map.Entry<String, EndpointBudget>> entries = new ArrayList<>(endpoints.entrySet());
+        entries.sort(Comparator.comparingLong(entry -> entry.getValue().lastActivePeriod));
+        final int evicted = entries.size() - maxEndpoints + maxEndpoints / 10;
+        for (int i = 0; i < evicted && i < entries.size() - 1; i++) {
+            endpoints.remove(entries.get(i).getKey());
+        }
+    }
+
+    private static class EndpointBudget {
+        private final TokenBucket bucket = new TokenBucket(System.nanoTime());
+        private final LongAdder requests = new LongAdder();
+        private volatile long lastActivePeriod;
+        private double throughput;
+
+        private EndpointBudget(double rate, long period) {
+            bucket.setRate(rate, rate);
+            lastActivePeriod = period;
+        }
+    }
+}
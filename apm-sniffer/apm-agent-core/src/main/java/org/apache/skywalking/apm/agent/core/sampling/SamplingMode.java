@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+/**
+ * The way {@link SamplingService} limits the sampled traces to {@link org.apache.skywalking.apm.agent.core.conf.Config.Agent#SAMPLE_N_PER_3_SECS}.
+ */
+public enum SamplingMode {
+    /**
+     * Sample the first N traces of every 3 seconds window.
+     */
+    WINDOW,
+
+    /**
+     * Sample by the token buckets refilled continuously, the budget is shared among the endpoints, and lowered while
+     * the reporter can't keep up.
+     */
+    ADAPTIVE
+}
@@ -18,14 +18,11 @@
 
 package org.apache.skywalking.apm.agent.core.sampling;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.apm.agent.core.boot.AgentScheduler;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.conf.dynamic.ConfigurationDiscoveryService;
@@ -33,7 +30,6 @@ import org.apache.skywalking.apm.agent.core.conf.dynamic.watcher.SamplingRateWat
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
-import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 
 /**
  * The <code>SamplingService</code> take charge of how to sample the {@link TraceSegment}. Every {@link TraceSegment}s
@@ -41,6 +37,9 @@ import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
  * send all of them to collector, if SAMPLING is on.
  * <p>
  * By default, SAMPLING is on, and  {@link Config.Agent#SAMPLE_N_PER_3_SECS }
+ * <p>
+ * The traces are sampled by {@link Config.Agent#SAMPLING_MODE}, the first N traces of every 3 seconds window, or the
+ * {@link AdaptiveSampler} sharing the budget among the endpoints.
  */
 @DefaultImplementor
 public class SamplingService implements BootService {
@@ -48,10 +47,11 @@ public class SamplingService implements BootService {
 
     private volatile boolean on = false;
     private volatile AtomicInteger samplingFactorHolder;
-    private volatile ScheduledFuture<?> scheduledFuture;
+    private volatile AdaptiveSampler adaptiveSampler;
+    private volatile AgentScheduler.ScheduledTask scheduledFuture;
 
     private SamplingRateWatcher samplingRateWatcher;
-    private ScheduledExecutorService service;
+    private AgentScheduler scheduler;
 
     @Override
     public void prepare() {
@@ -59,8 +59,7 @@ public class SamplingService implements BootService {
 
     @Override
     public void boot() {
-        service = Executors.newSingleThreadScheduledExecutor(
-                new DefaultNamedThreadFactory("SamplingService"));
+        scheduler = ServiceManager.INSTANCE.findService(AgentScheduler.class);
         samplingRateWatcher = new SamplingRateWatcher("agent.sample_n_per_3_secs", this);
         ServiceManager.INSTANCE.findService(ConfigurationDiscoveryService.class)
                                .registerAgentConfigChangeWatcher(samplingRateWatcher);
@@ -76,7 +75,7 @@ public class SamplingService implements BootService {
     @Override
     public void shutdown() {
         if (scheduledFuture != null) {
-            scheduledFuture.cancel(true);
+            scheduledFuture.cancel();
         }
     }
 
@@ -89,6 +88,10 @@ public class SamplingService implements BootService {
      */
     public boolean trySampling(String operationName) {
         if (on) {
+            final AdaptiveSampler sampler = adaptiveSampler;
+            if (sampler != null) {
+                return sampler.trySampling(operationName);
+            }
             int factor = samplingFactorHolder.get();
             if (factor < samplingRateWatcher.getSamplingRate()) {
                 return samplingFactorHolder.compareAndSet(factor, factor + 1);
@@ -105,6 +108,11 @@ public class SamplingService implements BootService {
      */
     public void forceSampled() {
         if (on) {
+            final AdaptiveSampler sampler = adaptiveSampler;
+            if (sampler != null) {
+                sampler.forceSampled();
+                return;
+            }
             samplingFactorHolder.incrementAndGet();
         }
     }
@@ -119,21 +127,32 @@ public class SamplingService implements BootService {
     public void handleSamplingRateChanged() {
         if (samplingRateWatcher.getSamplingRate() > 0) {
             if (!on) {
+                if (Config.Agent.SAMPLING_MODE == SamplingMode.ADAPTIVE) {
+                    final AdaptiveSampler sampler = new AdaptiveSampler(
+                        samplingRateWatcher::getSamplingRate, Config.Agent.ADAPTIVE_SAMPLING_MAX_ENDPOINTS);
+                    adaptiveSampler = sampler;
+                    scheduledFuture = scheduler.scheduleAtFixedRate(
+                        "SamplingService", sampler::adjust, 3, 3, TimeUnit.SECONDS);
+                } else {
+                    this.resetSamplingFactor();
+                    scheduledFuture = scheduler.scheduleAtFixedRate(
+                        "SamplingService", this::resetSamplingFactor, 0, 3, TimeUnit.SECONDS);
+                }
                 on = true;
-                this.resetSamplingFactor();
-                scheduledFuture = service.scheduleAtFixedRate(new RunnableWithExceptionProtection(
-                    this::resetSamplingFactor, t -> LOGGER.error("unexpected exception.", t)), 0, 3, TimeUnit.SECONDS);
                 LOGGER.debug(
-                    "Agent sampling mechanism started. Sample {} traces in 3 seconds.",
-                    samplingRateWatcher.getSamplingRate()
+                    "Agent sampling mechanism started. Sample {} traces in 3 seconds, mode: {}.",
+                    samplingRateWatcher.getSamplingRate(), Config.Agent.SAMPLING_MODE
                 );
+            } else if (adaptiveSampler != null) {
+                adaptiveSampler.adjust();
             }
         } else {
             if (on) {
                 if (scheduledFuture != null) {
-                    scheduledFuture.cancel(true);
+                    scheduledFuture.cancel();
                 }
                 on = false;
+                adaptiveSampler = null;
             }
         }
     }
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket in the form of the generic cell rate algorithm. The only state is the theoretical time of the next
+ * token, so taking a token is one CAS, and finding the bucket empty is one read.
+ */
+class TokenBucket {
+    private final AtomicLong nextTokenNanos;
+
+    /**
+     * Nanoseconds to refill one token, non-positive means the bucket is closed.
+     */
+    private volatile long intervalNanos;
+
+    /**
+     * How far the next token could be ahead of now, which is the capacity minus one token.
+     */
+    private volatile long toleranceNanos;
+
+    TokenBucket(long nowNanos) {
+        this.nextTokenNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * @param tokensPerSecond refill rate, non-positive closes the bucket
+     * @param capacity        max tokens accumulated while idle, at least one
+     */
+    void setRate(double tokensPerSecond, double capacity) {
+        if (tokensPerSecond <= 0) {
+            intervalNanos = 0;
+            return;
+        }
+        final long interval = Math.max(1L, (long) (1_000_000_000d / tokensPerSecond));
+        toleranceNanos = (long) ((Math.max(1d, capacity) - 1) * interval);
+        intervalNanos = interval;
+    }
+
+    /**
+     * @return true if a token is taken
+     */
+    boolean tryAcquire(long nowNanos) {
+        final long interval = intervalNanos;
+        if (interval <= 0) {
+            return false;
+        }
+        while (true) {
+            final long next = nextTokenNanos.get();
+            final long tokenNanos = Math.max(next, nowNanos);
+            if (tokenNanos - nowNanos > toleranceNanos) {
+                return false;
+            }
+            if (nextTokenNanos.compareAndSet(next, tokenNanos + interval)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Take a token even if the bucket is empty, as long as the following tokens are delayed by at most {@code
+     * maxDebtNanos}.
+     *
+     * @return false if the debt has reached the max, the token is not taken
+     */
+    boolean charge(long nowNanos, long maxDebtNanos) {
+        final long interval = intervalNanos;
+        if (interval <= 0) {
+            return false;
+        }
+        while (true) {
+            final long next = nextTokenNanos.get();
+            final long charged = Math.max(next, nowNanos) + interval;
+            if (charged > nowNanos + maxDebtNanos) {
+                return false;
+            }
+            if (nextTokenNanos.compareAndSet(next, charged)) {
+                return true;
+            }
+        }
+    }
+}
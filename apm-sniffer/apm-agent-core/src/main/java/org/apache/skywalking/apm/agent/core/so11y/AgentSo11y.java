@@ -18,14 +18,24 @@
 
 package org.apache.skywalking.apm.agent.core.so11y;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.apache.skywalking.apm.agent.core.boot.AgentScheduler;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.meter.Counter;
+import org.apache.skywalking.apm.agent.core.meter.Gauge;
 import org.apache.skywalking.apm.agent.core.meter.Histogram;
 import org.apache.skywalking.apm.agent.core.meter.MeterFactory;
+import org.apache.skywalking.apm.agent.core.meter.MeterId;
+import org.apache.skywalking.apm.agent.core.meter.MeterService;
+import org.apache.skywalking.apm.agent.core.meter.MeterType;
+import org.apache.skywalking.apm.agent.core.meter.StripedHistogram;
 
 /**
  * Agent self-observability meters collect through skywalking native protocols
@@ -35,9 +45,18 @@ public class AgentSo11y {
     // A map to cache meter obj(s) for plugins. The key is the plugin name.
     private static final Map<String, Counter> ERROR_COUNTER_CACHE = new ConcurrentHashMap<>();
 
-    // Steps of interceptor time cost histogram
+    // Maps to cache meter obj(s) for the scheduled tasks. The key is the task name.
+    private static final Map<String, Histogram> SCHEDULED_TASK_TIME_COST_CACHE = new ConcurrentHashMap<>();
+    private static final Map<String, Counter> SCHEDULED_TASK_OVERRUN_COUNTER_CACHE = new ConcurrentHashMap<>();
+
+    // Steps of scheduled task time cost histogram in milliseconds, starting from the min value
+    private static final List<Double> SCHEDULED_TASK_TIME_COST_HISTOGRAM_STEPS = Arrays.asList(
+        0d, 1d, 5d, 10d, 50d, 100d, 500d, 1000d, 5000d, 10000d, 30000d
+    );
+
+    // Steps of interceptor time cost histogram, starting from the min value
     private static final List<Double> TIME_COST_HISTOGRAM_STEPS = Arrays.asList(
-        1000d, 10000d, 50000d, 100000d, 300000d, 500000d,
+        0d, 1000d, 10000d, 50000d, 100000d, 300000d, 500000d,
         1000000d, 5000000d, 10000000d, 20000000d, 50000000d, 100000000d
     );
 
@@ -55,8 +74,16 @@ public class AgentSo11y {
     private static Counter LEAKED_CONTEXT_COUNTER;
     private static Counter LEAKED_IGNORE_CONTEXT_COUNTER;
 
-    // context perf histogram
-    private static Histogram INTERCEPTOR_TIME_COST;
+    // context perf histogram, sampled by the no-op sampler until the MeterService boots
+    private static volatile InterceptorDurationSampler INTERCEPTOR_DURATION_SAMPLER = InterceptorDurationSampler.NOOP;
+
+    // segment uplink
+    private static Gauge SEGMENT_UPLINK_IN_FLIGHT_GAUGE;
+    private static Counter SEGMENT_UPLINK_BACKPRESSURE_COUNTER;
+    private static Counter SEGMENT_UPLINK_ABANDONED_COUNTER;
+
+    // meter report cycle
+    private static volatile long[] LAST_METER_REPORT;
 
     public static void measureTracingContextCreation(boolean forceSampling, boolean ignoredTracingContext) {
         if (!ServiceManager.INSTANCE.isBooted()) {
@@ -150,20 +177,176 @@ public class AgentSo11y {
         }
     }
 
+    /**
+     * Resolve the interceptor time cost histogram when the {@link MeterService} boots. The interceptors read the
+     * sampler directly, rather than checking whether the agent kernel services are booted on every interception.
+     */
+    public static void bootInterceptorDuration(MeterService meterService) {
+        StripedHistogram histogram = meterService.register(
+            new StripedHistogram(
+                new MeterId("tracing_context_performance", MeterType.HISTOGRAM, new ArrayList<>()),
+                TIME_COST_HISTOGRAM_STEPS
+            ));
+        INTERCEPTOR_DURATION_SAMPLER = new InterceptorDurationSampler(
+            histogram, Config.Meter.INTERCEPTOR_DURATION_SAMPLE_INTERVAL);
+    }
+
+    /**
+     * Stop sampling the interceptor time cost, as the {@link MeterService} is shut down.
+     */
+    public static void shutdownInterceptorDuration() {
+        INTERCEPTOR_DURATION_SAMPLER = InterceptorDurationSampler.NOOP;
+    }
+
+    /**
+     * Decide whether the time cost of the current interception should be measured, 1 in {@link
+     * Config.Meter#INTERCEPTOR_DURATION_SAMPLE_INTERVAL} interceptions is measured. The interceptors skip the {@link
+     * System#nanoTime()} calls and {@link #durationOfInterceptor(double)} of the other interceptions. Nothing is
+     * measured before the {@link MeterService} boots.
+     */
+    public static boolean sampleInterceptorDuration() {
+        return INTERCEPTOR_DURATION_SAMPLER.sample();
+    }
+
+    /**
+     * Record the time cost of a sampled interception, which stands for {@link Config.Meter#INTERCEPTOR_DURATION_SAMPLE_INTERVAL}
+     * interceptions in the histogram.
+     */
     public static void durationOfInterceptor(double timeCostInNanos) {
+        INTERCEPTOR_DURATION_SAMPLER.record(timeCostInNanos);
+    }
+
+    public static void measureSegmentUplinkInFlight(Supplier<Double> inFlightStreams) {
         if (!ServiceManager.INSTANCE.isBooted()) {
             // Agent kernel services could be not-booted-yet as ServiceManager#INSTANCE#boot executed after agent
             // transfer initialization.
             // Skip when the services are not ready to avoid MeterService status is not initialized.
             return;
         }
-        if (INTERCEPTOR_TIME_COST == null) {
-            INTERCEPTOR_TIME_COST = MeterFactory
-                .histogram("tracing_context_performance")
-                .steps(TIME_COST_HISTOGRAM_STEPS)
+        if (SEGMENT_UPLINK_IN_FLIGHT_GAUGE == null) {
+            SEGMENT_UPLINK_IN_FLIGHT_GAUGE = MeterFactory
+                .gauge("segment_uplink_in_flight_streams", inFlightStreams)
                 .build();
         }
-        INTERCEPTOR_TIME_COST.addValue(timeCostInNanos);
+    }
+
+    public static void measureSegmentUplinkBackpressure() {
+        if (!ServiceManager.INSTANCE.isBooted()) {
+            // Agent kernel services could be not-booted-yet as ServiceManager#INSTANCE#boot executed after agent
+            // transfer initialization.
+            // Skip when the services are not ready to avoid MeterService status is not initialized.
+            return;
+        }
+        if (SEGMENT_UPLINK_BACKPRESSURE_COUNTER == null) {
+            SEGMENT_UPLINK_BACKPRESSURE_COUNTER = MeterFactory.counter("segment_uplink_backpressure_counter").build();
+        }
+        SEGMENT_UPLINK_BACKPRESSURE_COUNTER.increment(1);
+    }
+
+    public static void measureSegmentUplinkAbandoned(int segments) {
+        if (!ServiceManager.INSTANCE.isBooted()) {
+            // Agent kernel services could be not-booted-yet as ServiceManager#INSTANCE#boot executed after agent
+            // transfer initialization.
+            // Skip when the services are not ready to avoid MeterService status is not initialized.
+            return;
+        }
+        if (SEGMENT_UPLINK_ABANDONED_COUNTER == null) {
+            SEGMENT_UPLINK_ABANDONED_COUNTER = MeterFactory.counter("segment_uplink_abandoned_counter").build();
+        }
+        SEGMENT_UPLINK_ABANDONED_COUNTER.increment(segments);
+    }
+
+    /**
+     * @return the times the segment uplink waited for the flow control since the agent started
+     */
+    public static long getSegmentUplinkBackpressure() {
+        final Counter counter = SEGMENT_UPLINK_BACKPRESSURE_COUNTER;
+        return counter == null ? 0 : (long) counter.get();
+    }
+
+    /**
+     * @return the segments abandoned before reaching the backend since the agent started
+     */
+    public static long getSegmentUplinkAbandoned() {
+        final Counter counter = SEGMENT_UPLINK_ABANDONED_COUNTER;
+        return counter == null ? 0 : (long) counter.get();
+    }
+
+    /**
+     * Record the last meter report cycle, the gauges report the sent bytes, the CPU time of the report thread, and the
+     * count of the reported and the skipped(not changed) meters.
+     */
+    public static void measureMeterReport(long bytes, long cpuTimeInNanos, int reportedMeters, int skippedMeters) {
+        if (!ServiceManager.INSTANCE.isBooted()) {
+            // Agent kernel services could be not-booted-yet as ServiceManager#INSTANCE#boot executed after agent
+            // transfer initialization.
+            // Skip when the services are not ready to avoid MeterService status is not initialized.
+            return;
+        }
+        final boolean registered = LAST_METER_REPORT != null;
+        LAST_METER_REPORT = new long[] {bytes, cpuTimeInNanos, reportedMeters, skippedMeters};
+        if (!registered) {
+            MeterFactory.gauge("meter_report_bytes", () -> (double) LAST_METER_REPORT[0]).build();
+            MeterFactory.gauge("meter_report_cpu_time", () -> (double) LAST_METER_REPORT[1]).build();
+            MeterFactory.gauge("meter_report_meters", () -> (double) LAST_METER_REPORT[2])
+                        .tag("status", "reported")
+                        .build();
+            MeterFactory.gauge("meter_report_meters", () -> (double) LAST_METER_REPORT[3])
+                        .tag("status", "skipped")
+                        .build();
+        }
+    }
+
+    public static void measureStartupPhases(Map<String, Long> phaseMillis) {
+        if (!ServiceManager.INSTANCE.isBooted()) {
+            // Agent kernel services could be not-booted-yet as ServiceManager#INSTANCE#boot executed after agent
+            // transfer initialization.
+            // Skip when the services are not ready to avoid MeterService status is not initialized.
+            return;
+        }
+        phaseMillis.forEach((phase, millis) -> MeterFactory
+            .gauge("startup_phase_time_cost", () -> (double) millis)
+            .tag("phase", phase)
+            .build()
+        );
+    }
+
+    /**
+     * Record the execution time of a task scheduled by the {@link AgentScheduler}.
+     */
+    public static void measureScheduledTask(String taskName, long timeCostInNanos) {
+        if (!ServiceManager.INSTANCE.isBooted()) {
+            // Agent kernel services could be not-booted-yet as ServiceManager#INSTANCE#boot executed after agent
+            // transfer initialization.
+            // Skip when the services are not ready to avoid MeterService status is not initialized.
+            return;
+        }
+        Histogram histogram = SCHEDULED_TASK_TIME_COST_CACHE.computeIfAbsent(taskName, key -> MeterFactory
+            .histogram("scheduled_task_time_cost")
+            .tag("task", taskName)
+            .steps(SCHEDULED_TASK_TIME_COST_HISTOGRAM_STEPS)
+            .build()
+        );
+        histogram.addValue(TimeUnit.NANOSECONDS.toMillis(timeCostInNanos));
+    }
+
+    /**
+     * Record a skipped firing of a task scheduled by the {@link AgentScheduler}, as the last execution of the task has
+     * not finished yet.
+     */
+    public static void measureScheduledTaskOverrun(String taskName) {
+        if (!ServiceManager.INSTANCE.isBooted()) {
+            // Agent kernel services could be not-booted-yet as ServiceManager#INSTANCE#boot executed after agent
+            // transfer initialization.
+            // Skip when the services are not ready to avoid MeterService status is not initialized.
+            return;
+        }
+        Counter counter = SCHEDULED_TASK_OVERRUN_COUNTER_CACHE.computeIfAbsent(taskName, key -> MeterFactory
+            .counter("scheduled_task_overrun_counter")
+            .tag("task", taskName)
+            .build()
+        );
+        counter.increment(1);
     }
 
     public static void errorOfPlugin(String pluginName, String interType) {
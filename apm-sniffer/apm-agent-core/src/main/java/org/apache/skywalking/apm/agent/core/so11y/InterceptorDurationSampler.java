@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.so11y;
+
+import java.util.concurrent.ThreadLocalRandom;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.meter.StripedHistogram;
+
+/**
+ * Sample the time cost of the interceptions into the histogram, 1 in {@link
+ * Config.Meter#INTERCEPTOR_DURATION_SAMPLE_INTERVAL} interceptions is sampled and recorded with the weight of the
+ * interval. {@link #NOOP} samples nothing, it is used until the meter system is booted.
+ */
+class InterceptorDurationSampler {
+    static final InterceptorDurationSampler NOOP = new InterceptorDurationSampler(null, 1) {
+        @Override
+        boolean sample() {
+            return false;
+        }
+
+        @Override
+        void record(final double timeCostInNanos) {
+        }
+    };
+
+    private final StripedHistogram histogram;
+    private final int interval;
+
+    InterceptorDurationSampler(StripedHistogram histogram, int interval) {
+        this.histogram = histogram;
+        this.interval = Math.max(1, interval);
+    }
+
+    boolean sample() {
+        return interval == 1 || ThreadLocalRandom.current().nextInt(interval) == 0;
+    }
+
+    void record(double timeCostInNanos) {
+        histogram.addValue(timeCostInNanos, interval);
+    }
+}
@@ -19,6 +19,8 @@
 package org.apache.skywalking.apm.agent.core.so11y.bootstrap;
 
 public interface BootstrapPluginSo11y {
+    boolean sampleDuration();
+
     void duration(double timeCostInNanos);
 
     void error(String pluginName, String interType);
@@ -34,6 +34,11 @@ public class BootstrapPluginSo11yBridge implements BootstrapPluginSo11y {
     private BootstrapPluginSo11yBridge() {
     }
 
+    @Override
+    public boolean sampleDuration() {
+        return AgentSo11y.sampleInterceptorDuration();
+    }
+
     @Override
     public void duration(final double timeCostInNanos) {
         AgentSo11y.durationOfInterceptor(timeCostInNanos);
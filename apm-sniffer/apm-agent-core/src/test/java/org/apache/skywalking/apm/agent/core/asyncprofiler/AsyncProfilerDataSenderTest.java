@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.asyncprofiler;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import io.grpc.testing.GrpcServerRule;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.remote.GRPCChannelManager;
+import org.apache.skywalking.apm.agent.core.remote.GRPCChannelStatus;
+import org.apache.skywalking.apm.agent.core.remote.GRPCStreamServiceStatus;
+import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
+import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilerCollectionResponse;
+import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilerData;
+import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilerMetaData;
+import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilerTaskGrpc;
+import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilingStatus;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AsyncProfilerDataSenderTest {
+
+    @Rule
+    public AgentServiceRule agentServiceRule = new AgentServiceRule();
+
+    @Rule
+    public GrpcServerRule grpcServerRule = new GrpcServerRule();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final AsyncProfilerDataSender dataSender = new AsyncProfilerDataSender();
+    private final List<byte[]> uploads = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failedUploads = new AtomicInteger();
+    private final AtomicReference<AsyncProfilerDataUploader> uploader = new AtomicReference<>();
+    private volatile long maxUnreceivedBytes;
+    private File dumpFile;
+    private byte[] content;
+
+    @AfterClass
+    public static void afterClass() {
+        ServiceManager.INSTANCE.shutdown();
+    }
+
+    @Before
+    public void setUp() throws Throwable {
+        Field reconnect = GRPCChannelManager.class.getDeclaredField("reconnect");
+        reconnect.setAccessible(true);
+        reconnect.setBoolean(ServiceManager.INSTANCE.findService(GRPCChannelManager.class), false);
+
+        Field stub = AsyncProfilerDataSender.class.getDeclaredField("asyncProfilerTaskStub");
+        Field status = AsyncProfilerDataSender.class.getDeclaredField("status");
+        stub.setAccessible(true);
+        status.setAccessible(true);
+        stub.set(dataSender, AsyncProfilerTaskGrpc.newStub(grpcServerRule.getChannel()));
+        status.set(dataSender, GRPCChannelStatus.CONNECTED);
+
+        content = new byte[8 * 1024 * 1024 + 123];
+        new Random(7).nextBytes(content);
+        dumpFile = temporaryFolder.newFile("dump.jfr");
+        Files.write(dumpFile.toPath(), content);
+
+        grpcServerRule.getServiceRegistry().addService(new AsyncProfilerTaskGrpc.AsyncProfilerTaskImplBase() {
+            @Override
+            public StreamObserver<AsyncProfilerData> collect(
+                StreamObserver<AsyncProfilerCollectionResponse> responseObserver) {
+                return new SlowCollector((ServerCallStreamObserver<AsyncProfilerCollectionResponse>) responseObserver);
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        uploader.set(null);
+    }
+
+    @Test
+    public void testUploadWithBackpressure() throws Exception {
+        final int chunkSize = 64 * 1024;
+        try (FileChannel fileChannel = FileChannel.open(dumpFile.toPath(), StandardOpenOption.READ)) {
+            final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
+            uploader.set(new AsyncProfilerDataUploader(fileChannel, content.length, chunkSize, status));
+            final StreamObserver<AsyncProfilerData> requestStream = AsyncProfilerTaskGrpc.newStub(
+                grpcServerRule.getChannel()).collect(uploader.get());
+            requestStream.onNext(metaData(content.length));
+            status.wait4Finish();
+        }
+
+        Assert.assertEquals(1, uploads.size());
+        Assert.assertArrayEquals(content, uploads.get(0));
+        Assert.assertEquals(content.length, uploader.get().getOffset());
+        // the next chunk is read only when the collector requests it
+        Assert.assertTrue(maxUnreceivedBytes <= chunkSize);
+    }
+
+    @Test
+    public void testUploadAgainAfterUnavailable() throws Exception {
+        failedUploads.set(1);
+
+        final AsyncProfilerTask task = new AsyncProfilerTask();
+        task.setTaskId("task");
+        dataSender.sendData(task, dumpFile);
+
+        Assert.assertEquals(1, uploads.size());
+        Assert.assertArrayEquals(content, uploads.get(0));
+        Assert.assertEquals(0, failedUploads.get());
+    }
+
+    private static AsyncProfilerData metaData(int contentSize) {
+        return AsyncProfilerData.newBuilder().setMetaData(
+            AsyncProfilerMetaData.newBuilder().setType(AsyncProfilingStatus.PROFILING_SUCCESS)
+                                 .setContentSize(contentSize)
+        ).build();
+    }
+
+    /**
+     * Requests the chunks one by one, as a collector slower than the agent
+     */
+    private class SlowCollector implements StreamObserver<AsyncProfilerData> {
+        private final ServerCallStreamObserver<AsyncProfilerCollectionResponse> responseObserver;
+        private final ByteArrayOutputStream received = new ByteArrayOutputStream();
+
+        SlowCollector(ServerCallStreamObserver<AsyncProfilerCollectionResponse> responseObserver) {
+            this.responseObserver = responseObserver;
+            responseObserver.disableAutoRequest();
+            responseObserver.request(1);
+        }
+
+        @Override
+        public void onNext(AsyncProfilerData value) {
+            if (value.hasMetaData()) {
+                responseObserver.onNext(AsyncProfilerCollectionResponse.newBuilder()
+                                                                       .setType(AsyncProfilingStatus.PROFILING_SUCCESS)
+                                                                       .build());
+            } else {
+                final byte[] chunk = value.getContent().toByteArray();
+                received.write(chunk, 0, chunk.length);
+                if (failedUploads.get() > 0 && received.size() > content.length / 2) {
+                    failedUploads.decrementAndGet();
+                    responseObserver.onError(Status.UNAVAILABLE.asRuntimeException());
+                    return;
+                }
+                final AsyncProfilerDataUploader current = uploader.get();
+                if (current != null) {
+                    maxUnreceivedBytes = Math.max(maxUnreceivedBytes, current.getOffset() - received.size());
+                }
+            }
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            responseObserver.request(1);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+        }
+
+        @Override
+        public void onCompleted() {
+            uploads.add(received.toByteArray());
+            responseObserver.onCompleted();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.boot;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.meter.Counter;
+import org.apache.skywalking.apm.agent.core.meter.Histogram;
+import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
+import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class AgentSchedulerTest {
+
+    @Rule
+    public AgentServiceRule agentServiceRule = new AgentServiceRule();
+
+    private AgentScheduler scheduler;
+
+    @AfterClass
+    public static void afterClass() {
+        ServiceManager.INSTANCE.shutdown();
+    }
+
+    @Before
+    public void setUp() {
+        scheduler = ServiceManager.INSTANCE.findService(AgentScheduler.class);
+    }
+
+    @Test
+    public void testFixedRateTaskKeepsRunningAfterException() throws InterruptedException {
+        CountDownLatch executions = new CountDownLatch(3);
+        AgentScheduler.ScheduledTask task = scheduler.scheduleAtFixedRate("failing-task", () -> {
+            executions.countDown();
+            throw new IllegalStateException("expected");
+        }, 0, 10, TimeUnit.MILLISECONDS);
+
+        assertTrue(executions.await(5, TimeUnit.SECONDS));
+        task.cancel();
+        assertTrue(task.isCancelled());
+    }
+
+    @Test
+    public void testOverrunFiringsAreSkipped() throws ReflectiveOperationException, InterruptedException {
+        AtomicInteger concurrency = new AtomicInteger();
+        AtomicInteger maxConcurrency = new AtomicInteger();
+        CountDownLatch executions = new CountDownLatch(3);
+        AgentScheduler.ScheduledTask task = scheduler.scheduleAtFixedRate("slow-task", () -> {
+            maxConcurrency.accumulateAndGet(concurrency.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ignored) {
+            }
+            concurrency.decrementAndGet();
+            executions.countDown();
+        }, 0, 5, TimeUnit.MILLISECONDS);
+
+        assertTrue(executions.await(5, TimeUnit.SECONDS));
+        task.cancel();
+        assertThat(maxConcurrency.get(), is(1));
+
+        Map<String, Counter> overrunCounters = getStaticFieldValue("SCHEDULED_TASK_OVERRUN_COUNTER_CACHE");
+        assertTrue(overrunCounters.get("slow-task").get() > 0);
+        Map<String, Histogram> timeCosts = getStaticFieldValue("SCHEDULED_TASK_TIME_COST_CACHE");
+        assertTrue(timeCosts.containsKey("slow-task"));
+    }
+
+    @Test
+    public void testFixedDelayTaskStopsAfterCancel() throws InterruptedException {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(2);
+        AgentScheduler.ScheduledTask task = scheduler.scheduleWithFixedDelay("delayed-task", () -> {
+            executions.incrementAndGet();
+            started.countDown();
+        }, 0, 10, TimeUnit.MILLISECONDS);
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        task.cancel();
+        Thread.sleep(50);
+        int executionsAfterCancel = executions.get();
+        Thread.sleep(100);
+        assertThat(executions.get(), is(executionsAfterCancel));
+    }
+
+    @Test
+    public void testOneShotTask() throws InterruptedException {
+        CountDownLatch executed = new CountDownLatch(1);
+        scheduler.schedule("one-shot-task", executed::countDown, 10, TimeUnit.MILLISECONDS);
+
+        assertTrue(executed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testOwnWorkerTaskRunsWhileSharedWorkersAreBlocked() throws InterruptedException {
+        // the tasks waiting for an unreachable collector hold all the shared workers
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(Config.Agent.SCHEDULER_POOL_SIZE);
+        AtomicInteger sharedExecutions = new AtomicInteger();
+        for (int i = 0; i < Config.Agent.SCHEDULER_POOL_SIZE; i++) {
+            scheduler.schedule("blocking-task-" + i, () -> {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                }
+            }, 0, TimeUnit.MILLISECONDS);
+        }
+        AgentScheduler.ScheduledTask queued = scheduler.scheduleAtFixedRate(
+            "queued-task", sharedExecutions::incrementAndGet, 0, 10, TimeUnit.MILLISECONDS);
+
+        CountDownLatch checks = new CountDownLatch(5);
+        AgentScheduler.ScheduledTask check = null;
+        try {
+            assertTrue(blocked.await(5, TimeUnit.SECONDS));
+            long startNanos = System.nanoTime();
+            check = scheduler.scheduleAtFixedRateOnOwnWorker(
+                "reconnect-check", checks::countDown, 0, 20, TimeUnit.MILLISECONDS);
+
+            assertTrue(checks.await(2, TimeUnit.SECONDS));
+            assertTrue(System.nanoTime() - startNanos < TimeUnit.SECONDS.toNanos(1));
+            assertThat(sharedExecutions.get(), is(0));
+        } finally {
+            release.countDown();
+            queued.cancel();
+            if (check != null) {
+                check.cancel();
+            }
+        }
+    }
+
+    private <T> T getStaticFieldValue(String fieldName) throws ReflectiveOperationException {
+        Field field = AgentSo11y.class.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        return (T) field.get(null);
+    }
+}
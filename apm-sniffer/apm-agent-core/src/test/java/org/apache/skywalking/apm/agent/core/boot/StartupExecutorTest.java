@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.boot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StartupExecutorTest {
+
+    @After
+    public void tearDown() {
+        Config.Agent.STARTUP_PARALLELISM = 1;
+    }
+
+    @Test
+    public void testSerialInCallingThread() {
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        List<Integer> results = StartupExecutor.map(Arrays.asList(1, 2, 3), input -> {
+            threads.add(Thread.currentThread());
+            return input * 10;
+        });
+        Assert.assertEquals(Arrays.asList(10, 20, 30), results);
+        Assert.assertEquals(1, threads.size());
+        Assert.assertTrue(threads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void testParallelKeepsInputOrder() {
+        Config.Agent.STARTUP_PARALLELISM = 4;
+        List<Integer> inputs = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            inputs.add(i);
+        }
+        // the first inputs finish last
+        List<Integer> results = StartupExecutor.map(inputs, input -> {
+            sleep(100 - input);
+            return input;
+        });
+        Assert.assertEquals(inputs, results);
+    }
+
+    @Test
+    public void testParallelRunsConcurrently() {
+        Config.Agent.STARTUP_PARALLELISM = 2;
+        CountDownLatch latch = new CountDownLatch(2);
+        List<String> threadNames = StartupExecutor.map(Arrays.asList(1, 2), input -> {
+            latch.countDown();
+            try {
+                Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return Thread.currentThread().getName();
+        });
+        Assert.assertNotEquals(threadNames.get(0), threadNames.get(1));
+        for (String threadName : threadNames) {
+            Assert.assertTrue(threadName.startsWith("SkywalkingAgent-Startup-"));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testParallelFailurePropagates() {
+        Config.Agent.STARTUP_PARALLELISM = 2;
+        StartupExecutor.map(Arrays.asList(1, 2, 3), input -> {
+            if (input == 2) {
+                throw new IllegalStateException("boom");
+            }
+            return input;
+        });
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis / 10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.NoopSpan;
+import org.apache.skywalking.apm.agent.core.context.util.FieldGetter;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ActiveSpanStackTest {
+    @After
+    public void tearDown() {
+        Config.Agent.RECYCLE_SPAN_STACK = false;
+    }
+
+    @Test
+    public void testPushBeyondInitialCapacity() {
+        ActiveSpanStack stack = new ActiveSpanStack(2);
+        Assert.assertNull(stack.peek());
+
+        List<AbstractSpan> spans = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            NoopSpan span = new NoopSpan();
+            spans.add(span);
+            stack.push(span);
+            Assert.assertSame(span, stack.peek());
+        }
+        Assert.assertEquals(40, stack.size());
+
+        List<AbstractSpan> iterated = new ArrayList<>();
+        stack.forEach(iterated::add);
+        Assert.assertEquals(spans, iterated);
+
+        for (int i = 39; i >= 0; i--) {
+            Assert.assertSame(spans.get(i), stack.pop());
+        }
+        Assert.assertTrue(stack.isEmpty());
+    }
+
+    @Test
+    public void testRecycleInSameThread() throws Exception {
+        Config.Agent.RECYCLE_SPAN_STACK = true;
+        ActiveSpanStack stack = new ActiveSpanStack(300);
+        stack.push(new NoopSpan());
+        stack.recycle();
+        Object elements = elementsOf(stack);
+
+        stack.pop();
+        stack.recycle();
+        ActiveSpanStack next = new ActiveSpanStack(300);
+        Assert.assertSame(elements, elementsOf(next));
+        Assert.assertNotSame(elements, elementsOf(new ActiveSpanStack(300)));
+
+        // the recycled stack doesn't share the array anymore
+        stack.push(new NoopSpan());
+        Assert.assertNotSame(elements, elementsOf(stack));
+    }
+
+    private static Object elementsOf(ActiveSpanStack stack) throws Exception {
+        return FieldGetter.getValue(stack, "elements");
+    }
+}
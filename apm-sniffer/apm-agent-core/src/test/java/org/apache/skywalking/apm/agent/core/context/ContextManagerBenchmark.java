@@ -18,11 +18,21 @@
 
 package org.apache.skywalking.apm.agent.core.context;
 
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.logging.core.LogLevel;
+import org.apache.skywalking.apm.agent.core.plugin.loader.AgentClassLoader;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.infra.Blackhole;
 import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.runner.Runner;
@@ -34,6 +44,23 @@ import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 public class ContextManagerBenchmark {
+    @State(Scope.Benchmark)
+    public static class AgentServices {
+        @Setup(Level.Trial)
+        public void boot() throws Exception {
+            AgentClassLoader.initDefaultLoader();
+            Config.Logging.LEVEL = LogLevel.OFF;
+            ServiceManager.INSTANCE.boot();
+            // keep tracing without a connected backend, otherwise only the ignored context is created
+            Config.Agent.KEEP_TRACING = true;
+        }
+
+        @TearDown(Level.Trial)
+        public void shutdown() {
+            ServiceManager.INSTANCE.shutdown();
+        }
+    }
+
     @Benchmark
     @Fork(value = 1, warmups = 1)
     @OutputTimeUnit(TimeUnit.NANOSECONDS)
@@ -50,6 +77,55 @@ public class ContextManagerBenchmark {
         bh.consume(Map.class.isAssignableFrom(HashMap.class));
     }
 
+    @State(Scope.Benchmark)
+    public static class SpanTree {
+        @Param({"5", "20", "100"})
+        private int depth;
+
+        @Param({"false", "true"})
+        private boolean recycleSpanStack;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            Config.Agent.RECYCLE_SPAN_STACK = recycleSpanStack;
+        }
+    }
+
+    /**
+     * A full create-span/stop-span cycle, including the segment and trace id generation, without any cross-process
+     * propagation. The finished segments are handed over to the (disconnected) segment uplink and dropped there.
+     */
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void createAndStopSpans(AgentServices services, Blackhole bh) {
+        bh.consume(ContextManager.createEntrySpan("/benchmark/entry", null));
+        bh.consume(ContextManager.createLocalSpan("benchmark-local"));
+        ContextManager.stopSpan();
+        ContextManager.stopSpan();
+    }
+
+    /**
+     * A request with nested spans, like JDBC, Redis and HTTP calls inside a Spring MVC controller. The entry span holds
+     * <code>depth - 2</code> nested local spans, and the deepest one holds an exit span. Run with the GC profiler to
+     * see the allocation per request.
+     */
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void createAndStopNestedSpans(AgentServices services, SpanTree tree, Blackhole bh) {
+        bh.consume(ContextManager.createEntrySpan("/benchmark/entry", null));
+        for (int i = 2; i < tree.depth; i++) {
+            bh.consume(ContextManager.createLocalSpan("benchmark-local"));
+        }
+        bh.consume(ContextManager.createExitSpan("benchmark-exit", "127.0.0.1:8080"));
+        for (int i = 0; i < tree.depth; i++) {
+            ContextManager.stopSpan();
+        }
+    }
+
     public static void main(String[] args) throws Exception {
         Options opt = new OptionsBuilder().include(ContextManagerBenchmark.class.getSimpleName())
                 .addProfiler(GCProfiler.class)
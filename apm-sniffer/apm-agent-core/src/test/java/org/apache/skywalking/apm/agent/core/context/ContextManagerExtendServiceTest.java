@@ -18,20 +18,26 @@
 
 package org.apache.skywalking.apm.agent.core.context;
 
+import java.io.File;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.remote.SpillQueueService;
 import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.Assert;
+import org.junit.rules.TemporaryFolder;
 
 public class ContextManagerExtendServiceTest {
 
     @Rule
     public AgentServiceRule serviceRule = new AgentServiceRule();
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @BeforeClass
     public static void beforeClass() {
         Config.Agent.KEEP_TRACING = true;
@@ -56,4 +62,31 @@ public class ContextManagerExtendServiceTest {
         Assert.assertNotEquals("Ignored_Trace", traceId);
     }
 
+    @Test
+    public void testStopTracingWhenSpillLogFailsToOpen() throws Exception {
+        ContextManagerExtendService extendService = ServiceManager.INSTANCE.findService(ContextManagerExtendService.class);
+        SpillQueueService spillQueueService = ServiceManager.INSTANCE.findService(SpillQueueService.class);
+        Config.Agent.KEEP_TRACING = false;
+        Config.Spill.ACTIVE = true;
+        try {
+            // a file in the way of the spill directory
+            Config.Spill.DIR = temporaryFolder.newFile("spill").getAbsolutePath();
+            spillQueueService.boot();
+            Assert.assertFalse(spillQueueService.isActive());
+            Assert.assertEquals(
+                "Ignored_Trace", extendService.createTraceContext("/app/demo", false).getReadablePrimaryTraceId());
+
+            Config.Spill.DIR = new File(temporaryFolder.getRoot(), "spill-dir").getAbsolutePath();
+            spillQueueService.boot();
+            Assert.assertTrue(spillQueueService.isActive());
+            Assert.assertNotEquals(
+                "Ignored_Trace", extendService.createTraceContext("/app/demo", false).getReadablePrimaryTraceId());
+        } finally {
+            spillQueueService.shutdown();
+            Config.Spill.ACTIVE = false;
+            Config.Spill.DIR = "";
+            Config.Agent.KEEP_TRACING = true;
+        }
+    }
+
 }
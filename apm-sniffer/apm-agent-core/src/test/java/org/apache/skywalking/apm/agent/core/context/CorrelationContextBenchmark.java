@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Inject and extract the correlation and extension headers, with an empty or a populated correlation context, like
+ * the HTTP plugins do on every exit and entry span.
+ */
+@State(Scope.Benchmark)
+public class CorrelationContextBenchmark {
+    @Param({"0", "2"})
+    private int entries;
+
+    private CorrelationContext source;
+    private ExtensionContext extension;
+    private final Map<String, String> headers = new HashMap<>();
+
+    @Setup
+    public void setup() {
+        source = new CorrelationContext();
+        for (int i = 0; i < entries; i++) {
+            source.put("key" + i, "value" + i);
+        }
+        extension = new ExtensionContext();
+
+        ContextCarrier carrier = new ContextCarrier();
+        source.inject(carrier);
+        CarrierItem next = carrier.items();
+        while (next.hasNext()) {
+            next = next.next();
+            headers.put(next.getHeadKey(), next.getHeadValue());
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void inject(Blackhole bh) {
+        ContextCarrier carrier = new ContextCarrier();
+        source.inject(carrier);
+        extension.inject(carrier);
+        CarrierItem next = carrier.items();
+        while (next.hasNext()) {
+            next = next.next();
+            bh.consume(next.getHeadValue());
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void extract(Blackhole bh) {
+        ContextCarrier carrier = new ContextCarrier();
+        CarrierItem next = carrier.items();
+        while (next.hasNext()) {
+            next = next.next();
+            next.setHeadValue(headers.get(next.getHeadKey()));
+        }
+        CorrelationContext target = new CorrelationContext();
+        target.extract(carrier);
+        ExtensionContext targetExtension = new ExtensionContext();
+        targetExtension.extract(carrier);
+        bh.consume(target);
+        bh.consume(targetExtension);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(CorrelationContextBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
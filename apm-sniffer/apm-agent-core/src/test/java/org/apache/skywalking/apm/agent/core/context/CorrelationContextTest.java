@@ -120,4 +120,41 @@ public class CorrelationContextTest {
         context.deserialize(null);
         Assert.assertNull(context.get("test1").orElse(null));
     }
+
+    @Test
+    public void testSerializeAfterChange() {
+        CorrelationContext context = new CorrelationContext();
+        context.put("test1", "t1");
+        Assert.assertEquals("dGVzdDE=:dDE=", context.serialize());
+
+        context.put("test1", "t2");
+        Assert.assertEquals("dGVzdDE=:dDI=", context.serialize());
+
+        context.put("test1", null);
+        Assert.assertEquals("", context.serialize());
+    }
+
+    @Test
+    public void testCloneIsIndependent() {
+        CorrelationContext context = new CorrelationContext();
+        context.put("test1", "t1");
+        CorrelationContext clone = context.clone();
+        Assert.assertEquals(context, clone);
+
+        clone.put("test2", "t2");
+        Assert.assertFalse(context.get("test2").isPresent());
+        Assert.assertNotEquals(context, clone);
+
+        context.put("test2", "t2");
+        Assert.assertEquals(context, clone);
+        Assert.assertEquals(context.hashCode(), clone.hashCode());
+    }
+
+    @Test
+    public void testDeserializeMalformed() {
+        CorrelationContext context = new CorrelationContext();
+        context.deserialize("dGVzdDE=:dDE=:dDI=,,dGVzdDI=:dDI=");
+        Assert.assertFalse(context.get("test1").isPresent());
+        Assert.assertEquals("t2", context.get("test2").get());
+    }
 }
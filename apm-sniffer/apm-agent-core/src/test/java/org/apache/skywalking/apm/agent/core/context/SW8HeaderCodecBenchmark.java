@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Encode and decode the {@code sw8} header by the single pass {@link SW8HeaderCodec} and by the split based codec it
+ * replaced.
+ */
+@State(Scope.Benchmark)
+public class SW8HeaderCodecBenchmark {
+    private ContextCarrier carrier;
+    private String header;
+    private byte[] headerBytes;
+
+    @Setup
+    public void setup() {
+        carrier = new ContextCarrier();
+        carrier.setTraceId("7ae3a4d4c63d4fd0b1a6bcf3b8c36d1e.85.16344460291530001");
+        carrier.setTraceSegmentId("7ae3a4d4c63d4fd0b1a6bcf3b8c36d1e.85.16344460291530002");
+        carrier.setSpanId(3);
+        carrier.setParentService("order-service");
+        carrier.setParentServiceInstance("9f6b1c2e4a8d4b0c@10.0.12.7");
+        carrier.setParentEndpoint("/api/orders/{id}");
+        carrier.setAddressUsedAtClient("inventory-service:8080");
+        header = SplitSW8HeaderCodec.encode(carrier);
+        headerBytes = header.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public String encodeSplit() {
+        return SplitSW8HeaderCodec.encode(carrier);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public String encodeSinglePass() {
+        return SW8HeaderCodec.encode(carrier);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public ContextCarrier decodeSplit() {
+        return SplitSW8HeaderCodec.decode(header);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public ContextCarrier decodeSinglePass() {
+        ContextCarrier decoded = new ContextCarrier();
+        SW8HeaderCodec.decode(header, decoded);
+        return decoded;
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public ContextCarrier decodeSinglePassFromBytes() {
+        ContextCarrier decoded = new ContextCarrier();
+        SW8HeaderCodec.decode(headerBytes, decoded);
+        return decoded;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(SW8HeaderCodecBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
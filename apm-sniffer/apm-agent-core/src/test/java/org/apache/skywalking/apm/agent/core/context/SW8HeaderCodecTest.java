@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SW8HeaderCodecTest {
+    private static final String CHARS = "aZ09+/=-.:_ /é中😀٠";
+    private static final int[] CODE_POINTS = CHARS.codePoints().toArray();
+    private static final int ROUNDS = 20000;
+
+    private final Random random = new Random(20211017L);
+
+    @Test
+    public void testEncodeSameAsSplitCodec() {
+        for (int i = 0; i < ROUNDS; i++) {
+            ContextCarrier carrier = randomCarrier();
+            Assert.assertEquals(SplitSW8HeaderCodec.encode(carrier), SW8HeaderCodec.encode(carrier));
+        }
+    }
+
+    @Test
+    public void testEncodeChangedParentService() {
+        ContextCarrier carrier = randomCarrier();
+        for (String service : new String[] {"service-a", "service-b", "service-a", "服务"}) {
+            carrier.setParentService(service);
+            carrier.setParentServiceInstance(service + "@instance");
+            Assert.assertEquals(SplitSW8HeaderCodec.encode(carrier), SW8HeaderCodec.encode(carrier));
+        }
+    }
+
+    @Test
+    public void testDecodeValidHeaders() {
+        for (int i = 0; i < ROUNDS; i++) {
+            ContextCarrier expected = randomCarrier();
+            ContextCarrier decoded = new ContextCarrier();
+            String header = SplitSW8HeaderCodec.encode(expected);
+            SW8HeaderCodec.decode(header, decoded);
+            assertSameFields(expected, decoded);
+            assertSameFieldsOfAllInputs(header, decoded);
+        }
+    }
+
+    @Test
+    public void testDecodeMutatedHeaders() {
+        for (int i = 0; i < ROUNDS * 5; i++) {
+            String header = mutate(SplitSW8HeaderCodec.encode(randomCarrier()));
+            ContextCarrier expected = SplitSW8HeaderCodec.decode(header);
+            ContextCarrier decoded = new ContextCarrier();
+            SW8HeaderCodec.decode(header, decoded);
+            if (expected == null) {
+                // a malformed header changes nothing
+                assertSameFields(new ContextCarrier(), decoded);
+            } else {
+                assertSameFields(expected, decoded);
+            }
+            assertSameFieldsOfAllInputs(header, decoded);
+        }
+    }
+
+    @Test
+    public void testDecodePaddingEdges() {
+        String[] fields = {"", "A", "QQ", "QQ=", "QQ==", "QQ==A", "QUI", "QUI=", "QUI==", "Q===", "====", "QUJD", "QUJD=", "QQ=A"};
+        for (String field : fields) {
+            String header = "1-" + field + "-MS4yLjM=-4-c2VydmljZQ==-aW5zdGFuY2U=-L2FwcA==-" + field;
+            ContextCarrier expected = SplitSW8HeaderCodec.decode(header);
+            ContextCarrier decoded = new ContextCarrier();
+            SW8HeaderCodec.decode(header, decoded);
+            assertSameFields(expected == null ? new ContextCarrier() : expected, decoded);
+        }
+    }
+
+    /**
+     * The header decoded from a {@link CharSequence} other than {@link String}, and from its UTF-8 bytes, is the same as
+     * decoded from the {@link String}.
+     */
+    private static void assertSameFieldsOfAllInputs(String header, ContextCarrier expected) {
+        ContextCarrier fromChars = new ContextCarrier();
+        SW8HeaderCodec.decode(new StringBuilder(header), fromChars);
+        assertSameFields(expected, fromChars);
+        ContextCarrier fromBytes = new ContextCarrier();
+        SW8HeaderCodec.decode(header.getBytes(StandardCharsets.UTF_8), fromBytes);
+        assertSameFields(expected, fromBytes);
+    }
+
+    private ContextCarrier randomCarrier() {
+        ContextCarrier carrier = new ContextCarrier();
+        carrier.setTraceId(randomString(1));
+        carrier.setTraceSegmentId(randomString(1));
+        carrier.setSpanId(random.nextInt(5) == 0 ? random.nextInt(Integer.MAX_VALUE) : random.nextInt(100));
+        carrier.setParentService(randomString(1));
+        carrier.setParentServiceInstance(randomString(1));
+        carrier.setParentEndpoint(randomString(1));
+        carrier.setAddressUsedAtClient(randomString(1));
+        return carrier;
+    }
+
+    private String randomString(int minLength) {
+        int length = minLength + random.nextInt(40);
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.appendCodePoint(random.nextInt(3) == 0 ? CODE_POINTS[random.nextInt(CODE_POINTS.length)] : 'a' + random.nextInt(26));
+        }
+        return builder.toString();
+    }
+
+    private String mutate(String header) {
+        StringBuilder builder = new StringBuilder(header);
+        int mutations = 1 + random.nextInt(3);
+        for (int i = 0; i < mutations && builder.length() > 0; i++) {
+            int position = random.nextInt(builder.length());
+            switch (random.nextInt(3)) {
+                case 0:
+                    builder.setCharAt(position, CHARS.charAt(random.nextInt(CHARS.length())));
+                    break;
+                case 1:
+                    builder.deleteCharAt(position);
+                    break;
+                default:
+                    builder.insert(position, CHARS.charAt(random.nextInt(CHARS.length())));
+            }
+        }
+        return builder.toString();
+    }
+
+    private static void assertSameFields(ContextCarrier expected, ContextCarrier actual) {
+        Assert.assertEquals(expected.getTraceId(), actual.getTraceId());
+        Assert.assertEquals(expected.getTraceSegmentId(), actual.getTraceSegmentId());
+        Assert.assertEquals(expected.getSpanId(), actual.getSpanId());
+        Assert.assertEquals(expected.getParentService(), actual.getParentService());
+        Assert.assertEquals(expected.getParentServiceInstance(), actual.getParentServiceInstance());
+        Assert.assertEquals(expected.getParentEndpoint(), actual.getParentEndpoint());
+        Assert.assertEquals(expected.getAddressUsedAtClient(), actual.getAddressUsedAtClient());
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.List;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.tag.Tags;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.SegmentObjectEncoder;
+import org.apache.skywalking.apm.agent.core.context.trace.SpanLayer;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
+import org.apache.skywalking.apm.agent.core.test.tools.SegmentStorage;
+import org.apache.skywalking.apm.agent.core.test.tools.SegmentStoragePoint;
+import org.apache.skywalking.apm.agent.core.test.tools.TracingSegmentRunner;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.network.trace.component.ComponentsDefine;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(TracingSegmentRunner.class)
+public class SegmentObjectEncoderTest {
+
+    @SegmentStoragePoint
+    private SegmentStorage tracingData;
+
+    @Rule
+    public AgentServiceRule agentServiceRule = new AgentServiceRule();
+
+    @BeforeClass
+    public static void beforeClass() {
+        Config.Agent.KEEP_TRACING = true;
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        Config.Agent.KEEP_TRACING = false;
+        ServiceManager.INSTANCE.shutdown();
+    }
+
+    @Test
+    public void testEntryAndExitSpansWithCrossProcessRef() {
+        ContextCarrier contextCarrier = new ContextCarrier().deserialize(
+            "1-My40LjU=-MS4yLjM=-4-c2VydmljZQ==-aW5zdGFuY2U=-L2FwcA==-MTI3LjAuMC4xOjgwODA=",
+            ContextCarrier.HeaderVersion.v3
+        );
+        AbstractSpan entrySpan = ContextManager.createEntrySpan("/订单/查询", contextCarrier);
+        entrySpan.setComponent(ComponentsDefine.TOMCAT);
+        Tags.HTTP.METHOD.set(entrySpan, "GET");
+        Tags.URL.set(entrySpan, "127.0.0.1:8080");
+        Tags.HTTP_RESPONSE_STATUS_CODE.set(entrySpan, 500);
+        SpanLayer.asHttp(entrySpan);
+
+        AbstractSpan exitSpan = ContextManager.createExitSpan("/exit", new ContextCarrier(), "127.0.0.1:12800");
+        exitSpan.setComponent(ComponentsDefine.HTTPCLIENT);
+        exitSpan.log(new RuntimeException("exception"));
+        exitSpan.tag(Tags.ofKey("empty.value"), null);
+        ContextManager.stopSpan();
+        ContextManager.stopSpan();
+
+        assertSameBytes(tracingData.getTraceSegments().get(0));
+    }
+
+    @Test
+    public void testLocalSpansWithCrossThreadRef() {
+        ContextManager.createLocalSpan("parent");
+        ContextSnapshot snapshot = ContextManager.capture();
+        ContextManager.stopSpan();
+
+        AbstractSpan localSpan = ContextManager.createLocalSpan("child");
+        ContextManager.continued(snapshot);
+        localSpan.skipAnalysis();
+        localSpan.errorOccurred();
+        ContextManager.stopSpan();
+
+        List<TraceSegment> segments = tracingData.getTraceSegments();
+        assertEquals(2, segments.size());
+        for (TraceSegment segment : segments) {
+            assertSameBytes(segment);
+        }
+    }
+
+    @Test
+    public void testLargeSegment() {
+        ContextManager.createEntrySpan("/large", null);
+        for (int i = 0; i < 200; i++) {
+            AbstractSpan span = ContextManager.createLocalSpan("local-" + i);
+            span.tag(Tags.ofKey("index"), String.valueOf(i));
+            SpanLayer.asCache(span);
+            ContextManager.stopSpan();
+        }
+        ContextManager.stopSpan();
+
+        TraceSegment segment = tracingData.getTraceSegments().get(0);
+        assertSameBytes(segment.finish(true));
+    }
+
+    private static void assertSameBytes(TraceSegment segment) {
+        SegmentObject expected = segment.transform();
+        SegmentObjectEncoder encoder = new SegmentObjectEncoder(segment);
+        assertEquals(expected.getSerializedSize(), encoder.getSerializedSize());
+        assertArrayEquals(expected.toByteArray(), encoder.toByteArray());
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import org.apache.skywalking.apm.agent.core.base64.Base64;
+import org.apache.skywalking.apm.util.StringUtil;
+
+/**
+ * The split based {@code sw8} codec {@link SW8HeaderCodec} replaced, kept as the reference of the fuzz test and the
+ * baseline of the benchmark.
+ */
+final class SplitSW8HeaderCodec {
+    private SplitSW8HeaderCodec() {
+    }
+
+    static String encode(ContextCarrier carrier) {
+        return StringUtil.join(
+            '-',
+            "1",
+            Base64.encode(carrier.getTraceId()),
+            Base64.encode(carrier.getTraceSegmentId()),
+            carrier.getSpanId() + "",
+            Base64.encode(carrier.getParentService()),
+            Base64.encode(carrier.getParentServiceInstance()),
+            Base64.encode(carrier.getParentEndpoint()),
+            Base64.encode(carrier.getAddressUsedAtClient())
+        );
+    }
+
+    /**
+     * @return the decoded carrier, or null if the header is malformed.
+     */
+    static ContextCarrier decode(String text) {
+        String[] parts = text.split("-", 8);
+        if (parts.length != 8) {
+            return null;
+        }
+        try {
+            ContextCarrier carrier = new ContextCarrier();
+            carrier.setTraceId(Base64.decode2UTFString(parts[1]));
+            carrier.setTraceSegmentId(Base64.decode2UTFString(parts[2]));
+            carrier.setSpanId(Integer.parseInt(parts[3]));
+            carrier.setParentService(Base64.decode2UTFString(parts[4]));
+            carrier.setParentServiceInstance(Base64.decode2UTFString(parts[5]));
+            carrier.setParentEndpoint(Base64.decode2UTFString(parts[6]));
+            carrier.setAddressUsedAtClient(Base64.decode2UTFString(parts[7]));
+            return carrier;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.ids;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GlobalIdGeneratorTest {
+    @Test
+    public void testCompactIdRendersSameFormat() {
+        GlobalId id = GlobalIdGenerator.generateId();
+        String[] parts = id.toString().split("\\.");
+        Assert.assertEquals(3, parts.length);
+        Assert.assertEquals(32, parts[0].length());
+        Assert.assertEquals(Thread.currentThread().getId(), Long.parseLong(parts[1]));
+        Assert.assertEquals(id.getSequence(), Long.parseLong(parts[2]));
+        Assert.assertSame(id.toString(), id.toString());
+
+        String[] stringParts = GlobalIdGenerator.generate().split("\\.");
+        Assert.assertEquals(parts[0], stringParts[0]);
+        Assert.assertEquals(parts[1], stringParts[1]);
+    }
+
+    @Test
+    public void testIdsAreUnique() {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            Assert.assertTrue(ids.add(GlobalIdGenerator.generateId().toString()));
+        }
+    }
+
+    @Test
+    public void testTraceIdEquality() {
+        NewDistributedTraceId newTraceId = new NewDistributedTraceId();
+        PropagatedTraceId propagatedTraceId = new PropagatedTraceId(newTraceId.getId());
+        Assert.assertEquals(newTraceId, propagatedTraceId);
+        Assert.assertEquals(newTraceId.hashCode(), propagatedTraceId.hashCode());
+        Assert.assertNotEquals(newTraceId, new NewDistributedTraceId());
+    }
+}
@@ -160,6 +160,102 @@ public class MeterServiceTest {
         }
     }
 
+    @Test
+    public void testDeltaReport() throws Throwable {
+        grpcServerRule.getServiceRegistry().addService(serviceImplBase);
+        final Map<MeterId, BaseMeter> map = FieldGetter.getValue(registryService, "meterMap");
+        map.clear();
+        Config.Meter.DELTA_REPORT = true;
+        try {
+            final MeterId counterId = new MeterId("test1", MeterType.COUNTER, Arrays.asList(new MeterTag("k1", "v1")));
+            final Counter counter = new Counter(counterId, CounterMode.INCREMENT);
+            counter.increment(2);
+            registryService.register(counter);
+            final MeterId percentileId = new MeterId("test2", MeterType.HISTOGRAM, Arrays.asList(new MeterTag("k1", "v1")));
+            final Histogram histogram = new Histogram(percentileId, Arrays.asList(2d, 5d));
+            histogram.addValue(3);
+            registryService.register(histogram);
+
+            // the first report is full
+            registryService.run();
+            assertThat(upstreamMeters.size(), is(2));
+
+            // nothing changed
+            upstreamMeters.clear();
+            registryService.run();
+            assertThat(upstreamMeters.size(), is(0));
+
+            // only the changed bucket of the histogram
+            histogram.addValue(6);
+            registryService.run();
+            assertThat(upstreamMeters.size(), is(1));
+            isSameWithHistogram(upstreamMeters.get(0), true, percentileId, 5d, 1L);
+            assertThat(upstreamMeters.get(0).getHistogram().getValuesCount(), is(1));
+
+            // changed counter
+            upstreamMeters.clear();
+            counter.increment(1);
+            registryService.run();
+            assertThat(upstreamMeters.size(), is(1));
+            isSameWithCounter(upstreamMeters.get(0), true, counterId, 3);
+
+            // full report again
+            upstreamMeters.clear();
+            Config.Meter.FULL_REPORT_INTERVAL = 0;
+            registryService.run();
+            assertThat(upstreamMeters.size(), is(2));
+        } finally {
+            Config.Meter.DELTA_REPORT = false;
+            Config.Meter.FULL_REPORT_INTERVAL = 300;
+        }
+    }
+
+    @Test
+    public void testReportBatches() throws Throwable {
+        final List<Integer> streamSizes = new ArrayList<>();
+        grpcServerRule.getServiceRegistry().addService(new MeterReportServiceGrpc.MeterReportServiceImplBase() {
+            @Override
+            public StreamObserver<MeterData> collect(final StreamObserver<Commands> responseObserver) {
+                streamSizes.add(0);
+                return new StreamObserver<MeterData>() {
+                    @Override
+                    public void onNext(MeterData value) {
+                        upstreamMeters.add(value);
+                        streamSizes.set(streamSizes.size() - 1, streamSizes.get(streamSizes.size() - 1) + 1);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        responseObserver.onNext(Commands.getDefaultInstance());
+                        responseObserver.onCompleted();
+                    }
+                };
+            }
+        });
+        final Map<MeterId, BaseMeter> map = FieldGetter.getValue(registryService, "meterMap");
+        map.clear();
+        Config.Meter.REPORT_BATCH_SIZE = 2;
+        try {
+            for (int i = 0; i < 5; i++) {
+                final MeterId counterId = new MeterId("test_" + i, MeterType.COUNTER, Arrays.asList(new MeterTag("k1", "v1")));
+                registryService.register(new Counter(counterId, CounterMode.INCREMENT));
+            }
+            registryService.run();
+
+            // every stream starts with the service base info
+            assertThat(streamSizes, is(Arrays.asList(2, 2, 1)));
+            for (int i = 0; i < upstreamMeters.size(); i++) {
+                Assert.assertEquals(i % 2 == 0, !upstreamMeters.get(i).getService().isEmpty());
+            }
+        } finally {
+            Config.Meter.REPORT_BATCH_SIZE = 1000;
+        }
+    }
+
     @Test
     public void testMeterSizeAndShutdown() throws Throwable {
         final Map<MeterId, BaseMeter> map = FieldGetter.getValue(registryService, "meterMap");
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.context.util.FieldGetter;
+import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
+import org.apache.skywalking.apm.network.language.agent.v3.Label;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterBucketValue;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterHistogram;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class QuantileSketchTest {
+    @Rule
+    public AgentServiceRule agentServiceRule = new AgentServiceRule();
+
+    @AfterClass
+    public static void afterClass() {
+        ServiceManager.INSTANCE.shutdown();
+    }
+
+    @After
+    public void after() throws IllegalAccessException, NoSuchFieldException {
+        final MeterService meterService = ServiceManager.INSTANCE.findService(MeterService.class);
+        ((ConcurrentHashMap<MeterId, BaseMeter>) FieldGetter.getValue(meterService, "meterMap")).clear();
+    }
+
+    @Test
+    public void testBuild() {
+        final QuantileSketch sketch = MeterFactory.quantileSketch("test")
+                                                  .relativeAccuracy(0.02)
+                                                  .range(1, 1000)
+                                                  .maxBuckets(10)
+                                                  .tag("k1", "v1")
+                                                  .build();
+        sketch.addValue(0.5);
+        sketch.addValue(5);
+        sketch.addValue(-1);
+
+        final MeterHistogram histogram = sketch.transform().getHistogram();
+        Assert.assertEquals("test", histogram.getName());
+        Assert.assertEquals(
+            Arrays.asList(Label.newBuilder().setName("k1").setValue("v1").build()), histogram.getLabelsList());
+        Assert.assertTrue(histogram.getValuesCount() <= 10);
+        Assert.assertEquals(0, histogram.getValues(0).getBucket(), 0);
+        Assert.assertEquals(1, histogram.getValues(0).getCount());
+        Assert.assertEquals(1, histogram.getValues(1).getBucket(), 0);
+        for (int i = 1; i < histogram.getValuesCount(); i++) {
+            final boolean containsValue = histogram.getValues(i).getBucket() <= 5
+                && (i + 1 == histogram.getValuesCount() || histogram.getValues(i + 1).getBucket() > 5);
+            Assert.assertEquals(containsValue ? 1 : 0, histogram.getValues(i).getCount());
+        }
+    }
+
+    @Test
+    public void testQuantileAccuracy() {
+        final QuantileSketch sketch = newSketch(QuantileSketch.DEFAULT_MAX_BUCKETS);
+        final Random random = new Random(17);
+        final double[] values = new double[100000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(random.nextGaussian() * 2 + 3);
+            sketch.addValue(values[i]);
+        }
+        Arrays.sort(values);
+        Assert.assertEquals(values.length, sketch.getCount());
+        for (double quantile : new double[] {0.01, 0.5, 0.9, 0.99, 0.999, 1}) {
+            final double expected = values[(int) Math.ceil(quantile * values.length) - 1];
+            Assert.assertEquals(
+                "p" + quantile, expected, sketch.getValueAtQuantile(quantile),
+                expected * QuantileSketch.DEFAULT_RELATIVE_ACCURACY
+            );
+        }
+    }
+
+    @Test
+    public void testCompactBuckets() {
+        final QuantileSketch sketch = newSketch(8);
+        final Random random = new Random(3);
+        for (int i = 0; i < 10000; i++) {
+            sketch.addValue(random.nextDouble() * 100000);
+        }
+        sketch.addValue(0);
+
+        final MeterHistogram histogram = sketch.transform().getHistogram();
+        Assert.assertTrue(histogram.getValuesCount() <= 8);
+        long total = 0;
+        double lastBucket = -1;
+        for (MeterBucketValue value : histogram.getValuesList()) {
+            Assert.assertTrue(value.getBucket() > lastBucket);
+            lastBucket = value.getBucket();
+            total += value.getCount();
+        }
+        Assert.assertEquals(10001, total);
+        Assert.assertEquals(1, histogram.getValues(0).getCount());
+
+        // the boundaries stay stable while more values are recorded into the same range
+        for (int i = 0; i < 10000; i++) {
+            sketch.addValue(random.nextDouble() * 100000);
+        }
+        final MeterHistogram next = sketch.transform().getHistogram();
+        Assert.assertEquals(histogram.getValuesCount(), next.getValuesCount());
+        for (int i = 0; i < next.getValuesCount(); i++) {
+            Assert.assertEquals(histogram.getValues(i).getBucket(), next.getValues(i).getBucket(), 0);
+        }
+    }
+
+    @Test
+    public void testSameBucketsOfDifferentDistributions() {
+        final QuantileSketch sketch = newSketch(QuantileSketch.DEFAULT_MAX_BUCKETS);
+        final MeterHistogram empty = sketch.transform().getHistogram();
+        Assert.assertTrue(empty.getValuesCount() <= QuantileSketch.DEFAULT_MAX_BUCKETS);
+        for (MeterBucketValue value : empty.getValuesList()) {
+            Assert.assertEquals(0, value.getCount());
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            sketch.addValue(0.01 + i * 0.001);
+        }
+        final MeterHistogram low = sketch.transform().getHistogram();
+        for (int i = 0; i < 1000; i++) {
+            sketch.addValue(1e6 + i * 1000);
+        }
+        final MeterHistogram high = sketch.transform().getHistogram();
+
+        Assert.assertEquals(bucketsOf(empty), bucketsOf(low));
+        Assert.assertEquals(bucketsOf(low), bucketsOf(high));
+        double lastBucket = -1;
+        for (double bucket : bucketsOf(high)) {
+            Assert.assertTrue(bucket > lastBucket);
+            lastBucket = bucket;
+        }
+        Assert.assertEquals(1000, totalCount(low));
+        Assert.assertEquals(2000, totalCount(high));
+    }
+
+    @Test
+    public void testMerge() {
+        final QuantileSketch sketch = newSketch(QuantileSketch.DEFAULT_MAX_BUCKETS);
+        final QuantileSketch other = newSketch(QuantileSketch.DEFAULT_MAX_BUCKETS);
+        for (int i = 1; i <= 100; i++) {
+            sketch.addValue(i);
+            other.addValue(i + 100);
+        }
+        sketch.merge(other);
+        Assert.assertEquals(200, sketch.getCount());
+        Assert.assertEquals(100, sketch.getValueAtQuantile(0.5), 100 * QuantileSketch.DEFAULT_RELATIVE_ACCURACY);
+        Assert.assertEquals(200, sketch.getValueAtQuantile(1), 200 * QuantileSketch.DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeDifferentAccuracy() {
+        newSketch(QuantileSketch.DEFAULT_MAX_BUCKETS).merge(new QuantileSketch(
+            new MeterId("test", MeterType.QUANTILE_SKETCH, new ArrayList<>()), 0.05, 0.001, 1e9, 32));
+    }
+
+    private static List<Double> bucketsOf(MeterHistogram histogram) {
+        final List<Double> buckets = new ArrayList<>();
+        for (MeterBucketValue value : histogram.getValuesList()) {
+            buckets.add(value.getBucket());
+        }
+        return buckets;
+    }
+
+    private static long totalCount(MeterHistogram histogram) {
+        long total = 0;
+        for (MeterBucketValue value : histogram.getValuesList()) {
+            total += value.getCount();
+        }
+        return total;
+    }
+
+    private static QuantileSketch newSketch(int maxBuckets) {
+        return new QuantileSketch(
+            new MeterId("test", MeterType.QUANTILE_SKETCH, new ArrayList<>()), QuantileSketch.DEFAULT_RELATIVE_ACCURACY,
+            QuantileSketch.DEFAULT_LOWEST_TRACKABLE_VALUE, QuantileSketch.DEFAULT_HIGHEST_TRACKABLE_VALUE, maxBuckets
+        );
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Records into one histogram from 1, 8 and 64 threads, comparing the {@link Histogram} counting by atomics with the
+ * {@link StripedHistogram}, with the exponential steps (calculated bucket) and the interceptor time cost steps (binary
+ * searched bucket).
+ */
+@State(Scope.Benchmark)
+public class StripedHistogramBenchmark {
+    private static final List<Double> EXPONENTIAL_STEPS = Arrays.asList(
+        0d, 1000d, 2000d, 4000d, 8000d, 16000d, 32000d, 64000d, 128000d, 256000d, 512000d, 1024000d
+    );
+    private static final List<Double> IRREGULAR_STEPS = Arrays.asList(
+        0d, 1000d, 10000d, 50000d, 100000d, 300000d, 500000d,
+        1000000d, 5000000d, 10000000d, 20000000d, 50000000d, 100000000d
+    );
+
+    @Param({"atomic", "striped"})
+    private String histogram;
+
+    @Param({"exponential", "irregular"})
+    private String steps;
+
+    private Histogram meter;
+
+    @Setup
+    public void setup() {
+        List<Double> steps = "exponential".equals(this.steps) ? EXPONENTIAL_STEPS : IRREGULAR_STEPS;
+        MeterId meterId = new MeterId("benchmark", MeterType.HISTOGRAM, new ArrayList<>());
+        meter = "striped".equals(histogram) ? new StripedHistogram(meterId, steps) : new Histogram(meterId, steps);
+    }
+
+    @Benchmark
+    @Threads(1)
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void addValueBy1Thread() {
+        addValue();
+    }
+
+    @Benchmark
+    @Threads(8)
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void addValueBy8Threads() {
+        addValue();
+    }
+
+    @Benchmark
+    @Threads(64)
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void addValueBy64Threads() {
+        addValue();
+    }
+
+    private void addValue() {
+        // most of the values fall into a few buckets, as the time costs of an interceptor do
+        meter.addValue(ThreadLocalRandom.current().nextInt(1500, 9000));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(StripedHistogramBenchmark.class.getSimpleName())
+                                          .addProfiler(GCProfiler.class)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.context.util.FieldGetter;
+import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
+import org.apache.skywalking.apm.network.language.agent.v3.Label;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class StripedHistogramTest {
+    @Rule
+    public AgentServiceRule agentServiceRule = new AgentServiceRule();
+
+    @AfterClass
+    public static void afterClass() {
+        ServiceManager.INSTANCE.shutdown();
+    }
+
+    @After
+    public void after() throws IllegalAccessException, NoSuchFieldException {
+        final MeterService meterService = ServiceManager.INSTANCE.findService(MeterService.class);
+        ((ConcurrentHashMap<MeterId, BaseMeter>) FieldGetter.getValue(meterService, "meterMap")).clear();
+    }
+
+    @Test
+    public void testBuild() {
+        final List<Label> labels = Arrays.asList(Label.newBuilder().setName("k1").setValue("v1").build());
+
+        final Histogram histogram = MeterFactory.histogram("test")
+                                                .steps(Arrays.asList(2d, 5d))
+                                                .minValue(1d)
+                                                .tag("k1", "v1")
+                                                .striped()
+                                                .build();
+        Assert.assertTrue(histogram instanceof StripedHistogram);
+        histogram.addValue(0);
+        histogram.addValue(1);
+        histogram.addValue(3);
+        histogram.addValue(3);
+        histogram.addValue(7);
+        HistogramTest.verifyHistogram(
+            "test", labels, Arrays.asList(1d, 2d, 5d), Arrays.asList(1L, 2L, 1L), histogram.transform());
+    }
+
+    @Test
+    public void testWeightedBuckets() {
+        final StripedHistogram histogram = newHistogram(0d, 2d, 5d);
+        histogram.addValue(0, 1);
+        histogram.addValue(3, 10);
+        histogram.addValue(5, 10);
+        histogram.addValue(100, 4);
+        HistogramTest.verifyHistogram("test", Collections.emptyList(), Arrays.asList(0d, 2d, 5d),
+                                      Arrays.asList(1L, 10L, 14L), histogram.transform());
+
+        histogram.addValue(1.9, 3);
+        histogram.addValue(-1, 3);
+        histogram.addValue(Double.NaN, 3);
+        HistogramTest.verifyHistogram("test", Collections.emptyList(), Arrays.asList(0d, 2d, 5d),
+                                      Arrays.asList(4L, 10L, 14L), histogram.transform());
+    }
+
+    @Test
+    public void testSpacing() {
+        Assert.assertEquals(StripedHistogram.Spacing.UNIFORM, newHistogram(0d, 0.1d, 0.2d, 0.3d).getSpacing());
+        Assert.assertEquals(StripedHistogram.Spacing.EXPONENTIAL, newHistogram(1d, 10d, 100d, 1000d).getSpacing());
+        Assert.assertEquals(StripedHistogram.Spacing.EXPONENTIAL, newHistogram(0d, 1d, 2d, 4d, 8d).getSpacing());
+        Assert.assertEquals(StripedHistogram.Spacing.IRREGULAR, newHistogram(0d, 1d, 5d, 6d).getSpacing());
+    }
+
+    @Test
+    public void testFastPathMatchesBinarySearch() {
+        final Random random = new Random(7);
+        final List<StripedHistogram> histograms = Arrays.asList(
+            newHistogram(-50d, -25d, 0d, 25d, 50d, 75d, 100d),
+            newHistogram(0d, 0.1d, 0.2d, 0.3d, 0.4d, 0.5d),
+            newHistogram(1d, 10d, 100d, 1000d, 10000d),
+            newHistogram(0d, 1d, 2d, 4d, 8d, 16d, 32d, 64d),
+            newHistogram(0d, 1000d, 10000d, 50000d, 100000d)
+        );
+        for (StripedHistogram histogram : histograms) {
+            final double[] steps = new double[histogram.buckets.length];
+            for (int i = 0; i < steps.length; i++) {
+                steps[i] = histogram.buckets[i].bucket;
+            }
+            final List<Double> values = new ArrayList<>();
+            for (double step : steps) {
+                values.add(step);
+                values.add(Math.nextDown(step));
+                values.add(Math.nextUp(step));
+            }
+            for (int i = 0; i < 10000; i++) {
+                values.add(steps[0] - 10 + random.nextDouble() * (steps[steps.length - 1] - steps[0] + 20) * 1.5);
+            }
+            values.add(Double.MAX_VALUE);
+            for (double value : values) {
+                int expected = -1;
+                for (int i = 0; i < steps.length && steps[i] <= value; i++) {
+                    expected = i;
+                }
+                Assert.assertEquals("value " + value, expected, histogram.bucketIndex(value));
+            }
+        }
+    }
+
+    private static StripedHistogram newHistogram(Double... steps) {
+        return new StripedHistogram(new MeterId("test", MeterType.HISTOGRAM, new ArrayList<>()), Arrays.asList(steps));
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.annotation.AnnotationList;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.method.MethodList;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.jar.asm.Opcodes;
+import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.matcher.ElementMatchers;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassInstanceMethodsEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.RegexMatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static net.bytebuddy.matcher.ElementMatchers.isInterface;
+import static net.bytebuddy.matcher.ElementMatchers.not;
+
+/**
+ * Match a synthetic corpus of 50k class descriptions, spread over library like packages, class hierarchies and
+ * annotations, against a plugin set shaped like the agent's one. The linear benchmarks are the matching before {@link
+ * SignatureMatchIndex}: every indirect match checked in sequence by {@link PluginFinder#find(TypeDescription)}, and
+ * the {@code or} chain of all junctions for {@link PluginFinder#buildMatch()}.
+ */
+@State(Scope.Benchmark)
+public class PluginFinderBenchmark {
+    private static final int TYPES = 50_000;
+    private static final int INTERFACES = 2_000;
+    private static final int BASE_CLASSES = 500;
+    private static final int ANNOTATIONS = 50;
+    private static final String[] PACKAGES = {
+        "org.springframework.web.servlet.", "org.springframework.beans.factory.", "com.mysql.cj.jdbc.",
+        "io.netty.channel.", "io.netty.handler.codec.", "org.apache.http.impl.client.", "org.apache.kafka.clients.",
+        "com.fasterxml.jackson.databind.", "com.example.order.service.", "com.example.order.repository.",
+        "org.hibernate.internal.", "reactor.core.publisher."
+    };
+
+    private final List<TypeDescription> types = new ArrayList<>(TYPES);
+    private final List<AbstractClassEnhancePluginDefine> signatureDefines = new ArrayList<>();
+    private PluginFinder finder;
+    private ElementMatcher<? super TypeDescription> indexedMatcher;
+    private ElementMatcher<? super TypeDescription> linearMatcher;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(7);
+        List<TypeDescription> annotations = new ArrayList<>();
+        for (int i = 0; i < ANNOTATIONS; i++) {
+            annotations.add(new CorpusType(
+                "corpus.annotation.A" + i,
+                Opcodes.ACC_PUBLIC | Opcodes.ACC_INTERFACE | Opcodes.ACC_ABSTRACT | Opcodes.ACC_ANNOTATION, null,
+                Collections.singletonList(TypeDescription.ForLoadedType.of(Annotation.class).asGenericType()),
+                Collections.<AnnotationDescription>emptyList()
+            ));
+        }
+        List<TypeDescription> interfaces = new ArrayList<>();
+        for (int i = 0; i < INTERFACES; i++) {
+            interfaces.add(new CorpusType(
+                "corpus.api.I" + i, Opcodes.ACC_PUBLIC | Opcodes.ACC_INTERFACE | Opcodes.ACC_ABSTRACT, null,
+                pick(interfaces, random.nextInt(3), random), Collections.<AnnotationDescription>emptyList()
+            ));
+        }
+        List<TypeDescription> bases = new ArrayList<>();
+        for (int i = 0; i < BASE_CLASSES; i++) {
+            TypeDescription.Generic superClass = i == 0 || random.nextBoolean()
+                ? TypeDescription.Generic.OBJECT : bases.get(random.nextInt(i)).asGenericType();
+            bases.add(new CorpusType(
+                "corpus.base.B" + i, Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT, superClass,
+                pick(interfaces, random.nextInt(3), random), Collections.<AnnotationDescription>emptyList()
+            ));
+        }
+        for (int i = 0; i < TYPES; i++) {
+            List<AnnotationDescription> declared = random.nextInt(20) == 0
+                ? Collections.singletonList(
+                    AnnotationDescription.Builder.ofType(annotations.get(random.nextInt(ANNOTATIONS))).build())
+                : Collections.<AnnotationDescription>emptyList();
+            types.add(new CorpusType(
+                PACKAGES[random.nextInt(PACKAGES.length)] + "C" + i, Opcodes.ACC_PUBLIC,
+                bases.get(random.nextInt(BASE_CLASSES)).asGenericType(), pick(interfaces, random.nextInt(4), random),
+                declared
+            ));
+        }
+
+        List<AbstractClassEnhancePluginDefine> defines = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            defines.add(new Define(NameMatch.byName(types.get(random.nextInt(TYPES)).getName())));
+        }
+        for (int i = 0; i < 40; i++) {
+            signatureDefines.add(new Define(MultiClassNameMatch.byMultiClassMatch(
+                types.get(random.nextInt(TYPES)).getName(), types.get(random.nextInt(TYPES)).getName())));
+        }
+        for (int i = 0; i < 20; i++) {
+            signatureDefines.add(new Define(PrefixMatch.nameStartsWith(PACKAGES[i % PACKAGES.length] + "C" + i)));
+        }
+        for (int i = 0; i < 80; i++) {
+            signatureDefines.add(new Define(HierarchyMatch.byHierarchyMatch(
+                interfaces.get(random.nextInt(INTERFACES)).getName())));
+        }
+        for (int i = 0; i < 20; i++) {
+            signatureDefines.add(new Define(ClassAnnotationMatch.byClassAnnotationMatch(
+                annotations.get(random.nextInt(ANNOTATIONS)).getName())));
+        }
+        for (int i = 0; i < 2; i++) {
+            signatureDefines.add(new Define(RegexMatch.byRegexMatch("com\\.example\\..*Repository" + i)));
+        }
+        defines.addAll(signatureDefines);
+        finder = new PluginFinder(defines);
+        indexedMatcher = finder.buildMatch();
+
+        ElementMatcher.Junction junction = ElementMatchers.none();
+        for (AbstractClassEnhancePluginDefine define : signatureDefines) {
+            junction = junction.or(((IndirectMatch) define.enhanceClass()).buildJunction());
+        }
+        linearMatcher = not(isInterface()).and(junction);
+    }
+
+    private static List<TypeDescription.Generic> pick(List<TypeDescription> from, int count, Random random) {
+        List<TypeDescription.Generic> picked = new ArrayList<>(count);
+        for (int i = 0; i < count && !from.isEmpty(); i++) {
+            picked.add(from.get(random.nextInt(from.size())).asGenericType());
+        }
+        return picked;
+    }
+
+    private TypeDescription nextType() {
+        TypeDescription type = types.get(cursor);
+        cursor = cursor + 1 == TYPES ? 0 : cursor + 1;
+        return type;
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public boolean matchLinear() {
+        return linearMatcher.matches(nextType());
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public boolean matchIndexed() {
+        return indexedMatcher.matches(nextType());
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public List<AbstractClassEnhancePluginDefine> findLinear() {
+        TypeDescription type = nextType();
+        List<AbstractClassEnhancePluginDefine> matched = new ArrayList<>();
+        for (AbstractClassEnhancePluginDefine define : signatureDefines) {
+            if (((IndirectMatch) define.enhanceClass()).isMatch(type)) {
+                matched.add(define);
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public List<AbstractClassEnhancePluginDefine> findIndexed() {
+        return finder.find(nextType());
+    }
+
+    /**
+     * A latent type with declared annotations and no declared methods.
+     */
+    private static class CorpusType extends TypeDescription.Latent {
+        private final List<AnnotationDescription> annotations;
+
+        private CorpusType(String name, int modifiers, TypeDescription.Generic superClass,
+                           List<TypeDescription.Generic> interfaces, List<AnnotationDescription> annotations) {
+            super(name, modifiers, superClass, interfaces);
+            this.annotations = annotations;
+        }
+
+        @Override
+        public AnnotationList getDeclaredAnnotations() {
+            return new AnnotationList.Explicit(annotations);
+        }
+
+        @Override
+        public MethodList<MethodDescription.InDefinedShape> getDeclaredMethods() {
+            return new MethodList.Empty<MethodDescription.InDefinedShape>();
+        }
+    }
+
+    private static class Define extends ClassInstanceMethodsEnhancePluginDefine {
+        private final ClassMatch match;
+
+        private Define(ClassMatch match) {
+            this.match = match;
+        }
+
+        @Override
+        protected ClassMatch enhanceClass() {
+            return match;
+        }
+
+        @Override
+        public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+            return new ConstructorInterceptPoint[0];
+        }
+
+        @Override
+        public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+            return new InstanceMethodsInterceptPoint[0];
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(PluginFinderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
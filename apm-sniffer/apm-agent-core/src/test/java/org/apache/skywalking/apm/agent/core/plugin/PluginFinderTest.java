@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.io.Serializable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassInstanceMethodsEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.logical.LogicalMatchOperation;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch.byClassAnnotationMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch.byHierarchyMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.MethodAnnotationMatch.byMethodAnnotationMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch.byMultiClassMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch.nameStartsWith;
+import static org.apache.skywalking.apm.agent.core.plugin.match.RegexMatch.byRegexMatch;
+
+public class PluginFinderTest {
+    private static final String PREFIX = PluginFinderTest.class.getName() + "$Prefixed";
+
+    @Test
+    public void testFindByMatchKinds() {
+        Define byName = new Define(NameMatch.byName(NamedService.class.getName()));
+        Define byMultiName = new Define(byMultiClassMatch("not.Exist", NamedService.class.getName()));
+        Define byPrefix = new Define(nameStartsWith("not.exist.", PREFIX));
+        Define byShorterPrefix = new Define(nameStartsWith(PREFIX.substring(0, PREFIX.length() - 3)));
+        Define byHierarchy = new Define(byHierarchyMatch(Runnable.class.getName(), Serializable.class.getName()));
+        Define byClassAnnotation = new Define(byClassAnnotationMatch(Traced.class.getName()));
+        Define byMethodAnnotation = new Define(byMethodAnnotationMatch(Traced.class.getName()));
+        Define byRegex = new Define(byRegexMatch(".*Regex.*"));
+        Define byLogical = new Define(LogicalMatchOperation.and(
+            byHierarchyMatch(Runnable.class.getName()), byClassAnnotationMatch(Traced.class.getName())));
+        PluginFinder finder = new PluginFinder(Arrays.<AbstractClassEnhancePluginDefine>asList(
+            byName, byMultiName, byPrefix, byShorterPrefix, byHierarchy, byClassAnnotation, byMethodAnnotation,
+            byRegex, byLogical
+        ));
+
+        assertFound(finder, NamedService.class, byName, byMultiName);
+        assertFound(finder, PrefixedService.class, byPrefix, byShorterPrefix);
+        assertFound(finder, SerializableTask.class, byHierarchy);
+        assertFound(finder, InheritedSerializableTask.class, byHierarchy);
+        assertFound(finder, TracedTask.class, byClassAnnotation, byLogical);
+        assertFound(finder, TracedMethod.class, byMethodAnnotation);
+        assertFound(finder, RegexService.class, byRegex);
+        assertFound(finder, PluginFinderTest.class);
+    }
+
+    @Test
+    public void testSameAsLinearMatching() {
+        List<AbstractClassEnhancePluginDefine> defines = Arrays.<AbstractClassEnhancePluginDefine>asList(
+            new Define(byHierarchyMatch("java.util.List")),
+            new Define(byHierarchyMatch("java.util.Collection", "java.util.RandomAccess")),
+            new Define(byHierarchyMatch("java.lang.Runnable")),
+            new Define(byHierarchyMatch("java.util.AbstractMap")),
+            new Define(nameStartsWith("java.util.concurrent.")),
+            new Define(nameStartsWith("java.util.concurrent.atomic.", "java.lang.Str")),
+            new Define(byMultiClassMatch("java.lang.Thread", "java.util.HashMap")),
+            new Define(byClassAnnotationMatch(FunctionalInterface.class.getName())),
+            new Define(byClassAnnotationMatch(Deprecated.class.getName())),
+            new Define(byMethodAnnotationMatch(Deprecated.class.getName())),
+            new Define(byRegexMatch("java\\.util\\..*Map"))
+        );
+        PluginFinder finder = new PluginFinder(defines);
+        ElementMatcher<? super TypeDescription> matcher = finder.buildMatch();
+        for (Class<?> type : Arrays.asList(
+            String.class, StringBuilder.class, Thread.class, ArrayList.class, java.util.LinkedList.class,
+            java.util.HashMap.class, java.util.TreeMap.class, java.util.concurrent.ConcurrentHashMap.class,
+            java.util.concurrent.ThreadPoolExecutor.class, java.util.concurrent.FutureTask.class,
+            java.util.concurrent.atomic.AtomicLong.class, java.util.concurrent.CopyOnWriteArrayList.class,
+            java.util.Date.class, Runnable.class, Object.class, Integer.class
+        )) {
+            TypeDescription typeDescription = TypeDescription.ForLoadedType.of(type);
+            List<AbstractClassEnhancePluginDefine> expected = new ArrayList<>();
+            for (AbstractClassEnhancePluginDefine define : defines) {
+                if (((IndirectMatch) define.enhanceClass()).isMatch(typeDescription)) {
+                    expected.add(define);
+                }
+            }
+            Assert.assertEquals(type.getName(), expected, finder.find(typeDescription));
+            if (!type.isInterface()) {
+                Assert.assertEquals(type.getName(), !expected.isEmpty(), matcher.matches(typeDescription));
+            }
+        }
+    }
+
+    private static void assertFound(PluginFinder finder, Class<?> type, Define... defines) {
+        TypeDescription typeDescription = TypeDescription.ForLoadedType.of(type);
+        Assert.assertEquals(type.getName(), Arrays.asList(defines), finder.find(typeDescription));
+        Assert.assertEquals(type.getName(), defines.length > 0, finder.buildMatch().matches(typeDescription));
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Traced {
+    }
+
+    public static class NamedService {
+    }
+
+    public static class PrefixedService {
+    }
+
+    public static class SerializableTask implements Runnable, Serializable {
+        @Override
+        public void run() {
+        }
+    }
+
+    public static class InheritedSerializableTask extends SerializableTask {
+    }
+
+    @Traced
+    public static class TracedTask implements Runnable {
+        @Override
+        public void run() {
+        }
+    }
+
+    public static class TracedMethod {
+        @Traced
+        public void traced() {
+        }
+    }
+
+    public static class RegexService {
+    }
+
+    private static class Define extends ClassInstanceMethodsEnhancePluginDefine {
+        private final ClassMatch match;
+
+        private Define(ClassMatch match) {
+            this.match = match;
+        }
+
+        @Override
+        protected ClassMatch enhanceClass() {
+            return match;
+        }
+
+        @Override
+        public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+            return new ConstructorInterceptPoint[0];
+        }
+
+        @Override
+        public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+            return new InstanceMethodsInterceptPoint[0];
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(match);
+        }
+    }
+}
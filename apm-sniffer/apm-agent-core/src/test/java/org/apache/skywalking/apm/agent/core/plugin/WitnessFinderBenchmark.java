@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import net.bytebuddy.matcher.ElementMatchers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Checks the witnesses from 8 threads, the way the plugins are matched while the application loads its classes in
+ * parallel, against long-lived class loaders and against class loaders created for a single use.
+ */
+@State(Scope.Benchmark)
+public class WitnessFinderBenchmark {
+    private static final int CLASS_LOADERS = 64;
+
+    private final String[] witnessClasses = {
+        WitnessFinderBenchmark.class.getName(),
+        WitnessFinder.class.getName(),
+        "org.apache.skywalking.apm.agent.core.plugin.NotExistWitness",
+        "java.lang.String"
+    };
+    private final WitnessMethod[] witnessMethods = {
+        new WitnessMethod(WitnessFinderBenchmark.class.getName(), ElementMatchers.named("longLivedClassLoaders")),
+        new WitnessMethod(WitnessFinder.class.getName(), ElementMatchers.named("notExist"))
+    };
+    private ClassLoader[] classLoaders;
+
+    @Setup
+    public void setup() {
+        classLoaders = new ClassLoader[CLASS_LOADERS];
+        for (int i = 0; i < CLASS_LOADERS; i++) {
+            classLoaders[i] = new URLClassLoader(new URL[0], WitnessFinderBenchmark.class.getClassLoader());
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public boolean longLivedClassLoaders() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ClassLoader classLoader = classLoaders[random.nextInt(CLASS_LOADERS)];
+        return WitnessFinder.INSTANCE.exist(witnessClasses[random.nextInt(witnessClasses.length)], classLoader)
+            & WitnessFinder.INSTANCE.exist(witnessMethods[random.nextInt(witnessMethods.length)], classLoader);
+    }
+
+    @Benchmark
+    @Threads(8)
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public boolean shortLivedClassLoaders() {
+        ClassLoader classLoader = new URLClassLoader(new URL[0], WitnessFinderBenchmark.class.getClassLoader());
+        boolean exist = true;
+        for (String witnessClass : witnessClasses) {
+            exist &= WitnessFinder.INSTANCE.exist(witnessClass, classLoader);
+        }
+        return exist;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(WitnessFinderBenchmark.class.getSimpleName())
+                                          .addProfiler(GCProfiler.class)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
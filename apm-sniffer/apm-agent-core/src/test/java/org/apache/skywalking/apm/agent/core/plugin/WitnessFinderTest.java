@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.bytebuddy.matcher.ElementMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WitnessFinderTest {
+    private final WitnessFinder finder = WitnessFinder.INSTANCE;
+
+    @Test
+    public void testResultsAreCached() {
+        CountingClassLoader classLoader = new CountingClassLoader(getClass().getClassLoader());
+        WitnessMethod witnessMethod = new WitnessMethod(WitnessFinderTest.class.getName(), ElementMatchers.named("witness"));
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(finder.exist(WitnessFinderTest.class.getName(), classLoader));
+            Assert.assertFalse(finder.exist("test.not.exist.Witness", classLoader));
+            Assert.assertTrue(finder.exist(witnessMethod, classLoader));
+            Assert.assertFalse(finder.exist(
+                new WitnessMethod(WitnessFinderTest.class.getName(), ElementMatchers.named("absent")), classLoader));
+        }
+        // one lookup of each class file: the witness class, the missing class, and the class of the absent method
+        Assert.assertEquals(4, classLoader.lookups.get());
+    }
+
+    @Test
+    public void testCollectedClassLoaderIsReleased() throws InterruptedException {
+        ClassLoader classLoader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+        Assert.assertTrue(finder.exist(WitnessFinderTest.class.getName(), classLoader));
+        int cached = finder.cachedClassLoaders();
+
+        WeakReference<ClassLoader> reference = new WeakReference<>(classLoader);
+        classLoader = null;
+        for (int i = 0; i < 100 && (reference.get() != null || finder.cachedClassLoaders() >= cached); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertNull(reference.get());
+        Assert.assertTrue(finder.cachedClassLoaders() < cached);
+    }
+
+    @Test
+    public void testCachedClassLoadersAreBounded() {
+        List<ClassLoader> classLoaders = new ArrayList<>();
+        for (int i = 0; i < WitnessFinder.MAX_CACHED_CLASS_LOADERS + 10; i++) {
+            ClassLoader classLoader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+            classLoaders.add(classLoader);
+            Assert.assertTrue(finder.exist(WitnessFinderTest.class.getName(), classLoader));
+        }
+        Assert.assertTrue(finder.cachedClassLoaders() <= WitnessFinder.MAX_CACHED_CLASS_LOADERS);
+        for (ClassLoader classLoader : classLoaders) {
+            Assert.assertTrue(finder.exist(WitnessFinderTest.class.getName(), classLoader));
+        }
+    }
+
+    public void witness() {
+    }
+
+    private static class CountingClassLoader extends ClassLoader {
+        private final AtomicInteger lookups = new AtomicInteger();
+
+        private CountingClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        public InputStream getResourceAsStream(String name) {
+            lookups.incrementAndGet();
+            return super.getResourceAsStream(name);
+        }
+    }
+}
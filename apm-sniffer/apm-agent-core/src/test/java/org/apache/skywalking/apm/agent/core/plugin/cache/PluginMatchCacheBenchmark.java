@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.security.cert.Certificate;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.pool.TypePool;
+import org.apache.skywalking.apm.agent.core.plugin.AbstractClassEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.PluginFinder;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassInstanceMethodsEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The startup matching work of the agent: every type of the classpath jars goes through the matcher built by {@link
+ * PluginFinder#buildCachedMatch()}, and the matched ones through {@link PluginFinder#find(TypeDescription, boolean)}. {@code cached}
+ * compares the first start with no cache against a restart with the {@link PluginMatchCache} saved by it.
+ */
+@State(Scope.Benchmark)
+public class PluginMatchCacheBenchmark {
+    private static final int MAX_TYPES = 5000;
+    private static final int HIERARCHY_DEFINES = 60;
+    private static final int ANNOTATION_DEFINES = 20;
+
+    @Param({
+        "false",
+        "true"
+    })
+    public boolean cached;
+
+    private final List<TypeDescription> types = new ArrayList<>();
+    private final List<ProtectionDomain> protectionDomains = new ArrayList<>();
+    private final Set<String> classpathEntries = new HashSet<>();
+    private PluginFinder finder;
+    private AgentBuilder.RawMatcher matcher;
+    private File cacheFile;
+
+    @Setup
+    public void setup() throws IOException {
+        TypePool typePool = TypePool.Default.ofSystemLoader();
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            if (!entry.endsWith(".jar") || types.size() >= MAX_TYPES) {
+                continue;
+            }
+            classpathEntries.add(new File(entry).getAbsolutePath());
+            ProtectionDomain protectionDomain = new ProtectionDomain(
+                new CodeSource(new File(entry).toURI().toURL(), (Certificate[]) null), null);
+            try (JarFile jar = new JarFile(entry)) {
+                Enumeration<JarEntry> entries = jar.entries();
+                while (entries.hasMoreElements() && types.size() < MAX_TYPES) {
+                    String name = entries.nextElement().getName();
+                    if (name.endsWith(".class") && !name.contains("-")) {
+                        TypePool.Resolution resolution = typePool.describe(
+                            name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+                        if (resolution.isResolved() && isResolvable(resolution.resolve())) {
+                            types.add(resolution.resolve());
+                            protectionDomains.add(protectionDomain);
+                        }
+                    }
+                }
+            }
+        }
+
+        List<AbstractClassEnhancePluginDefine> plugins = new ArrayList<>();
+        for (int i = 0; i < HIERARCHY_DEFINES; i++) {
+            plugins.add(new BenchmarkDefine(HierarchyMatch.byHierarchyMatch("bench.plugin" + i + ".Handler")));
+        }
+        for (int i = 0; i < ANNOTATION_DEFINES; i++) {
+            plugins.add(new BenchmarkDefine(ClassAnnotationMatch.byClassAnnotationMatch("bench.plugin" + i + ".Traced")));
+        }
+        finder = new PluginFinder(plugins);
+        matcher = finder.buildCachedMatch();
+
+        PluginMatchCache.INSTANCE.disable();
+        if (cached) {
+            cacheFile = Files.createTempFile("plugin-match", ".cache").toFile();
+            PluginMatchCache.INSTANCE.load(cacheFile, "benchmark", classpathEntries);
+            match();
+            PluginMatchCache.INSTANCE.save();
+            PluginMatchCache.INSTANCE.load(cacheFile, "benchmark", classpathEntries);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        PluginMatchCache.INSTANCE.disable();
+        if (cacheFile != null) {
+            cacheFile.delete();
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public int match() {
+        ClassLoader classLoader = ClassLoader.getSystemClassLoader();
+        PluginMatchCache matchCache = PluginMatchCache.INSTANCE;
+        int matched = 0;
+        for (int i = 0; i < types.size(); i++) {
+            TypeDescription type = types.get(i);
+            ProtectionDomain protectionDomain = protectionDomains.get(i);
+            if (matcher.matches(type, classLoader, null, null, protectionDomain)) {
+                matched += finder.find(type, matchCache.cacheKeyOf(protectionDomain, type.getTypeName())).size();
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * Skip the types whose super types or annotations are missing in the classpath, the agent doesn't enhance them.
+     */
+    private static boolean isResolvable(TypeDescription type) {
+        try {
+            HierarchyMatch.byHierarchyMatch("bench.Resolvable").isMatch(type);
+            ClassAnnotationMatch.byClassAnnotationMatch("bench.Resolvable").isMatch(type);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static class BenchmarkDefine extends ClassInstanceMethodsEnhancePluginDefine {
+        private final ClassMatch match;
+
+        private BenchmarkDefine(ClassMatch match) {
+            this.match = match;
+        }
+
+        @Override
+        protected ClassMatch enhanceClass() {
+            return match;
+        }
+
+        @Override
+        public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+            return new ConstructorInterceptPoint[0];
+        }
+
+        @Override
+        public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+            return new InstanceMethodsInterceptPoint[0];
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(PluginMatchCacheBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
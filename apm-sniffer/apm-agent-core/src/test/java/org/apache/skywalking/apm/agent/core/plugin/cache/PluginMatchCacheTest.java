@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.security.cert.Certificate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import org.apache.skywalking.apm.agent.core.plugin.AbstractClassEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.EnhanceContext;
+import org.apache.skywalking.apm.agent.core.plugin.PluginFinder;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassInstanceMethodsEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.RegexMatch;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PluginMatchCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final ProtectionDomain PROTECTION_DOMAIN = CachedService.class.getProtectionDomain();
+    private static final ClassLoader SYSTEM_LOADER = ClassLoader.getSystemClassLoader();
+
+    @After
+    public void after() {
+        PluginMatchCache.INSTANCE.disable();
+    }
+
+    @Test
+    public void testSaveAndReload() throws IOException {
+        File file = new File(folder.getRoot(), "cache/plugin-match.cache");
+        PluginMatchCache cache = PluginMatchCache.INSTANCE;
+        cache.load(file, "fingerprint", classpathEntries());
+        cache.recordSignatureMatch("test.Matched", Arrays.asList("test.FirstDefine", "test.SecondDefine"));
+        cache.recordSignatureMatch("test.Unmatched", Collections.<String>emptyList());
+        cache.recordWitnessPassed("test.FirstDefine", "test.Matched");
+        cache.save();
+
+        cache.load(file, "fingerprint", classpathEntries());
+        Assert.assertArrayEquals(new String[] {"test.FirstDefine", "test.SecondDefine"}, cache.signatureMatchOf("test.Matched"));
+        Assert.assertArrayEquals(new String[0], cache.signatureMatchOf("test.Unmatched"));
+        Assert.assertNull(cache.signatureMatchOf("test.Unknown"));
+        Assert.assertTrue(cache.isWitnessPassed("test.FirstDefine", "test.Matched"));
+        Assert.assertFalse(cache.isWitnessPassed("test.SecondDefine", "test.Matched"));
+    }
+
+    @Test
+    public void testInvalidatedByFingerprint() throws IOException {
+        File file = folder.newFile("plugin-match.cache");
+        PluginMatchCache cache = PluginMatchCache.INSTANCE;
+        cache.load(file, "fingerprint", classpathEntries());
+        cache.recordSignatureMatch("test.Unmatched", Collections.<String>emptyList());
+        cache.save();
+
+        cache.load(file, "changed", classpathEntries());
+        Assert.assertNull(cache.signatureMatchOf("test.Unmatched"));
+        cache.save();
+        Assert.assertEquals(
+            Collections.singletonList("v2 changed"), Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testCorruptedFile() throws IOException {
+        File file = folder.newFile("plugin-match.cache");
+        Files.write(file.toPath(), Arrays.asList("v2 fingerprint", "broken line"), StandardCharsets.UTF_8);
+        PluginMatchCache cache = PluginMatchCache.INSTANCE;
+        cache.load(file, "fingerprint", classpathEntries());
+        Assert.assertTrue(cache.isEnabled());
+        Assert.assertNull(cache.signatureMatchOf("broken line"));
+    }
+
+    @Test
+    public void testFingerprintOfClasspath() throws IOException {
+        File jar = folder.newFile("app.jar");
+        List<AbstractClassEnhancePluginDefine> plugins = Collections.singletonList(new RegexDefine());
+        String fingerprint = PluginMatchCache.fingerprint(plugins, jar.getAbsolutePath());
+        Assert.assertEquals(fingerprint, PluginMatchCache.fingerprint(plugins, jar.getAbsolutePath()));
+
+        Files.write(jar.toPath(), new byte[] {1});
+        Assert.assertNotEquals(fingerprint, PluginMatchCache.fingerprint(plugins, jar.getAbsolutePath()));
+        Assert.assertNotEquals(fingerprint, PluginMatchCache.fingerprint(Collections.emptyList(), jar.getAbsolutePath()));
+    }
+
+    @Test
+    public void testPluginFinderRecordsAndSkipsMatching() throws IOException {
+        PluginMatchCache cache = PluginMatchCache.INSTANCE;
+        cache.load(folder.newFile("plugin-match.cache"), "fingerprint", classpathEntries());
+        RegexDefine define = new RegexDefine();
+        PluginFinder finder = new PluginFinder(Collections.singletonList(define));
+
+        TypeDescription matched = TypeDescription.ForLoadedType.of(CachedService.class);
+        TypeDescription unmatched = TypeDescription.ForLoadedType.of(PluginMatchCacheTest.class);
+        AgentBuilder.RawMatcher cachedMatch = finder.buildCachedMatch();
+        Assert.assertTrue(cachedMatch.matches(matched, SYSTEM_LOADER, null, null, PROTECTION_DOMAIN));
+        Assert.assertFalse(cachedMatch.matches(unmatched, SYSTEM_LOADER, null, null, PROTECTION_DOMAIN));
+        String matchedKey = cache.cacheKeyOf(PROTECTION_DOMAIN, matched.getTypeName());
+        Assert.assertEquals(Collections.singletonList(define), finder.find(matched, matchedKey));
+        Assert.assertArrayEquals(new String[] {RegexDefine.class.getName()}, cache.signatureMatchOf(matchedKey));
+        Assert.assertArrayEquals(
+            new String[0], cache.signatureMatchOf(cache.cacheKeyOf(PROTECTION_DOMAIN, unmatched.getTypeName())));
+
+        // a cached result takes the place of the matchers
+        TypeDescription stale = TypeDescription.ForLoadedType.of(StaleService.class);
+        String staleKey = cache.cacheKeyOf(PROTECTION_DOMAIN, stale.getTypeName());
+        cache.recordSignatureMatch(staleKey, Collections.<String>emptyList());
+        Assert.assertFalse(cachedMatch.matches(stale, SYSTEM_LOADER, null, null, PROTECTION_DOMAIN));
+        Assert.assertTrue(finder.find(stale, staleKey).isEmpty());
+
+        // the same type name loaded from a location out of the classpath goes through the matchers
+        ProtectionDomain otherDomain = protectionDomainOf(folder.newFolder("webapp").toURI().toURL());
+        ClassLoader otherLoader = new URLClassLoader(new URL[0], SYSTEM_LOADER);
+        Assert.assertTrue(cachedMatch.matches(stale, otherLoader, null, null, otherDomain));
+        Assert.assertNull(cache.cacheKeyOf(otherDomain, stale.getTypeName()));
+        Assert.assertEquals(Collections.singletonList(define), finder.find(stale, null));
+        Assert.assertArrayEquals(new String[0], cache.signatureMatchOf(staleKey));
+    }
+
+    @Test
+    public void testCacheKeyOfClasspathLocations() throws IOException {
+        PluginMatchCache cache = PluginMatchCache.INSTANCE;
+        String typeName = CachedService.class.getName();
+        Assert.assertNull(cache.cacheKeyOf(PROTECTION_DOMAIN, typeName));
+
+        File fatJar = folder.newFile("app.jar");
+        Set<String> classpathEntries = new HashSet<>(classpathEntries());
+        classpathEntries.add(fatJar.getAbsolutePath());
+        cache.load(folder.newFile("plugin-match.cache"), "fingerprint", classpathEntries);
+        Assert.assertNotNull(cache.cacheKeyOf(PROTECTION_DOMAIN, typeName));
+        Assert.assertNotEquals(
+            cache.cacheKeyOf(PROTECTION_DOMAIN, typeName), cache.cacheKeyOf(PROTECTION_DOMAIN, typeName + "2"));
+        Assert.assertNull(cache.cacheKeyOf(null, typeName));
+        Assert.assertNull(cache.cacheKeyOf(protectionDomainOf(folder.newFolder("other").toURI().toURL()), typeName));
+
+        // the nested jars of a fat jar on the classpath, loaded by the Spring Boot loaders before and since 3.2
+        String fatJarUrl = fatJar.toURI().toURL().toString();
+        String firstLib = cache.cacheKeyOf(
+            protectionDomainOf(new URL("jar:" + fatJarUrl + "!/BOOT-INF/lib/first.jar!/")), typeName);
+        String secondLib = cache.cacheKeyOf(
+            protectionDomainOf(new URL("jar:" + fatJarUrl + "!/BOOT-INF/lib/second.jar!/")), typeName);
+        Assert.assertNotNull(firstLib);
+        Assert.assertNotNull(secondLib);
+        Assert.assertNotEquals(firstLib, secondLib);
+        // no handler of the nested protocol out of the Spring Boot loader
+        URL nestedLib = new URL("jar", null, -1, "nested:" + fatJar.toURI().getPath() + "/!BOOT-INF/lib/first.jar!/",
+                                new URLStreamHandler() {
+                                    @Override
+                                    protected URLConnection openConnection(URL url) {
+                                        throw new UnsupportedOperationException();
+                                    }
+                                }
+        );
+        Assert.assertNotNull(cache.cacheKeyOf(protectionDomainOf(nestedLib), typeName));
+
+        File otherJar = folder.newFile("other.jar");
+        Assert.assertNull(cache.cacheKeyOf(protectionDomainOf(
+            new URL("jar:" + otherJar.toURI().toURL() + "!/BOOT-INF/lib/first.jar!/")), typeName));
+    }
+
+    @Test
+    public void testOutermostArchiveOf() {
+        Assert.assertEquals("file:/app/lib/a.jar", PluginMatchCache.outermostArchiveOf("file:/app/lib/a.jar"));
+        Assert.assertEquals(
+            "file:/app.jar", PluginMatchCache.outermostArchiveOf("jar:file:/app.jar!/BOOT-INF/lib/a.jar!/"));
+        Assert.assertEquals(
+            "file:/app.jar", PluginMatchCache.outermostArchiveOf("jar:file:/app.jar!/BOOT-INF/classes!/"));
+        Assert.assertEquals(
+            "file:/app.jar", PluginMatchCache.outermostArchiveOf("jar:nested:/app.jar/!BOOT-INF/lib/a.jar!/"));
+        Assert.assertEquals("file:/app.jar", PluginMatchCache.outermostArchiveOf("nested:/app.jar/!BOOT-INF/classes/"));
+        Assert.assertNull(PluginMatchCache.outermostArchiveOf("http://repo/a.jar"));
+        Assert.assertNull(PluginMatchCache.outermostArchiveOf("jrt:/java.base"));
+    }
+
+    @Test
+    public void testWitnessPassedIsSkipped() throws Exception {
+        TypeDescription type = TypeDescription.ForLoadedType.of(CachedService.class);
+        WitnessDefine define = new WitnessDefine();
+        Assert.assertNull(define.define(type, new ByteBuddy().redefine(CachedService.class), getClass().getClassLoader(), new EnhanceContext()));
+
+        PluginMatchCache cache = PluginMatchCache.INSTANCE;
+        cache.load(folder.newFile("plugin-match.cache"), "fingerprint", classpathEntries());
+        String matchCacheKey = cache.cacheKeyOf(PROTECTION_DOMAIN, type.getTypeName());
+        cache.recordWitnessPassed(WitnessDefine.class.getName(), matchCacheKey);
+        Assert.assertNull(define.define(type, new ByteBuddy().redefine(CachedService.class), getClass().getClassLoader(), new EnhanceContext()));
+
+        EnhanceContext context = new EnhanceContext();
+        context.setMatchCacheKey(matchCacheKey);
+        Assert.assertNotNull(define.define(type, new ByteBuddy().redefine(CachedService.class), getClass().getClassLoader(), context));
+    }
+
+    private static ProtectionDomain protectionDomainOf(URL location) {
+        return new ProtectionDomain(new CodeSource(location, (Certificate[]) null), null);
+    }
+
+    private static Set<String> classpathEntries() {
+        return Collections.singleton(new File(PROTECTION_DOMAIN.getCodeSource().getLocation().getPath()).getAbsolutePath());
+    }
+
+    public static class CachedService {
+    }
+
+    public static class StaleService {
+    }
+
+    public static class RegexDefine extends ClassInstanceMethodsEnhancePluginDefine {
+        @Override
+        protected ClassMatch enhanceClass() {
+            return RegexMatch.byRegexMatch(".*Service");
+        }
+
+        @Override
+        public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+            return new ConstructorInterceptPoint[0];
+        }
+
+        @Override
+        public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+            return new InstanceMethodsInterceptPoint[0];
+        }
+    }
+
+    public static class WitnessDefine extends RegexDefine {
+        @Override
+        protected String[] witnessClasses() {
+            return new String[] {"test.not.exist.Witness"};
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v3;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import org.apache.skywalking.apm.agent.core.plugin.AbstractClassEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.EnhanceContext;
+import org.apache.skywalking.apm.agent.core.plugin.PluginException;
+
+/**
+ * Enhance a class by a plugin define like the agent does, and load it by a child first class loader.
+ */
+final class EnhancedClasses {
+    private EnhancedClasses() {
+    }
+
+    static Class<?> enhance(AbstractClassEnhancePluginDefine define, Class<?> type) throws PluginException {
+        ClassLoader classLoader = type.getClassLoader();
+        return define.define(TypeDescription.ForLoadedType.of(type), new ByteBuddy().rebase(type), classLoader, new EnhanceContext())
+                     .make()
+                     .load(classLoader, ClassLoadingStrategy.Default.CHILD_FIRST)
+                     .getLoaded();
+    }
+
+    static <T> T newInstance(Class<?> enhancedType, Class<T> view) throws ReflectiveOperationException {
+        return view.cast(enhancedType.getDeclaredConstructor().newInstance());
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v3;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2.ClassInstanceMethodsEnhancePluginDefineV2;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2.InstanceMethodsAroundInterceptorV2;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2.MethodInvocationContext;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.InstanceMethodsInterceptV2Point;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.v3.InstanceMethodsInterceptV3Point;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static org.apache.skywalking.apm.agent.core.plugin.match.NameMatch.byName;
+
+public class InstMethodsAdviceV3Test {
+    private static final List<String> EVENTS = new ArrayList<>();
+    private static volatile Mode MODE = Mode.OBSERVE;
+
+    private Calculator calculator;
+    private Calculator overridingCalculator;
+
+    @Before
+    public void setUp() throws Exception {
+        EVENTS.clear();
+        MODE = Mode.OBSERVE;
+        calculator = EnhancedClasses.newInstance(
+            EnhancedClasses.enhance(new CalculatorInstrumentation(false), SimpleCalculator.class), Calculator.class);
+        overridingCalculator = EnhancedClasses.newInstance(
+            EnhancedClasses.enhance(new CalculatorInstrumentation(true), SimpleCalculator.class), Calculator.class);
+    }
+
+    @Test
+    public void testEnhancedByAdvice() throws IllegalAccessException {
+        Assert.assertTrue(calculator instanceof EnhancedInstance);
+        Assert.assertNotSame(SimpleCalculator.class, calculator.getClass());
+        // the interceptor, and the method and the argument types of greet and add, all initialized with the class
+        int interceptors = 0;
+        int methods = 0;
+        int argumentsTypes = 0;
+        for (Field field : calculator.getClass().getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                field.setAccessible(true);
+                Assert.assertNotNull(field.getName(), field.get(null));
+                interceptors += field.getType() == InstMethodsInterV3.class ? 1 : 0;
+                methods += field.getType() == Method.class ? 1 : 0;
+                argumentsTypes += field.getType() == Class[].class ? 1 : 0;
+            }
+        }
+        Assert.assertEquals(1, interceptors);
+        Assert.assertEquals(2, methods);
+        Assert.assertEquals(2, argumentsTypes);
+    }
+
+    @Test
+    public void testInterceptObjectAndPrimitiveReturn() {
+        Assert.assertEquals("hello, skywalking", calculator.greet("skywalking"));
+        Assert.assertEquals(5, calculator.add(2, 3));
+        Assert.assertEquals(asList(
+            "before greet[String] skywalking", "after greet hello, skywalking",
+            "before add[int, int] 2", "after add 5"
+        ), EVENTS);
+    }
+
+    @Test
+    public void testOverrideReturnValue() {
+        MODE = Mode.OVERRIDE_RETURN;
+        Assert.assertEquals("intercepted", calculator.greet("skywalking"));
+        Assert.assertEquals(-1, calculator.add(2, 3));
+    }
+
+    @Test
+    public void testSkipOriginMethod() {
+        MODE = Mode.SKIP;
+        Assert.assertEquals("skipped", calculator.greet("skywalking"));
+        Assert.assertEquals(42, calculator.add(2, 3));
+        // afterMethod gets the value defined by beforeMethod
+        Assert.assertEquals(asList(
+            "before greet[String] skywalking", "after greet skipped",
+            "before add[int, int] 2", "after add 42"
+        ), EVENTS);
+    }
+
+    @Test
+    public void testHandleException() {
+        try {
+            calculator.add(Integer.MAX_VALUE, 1);
+            Assert.fail();
+        } catch (ArithmeticException e) {
+            Assert.assertEquals("integer overflow", e.getMessage());
+        }
+        Assert.assertEquals(asList(
+            "before add[int, int] 2147483647", "exception add integer overflow", "after add null"
+        ), EVENTS);
+    }
+
+    @Test
+    public void testInterceptorFailureIsIgnored() {
+        MODE = Mode.FAIL;
+        Assert.assertEquals("hello, skywalking", calculator.greet("skywalking"));
+        Assert.assertEquals(5, calculator.add(2, 3));
+    }
+
+    @Test
+    public void testOverrideArgs() {
+        MODE = Mode.OVERRIDE_ARGS;
+        Assert.assertEquals("hello, overridden", overridingCalculator.greet("skywalking"));
+        Assert.assertEquals(12, overridingCalculator.add(2, 3));
+        // the arguments of the non-overriding point can't be changed
+        Assert.assertEquals("hello, skywalking", calculator.greet("skywalking"));
+        Assert.assertEquals(5, calculator.add(2, 3));
+    }
+
+    private static List<String> asList(String... events) {
+        List<String> list = new ArrayList<>();
+        for (String event : events) {
+            list.add(event);
+        }
+        return list;
+    }
+
+    private enum Mode {
+        OBSERVE, OVERRIDE_RETURN, SKIP, FAIL, OVERRIDE_ARGS
+    }
+
+    public interface Calculator {
+        String greet(String name);
+
+        int add(int a, int b);
+    }
+
+    public static class SimpleCalculator implements Calculator {
+        @Override
+        public String greet(String name) {
+            return "hello, " + name;
+        }
+
+        @Override
+        public int add(int a, int b) {
+            return Math.addExact(a, b);
+        }
+    }
+
+    public static class RecordingInterceptor implements InstanceMethodsAroundInterceptorV2 {
+        @Override
+        public void beforeMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                 Class<?>[] argumentsTypes, MethodInvocationContext context) {
+            if (MODE == Mode.FAIL) {
+                throw new IllegalStateException("before");
+            }
+            StringBuilder types = new StringBuilder();
+            for (Class<?> type : argumentsTypes) {
+                types.append(types.length() == 0 ? "" : ", ").append(type.getSimpleName());
+            }
+            EVENTS.add("before " + method.getName() + "[" + types + "] " + allArguments[0]);
+            context.setContext(method.getName());
+            if (MODE == Mode.SKIP) {
+                context.defineReturnValue(method.getReturnType() == int.class ? (Object) 42 : "skipped");
+            } else if (MODE == Mode.OVERRIDE_ARGS) {
+                if (allArguments[0] instanceof String) {
+                    allArguments[0] = "overridden";
+                } else {
+                    allArguments[0] = 9;
+                }
+            }
+        }
+
+        @Override
+        public Object afterMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                  Class<?>[] argumentsTypes, Object ret, MethodInvocationContext context) {
+            if (MODE == Mode.FAIL) {
+                throw new IllegalStateException("after");
+            }
+            Assert.assertEquals(method.getName(), context.getContext());
+            EVENTS.add("after " + method.getName() + " " + ret);
+            if (MODE == Mode.OVERRIDE_RETURN) {
+                return method.getReturnType() == int.class ? (Object) (-1) : "intercepted";
+            }
+            return ret;
+        }
+
+        @Override
+        public void handleMethodException(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                          Class<?>[] argumentsTypes, Throwable t, MethodInvocationContext context) {
+            EVENTS.add("exception " + method.getName() + " " + t.getMessage());
+        }
+    }
+
+    private static class CalculatorInstrumentation extends ClassInstanceMethodsEnhancePluginDefineV2 {
+        private final boolean overrideArgs;
+
+        private CalculatorInstrumentation(boolean overrideArgs) {
+            this.overrideArgs = overrideArgs;
+        }
+
+        @Override
+        protected ClassMatch enhanceClass() {
+            return byName(SimpleCalculator.class.getName());
+        }
+
+        @Override
+        public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+            return new ConstructorInterceptPoint[0];
+        }
+
+        @Override
+        public InstanceMethodsInterceptV2Point[] getInstanceMethodsInterceptV2Points() {
+            return new InstanceMethodsInterceptV2Point[] {
+                new InstanceMethodsInterceptV3Point() {
+                    @Override
+                    public ElementMatcher<MethodDescription> getMethodsMatcher() {
+                        return named("greet").or(named("add"));
+                    }
+
+                    @Override
+                    public String getMethodsInterceptorV2() {
+                        return RecordingInterceptor.class.getName();
+                    }
+
+                    @Override
+                    public boolean isOverrideArgs() {
+                        return overrideArgs;
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v3;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2.ClassInstanceMethodsEnhancePluginDefineV2;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2.InstanceMethodsAroundInterceptorV2;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2.MethodInvocationContext;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.InstanceMethodsInterceptV2Point;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.v3.InstanceMethodsInterceptV3Point;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.takesArguments;
+import static org.apache.skywalking.apm.agent.core.plugin.match.NameMatch.byName;
+
+/**
+ * Invoke a method enhanced by the v2 delegation and by the v3 advice. The interceptor follows the jdbc plugin's
+ * statement interceptor: it reads the connection info from the dynamic field and the SQL from the arguments in
+ * beforeMethod, and keeps them in the invocation context until afterMethod. It doesn't create spans, so only the cost
+ * of the dispatch is measured.
+ * <p>
+ * Both dispatches allocate the arguments array and the invocation context per call, and v2 the {@code Callable} of the
+ * origin method too. This interceptor is small enough for the JIT to inline and scalar replace the v3 allocations,
+ * which a real interceptor keeping the context in its span prevents. The {@code NoEscapeAnalysis} benchmarks show the
+ * allocations in that case.
+ */
+@State(Scope.Benchmark)
+public class InstMethodsInterBenchmark {
+    private Statement plain;
+    private Statement delegated;
+    private Statement advised;
+
+    @Setup
+    public void setup() throws Exception {
+        plain = new FakeStatement();
+        delegated = EnhancedClasses.newInstance(
+            EnhancedClasses.enhance(new StatementInstrumentation(false), FakeStatement.class), Statement.class);
+        advised = EnhancedClasses.newInstance(
+            EnhancedClasses.enhance(new StatementInstrumentation(true), FakeStatement.class), Statement.class);
+        ((EnhancedInstance) delegated).setSkyWalkingDynamicField("jdbc:mysql://localhost:3306/test");
+        ((EnhancedInstance) advised).setSkyWalkingDynamicField("jdbc:mysql://localhost:3306/test");
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public int notEnhanced() {
+        return plain.executeUpdate("UPDATE t SET c = 1 WHERE id = ?", 1);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public int v2Delegation() {
+        return delegated.executeUpdate("UPDATE t SET c = 1 WHERE id = ?", 1);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public int v3Advice() {
+        return advised.executeUpdate("UPDATE t SET c = 1 WHERE id = ?", 1);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1, jvmArgsAppend = "-XX:-DoEscapeAnalysis")
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public int v2DelegationNoEscapeAnalysis() {
+        return delegated.executeUpdate("UPDATE t SET c = 1 WHERE id = ?", 1);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1, jvmArgsAppend = "-XX:-DoEscapeAnalysis")
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public int v3AdviceNoEscapeAnalysis() {
+        return advised.executeUpdate("UPDATE t SET c = 1 WHERE id = ?", 1);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(InstMethodsInterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+
+    public interface Statement {
+        int executeUpdate(String sql, int id);
+    }
+
+    public static class FakeStatement implements Statement {
+        @Override
+        public int executeUpdate(String sql, int id) {
+            return sql.length() + id;
+        }
+    }
+
+    public static class StatementInterceptor implements InstanceMethodsAroundInterceptorV2 {
+        @Override
+        public void beforeMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                 Class<?>[] argumentsTypes, MethodInvocationContext context) {
+            String connectionInfo = (String) objInst.getSkyWalkingDynamicField();
+            if (connectionInfo != null && argumentsTypes.length > 0 && argumentsTypes[0] == String.class) {
+                context.setContext(allArguments[0]);
+            }
+        }
+
+        @Override
+        public Object afterMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                  Class<?>[] argumentsTypes, Object ret, MethodInvocationContext context) {
+            return context.getContext() == null ? ret : ret;
+        }
+
+        @Override
+        public void handleMethodException(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                          Class<?>[] argumentsTypes, Throwable t, MethodInvocationContext context) {
+        }
+    }
+
+    private static class StatementInstrumentation extends ClassInstanceMethodsEnhancePluginDefineV2 {
+        private final boolean advice;
+
+        private StatementInstrumentation(boolean advice) {
+            this.advice = advice;
+        }
+
+        @Override
+        protected ClassMatch enhanceClass() {
+            return byName(FakeStatement.class.getName());
+        }
+
+        @Override
+        public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+            return new ConstructorInterceptPoint[0];
+        }
+
+        @Override
+        public InstanceMethodsInterceptV2Point[] getInstanceMethodsInterceptV2Points() {
+            return new InstanceMethodsInterceptV2Point[] {
+                advice ? new StatementInterceptV3Point() : new StatementInterceptV2Point()
+            };
+        }
+    }
+
+    private static class StatementInterceptV2Point implements InstanceMethodsInterceptV2Point {
+        @Override
+        public ElementMatcher<MethodDescription> getMethodsMatcher() {
+            return named("executeUpdate").and(takesArguments(2));
+        }
+
+        @Override
+        public String getMethodsInterceptorV2() {
+            return StatementInterceptor.class.getName();
+        }
+
+        @Override
+        public boolean isOverrideArgs() {
+            return false;
+        }
+    }
+
+    private static class StatementInterceptV3Point extends StatementInterceptV2Point implements InstanceMethodsInterceptV3Point {
+    }
+}
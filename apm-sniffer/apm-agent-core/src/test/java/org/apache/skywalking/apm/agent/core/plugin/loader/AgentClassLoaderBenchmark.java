@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.loader;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Load all plugin definitions from a dist like layout, {@code plugins} and {@code activations} folders full of plugin
+ * jars, by a fresh {@link AgentClassLoader} as the agent does at startup.
+ */
+@State(Scope.Benchmark)
+public class AgentClassLoaderBenchmark {
+    private static final int PLUGIN_JARS = 200;
+    private static final int ACTIVATION_JARS = 20;
+    private static final int CLASSES_PER_JAR = 20;
+
+    private Path dist;
+    private File plugins;
+    private File activations;
+
+    @Setup
+    public void setup() throws IOException {
+        dist = Files.createTempDirectory("sw-dist");
+        plugins = new File(dist.toFile(), "plugins");
+        activations = new File(dist.toFile(), "activations");
+        writeJars(plugins, "plugin", PLUGIN_JARS);
+        writeJars(activations, "activation", ACTIVATION_JARS);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dist)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Warmup(iterations = 10)
+    @Measurement(iterations = 50)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void loadPluginDefines(Blackhole bh) throws Exception {
+        AgentClassLoader loader = new AgentClassLoader(null, Arrays.asList(plugins, activations));
+        try {
+            Enumeration<URL> defines = loader.getResources("skywalking-plugin.def");
+            while (defines.hasMoreElements()) {
+                try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(defines.nextElement().openStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        bh.consume(Class.forName(line.substring(line.indexOf('=') + 1), true, loader));
+                    }
+                }
+            }
+        } finally {
+            loader.closeJars();
+        }
+    }
+
+    private static void writeJars(File folder, String prefix, int count) throws IOException {
+        Files.createDirectories(folder.toPath());
+        for (int i = 0; i < count; i++) {
+            String pkg = "bench/" + prefix + i + "/define/";
+            Map<String, byte[]> entries = new LinkedHashMap<>();
+            entries.put("skywalking-plugin.def", PluginJars.utf8(
+                prefix + i + "=" + pkg.replace('/', '.') + "Define0"));
+            for (int j = 0; j < CLASSES_PER_JAR; j++) {
+                entries.put(pkg + "Define" + j + ".class", PluginJars.classBytes(pkg.replace('/', '.') + "Define" + j));
+            }
+            PluginJars.write(new File(folder, prefix + i + ".jar"), entries);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(AgentClassLoaderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
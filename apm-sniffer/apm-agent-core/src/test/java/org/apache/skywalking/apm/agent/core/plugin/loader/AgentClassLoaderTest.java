@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.loader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AgentClassLoaderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private AgentClassLoader loader;
+
+    @Before
+    public void setUp() throws IOException {
+        File plugins = folder.newFolder("plugins");
+        File activations = folder.newFolder("activations");
+
+        Map<String, byte[]> first = new LinkedHashMap<>();
+        first.put("skywalking-plugin.def", PluginJars.utf8("first=test.loader.first.Define"));
+        first.put("test/loader/first/Define.class", PluginJars.classBytes("test.loader.first.Define"));
+        first.put("test/loader/shared/config.properties", PluginJars.utf8("first"));
+        PluginJars.write(new File(plugins, "first.jar"), first);
+
+        Map<String, byte[]> second = new LinkedHashMap<>();
+        second.put("skywalking-plugin.def", PluginJars.utf8("second=test.loader.second.Define"));
+        second.put("test/loader/second/Define.class", PluginJars.classBytes("test.loader.second.Define"));
+        second.put("test/loader/shared/config.properties", PluginJars.utf8("second"));
+        PluginJars.write(new File(activations, "second.jar"), second);
+
+        loader = new AgentClassLoader(null, Arrays.asList(plugins, activations));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        loader.closeJars();
+    }
+
+    @Test
+    public void testFindClass() throws ClassNotFoundException {
+        Class<?> first = Class.forName("test.loader.first.Define", false, loader);
+        Class<?> second = Class.forName("test.loader.second.Define", false, loader);
+        Assert.assertSame(loader, first.getClassLoader());
+        Assert.assertSame(loader, second.getClassLoader());
+        Assert.assertSame(first, loader.loadClass("test.loader.first.Define"));
+    }
+
+    @Test(expected = ClassNotFoundException.class)
+    public void testClassOfUnknownPackage() throws ClassNotFoundException {
+        loader.loadClass("test.loader.third.Define");
+    }
+
+    @Test(expected = ClassNotFoundException.class)
+    public void testClassOfKnownPackage() throws ClassNotFoundException {
+        loader.loadClass("test.loader.first.Missing");
+    }
+
+    @Test
+    public void testFindResource() throws IOException {
+        Assert.assertEquals("first", read(loader.getResource("test/loader/shared/config.properties")));
+        Assert.assertNull(loader.getResource("test/loader/shared/missing.properties"));
+        Assert.assertNull(loader.getResource("test/loader/third/config.properties"));
+    }
+
+    @Test
+    public void testFindResources() throws IOException {
+        List<String> contents = new ArrayList<>();
+        for (URL url : Collections.list(loader.getResources("skywalking-plugin.def"))) {
+            contents.add(read(url));
+        }
+        Assert.assertEquals(
+            Arrays.asList("first=test.loader.first.Define", "second=test.loader.second.Define"), contents);
+
+        List<URL> shared = Collections.list(loader.getResources("test/loader/shared/config.properties"));
+        Assert.assertEquals(2, shared.size());
+        Assert.assertEquals(shared, Collections.list(loader.getResources("test/loader/shared/config.properties")));
+        Assert.assertFalse(loader.getResources("test/loader/shared/missing.properties").hasMoreElements());
+    }
+
+    private static String read(URL url) throws IOException {
+        try (InputStream is = url.openStream(); Scanner scanner = new Scanner(is, "UTF-8")) {
+            return scanner.useDelimiter("\\A").next();
+        }
+    }
+}
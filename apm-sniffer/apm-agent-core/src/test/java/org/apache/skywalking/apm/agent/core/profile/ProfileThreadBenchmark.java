@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.profile;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.profile.SafepointsProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Dumps 5, 20 and 50 profiled threads of a loaded service, comparing {@link Thread#getStackTrace()} per thread with
+ * the batched {@link ProfileThread#dumpStackTraces(ThreadMXBean, long[], int)}. The profiler thread dumps while 3
+ * threads serve requests, the sampled request time shows the p99 impact of the safepoint pauses, and the {@link
+ * SafepointsProfiler} reports the safepoint time.
+ */
+@State(Scope.Group)
+public class ProfileThreadBenchmark {
+    private static final int MAX_STACK_DEPTH = 500;
+
+    @Param({"5", "20", "50"})
+    private int profiledThreads;
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private Thread[] threads;
+    private long[] threadIds;
+    private volatile boolean running;
+
+    @Setup
+    public void setup() {
+        running = true;
+        threads = new Thread[profiledThreads];
+        threadIds = new long[profiledThreads];
+        for (int i = 0; i < profiledThreads; i++) {
+            threads[i] = new Thread(() -> {
+                while (running) {
+                    serve(30);
+                }
+            }, "profiled-" + i);
+            threads[i].setDaemon(true);
+            threads[i].start();
+            threadIds[i] = threads[i].getId();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        running = false;
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    @Benchmark
+    @Group("perThread")
+    @GroupThreads(1)
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @BenchmarkMode(Mode.SampleTime)
+    public void dumpPerThread(Blackhole blackhole) {
+        for (Thread thread : threads) {
+            blackhole.consume(thread.getStackTrace());
+        }
+    }
+
+    @Benchmark
+    @Group("perThread")
+    @GroupThreads(3)
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @BenchmarkMode(Mode.SampleTime)
+    public long requestWhilePerThread() {
+        return serve(30);
+    }
+
+    @Benchmark
+    @Group("batched")
+    @GroupThreads(1)
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @BenchmarkMode(Mode.SampleTime)
+    public void dumpBatched(Blackhole blackhole) {
+        blackhole.consume(ProfileThread.dumpStackTraces(threadMXBean, threadIds, MAX_STACK_DEPTH));
+    }
+
+    @Benchmark
+    @Group("batched")
+    @GroupThreads(3)
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @BenchmarkMode(Mode.SampleTime)
+    public long requestWhileBatched() {
+        return serve(30);
+    }
+
+    /**
+     * A request going through a stack of some depth
+     */
+    private static long serve(int depth) {
+        if (depth == 0) {
+            long sum = 0;
+            for (int i = 0; i < 1000; i++) {
+                sum += ThreadLocalRandom.current().nextInt(100);
+            }
+            return sum;
+        }
+        return serve(depth - 1) + 1;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(ProfileThreadBenchmark.class.getSimpleName())
+                                          .addProfiler(GCProfiler.class)
+                                          .addProfiler(SafepointsProfiler.class)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
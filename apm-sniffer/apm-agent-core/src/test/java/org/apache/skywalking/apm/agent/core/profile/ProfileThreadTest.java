@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.profile;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ProfileThreadTest {
+
+    @Test
+    public void testDumpStackTracesInBatch() throws InterruptedException {
+        final CountDownLatch stop = new CountDownLatch(1);
+        final Thread waiting = new Thread(() -> {
+            try {
+                stop.await();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        final Thread finished = new Thread(() -> {
+        });
+        waiting.start();
+        finished.start();
+        finished.join();
+
+        try {
+            final long[] threadIds = {finished.getId(), waiting.getId(), Thread.currentThread().getId()};
+            final StackTraceElement[][] stackTraces = ProfileThread.dumpStackTraces(
+                ManagementFactory.getThreadMXBean(), threadIds, 3);
+
+            Assert.assertEquals(3, stackTraces.length);
+            // the finished thread has no stack
+            Assert.assertEquals(0, stackTraces[0].length);
+            // limited by the max depth, from the top of the stack
+            Assert.assertEquals(3, stackTraces[1].length);
+            Assert.assertEquals(3, stackTraces[2].length);
+        } finally {
+            stop.countDown();
+            waiting.join();
+        }
+    }
+}
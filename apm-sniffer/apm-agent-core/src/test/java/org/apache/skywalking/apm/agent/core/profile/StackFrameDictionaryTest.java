@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.profile;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.network.language.profile.v3.ThreadSnapshot;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StackFrameDictionaryTest {
+
+    @Test
+    public void testInternFrames() {
+        final StackFrameDictionary dictionary = new StackFrameDictionary(1000);
+        final StackTraceElement[] stack = stack("c", "b", "a");
+        final int[] ids = new int[3];
+        final String[] signatures = dictionary.encode(stack, 3, ids);
+
+        Assert.assertArrayEquals(new int[] {0, 1, 2}, ids);
+        Assert.assertEquals("Test.a:1", signatures[ids[0]]);
+        Assert.assertEquals("Test.c:1", signatures[ids[2]]);
+
+        // the same frames get the same ids and the same signatures
+        final int[] sameIds = new int[3];
+        final String[] sameSignatures = dictionary.encode(stack("c", "b", "a"), 3, sameIds);
+        Assert.assertArrayEquals(ids, sameIds);
+        Assert.assertSame(signatures[0], sameSignatures[0]);
+        Assert.assertEquals(3, dictionary.size());
+    }
+
+    @Test
+    public void testStartOverWhenFull() {
+        final StackFrameDictionary dictionary = new StackFrameDictionary(0);
+        final int capacity = Config.Profile.DUMP_MAX_STACK_DEPTH;
+        final int generation = dictionary.generation();
+
+        final StackTraceElement[] stack = new StackTraceElement[capacity];
+        for (int i = 0; i < capacity; i++) {
+            stack[i] = new StackTraceElement("Test", "m" + i, "Test.java", 1);
+        }
+        final String[] signatures = dictionary.encode(stack, capacity, new int[capacity]);
+        Assert.assertEquals(capacity, dictionary.size());
+        Assert.assertEquals(generation, dictionary.generation());
+
+        // a new frame doesn't fit in, the former signatures are kept for the encoded snapshots
+        final int[] ids = new int[1];
+        dictionary.encode(stack("new"), 1, ids);
+        Assert.assertEquals(generation + 1, dictionary.generation());
+        Assert.assertEquals(1, dictionary.size());
+        Assert.assertEquals(0, ids[0]);
+        Assert.assertEquals("Test.m" + (capacity - 1) + ":1", signatures[0]);
+    }
+
+    @Test
+    public void testTransformDelta() {
+        final String[] signatures = {"Test.a:1", "Test.b:1", "Test.c:1", "Test.d:1"};
+        final int[] firstFrames = {0, 1, 2};
+        final TracingThreadSnapshot first = new TracingThreadSnapshot(
+            "task", "segment", 0, 1, signatures, null, 0, firstFrames);
+        final TracingThreadSnapshot same = new TracingThreadSnapshot(
+            "task", "segment", 1, 2, signatures, firstFrames, 3, null);
+        final TracingThreadSnapshot changed = new TracingThreadSnapshot(
+            "task", "segment", 2, 3, signatures, firstFrames, 2, new int[] {3});
+
+        Assert.assertFalse(first.isStackUnchanged());
+        Assert.assertTrue(same.isStackUnchanged());
+        Assert.assertFalse(changed.isStackUnchanged());
+
+        final Map<String, ThreadSnapshot> lastSnapshots = new HashMap<>();
+        final ThreadSnapshot firstSnapshot = first.transform(lastSnapshots);
+        final ThreadSnapshot sameSnapshot = same.transform(lastSnapshots);
+        final ThreadSnapshot changedSnapshot = changed.transform(lastSnapshots);
+
+        Assert.assertEquals(signatures(firstSnapshot), Arrays.asList("Test.a:1", "Test.b:1", "Test.c:1"));
+        Assert.assertSame(firstSnapshot.getStack(), sameSnapshot.getStack());
+        Assert.assertEquals(1, sameSnapshot.getSequence());
+        Assert.assertEquals(signatures(changedSnapshot), Arrays.asList("Test.a:1", "Test.b:1", "Test.d:1"));
+        Assert.assertEquals(changedSnapshot, changed.transform());
+    }
+
+    @Test
+    public void testTransformUnchangedAfterDroppedSnapshot() {
+        final String[] signatures = {"Test.a:1", "Test.b:1", "Test.c:1"};
+        final int[] firstFrames = {0, 1};
+        final int[] changedFrames = {0, 2};
+        final TracingThreadSnapshot first = new TracingThreadSnapshot(
+            "task", "segment", 0, 1, signatures, null, 0, firstFrames);
+        // the snapshot of sequence 1 changed the stack to changedFrames, but was dropped by the full transport buffer
+        final TracingThreadSnapshot same = new TracingThreadSnapshot(
+            "task", "segment", 2, 3, signatures, changedFrames, 2, null);
+
+        final Map<String, ThreadSnapshot> lastSnapshots = new HashMap<>();
+        first.transform(lastSnapshots);
+        final ThreadSnapshot sameSnapshot = same.transform(lastSnapshots);
+
+        Assert.assertEquals(signatures(sameSnapshot), Arrays.asList("Test.a:1", "Test.c:1"));
+    }
+
+    private static List<String> signatures(ThreadSnapshot snapshot) {
+        return snapshot.getStack().getCodeSignaturesList();
+    }
+
+    /**
+     * @param methods from the top to the bottom, as the thread dump
+     */
+    private static StackTraceElement[] stack(String... methods) {
+        final StackTraceElement[] stack = new StackTraceElement[methods.length];
+        for (int i = 0; i < methods.length; i++) {
+            stack[i] = new StackTraceElement("Test", methods[i], "Test.java", 1);
+        }
+        return stack;
+    }
+}
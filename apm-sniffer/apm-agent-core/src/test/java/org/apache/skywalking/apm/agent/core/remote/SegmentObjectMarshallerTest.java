@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import io.grpc.Drainable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import org.apache.skywalking.apm.agent.core.context.tag.Tags;
+import org.apache.skywalking.apm.agent.core.context.trace.LocalSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SegmentObjectMarshallerTest {
+    private final SegmentObjectMarshaller marshaller = new SegmentObjectMarshaller();
+
+    @Test
+    public void testDrainToTransport() throws IOException {
+        // Large enough to flush the encoder buffer several times.
+        TraceSegment segment = segmentWithSpans(300);
+        byte[] expected = segment.transform().toByteArray();
+
+        InputStream stream = marshaller.stream(segment);
+        Assert.assertEquals(expected.length, stream.available());
+        ByteArrayOutputStream transport = new ByteArrayOutputStream();
+        Assert.assertEquals(expected.length, ((Drainable) stream).drainTo(transport));
+        Assert.assertArrayEquals(expected, transport.toByteArray());
+        Assert.assertEquals(0, stream.available());
+    }
+
+    @Test
+    public void testReadAsNormalStream() throws IOException {
+        TraceSegment segment = segmentWithSpans(3);
+
+        SegmentObject parsed = SegmentObject.parseFrom(marshaller.stream(segment));
+        Assert.assertEquals(segment.transform(), parsed);
+    }
+
+    private static TraceSegment segmentWithSpans(int count) {
+        TraceSegment segment = new TraceSegment();
+        for (int i = 0; i < count; i++) {
+            LocalSpan span = new LocalSpan(i, i - 1, "local-" + i, null);
+            span.tag(Tags.ofKey("index"), String.valueOf(i));
+            segment.archive(span);
+        }
+        return segment;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SpillLogTest {
+    private static final long HOUR = 3600 * 1000L;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testReadAndCommit() throws IOException {
+        final SpillLog spillLog = new SpillLog(temporaryFolder.getRoot(), 1024 * 1024, HOUR);
+        spillLog.append((byte) 1, records("a", "b", "c"), 0);
+        spillLog.append((byte) 2, records("d"), 0);
+
+        SpillLog.Batch batch = spillLog.read(2, 0);
+        Assert.assertEquals(Arrays.asList("a", "b"), payloads(batch));
+        Assert.assertEquals(1, batch.getRecords().get(0).getType());
+
+        // not committed, read again
+        batch = spillLog.read(10, 0);
+        Assert.assertEquals(Arrays.asList("a", "b", "c", "d"), payloads(batch));
+        Assert.assertEquals(2, batch.getRecords().get(3).getType());
+        spillLog.commit(batch);
+
+        Assert.assertTrue(spillLog.read(10, 0).isEmpty());
+        spillLog.append((byte) 1, records("e"), 0);
+        Assert.assertEquals(Arrays.asList("e"), payloads(spillLog.read(10, 0)));
+    }
+
+    @Test
+    public void testEvictOldestFiles() throws IOException {
+        final int maxSize = 1024 * 1024;
+        final SpillLog spillLog = new SpillLog(temporaryFolder.getRoot(), maxSize, HOUR);
+        final byte[] record = new byte[10 * 1024];
+        for (int i = 0; i < 300; i++) {
+            spillLog.append((byte) 1, Arrays.asList(record, record), 0);
+        }
+
+        Assert.assertTrue(spillLog.size() <= maxSize);
+        int records = 0;
+        SpillLog.Batch batch;
+        while (!(batch = spillLog.read(100, 0)).isEmpty()) {
+            records += batch.getRecords().size();
+            spillLog.commit(batch);
+        }
+        Assert.assertTrue(records > 0 && records < 600);
+    }
+
+    @Test
+    public void testSkipExpiredRecords() throws IOException {
+        final SpillLog spillLog = new SpillLog(temporaryFolder.getRoot(), 1024 * 1024, HOUR);
+        spillLog.append((byte) 1, records("old"), 0);
+        spillLog.append((byte) 1, records("new"), HOUR);
+
+        Assert.assertEquals(Arrays.asList("new"), payloads(spillLog.read(10, HOUR + 1)));
+    }
+
+    @Test
+    public void testReplayFilesOfFormerProcess() throws IOException {
+        final SpillLog former = new SpillLog(temporaryFolder.getRoot(), 1024 * 1024, HOUR);
+        former.append((byte) 1, records("a", "b"), 0);
+        former.close();
+
+        // crashed when writing the last record
+        final File file = spillFiles()[0];
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(randomAccessFile.length() - 1);
+        }
+
+        final SpillLog spillLog = new SpillLog(temporaryFolder.getRoot(), 1024 * 1024, HOUR);
+        spillLog.append((byte) 1, records("c"), 0);
+        SpillLog.Batch batch = spillLog.read(10, 0);
+        Assert.assertEquals(Arrays.asList("a"), payloads(batch));
+        spillLog.commit(batch);
+        batch = spillLog.read(10, 0);
+        Assert.assertEquals(Arrays.asList("c"), payloads(batch));
+        Assert.assertEquals(1, spillFiles().length);
+    }
+
+    @Test
+    public void testResumeFromCommittedPosition() throws IOException {
+        final SpillLog former = new SpillLog(temporaryFolder.getRoot(), 1024 * 1024, HOUR);
+        former.append((byte) 1, records("a", "b"), 0);
+        former.append((byte) 2, records("c"), 0);
+        final SpillLog.Batch batch = former.read(10, 0);
+        // only the first stream is sent
+        former.commit(batch, 2);
+        Assert.assertEquals(Arrays.asList("c"), payloads(former.read(10, 0)));
+        former.close();
+
+        final SpillLog spillLog = new SpillLog(temporaryFolder.getRoot(), 1024 * 1024, HOUR);
+        Assert.assertEquals(Arrays.asList("c"), payloads(spillLog.read(10, 0)));
+    }
+
+    @Test
+    public void testLockedByAnotherSpillLog() throws IOException {
+        final SpillLog spillLog = new SpillLog(temporaryFolder.getRoot(), 1024 * 1024, HOUR);
+        try {
+            new SpillLog(temporaryFolder.getRoot(), 1024 * 1024, HOUR);
+            Assert.fail();
+        } catch (SpillLog.LockedException expected) {
+            // the directory is in use
+        }
+        spillLog.close();
+        new SpillLog(temporaryFolder.getRoot(), 1024 * 1024, HOUR).close();
+    }
+
+    private File[] spillFiles() {
+        return temporaryFolder.getRoot().listFiles((dir, name) -> name.startsWith(SpillLog.FILE_PREFIX));
+    }
+
+    private static List<byte[]> records(String... values) {
+        final List<byte[]> records = new ArrayList<>();
+        for (String value : values) {
+            records.add(value.getBytes());
+        }
+        return records;
+    }
+
+    private static List<String> payloads(SpillLog.Batch batch) {
+        final List<String> payloads = new ArrayList<>();
+        for (SpillLog.Record record : batch.getRecords()) {
+            payloads.add(new String(record.getPayload()));
+        }
+        return payloads;
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
+import org.apache.skywalking.apm.network.common.v3.Commands;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterReportServiceGrpc;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterSingleValue;
+import org.apache.skywalking.apm.network.logging.v3.LogData;
+import org.apache.skywalking.apm.network.logging.v3.LogReportServiceGrpc;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SpillQueueServiceTest {
+    private static final String COLLECTOR = "spill-collector";
+
+    @Rule
+    public AgentServiceRule agentServiceRule = new AgentServiceRule();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final SpillQueueService spillQueueService = new SpillQueueService();
+    private final List<LogData> collectedLogs = new CopyOnWriteArrayList<>();
+    private final List<MeterData> collectedMeters = new CopyOnWriteArrayList<>();
+    private Server collector;
+    private ManagedChannel channel;
+    private SpillLog spillLog;
+    private int replayRate;
+
+    @AfterClass
+    public static void afterClass() {
+        ServiceManager.INSTANCE.shutdown();
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        Field reconnect = GRPCChannelManager.class.getDeclaredField("reconnect");
+        reconnect.setAccessible(true);
+        reconnect.setBoolean(ServiceManager.INSTANCE.findService(GRPCChannelManager.class), false);
+
+        replayRate = Config.Spill.REPLAY_RATE;
+        Config.Spill.REPLAY_RATE = 10;
+        spillLog = new SpillLog(temporaryFolder.getRoot(), 1024 * 1024, 3600 * 1000L);
+        setField("spillLog", spillLog);
+        startCollector();
+    }
+
+    @After
+    public void tearDown() {
+        Config.Spill.REPLAY_RATE = replayRate;
+        spillLog.close();
+        channel.shutdownNow();
+        collector.shutdownNow();
+    }
+
+    @Test
+    public void testReplayAfterCollectorRestarted() throws Exception {
+        setField("status", GRPCChannelStatus.DISCONNECT);
+        final List<LogData.Builder> logs = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            logs.add(LogData.newBuilder().setEndpoint("log-" + i));
+        }
+        spillQueueService.spillLogs(logs);
+        final List<MeterData> meters = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            meters.add(MeterData.newBuilder()
+                                .setSingleValue(MeterSingleValue.newBuilder().setName("meter").setValue(i))
+                                .setTimestamp(i)
+                                .build());
+        }
+        spillQueueService.spillMeters(meters);
+
+        // not replayed when disconnected
+        spillQueueService.replay();
+        Assert.assertTrue(collectedLogs.isEmpty());
+
+        // the collector is killed before the channel status changes
+        collector.shutdownNow().awaitTermination();
+        setField("status", GRPCChannelStatus.CONNECTED);
+        spillQueueService.replay();
+        Assert.assertTrue(collectedLogs.isEmpty());
+
+        // replayed at the rate after the collector is restarted
+        channel.shutdownNow();
+        startCollector();
+        spillQueueService.replay();
+        Assert.assertEquals(10, collectedLogs.size());
+        Assert.assertTrue(collectedMeters.isEmpty());
+        Assert.assertEquals("log-0", collectedLogs.get(0).getEndpoint());
+        Assert.assertEquals(Config.Agent.SERVICE_NAME, collectedLogs.get(9).getService());
+
+        spillQueueService.replay();
+        Assert.assertEquals(5, collectedMeters.size());
+        Assert.assertEquals(4, collectedMeters.get(4).getTimestamp());
+
+        spillQueueService.replay();
+        Assert.assertEquals(10, collectedLogs.size());
+        Assert.assertEquals(5, collectedMeters.size());
+    }
+
+    @Test
+    public void testCommitEachSentStream() throws Exception {
+        setField("status", GRPCChannelStatus.CONNECTED);
+        final List<LogData.Builder> logs = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            logs.add(LogData.newBuilder().setEndpoint("log-" + i));
+        }
+        spillQueueService.spillLogs(logs);
+        // the collector doesn't implement the segment service
+        spillLog.append(SpillQueueService.SEGMENT, Collections.singletonList(new byte[0]), System.currentTimeMillis());
+
+        spillQueueService.replay();
+        Assert.assertEquals(5, collectedLogs.size());
+        spillQueueService.replay();
+        Assert.assertEquals(5, collectedLogs.size());
+    }
+
+    @Test
+    public void testOpenUnusedSpillLog() throws IOException {
+        final File serviceDir = temporaryFolder.newFolder("service");
+        final SpillLog first = SpillQueueService.openSpillLog(serviceDir);
+        final SpillLog second = SpillQueueService.openSpillLog(serviceDir);
+        Assert.assertTrue(new File(serviceDir, "0").isDirectory());
+        Assert.assertTrue(new File(serviceDir, "1").isDirectory());
+
+        // the restarted process takes the released one
+        first.close();
+        final SpillLog restarted = SpillQueueService.openSpillLog(serviceDir);
+        Assert.assertNotNull(restarted);
+        Assert.assertFalse(new File(serviceDir, "2").exists());
+        second.close();
+        restarted.close();
+    }
+
+    private void startCollector() throws IOException, ReflectiveOperationException {
+        collector = InProcessServerBuilder.forName(COLLECTOR).directExecutor().addService(
+            new LogReportServiceGrpc.LogReportServiceImplBase() {
+                @Override
+                public StreamObserver<LogData> collect(StreamObserver<Commands> responseObserver) {
+                    return new CollectObserver<>(collectedLogs, responseObserver);
+                }
+            }
+        ).addService(
+            new MeterReportServiceGrpc.MeterReportServiceImplBase() {
+                @Override
+                public StreamObserver<MeterData> collect(StreamObserver<Commands> responseObserver) {
+                    return new CollectObserver<>(collectedMeters, responseObserver);
+                }
+            }
+        ).build().start();
+        channel = InProcessChannelBuilder.forName(COLLECTOR).directExecutor().build();
+        setField("channel", channel);
+    }
+
+    private void setField(String name, Object value) throws ReflectiveOperationException {
+        Field field = SpillQueueService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(spillQueueService, value);
+    }
+
+    private static class CollectObserver<T> implements StreamObserver<T> {
+        private final List<T> collected;
+        private final StreamObserver<Commands> responseObserver;
+
+        CollectObserver(List<T> collected, StreamObserver<Commands> responseObserver) {
+            this.collected = collected;
+            this.responseObserver = responseObserver;
+        }
+
+        @Override
+        public void onNext(T value) {
+            collected.add(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+        }
+
+        @Override
+        public void onCompleted() {
+            responseObserver.onNext(Commands.getDefaultInstance());
+            responseObserver.onCompleted();
+        }
+    }
+}
@@ -23,7 +23,9 @@ import io.grpc.stub.StreamObserver;
 import io.grpc.testing.GrpcServerRule;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.ContextManager;
@@ -114,7 +116,7 @@ public class TraceSegmentServiceClientTest {
         serviceStub.set(serviceClient, TraceSegmentReportServiceGrpc.newStub(grpcServerRule.getChannel()));
         status.set(serviceClient, GRPCChannelStatus.CONNECTED);
 
-        upstreamSegments = new ArrayList<>();
+        upstreamSegments = Collections.synchronizedList(new ArrayList<>());
     }
 
     @Test
@@ -141,6 +143,36 @@ public class TraceSegmentServiceClientTest {
         assertThat(spanObject.getParentSpanId(), is(-1));
     }
 
+    @Test
+    public void testSendTraceSegmentInPipeline() throws InterruptedException, IllegalAccessException, NoSuchFieldException {
+        grpcServerRule.getServiceRegistry().addService(serviceImplBase);
+        Config.Collector.GRPC_UPSTREAM_MAX_IN_FLIGHT_STREAMS = 2;
+        try {
+            for (int i = 0; i < 3; i++) {
+                AbstractSpan firstEntrySpan = ContextManager.createEntrySpan("/testFirstEntry", null);
+                firstEntrySpan.setComponent(ComponentsDefine.TOMCAT);
+                SpanLayer.asHttp(firstEntrySpan);
+                ContextManager.stopSpan();
+
+                serviceClient.consume(storage.getTraceSegments());
+                storage.getTraceSegments().clear();
+            }
+
+            for (int i = 0; i < 50 && upstreamSegments.size() < 3; i++) {
+                Thread.sleep(100);
+            }
+            assertThat(upstreamSegments.size(), is(3));
+            for (SegmentObject traceSegmentObject : upstreamSegments) {
+                assertThat(traceSegmentObject.getSpansCount(), is(1));
+                assertThat(traceSegmentObject.getSpans(0).getSpanType(), is(SpanType.Entry));
+            }
+            AtomicInteger inFlightStreams = FieldGetter.getValue(serviceClient, "inFlightStreams");
+            assertThat(inFlightStreams.get(), is(0));
+        } finally {
+            Config.Collector.GRPC_UPSTREAM_MAX_IN_FLIGHT_STREAMS = 1;
+        }
+    }
+
     @Test
     public void testSendTraceSegmentWithException() throws InvalidProtocolBufferException, IllegalAccessException, NoSuchFieldException {
         grpcServerRule.getServiceRegistry().addService(serviceImplBase);
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Samples the traces of 100 endpoints from 8 threads, comparing the window counter of {@link SamplingService}, reset
+ * every 3 seconds, with the {@link AdaptiveSampler}.
+ */
+@State(Scope.Benchmark)
+public class AdaptiveSamplerBenchmark {
+    private static final int SAMPLE_N_PER_3_SECS = 300;
+    private static final String[] ENDPOINTS = new String[100];
+
+    static {
+        for (int i = 0; i < ENDPOINTS.length; i++) {
+            ENDPOINTS[i] = "/endpoint/" + i;
+        }
+    }
+
+    @Param({"window", "adaptive"})
+    private String mode;
+
+    private volatile AtomicInteger samplingFactorHolder = new AtomicInteger(0);
+    private AdaptiveSampler adaptiveSampler;
+    private ScheduledExecutorService scheduler;
+
+    @Setup
+    public void setup() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        if ("adaptive".equals(mode)) {
+            adaptiveSampler = new AdaptiveSampler(() -> SAMPLE_N_PER_3_SECS, 1000);
+            scheduler.scheduleAtFixedRate(adaptiveSampler::adjust, 3, 3, TimeUnit.SECONDS);
+        } else {
+            scheduler.scheduleAtFixedRate(() -> samplingFactorHolder = new AtomicInteger(0), 3, 3, TimeUnit.SECONDS);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Benchmark
+    @Threads(8)
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public boolean trySamplingBy8Threads() {
+        // a few endpoints take most of the traffic
+        final int random = ThreadLocalRandom.current().nextInt(ENDPOINTS.length * 4);
+        final String endpoint = ENDPOINTS[random < ENDPOINTS.length * 3 ? random % 5 : random % ENDPOINTS.length];
+        if (adaptiveSampler != null) {
+            return adaptiveSampler.trySampling(endpoint);
+        }
+        // the same as the window mode of SamplingService#trySampling
+        final AtomicInteger holder = samplingFactorHolder;
+        final int factor = holder.get();
+        return factor < SAMPLE_N_PER_3_SECS && holder.compareAndSet(factor, factor + 1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(AdaptiveSamplerBenchmark.class.getSimpleName())
+                                          .addProfiler(GCProfiler.class)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
+import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class AdaptiveSamplerTest {
+    @Rule
+    public AgentServiceRule agentServiceRule = new AgentServiceRule();
+
+    @AfterClass
+    public static void afterClass() {
+        ServiceManager.INSTANCE.shutdown();
+    }
+
+    @Test
+    public void testRareEndpointIsNotStarved() {
+        final AdaptiveSampler sampler = new AdaptiveSampler(() -> 30, 100);
+        final long start = System.nanoTime();
+
+        for (int window = 0; window < 3; window++) {
+            int hotSampled = 0;
+            int rareSampled = 0;
+            final long windowStart = start + window * TimeUnit.SECONDS.toNanos(3);
+            for (int millis = 0; millis < 3000; millis++) {
+                final long now = windowStart + TimeUnit.MILLISECONDS.toNanos(millis);
+                for (int i = 0; i < 10; i++) {
+                    if (sampler.trySampling("hot", now)) {
+                        hotSampled++;
+                    }
+                }
+                if (millis % 500 == 0 && sampler.trySampling("rare", now)) {
+                    rareSampled++;
+                }
+            }
+            sampler.adjust(windowStart + TimeUnit.SECONDS.toNanos(3));
+
+            // every request of the rare endpoint is within its share
+            Assert.assertEquals(6, rareSampled);
+            // the hot endpoint takes the rest of the budget, plus the bursts
+            Assert.assertTrue("hot sampled " + hotSampled, hotSampled >= 15 && hotSampled <= 60);
+        }
+    }
+
+    @Test
+    public void testSpreadInWindow() {
+        final AdaptiveSampler sampler = new AdaptiveSampler(() -> 30, 100);
+        final long start = System.nanoTime();
+        sampler.adjust(start);
+
+        // refilled continuously, rather than used up at the start of the window
+        int firstSecond = 0;
+        int lastSecond = 0;
+        for (int millis = 0; millis < 3000; millis++) {
+            final long now = start + TimeUnit.MILLISECONDS.toNanos(millis);
+            for (int i = 0; i < 10; i++) {
+                if (sampler.trySampling("endpoint", now)) {
+                    if (millis < 1000) {
+                        firstSecond++;
+                    } else if (millis >= 2000) {
+                        lastSecond++;
+                    }
+                }
+            }
+        }
+        Assert.assertTrue("last second sampled " + lastSecond, lastSecond >= 8);
+        Assert.assertTrue("first second sampled " + firstSecond, firstSecond <= 40);
+    }
+
+    @Test
+    public void testRateFollowsReporterPressure() {
+        final AdaptiveSampler sampler = new AdaptiveSampler(() -> 30, 100);
+        Assert.assertEquals(1, sampler.getRateFactor(), 0.0001);
+
+        AgentSo11y.measureSegmentUplinkAbandoned(10);
+        sampler.adjust();
+        Assert.assertEquals(0.5, sampler.getRateFactor(), 0.0001);
+
+        AgentSo11y.measureSegmentUplinkBackpressure();
+        sampler.adjust();
+        Assert.assertEquals(0.4, sampler.getRateFactor(), 0.0001);
+
+        // recover once the reporter keeps up
+        sampler.adjust();
+        sampler.adjust();
+        Assert.assertEquals(0.6, sampler.getRateFactor(), 0.0001);
+        for (int i = 0; i < 10; i++) {
+            sampler.adjust();
+        }
+        Assert.assertEquals(1, sampler.getRateFactor(), 0.0001);
+    }
+
+    @Test
+    public void testIdleEndpointsDontExceedBudget() {
+        final AdaptiveSampler sampler = new AdaptiveSampler(() -> 30, 100);
+        final long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            sampler.trySampling("endpoint-" + i, start);
+        }
+        // only the hot endpoint is active in the first window, the idle ones keep the fair share
+        for (int millis = 0; millis < 3000; millis++) {
+            sampler.trySampling("endpoint-0", start + TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+        final long windowStart = start + TimeUnit.SECONDS.toNanos(3);
+        sampler.adjust(windowStart);
+
+        // all of them wake up, the shares are nearly twice of the budget until the next adjustment
+        int sampled = 0;
+        for (int millis = 0; millis < 15000; millis++) {
+            final long now = windowStart + TimeUnit.MILLISECONDS.toNanos(millis);
+            for (int i = 0; i < 10; i++) {
+                if (sampler.trySampling("endpoint-" + i, now)) {
+                    sampled++;
+                }
+            }
+        }
+        // the budget of 15 seconds, plus the bursts and the debt of one window
+        Assert.assertTrue("sampled " + sampled, sampled <= 200);
+    }
+
+    @Test
+    public void testBoundedEndpoints() {
+        final AdaptiveSampler sampler = new AdaptiveSampler(() -> 30, 10);
+        for (int i = 0; i < 100; i++) {
+            sampler.trySampling("endpoint-" + i);
+            Assert.assertTrue(sampler.endpointCount() <= 10);
+        }
+    }
+}
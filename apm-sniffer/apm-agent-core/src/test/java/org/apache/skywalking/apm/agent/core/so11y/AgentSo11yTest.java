@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.so11y;
+
+import java.util.Map;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.util.FieldGetter;
+import org.apache.skywalking.apm.agent.core.meter.BaseMeter;
+import org.apache.skywalking.apm.agent.core.meter.MeterId;
+import org.apache.skywalking.apm.agent.core.meter.MeterService;
+import org.apache.skywalking.apm.agent.core.meter.StripedHistogram;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterBucketValue;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AgentSo11yTest {
+
+    @Before
+    @After
+    public void reset() {
+        AgentSo11y.shutdownInterceptorDuration();
+        Config.Meter.INTERCEPTOR_DURATION_SAMPLE_INTERVAL = 1;
+    }
+
+    @Test
+    public void testInterceptorDurationSampledOnlyAfterBoot() throws Exception {
+        Assert.assertFalse(AgentSo11y.sampleInterceptorDuration());
+
+        final MeterService meterService = new MeterService();
+        Config.Meter.INTERCEPTOR_DURATION_SAMPLE_INTERVAL = 1;
+        AgentSo11y.bootInterceptorDuration(meterService);
+        Assert.assertTrue(AgentSo11y.sampleInterceptorDuration());
+
+        AgentSo11y.durationOfInterceptor(20000);
+        Assert.assertEquals(1L, countOf(meterService));
+
+        AgentSo11y.shutdownInterceptorDuration();
+        Assert.assertFalse(AgentSo11y.sampleInterceptorDuration());
+        AgentSo11y.durationOfInterceptor(20000);
+        Assert.assertEquals(1L, countOf(meterService));
+    }
+
+    @Test
+    public void testSampledInterceptorDurationIsWeighted() throws Exception {
+        final MeterService meterService = new MeterService();
+        Config.Meter.INTERCEPTOR_DURATION_SAMPLE_INTERVAL = 10;
+        AgentSo11y.bootInterceptorDuration(meterService);
+
+        AgentSo11y.durationOfInterceptor(20000);
+        Assert.assertEquals(10L, countOf(meterService));
+    }
+
+    private static long countOf(MeterService meterService) throws Exception {
+        final Map<MeterId, BaseMeter> meterMap = (Map<MeterId, BaseMeter>) FieldGetter.getValue(meterService, "meterMap");
+        final BaseMeter histogram = meterMap.values().iterator().next();
+        Assert.assertTrue(histogram instanceof StripedHistogram);
+        return histogram.transform().getHistogram().getValuesList().stream().mapToLong(MeterBucketValue::getCount).sum();
+    }
+}
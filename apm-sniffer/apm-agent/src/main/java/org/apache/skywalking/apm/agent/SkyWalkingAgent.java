@@ -43,6 +43,7 @@ import org.apache.skywalking.apm.agent.bytebuddy.SWMethodGraphCompilerDelegate;
 import org.apache.skywalking.apm.agent.bytebuddy.SWMethodNameTransformer;
 import org.apache.skywalking.apm.agent.core.boot.AgentPackageNotFoundException;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.boot.StartupTimer;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.conf.SnifferConfigInitializer;
 import org.apache.skywalking.apm.agent.core.jvm.LoadedLibraryCollector;
@@ -55,6 +56,7 @@ import org.apache.skywalking.apm.agent.core.plugin.PluginBootstrap;
 import org.apache.skywalking.apm.agent.core.plugin.PluginException;
 import org.apache.skywalking.apm.agent.core.plugin.PluginFinder;
 import org.apache.skywalking.apm.agent.core.plugin.bootstrap.BootstrapInstrumentBoost;
+import org.apache.skywalking.apm.agent.core.plugin.cache.PluginMatchCache;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.DelegateNamingResolver;
 import org.apache.skywalking.apm.agent.core.plugin.jdk9module.JDK9ModuleExporter;
 
@@ -74,9 +76,11 @@ public class SkyWalkingAgent {
      */
     public static void premain(String agentArgs, Instrumentation instrumentation) throws PluginException {
         final PluginFinder pluginFinder;
+        long startNanos = System.nanoTime();
         try {
             // 初始化配置
             SnifferConfigInitializer.initializeCoreConfig(agentArgs);
+            StartupTimer.INSTANCE.record("init_config", startNanos);
         } catch (Exception e) {
             // 尝试解析一个新的日志记录器，并使用该新日志记录器在此处写入错误日志。重新加载日志记录器,确保日志记录器的配置都是最新的且能正确加载
             LogManager.getLogger(SkyWalkingAgent.class)
@@ -94,7 +98,14 @@ public class SkyWalkingAgent {
 
         try {
             // 创建插件查找器(同时也会加载所有插件到查找器上)
-            pluginFinder = new PluginFinder(new PluginBootstrap().loadPlugins());
+            startNanos = System.nanoTime();
+            List<AbstractClassEnhancePluginDefine> plugins = new PluginBootstrap().loadPlugins();
+            StartupTimer.INSTANCE.record("load_plugins", startNanos);
+
+            startNanos = System.nanoTime();
+            PluginMatchCache.INSTANCE.load(plugins);
+            pluginFinder = new PluginFinder(plugins);
+            StartupTimer.INSTANCE.record("build_plugin_finder", startNanos);
         } catch (AgentPackageNotFoundException ape) {
             LOGGER.error(ape, "Locate agent.jar failure. Shutting down.");
             return;
@@ -116,6 +127,9 @@ public class SkyWalkingAgent {
             LOGGER.error(e, "Skywalking agent boot failure.");
         }
 
+        // 输出各启动阶段的耗时
+        StartupTimer.INSTANCE.report();
+
         Runtime.getRuntime()
                .addShutdownHook(new Thread(ServiceManager.INSTANCE::shutdown, "skywalking service shutdown thread"));
     }
@@ -135,11 +149,13 @@ public class SkyWalkingAgent {
                 .or(ElementMatchers.isSynthetic()));
 
         JDK9ModuleExporter.EdgeClasses edgeClasses = new JDK9ModuleExporter.EdgeClasses();
+        long startNanos = System.nanoTime();
         try {
             agentBuilder = BootstrapInstrumentBoost.inject(pluginFinder, instrumentation, agentBuilder, edgeClasses);
         } catch (Exception e) {
             throw new Exception("SkyWalking agent inject bootstrap instrumentation failure. Shutting down.", e);
         }
+        StartupTimer.INSTANCE.record("inject_bootstrap_classes", startNanos);
 
         try {
             agentBuilder = JDK9ModuleExporter.openReadEdge(instrumentation, agentBuilder, edgeClasses);
@@ -147,7 +163,8 @@ public class SkyWalkingAgent {
             throw new Exception("SkyWalking agent open read edge in JDK 9+ failure. Shutting down.", e);
         }
 
-        agentBuilder.type(pluginFinder.buildMatch())
+        startNanos = System.nanoTime();
+        agentBuilder.type(pluginFinder.buildCachedMatch())
                     .transform(new Transformer(pluginFinder))
                     .with(AgentBuilder.RedefinitionStrategy.RETRANSFORMATION)
                     .with(new RedefinitionListener())
@@ -155,6 +172,7 @@ public class SkyWalkingAgent {
                     .installOn(instrumentation);
 
         PluginFinder.pluginInitCompleted();
+        StartupTimer.INSTANCE.record("install_transformer", startNanos);
 
         LOGGER.info("Skywalking agent transformer has installed.");
     }
@@ -188,10 +206,12 @@ public class SkyWalkingAgent {
                                                 final JavaModule javaModule,
                                                 final ProtectionDomain protectionDomain) {
             LoadedLibraryCollector.registerURLClassLoader(classLoader);
-            List<AbstractClassEnhancePluginDefine> pluginDefines = pluginFinder.find(typeDescription);
+            String matchCacheKey = PluginMatchCache.INSTANCE.cacheKeyOf(protectionDomain, typeDescription.getTypeName());
+            List<AbstractClassEnhancePluginDefine> pluginDefines = pluginFinder.find(typeDescription, matchCacheKey);
             if (pluginDefines.size() > 0) {
                 DynamicType.Builder<?> newBuilder = builder;
                 EnhanceContext context = new EnhanceContext();
+                context.setMatchCacheKey(matchCacheKey);
                 for (AbstractClassEnhancePluginDefine define : pluginDefines) {
                     DynamicType.Builder<?> possibleNewBuilder = define.define(
                         typeDescription, newBuilder, classLoader, context);
@@ -35,7 +35,6 @@ import org.apache.skywalking.apm.plugin.kafka.define.Constants;
 import org.apache.skywalking.apm.plugin.kafka.define.KafkaContext;
 
 import java.lang.reflect.Method;
-import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -89,7 +88,7 @@ public class KafkaConsumerInterceptor implements InstanceMethodsAroundIntercepto
                         next = next.next();
                         Iterator<Header> iterator = record.headers().headers(next.getHeadKey()).iterator();
                         if (iterator.hasNext()) {
-                            next.setHeadValue(new String(iterator.next().value(), StandardCharsets.UTF_8));
+                            next.setHeadValue(iterator.next().value());
                         }
                     }
                     ContextManager.extract(contextCarrier);
@@ -18,11 +18,21 @@
 
 package org.apache.skywalking.apm.plugin.redisson.v3;
 
+import io.netty.channel.Channel;
+import java.net.InetSocketAddress;
+import java.util.List;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractTracingSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.SpanLayer;
+import org.apache.skywalking.apm.agent.core.context.util.TagValuePair;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2.MethodInvocationContext;
+import org.apache.skywalking.apm.agent.test.helper.SegmentHelper;
+import org.apache.skywalking.apm.agent.test.helper.SpanHelper;
 import org.apache.skywalking.apm.agent.test.tools.AgentServiceRule;
 import org.apache.skywalking.apm.agent.test.tools.SegmentStorage;
 import org.apache.skywalking.apm.agent.test.tools.SegmentStoragePoint;
 import org.apache.skywalking.apm.agent.test.tools.TracingSegmentRunner;
+import org.apache.skywalking.apm.network.trace.component.ComponentsDefine;
 import org.apache.skywalking.apm.plugin.redisson.v3.util.ClassUtil;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.core.Is;
@@ -30,8 +40,17 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.redisson.client.RedisConnection;
+import org.redisson.client.protocol.CommandData;
+import org.redisson.client.protocol.RedisCommands;
 import org.redisson.config.Config;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
 @RunWith(TracingSegmentRunner.class)
 public class RedisConnectionMethodInterceptorTest {
 
@@ -79,6 +98,59 @@ public class RedisConnectionMethodInterceptorTest {
             (String) mockRedisConnectionInstance.getSkyWalkingDynamicField(), Is.is("127.0.0.1:6379;127.0.0.1:6378;"));
     }
 
+    @Test
+    public void testSendCommand() throws Throwable {
+        RedissonPluginConfig.Plugin.Redisson.TRACE_REDIS_PARAMETERS = true;
+        EnhancedInstance connection = mockRedisConnection();
+        interceptor.onConstruct(connection, new Object[] {mockRedisClientInstance});
+
+        CommandData commandData = mock(CommandData.class);
+        when(commandData.getCommand()).thenReturn(RedisCommands.SET);
+        when(commandData.getParams()).thenReturn(new Object[] {"name", "value"});
+        Object[] arguments = new Object[] {commandData};
+        MethodInvocationContext context = new MethodInvocationContext();
+        interceptor.beforeMethod(connection, null, arguments, null, context);
+        interceptor.afterMethod(connection, null, arguments, null, null, context);
+
+        MatcherAssert.assertThat(segmentStorage.getTraceSegments().size(), Is.is(1));
+        List<AbstractTracingSpan> spans = SegmentHelper.getSpans(segmentStorage.getTraceSegments().get(0));
+        MatcherAssert.assertThat(spans.size(), Is.is(1));
+        AbstractTracingSpan span = spans.get(0);
+        MatcherAssert.assertThat(span.getOperationName(), Is.is("Redisson/SET"));
+        MatcherAssert.assertThat(span.isExit(), Is.is(true));
+        MatcherAssert.assertThat(SpanHelper.getPeer(span), Is.is("127.0.0.1:6379;127.0.0.1:6378;"));
+        MatcherAssert.assertThat(SpanHelper.getComponentId(span), Is.is(ComponentsDefine.REDISSON.getId()));
+        MatcherAssert.assertThat(SpanHelper.getLayer(span), Is.is(SpanLayer.CACHE));
+
+        List<TagValuePair> tags = SpanHelper.getTags(span);
+        MatcherAssert.assertThat(tags.size(), Is.is(5));
+        assertTag(tags.get(0), "cache.type", "Redis");
+        assertTag(tags.get(1), "cache.instance", "127.0.0.1:6379");
+        assertTag(tags.get(2), "cache.cmd", "SET");
+        assertTag(tags.get(3), "cache.key", "name");
+        assertTag(tags.get(4), "cache.op", "write");
+    }
+
+    private EnhancedInstance mockRedisConnection() {
+        RedisConnection connection = mock(
+            RedisConnection.class, Mockito.withSettings().extraInterfaces(EnhancedInstance.class));
+        Channel channel = mock(Channel.class);
+        when(channel.remoteAddress()).thenReturn(new InetSocketAddress("127.0.0.1", 6379));
+        when(connection.getChannel()).thenReturn(channel);
+
+        EnhancedInstance instance = (EnhancedInstance) connection;
+        Object[] dynamicField = new Object[1];
+        doAnswer(invocation -> dynamicField[0] = invocation.getArgument(0)).when(instance)
+                                                                           .setSkyWalkingDynamicField(any());
+        doAnswer(invocation -> dynamicField[0]).when(instance).getSkyWalkingDynamicField();
+        return instance;
+    }
+
+    private static void assertTag(TagValuePair tag, String key, String value) {
+        MatcherAssert.assertThat(tag.getKey().key(), Is.is(key));
+        MatcherAssert.assertThat(tag.getValue(), Is.is(value));
+    }
+
     @Test
     public void testSingleServerMode() throws Throwable {
         String redisAddress = "redis://127.0.0.1:6379";
@@ -42,7 +42,7 @@ public class HistogramActivation extends ClassInstanceMethodsEnhancePluginDefine
             new ConstructorInterceptPoint() {
                 @Override
                 public ElementMatcher<MethodDescription> getConstructorMatcher() {
-                    return takesArguments(2);
+                    return takesArguments(2).or(takesArguments(3));
                 }
 
                 @Override
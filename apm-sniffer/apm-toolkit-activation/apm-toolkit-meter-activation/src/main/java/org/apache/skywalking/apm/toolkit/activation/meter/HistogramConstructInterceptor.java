@@ -21,6 +21,7 @@ package org.apache.skywalking.apm.toolkit.activation.meter;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.meter.Histogram;
 import org.apache.skywalking.apm.agent.core.meter.MeterService;
+import org.apache.skywalking.apm.agent.core.meter.StripedHistogram;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InstanceConstructorInterceptor;
 import org.apache.skywalking.apm.toolkit.activation.meter.util.MeterIdConverter;
@@ -35,8 +36,11 @@ public class HistogramConstructInterceptor implements InstanceConstructorInterce
     public void onConstruct(EnhancedInstance objInst, Object[] allArguments) {
         final MeterId meterId = (MeterId) allArguments[0];
         final List<Double> steps = (List<Double>) allArguments[1];
+        final boolean striped = allArguments.length > 2 && (Boolean) allArguments[2];
 
-        final Histogram histogram = new Histogram(MeterIdConverter.convert(meterId), steps);
+        final Histogram histogram = striped
+            ? new StripedHistogram(MeterIdConverter.convert(meterId), steps)
+            : new Histogram(MeterIdConverter.convert(meterId), steps);
 
         // register the meter
         if (METER_SERVICE == null) {
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.toolkit.activation.meter;
+
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.meter.MeterService;
+import org.apache.skywalking.apm.agent.core.meter.QuantileSketch;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InstanceConstructorInterceptor;
+import org.apache.skywalking.apm.toolkit.activation.meter.util.MeterIdConverter;
+import org.apache.skywalking.apm.toolkit.meter.MeterId;
+
+public class QuantileSketchConstructInterceptor implements InstanceConstructorInterceptor {
+    private static MeterService METER_SERVICE;
+
+    @Override
+    public void onConstruct(EnhancedInstance objInst, Object[] allArguments) {
+        final MeterId meterId = (MeterId) allArguments[0];
+        final double relativeAccuracy = (double) allArguments[1];
+        final double lowestTrackableValue = (double) allArguments[2];
+        final double highestTrackableValue = (double) allArguments[3];
+        final int maxBuckets = (int) allArguments[4];
+
+        final QuantileSketch sketch = new QuantileSketch(
+            MeterIdConverter.convert(meterId), relativeAccuracy, lowestTrackableValue, highestTrackableValue, maxBuckets);
+
+        // register the meter
+        if (METER_SERVICE == null) {
+            METER_SERVICE = ServiceManager.INSTANCE.findService(MeterService.class);
+        }
+        objInst.setSkyWalkingDynamicField(METER_SERVICE.register(sketch));
+    }
+
+}
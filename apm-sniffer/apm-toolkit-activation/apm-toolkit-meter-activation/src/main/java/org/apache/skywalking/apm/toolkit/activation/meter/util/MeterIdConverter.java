@@ -50,6 +50,8 @@ public class MeterIdConverter {
                 return MeterType.COUNTER;
             case HISTOGRAM:
                 return MeterType.HISTOGRAM;
+            case QUANTILE_SKETCH:
+                return MeterType.QUANTILE_SKETCH;
             default:
                 throw new IllegalStateException("Could not found the meter type: " + id.getType());
         }
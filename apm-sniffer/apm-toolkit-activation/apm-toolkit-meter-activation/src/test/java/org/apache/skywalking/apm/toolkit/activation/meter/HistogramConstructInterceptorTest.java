@@ -26,11 +26,14 @@ import org.apache.skywalking.apm.agent.core.meter.Histogram;
 import org.apache.skywalking.apm.agent.core.meter.MeterService;
 import org.apache.skywalking.apm.agent.core.meter.MeterTag;
 import org.apache.skywalking.apm.agent.core.meter.MeterType;
+import org.apache.skywalking.apm.agent.core.meter.StripedHistogram;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
 import org.apache.skywalking.apm.agent.test.helper.FieldGetter;
+import org.apache.skywalking.apm.agent.test.helper.FieldSetter;
 import org.apache.skywalking.apm.agent.test.tools.AgentServiceRule;
 import org.apache.skywalking.apm.toolkit.meter.MeterId;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
@@ -42,6 +45,12 @@ public class HistogramConstructInterceptorTest {
     private HistogramConstructInterceptor histogramConstructInterceptor = new HistogramConstructInterceptor();
     private EnhancedInstance enhancedInstance = new HistogramEnhance();
 
+    @Before
+    public void setUp() throws IllegalAccessException, NoSuchFieldException {
+        // the service is cached by the interceptor, but booted again for every test
+        FieldSetter.setStaticValue(HistogramConstructInterceptor.class, "METER_SERVICE", null);
+    }
+
     @Test
     public void testConstruct() throws IllegalAccessException, NoSuchFieldException {
         histogramConstructInterceptor.onConstruct(enhancedInstance, new Object[] {
@@ -64,6 +73,22 @@ public class HistogramConstructInterceptorTest {
         Assert.assertEquals(Arrays.asList(new MeterTag("k1", "v1")), histogramTransformer.getId().getTags());
     }
 
+    @Test
+    public void testConstructStriped() throws IllegalAccessException, NoSuchFieldException {
+        histogramConstructInterceptor.onConstruct(enhancedInstance, new Object[] {
+            new MeterId("test_striped", MeterId.MeterType.HISTOGRAM, Arrays.asList(new MeterId.Tag("k1", "v1"))),
+            Arrays.asList(1d, 5d, 10d),
+            true
+        });
+
+        final Object field = enhancedInstance.getSkyWalkingDynamicField();
+        Assert.assertTrue(field instanceof StripedHistogram);
+        final StripedHistogram histogram = (StripedHistogram) field;
+        Assert.assertEquals("test_striped", histogram.getId().getName());
+        histogram.addValue(6);
+        Assert.assertEquals(1, histogram.transform().getHistogram().getValues(1).getCount());
+    }
+
     private static class HistogramEnhance implements EnhancedInstance {
         private Object data;
 
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.toolkit.activation.meter;
+
+import java.util.Arrays;
+import java.util.Map;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.meter.BaseMeter;
+import org.apache.skywalking.apm.agent.core.meter.MeterService;
+import org.apache.skywalking.apm.agent.core.meter.MeterTag;
+import org.apache.skywalking.apm.agent.core.meter.MeterType;
+import org.apache.skywalking.apm.agent.core.meter.QuantileSketch;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
+import org.apache.skywalking.apm.agent.test.helper.FieldGetter;
+import org.apache.skywalking.apm.agent.test.tools.AgentServiceRule;
+import org.apache.skywalking.apm.toolkit.meter.MeterId;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class QuantileSketchConstructInterceptorTest {
+
+    @Rule
+    public AgentServiceRule agentServiceRule = new AgentServiceRule();
+
+    private QuantileSketchConstructInterceptor sketchConstructInterceptor = new QuantileSketchConstructInterceptor();
+    private EnhancedInstance enhancedInstance = new QuantileSketchEnhance();
+
+    @Test
+    public void testConstruct() throws IllegalAccessException, NoSuchFieldException {
+        sketchConstructInterceptor.onConstruct(enhancedInstance, new Object[] {
+            new MeterId("test", MeterId.MeterType.QUANTILE_SKETCH, Arrays.asList(new MeterId.Tag("k1", "v1"))),
+            0.01d, 0.001d, 1e9d, 32
+        });
+
+        final MeterService service = ServiceManager.INSTANCE.findService(MeterService.class);
+        final Map<MeterId, BaseMeter> meterMap = FieldGetter.getValue(service, "meterMap");
+        Assert.assertEquals(1, meterMap.size());
+
+        final Object field = meterMap.values().iterator().next();
+        Assert.assertTrue(field instanceof QuantileSketch);
+        final QuantileSketch sketch = (QuantileSketch) field;
+        Assert.assertEquals("test", sketch.getId().getName());
+        Assert.assertEquals(MeterType.QUANTILE_SKETCH, sketch.getId().getType());
+        Assert.assertEquals(Arrays.asList(new MeterTag("k1", "v1")), sketch.getId().getTags());
+
+        sketch.addValue(10);
+        Assert.assertEquals(10, sketch.getValueAtQuantile(1), 0.1);
+    }
+
+    private static class QuantileSketchEnhance implements EnhancedInstance {
+        private Object data;
+
+        @Override
+        public Object getSkyWalkingDynamicField() {
+            return data;
+        }
+
+        @Override
+        public void setSkyWalkingDynamicField(Object value) {
+            this.data = value;
+        }
+    }
+}
@@ -26,16 +26,15 @@ import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
 import org.apache.skywalking.apm.plugin.trace.ignore.conf.IgnoreConfig;
 import org.apache.skywalking.apm.plugin.trace.ignore.conf.IgnoreConfigInitializer;
-import org.apache.skywalking.apm.plugin.trace.ignore.matcher.FastPathMatcher;
-import org.apache.skywalking.apm.plugin.trace.ignore.matcher.TracePathMatcher;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.CompiledPathMatcher;
 import org.apache.skywalking.apm.util.StringUtil;
 
 @OverrideImplementor(SamplingService.class)
 public class TraceIgnoreExtendService extends SamplingService {
     private static final ILog LOGGER = LogManager.getLogger(TraceIgnoreExtendService.class);
     private static final String PATTERN_SEPARATOR = ",";
-    private TracePathMatcher pathMatcher = new FastPathMatcher();
     private volatile String[] patterns = new String[] {};
+    private volatile CompiledPathMatcher pathMatcher = new CompiledPathMatcher(patterns, 0);
     private TraceIgnorePatternWatcher traceIgnorePatternWatcher;
 
     @Override
@@ -70,17 +69,28 @@ public class TraceIgnoreExtendService extends SamplingService {
 
     @Override
     public boolean trySampling(final String operationName) {
-        if (patterns.length > 0) {
-            for (String pattern : patterns) {
-                if (pathMatcher.match(pattern, operationName)) {
-                    LOGGER.debug("operationName : " + operationName + " Ignore tracking");
-                    return false;
-                }
+        if (patterns.length > 0 && operationName != null && getPathMatcher().match(operationName)) {
+            if (LOGGER.isDebugEnable()) {
+                LOGGER.debug("operationName : {} Ignore tracking", operationName);
             }
+            return false;
         }
         return super.trySampling(operationName);
     }
 
+    /**
+     * The matcher compiled from the current patterns, compiled again once the patterns changed.
+     */
+    private CompiledPathMatcher getPathMatcher() {
+        final String[] current = patterns;
+        CompiledPathMatcher matcher = pathMatcher;
+        if (matcher.getPatterns() != current) {
+            matcher = new CompiledPathMatcher(current, IgnoreConfig.Trace.DECISION_CACHE_SIZE);
+            pathMatcher = matcher;
+        }
+        return matcher;
+    }
+
     @Override
     public void forceSampled() {
         super.forceSampled();
@@ -92,5 +102,6 @@ public class TraceIgnoreExtendService extends SamplingService {
         } else {
             patterns = new String[] {};
         }
+        getPathMatcher();
     }
 }
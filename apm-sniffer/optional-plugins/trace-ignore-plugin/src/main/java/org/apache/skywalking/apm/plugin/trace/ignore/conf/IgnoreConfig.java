@@ -27,5 +27,10 @@ public class IgnoreConfig {
          * support multilevel directories
          */
         public static String IGNORE_PATH = "";
+
+        /**
+         * The max operation names whose ignore decisions are memoized, non-positive means no memoization
+         */
+        public static int DECISION_CACHE_SIZE = 1024;
     }
 }
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.trace.ignore.matcher;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Matches a path against all of the ignore patterns at once. The patterns are compiled into
+ * <ul>
+ *     <li>a set of the patterns without any wildcard, matched by one lookup,</li>
+ *     <li>a trie of the literal prefixes before the first wildcard, walked along the path once to find the candidate
+ *     patterns. A candidate is also filtered by the literal suffix after its last wildcard, and only then matched by
+ *     the {@link FastPathMatcher}, so the matching result is the same as trying the patterns one by one.</li>
+ * </ul>
+ * The recent decisions are memoized, a new matcher is compiled when the patterns change.
+ */
+public class CompiledPathMatcher {
+    private final TracePathMatcher pathMatcher = new FastPathMatcher();
+    private final String[] patterns;
+    private final Set<String> exactPatterns = new HashSet<>();
+    private final Node root = new Node();
+    private final int maxCachedDecisions;
+    private final Map<String, Boolean> decisions;
+
+    /**
+     * @param patterns           the ant-style patterns
+     * @param maxCachedDecisions the max memoized paths, the decisions are dropped once it is reached. Non-positive
+     *                           means no memoization.
+     */
+    public CompiledPathMatcher(String[] patterns, int maxCachedDecisions) {
+        this.patterns = patterns;
+        this.maxCachedDecisions = maxCachedDecisions;
+        this.decisions = maxCachedDecisions > 0 ? new ConcurrentHashMap<>() : null;
+
+        for (String pattern : patterns) {
+            final int firstWildcard = indexOfWildcard(pattern);
+            if (firstWildcard < 0) {
+                exactPatterns.add(pattern);
+                continue;
+            }
+            Node node = root;
+            for (int i = 0; i < firstWildcard; i++) {
+                node = node.children.computeIfAbsent(pattern.charAt(i), c -> new Node());
+            }
+            node.patterns.add(new CompiledPattern(pattern, literalSuffix(pattern)));
+        }
+    }
+
+    /**
+     * @return the patterns compiled
+     */
+    public String[] getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * @return true if any pattern matches the path
+     */
+    public boolean match(String path) {
+        if (decisions == null) {
+            return doMatch(path);
+        }
+        Boolean decision = decisions.get(path);
+        if (decision == null) {
+            decision = doMatch(path);
+            if (decisions.size() >= maxCachedDecisions) {
+                decisions.clear();
+            }
+            decisions.put(path, decision);
+        }
+        return decision;
+    }
+
+    private boolean doMatch(String path) {
+        if (exactPatterns.contains(path)) {
+            return true;
+        }
+        Node node = root;
+        int index = 0;
+        while (node != null) {
+            for (CompiledPattern pattern : node.patterns) {
+                if (path.endsWith(pattern.literalSuffix) && pathMatcher.match(pattern.pattern, path)) {
+                    return true;
+                }
+            }
+            if (index >= path.length()) {
+                break;
+            }
+            node = node.children.get(path.charAt(index++));
+        }
+        return false;
+    }
+
+    private static int indexOfWildcard(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            final char c = pattern.charAt(i);
+            if (c == '*' || c == '?') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The chars after the last wildcard, the path must end with them. The '/' right after '**' could match zero path
+     * part, so it is not a part of the suffix.
+     */
+    private static String literalSuffix(String pattern) {
+        for (int i = pattern.length() - 1; i >= 0; i--) {
+            final char c = pattern.charAt(i);
+            if (c == '*' || c == '?') {
+                if (c == '*' && i > 0 && pattern.charAt(i - 1) == '*' && i + 1 < pattern.length()
+                    && pattern.charAt(i + 1) == '/') {
+                    return pattern.substring(i + 2);
+                }
+                return pattern.substring(i + 1);
+            }
+        }
+        return pattern;
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final List<CompiledPattern> patterns = new ArrayList<>();
+    }
+
+    private static class CompiledPattern {
+        private final String pattern;
+        private final String literalSuffix;
+
+        private CompiledPattern(String pattern, String literalSuffix) {
+            this.pattern = pattern;
+            this.literalSuffix = literalSuffix;
+        }
+    }
+}
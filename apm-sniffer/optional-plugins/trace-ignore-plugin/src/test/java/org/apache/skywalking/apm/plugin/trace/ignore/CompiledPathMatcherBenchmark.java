@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.trace.ignore;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.CompiledPathMatcher;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.FastPathMatcher;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.TracePathMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Matches the operation names against 10, 100 and 1000 ignore patterns, comparing trying the patterns one by one with
+ * the {@link CompiledPathMatcher}, with and without the memoized decisions.
+ */
+@State(Scope.Benchmark)
+public class CompiledPathMatcherBenchmark {
+    private static final String[] OPERATION_NAMES = new String[] {
+        "/api/orders/list", "/api/users/profile", "/actuator/health", "/static/js/app.js", "/service-7/info", "/checkout"
+    };
+
+    @Param({"10", "100", "1000"})
+    private int patternCount;
+
+    private final TracePathMatcher pathMatcher = new FastPathMatcher();
+    private String[] patterns;
+    private CompiledPathMatcher compiledPathMatcher;
+    private CompiledPathMatcher memoizedPathMatcher;
+    private int index;
+
+    @Setup
+    public void setup() {
+        patterns = new String[patternCount];
+        patterns[0] = "/actuator/**";
+        patterns[1] = "/static/**/*.js";
+        for (int i = 2; i < patternCount; i++) {
+            // health checks, static assets and actuator endpoints of many services
+            switch (i % 3) {
+                case 0:
+                    patterns[i] = "/service-" + i + "/health";
+                    break;
+                case 1:
+                    patterns[i] = "/service-" + i + "/static/**";
+                    break;
+                default:
+                    patterns[i] = "/service-" + i + "/actuator/*";
+            }
+        }
+        compiledPathMatcher = new CompiledPathMatcher(patterns, 0);
+        memoizedPathMatcher = new CompiledPathMatcher(patterns, 1024);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public boolean oneByOne() {
+        final String operationName = nextOperationName();
+        for (String pattern : patterns) {
+            if (pathMatcher.match(pattern, operationName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public boolean compiled() {
+        return compiledPathMatcher.match(nextOperationName());
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public boolean compiledAndMemoized() {
+        return memoizedPathMatcher.match(nextOperationName());
+    }
+
+    private String nextOperationName() {
+        index = (index + 1) % OPERATION_NAMES.length;
+        return OPERATION_NAMES[index];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(CompiledPathMatcherBenchmark.class.getSimpleName())
+                                          .addProfiler(GCProfiler.class)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
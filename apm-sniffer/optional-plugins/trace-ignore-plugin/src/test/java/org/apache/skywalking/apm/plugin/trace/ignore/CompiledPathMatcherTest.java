@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.trace.ignore;
+
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.CompiledPathMatcher;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.FastPathMatcher;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.TracePathMatcher;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompiledPathMatcherTest {
+    private static final String[] PATTERNS = new String[] {
+        "/eureka/*", "/eureka/**", "/eureka/*/", "eureka/apps/?", "eureka/**/lists", "eureka/**/test/**",
+        "/eureka/**/b/**/*.txt", "abc/*", "/health", "**/*.js", "**/lists", "**/", "/static/?/*.css", "?"
+    };
+    private static final String[] PATHS = new String[] {
+        "/eureka/apps", "/eureka/", "/eureka/apps/", "/eureka/apps/list", "/eureka/test", "/eureka", "/eureka/apps/test/",
+        "eureka/apps/list", "eureka/apps/", "eureka/apps/a", "eureka/apps/lists", "eureka/apps/test/lists",
+        "eureka/lists", "eureka/xlists", "eureka/apps/test", "eureka/apps/foo/test/list/bar/", "eureka/test/list",
+        "/eureka/a/aa/aaa/b/bb/bbb/xxxxxx.txt", "/eureka/a/aa/aaa/b/bb/bbb/xxxxxx", "abc/foo/bar", "abc/foo",
+        "/health", "/health/", "/healthz", "/js/app.js", "app.js", "lists", "/", "", "/static/a/site.css",
+        "/static/ab/site.css", "a", "/consul/apps"
+    };
+
+    @Test
+    public void testSameAsMatchingOneByOne() {
+        final TracePathMatcher pathMatcher = new FastPathMatcher();
+        for (int size = 1; size <= PATTERNS.length; size++) {
+            final String[] patterns = new String[size];
+            System.arraycopy(PATTERNS, PATTERNS.length - size, patterns, 0, size);
+            final CompiledPathMatcher compiledPathMatcher = new CompiledPathMatcher(patterns, 0);
+
+            for (String path : PATHS) {
+                boolean expected = false;
+                for (String pattern : patterns) {
+                    expected |= pathMatcher.match(pattern, path);
+                }
+                Assert.assertEquals(String.join(",", patterns) + " : " + path, expected, compiledPathMatcher.match(path));
+            }
+        }
+    }
+
+    @Test
+    public void testMemoizedDecisions() {
+        final CompiledPathMatcher compiledPathMatcher = new CompiledPathMatcher(new String[] {"/eureka/**"}, 2);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(compiledPathMatcher.match("/eureka/apps"));
+            Assert.assertFalse(compiledPathMatcher.match("/consul/apps"));
+            Assert.assertFalse(compiledPathMatcher.match("/consul/apps/" + i));
+        }
+    }
+}
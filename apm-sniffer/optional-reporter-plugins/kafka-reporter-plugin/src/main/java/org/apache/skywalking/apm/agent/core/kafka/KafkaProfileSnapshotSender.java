@@ -18,7 +18,9 @@
 
 package org.apache.skywalking.apm.agent.core.kafka;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
@@ -58,8 +60,9 @@ public class KafkaProfileSnapshotSender extends ProfileSnapshotSender implements
         if (producer == null) {
             return;
         }
+        final Map<String, ThreadSnapshot> lastSnapshots = new HashMap<>();
         for (TracingThreadSnapshot snapshot : buffer) {
-            final ThreadSnapshot object = snapshot.transform();
+            final ThreadSnapshot object = snapshot.transform(lastSnapshots);
             if (LOGGER.isDebugEnable()) {
                 LOGGER.debug("Thread snapshot reporting, topic: {}, taskId: {}, sequence:{}, traceId: {}",
                              object.getTaskId(), object.getSequence(), object.getTraceSegmentId()
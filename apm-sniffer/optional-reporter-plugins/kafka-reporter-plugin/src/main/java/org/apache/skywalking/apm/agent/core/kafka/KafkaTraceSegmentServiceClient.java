@@ -29,14 +29,15 @@ import org.apache.skywalking.apm.agent.core.boot.OverrideImplementor;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.context.TracingContext;
 import org.apache.skywalking.apm.agent.core.context.TracingContextListener;
+import org.apache.skywalking.apm.agent.core.context.trace.SegmentObjectEncoder;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.remote.TraceSegmentServiceClient;
+import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
-import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.BUFFER_SIZE;
 import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.CHANNEL_SIZE;
@@ -88,7 +89,7 @@ public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<Tr
             return;
         }
         data.forEach(traceSegment -> {
-            SegmentObject upstreamSegment = traceSegment.transform();
+            SegmentObjectEncoder upstreamSegment = new SegmentObjectEncoder(traceSegment);
             ProducerRecord<String, Bytes> record = new ProducerRecord<>(
                 topic,
                 upstreamSegment.getTraceSegmentId(),
@@ -122,7 +123,9 @@ public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<Tr
             LOGGER.debug("Trace[TraceId={}] is ignored.", traceSegment.getTraceSegmentId());
             return;
         }
-        carrier.produce(traceSegment);
+        if (!carrier.produce(traceSegment)) {
+            AgentSo11y.measureSegmentUplinkAbandoned(1);
+        }
     }
 
     @Override